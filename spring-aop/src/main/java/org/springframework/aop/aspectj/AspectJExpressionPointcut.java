@@ -28,6 +28,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.aspectj.weaver.ast.Literal;
+import org.aspectj.weaver.patterns.ExposedState;
 import org.aspectj.weaver.patterns.NamePattern;
 import org.aspectj.weaver.reflect.ReflectionWorld.ReflectionWorldException;
 import org.aspectj.weaver.reflect.ShadowMatchImpl;
@@ -102,6 +104,14 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private static final Log logger = LogFactory.getLog(AspectJExpressionPointcut.class);
 
+	/**
+	 * Shared non-matching shadow for methods rejected by the prefilter: with a
+	 * literal residue, like AspectJ's own non-matching shadows, so that runtime
+	 * residue checks on it (e.g. for the proxy method's shadow) do not fail.
+	 */
+	private static final ShadowMatch NO_MATCH = new ShadowMatchImpl(
+			org.aspectj.util.FuzzyBoolean.NO, Literal.TRUE, new ExposedState(0), new PointcutParameter[0]);
+
 	@Nullable
 	private Class<?> pointcutDeclarationScope;
 
@@ -118,6 +128,12 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Nullable
 	private transient PointcutExpression pointcutExpression;
 
+	@Nullable
+	private transient ShadowMatchPrefilter shadowMatchPrefilter;
+
+	@Nullable
+	private transient Object sharedShadowMatchKey;
+
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
 
@@ -194,7 +210,15 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
-			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			PointcutExpression pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			ShadowMatchPrefilter prefilter =
+					ShadowMatchPrefilter.forPointcutExpression(pointcutExpression, this.pointcutClassLoader);
+			this.shadowMatchPrefilter = prefilter;
+			this.sharedShadowMatchKey = (prefilter.isContextIndependent() ?
+					Arrays.asList(resolveExpression(), this.pointcutDeclarationScope,
+							Arrays.asList(this.pointcutParameterNames), Arrays.asList(this.pointcutParameterTypes),
+							this.pointcutClassLoader) : null);
+			this.pointcutExpression = pointcutExpression;
 		}
 		return this.pointcutExpression;
 	}
@@ -431,11 +455,26 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		// Avoid lock contention for known Methods through concurrent access...
 		ShadowMatch shadowMatch = this.shadowMatchCache.get(targetMethod);
 		if (shadowMatch == null) {
+			// Cheap rejection based on name, parameter count and annotation constraints
+			ShadowMatchPrefilter prefilter = this.shadowMatchPrefilter;
+			if (prefilter != null && !prefilter.couldMatch(targetMethod) &&
+					(targetMethod == originalMethod || !prefilter.couldMatch(originalMethod))) {
+				return NO_MATCH;
+			}
+			Object sharedKey = (this.sharedShadowMatchKey != null ?
+					new SharedShadowMatchKey(this.sharedShadowMatchKey, targetMethod) : null);
 			synchronized (this.shadowMatchCache) {
 				// Not found - now check again with full lock...
 				PointcutExpression fallbackExpression = null;
 				Method methodToMatch = targetMethod;
 				shadowMatch = this.shadowMatchCache.get(targetMethod);
+				if (shadowMatch == null && sharedKey != null) {
+					// Evaluated by a pointcut with the same expression in another bean factory?
+					shadowMatch = ShadowMatchUtils.getShadowMatch(sharedKey);
+					if (shadowMatch != null) {
+						this.shadowMatchCache.put(targetMethod, shadowMatch);
+					}
+				}
 				if (shadowMatch == null) {
 					try {
 						try {
@@ -486,6 +525,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 						shadowMatch = new DefensiveShadowMatch(shadowMatch,
 								fallbackExpression.matchesMethodExecution(methodToMatch));
 					}
+					if (sharedKey != null) {
+						shadowMatch = ShadowMatchUtils.setShadowMatch(sharedKey, shadowMatch);
+					}
 					this.shadowMatchCache.put(targetMethod, shadowMatch);
 				}
 			}
@@ -652,6 +694,40 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	}
 
 
+	/**
+	 * Key for the {@link ShadowMatchUtils shared shadow match cache}, combining
+	 * the pointcut's expression and settings with the target method.
+	 */
+	private static final class SharedShadowMatchKey {
+
+		private final Object pointcutKey;
+
+		private final Method method;
+
+		public SharedShadowMatchKey(Object pointcutKey, Method method) {
+			this.pointcutKey = pointcutKey;
+			this.method = method;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof SharedShadowMatchKey)) {
+				return false;
+			}
+			SharedShadowMatchKey otherKey = (SharedShadowMatchKey) other;
+			return (this.method.equals(otherKey.method) && this.pointcutKey.equals(otherKey.pointcutKey));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.method.hashCode() * 31 + this.pointcutKey.hashCode());
+		}
+	}
+
+
 	private static class DefensiveShadowMatch implements ShadowMatch {
 
 		private final ShadowMatch primary;
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.function.Predicate;
+
+import org.aspectj.weaver.Shadow;
+import org.aspectj.weaver.internal.tools.PointcutDesignatorHandlerBasedPointcut;
+import org.aspectj.weaver.internal.tools.PointcutExpressionImpl;
+import org.aspectj.weaver.patterns.AndPointcut;
+import org.aspectj.weaver.patterns.AnnotationPointcut;
+import org.aspectj.weaver.patterns.AnnotationTypePattern;
+import org.aspectj.weaver.patterns.EllipsisTypePattern;
+import org.aspectj.weaver.patterns.ExactAnnotationTypePattern;
+import org.aspectj.weaver.patterns.KindedPointcut;
+import org.aspectj.weaver.patterns.NamePattern;
+import org.aspectj.weaver.patterns.NotPointcut;
+import org.aspectj.weaver.patterns.OrPointcut;
+import org.aspectj.weaver.patterns.Pointcut;
+import org.aspectj.weaver.patterns.SignaturePattern;
+import org.aspectj.weaver.patterns.TypePattern;
+import org.aspectj.weaver.tools.PointcutExpression;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Cheap pre-check for AspectJ method execution matching, derived from the
+ * parsed pointcut expression: method name patterns, exact parameter counts
+ * and required method annotations are evaluated against a given method
+ * before calling into the AspectJ weaver.
+ *
+ * <p>The pre-filter only ever rejects methods that the full AspectJ evaluation
+ * would reject as well; any construct that it does not understand (including
+ * negation, {@code within}, {@code args} and the {@code bean()} designator)
+ * is treated as a potential match.
+ *
+ * @since 5.1
+ * @see AspectJExpressionPointcut
+ */
+final class ShadowMatchPrefilter {
+
+	private final Predicate<Method> constraint;
+
+	private final boolean contextIndependent;
+
+
+	private ShadowMatchPrefilter(@Nullable Predicate<Method> constraint, boolean contextIndependent) {
+		this.constraint = (constraint != null ? constraint : method -> true);
+		this.contextIndependent = contextIndependent;
+	}
+
+
+	/**
+	 * Determine whether the given method could match the pointcut expression.
+	 * @param method the method to check
+	 * @return {@code false} if the method can definitely not match,
+	 * {@code true} if a full evaluation is necessary
+	 */
+	public boolean couldMatch(Method method) {
+		return this.constraint.test(method);
+	}
+
+	/**
+	 * Return whether the pointcut expression's matching outcome only depends
+	 * on the method (and not on any context such as the current bean name),
+	 * i.e. whether it is safe to share shadow matches with other pointcut
+	 * instances for the same expression.
+	 */
+	public boolean isContextIndependent() {
+		return this.contextIndependent;
+	}
+
+
+	/**
+	 * Build a pre-filter for the given pointcut expression.
+	 * @param pointcutExpression the parsed AspectJ pointcut expression
+	 * @param classLoader the ClassLoader to resolve annotation types with
+	 * @return the pre-filter (never {@code null}; accepting all methods
+	 * if the expression cannot be introspected)
+	 */
+	public static ShadowMatchPrefilter forPointcutExpression(
+			PointcutExpression pointcutExpression, @Nullable ClassLoader classLoader) {
+
+		if (pointcutExpression instanceof PointcutExpressionImpl) {
+			try {
+				Pointcut pointcut = ((PointcutExpressionImpl) pointcutExpression).getUnderlyingPointcut();
+				return new ShadowMatchPrefilter(buildConstraint(pointcut, classLoader), isContextIndependent(pointcut));
+			}
+			catch (Throwable ex) {
+				// Unexpected AspectJ internals - fall back to full evaluation
+			}
+		}
+		return new ShadowMatchPrefilter(null, false);
+	}
+
+	@Nullable
+	private static Predicate<Method> buildConstraint(Pointcut pointcut, @Nullable ClassLoader classLoader) {
+		if (pointcut instanceof AndPointcut) {
+			Predicate<Method> left = buildConstraint(((AndPointcut) pointcut).getLeft(), classLoader);
+			Predicate<Method> right = buildConstraint(((AndPointcut) pointcut).getRight(), classLoader);
+			return and(left, right);
+		}
+		else if (pointcut instanceof OrPointcut) {
+			Predicate<Method> left = buildConstraint(((OrPointcut) pointcut).getLeft(), classLoader);
+			Predicate<Method> right = buildConstraint(((OrPointcut) pointcut).getRight(), classLoader);
+			return (left != null && right != null ? left.or(right) : null);
+		}
+		else if (pointcut instanceof KindedPointcut) {
+			KindedPointcut kinded = (KindedPointcut) pointcut;
+			if (kinded.getKind() != Shadow.MethodExecution) {
+				return null;
+			}
+			return buildSignatureConstraint(kinded.getSignature(), classLoader);
+		}
+		else if (pointcut instanceof AnnotationPointcut) {
+			return buildAnnotationConstraint(((AnnotationPointcut) pointcut).getAnnotationTypePattern(), classLoader);
+		}
+		return null;
+	}
+
+	@Nullable
+	private static Predicate<Method> buildSignatureConstraint(
+			SignaturePattern signature, @Nullable ClassLoader classLoader) {
+
+		Predicate<Method> constraint = null;
+		NamePattern namePattern = signature.getName();
+		if (namePattern != null && !namePattern.isAny()) {
+			constraint = method -> namePattern.matches(method.getName());
+		}
+		if (signature.getParameterTypes() != null) {
+			TypePattern[] parameterPatterns = signature.getParameterTypes().getTypePatterns();
+			boolean fixedCount = true;
+			for (TypePattern parameterPattern : parameterPatterns) {
+				if (parameterPattern instanceof EllipsisTypePattern) {
+					fixedCount = false;
+					break;
+				}
+			}
+			if (fixedCount) {
+				int parameterCount = parameterPatterns.length;
+				constraint = and(constraint, method -> method.getParameterCount() == parameterCount);
+			}
+		}
+		return and(constraint, buildAnnotationConstraint(signature.getAnnotationPattern(), classLoader));
+	}
+
+	@Nullable
+	private static Predicate<Method> buildAnnotationConstraint(
+			@Nullable AnnotationTypePattern annotationPattern, @Nullable ClassLoader classLoader) {
+
+		if (!(annotationPattern instanceof ExactAnnotationTypePattern)) {
+			return null;
+		}
+		String annotationName = ((ExactAnnotationTypePattern) annotationPattern).getAnnotationType().getName();
+		try {
+			Retention retention = ClassUtils.forName(annotationName, classLoader).getAnnotation(Retention.class);
+			if (retention == null || retention.value() != RetentionPolicy.RUNTIME) {
+				// Not visible through reflection: AspectJ may still find it in the class file
+				return null;
+			}
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			return null;
+		}
+		return method -> {
+			for (Annotation ann : method.getDeclaredAnnotations()) {
+				if (ann.annotationType().getName().equals(annotationName)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
+	@Nullable
+	private static Predicate<Method> and(@Nullable Predicate<Method> left, @Nullable Predicate<Method> right) {
+		if (left == null) {
+			return right;
+		}
+		return (right != null ? left.and(right) : left);
+	}
+
+	private static boolean isContextIndependent(Pointcut pointcut) {
+		if (pointcut instanceof AndPointcut) {
+			return (isContextIndependent(((AndPointcut) pointcut).getLeft()) &&
+					isContextIndependent(((AndPointcut) pointcut).getRight()));
+		}
+		else if (pointcut instanceof OrPointcut) {
+			return (isContextIndependent(((OrPointcut) pointcut).getLeft()) &&
+					isContextIndependent(((OrPointcut) pointcut).getRight()));
+		}
+		else if (pointcut instanceof NotPointcut) {
+			return isContextIndependent(((NotPointcut) pointcut).getNegatedPointcut());
+		}
+		// Custom designators such as bean() match against the current proxy creation context
+		return !(pointcut instanceof PointcutDesignatorHandlerBasedPointcut);
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.util.Map;
+
+import org.aspectj.weaver.tools.ShadowMatch;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Internal {@link ShadowMatch} utilities: a cache shared across all
+ * {@link AspectJExpressionPointcut} instances with the same expression
+ * and settings, e.g. across the bean factories of several application
+ * contexts declaring the same aspects.
+ *
+ * <p>Entries are held through soft references: they may get reclaimed under
+ * memory pressure but otherwise keep the matched methods (and therefore their
+ * classes) reachable, so {@link #clearCache()} should be called when a class
+ * loader is being discarded, e.g. on redeployment.
+ *
+ * @since 5.1
+ */
+public abstract class ShadowMatchUtils {
+
+	private static final Map<Object, ShadowMatch> shadowMatchCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	/**
+	 * Find a shadow match for the specified key.
+	 * @param key the key to look up
+	 * @return the cached {@link ShadowMatch}, or {@code null} if none
+	 */
+	@Nullable
+	static ShadowMatch getShadowMatch(Object key) {
+		return shadowMatchCache.get(key);
+	}
+
+	/**
+	 * Store the given {@link ShadowMatch} for the specified key,
+	 * unless a shadow match is registered for that key already.
+	 * @param key the key to use
+	 * @param shadowMatch the shadow match to store
+	 * @return the shadow match to use for the specified key
+	 */
+	static ShadowMatch setShadowMatch(Object key, ShadowMatch shadowMatch) {
+		ShadowMatch existing = shadowMatchCache.putIfAbsent(key, shadowMatch);
+		return (existing != null ? existing : shadowMatch);
+	}
+
+	/**
+	 * Clear the shared cache of shadow matches,
+	 * e.g. when the application is being shut down.
+	 */
+	public static void clearCache() {
+		shadowMatchCache.clear();
+	}
+
+}
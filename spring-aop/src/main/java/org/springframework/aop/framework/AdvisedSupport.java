@@ -73,6 +73,9 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	/** Cache with Method as key and advisor chain List as value */
 	private transient Map<MethodCacheKey, List<Object>> methodCache;
 
+	/** Cache with Method as key and precompiled interceptor chain as value */
+	private transient Map<MethodCacheKey, PrecompiledInterceptorChain> precompiledChainCache;
+
 	/**
 	 * Interfaces to be implemented by the proxy. Held in List to keep the order
 	 * of registration, to create JDK proxy with specified order of interfaces.
@@ -97,6 +100,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 */
 	public AdvisedSupport() {
 		this.methodCache = new ConcurrentHashMap<>(32);
+		this.precompiledChainCache = new ConcurrentHashMap<>(32);
 	}
 
 	/**
@@ -479,11 +483,32 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 		return cached;
 	}
 
+	/**
+	 * Determine a {@link PrecompiledInterceptorChain} for the given method,
+	 * based on {@link #getInterceptorsAndDynamicInterceptionAdvice}.
+	 * @param method the proxied method
+	 * @param targetClass the target class
+	 * @return the precompiled chain (never {@code null})
+	 * @since 5.1
+	 * @see #setPrecompileInterceptorChains
+	 */
+	PrecompiledInterceptorChain getPrecompiledInterceptorChain(Method method, @Nullable Class<?> targetClass) {
+		MethodCacheKey cacheKey = new MethodCacheKey(method);
+		PrecompiledInterceptorChain cached = this.precompiledChainCache.get(cacheKey);
+		if (cached == null) {
+			cached = new PrecompiledInterceptorChain(
+					method, getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
+			this.precompiledChainCache.put(cacheKey, cached);
+		}
+		return cached;
+	}
+
 	/**
 	 * Invoked when advice has changed.
 	 */
 	protected void adviceChanged() {
 		this.methodCache.clear();
+		this.precompiledChainCache.clear();
 	}
 
 	/**
@@ -544,6 +569,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 
 		// Initialize transient fields.
 		this.methodCache = new ConcurrentHashMap<>(32);
+		this.precompiledChainCache = new ConcurrentHashMap<>(32);
 	}
 
 
@@ -44,6 +44,9 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class AopProxyUtils {
 
+	private static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
+
 	/**
 	 * Obtain the singleton target object behind the given proxy, if any.
 	 * @param candidate the (potential) proxy to check
@@ -222,7 +225,7 @@ public abstract class AopProxyUtils {
 	 */
 	static Object[] adaptArgumentsIfNecessary(Method method, @Nullable Object[] arguments) {
 		if (ObjectUtils.isEmpty(arguments)) {
-			return new Object[0];
+			return EMPTY_ARGUMENTS;
 		}
 		if (method.isVarArgs()) {
 			Class<?>[] paramTypes = method.getParameterTypes();
@@ -902,10 +902,17 @@ class CglibAopProxy implements AopProxy, Serializable {
 				target = targetSource.getTarget();
 				Class<?> targetClass = (target != null ? target.getClass() : null);
 				// 获取目标对象切面逻辑的环绕链
-				List<Object> chain = this.advised
-						.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+				PrecompiledInterceptorChain precompiledChain = (this.advised.isPrecompileInterceptorChains() ?
+						this.advised.getPrecompiledInterceptorChain(method, targetClass) : null);
+				List<Object> chain = (precompiledChain != null ? precompiledChain.getChain() :
+						this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
 				Object retVal;
-				if (chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
+				if (precompiledChain != null && !chain.isEmpty() && precompiledChain.getStaticInterceptors() != null) {
+					// Pre-resolved interceptor sequence without dynamic method matchers
+					retVal = new CglibPrecompiledMethodInvocation(
+							proxy, target, args, precompiledChain, methodProxy).proceed();
+				}
+				else if (chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
 					// 对参数进行处理，以使其与目标方法的参数类型一致，尤其对于数组类型，
 					// 会单独处理其数据类型与实际类型一致
 					Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
@@ -986,6 +993,40 @@ class CglibAopProxy implements AopProxy, Serializable {
 	}
 
 
+	/**
+	 * Precompiled variant of {@link CglibMethodInvocation}, for chains
+	 * without dynamic method matchers.
+	 */
+	private static class CglibPrecompiledMethodInvocation extends PrecompiledMethodInvocation {
+
+		private final MethodProxy methodProxy;
+
+		private final boolean publicMethod;
+
+		public CglibPrecompiledMethodInvocation(Object proxy, @Nullable Object target, Object[] arguments,
+				PrecompiledInterceptorChain chain, MethodProxy methodProxy) {
+
+			super(proxy, target, arguments, chain);
+			this.methodProxy = methodProxy;
+			this.publicMethod = chain.isPublicMethod();
+		}
+
+		/**
+		 * Gives a marginal performance improvement versus using reflection to
+		 * invoke the target when invoking public methods.
+		 */
+		@Override
+		protected Object invokeJoinpoint() throws Throwable {
+			if (this.publicMethod) {
+				return this.methodProxy.invoke(getThis(), getArguments());
+			}
+			else {
+				return super.invokeJoinpoint();
+			}
+		}
+	}
+
+
 	/**
 	 * CallbackFilter to assign Callbacks to methods.
 	 */
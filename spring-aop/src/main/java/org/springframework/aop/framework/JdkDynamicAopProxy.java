@@ -16,6 +16,7 @@
 
 package org.springframework.aop.framework;
 
+import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -226,20 +227,34 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			//=============chain interceptor chain 围绕这个方法 满足这一规则的，
 			// 假如这个方法配了前置通知，后置通知 ，环绕通知 ，异常通知，就组成了一个chain
 			//这个chain有执行顺序 ，即触发一个方法pointcut的时候 ，先执行before、pointcut 、after 、afterreturn 、afterthrow
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			PrecompiledInterceptorChain precompiledChain = (this.advised.isPrecompileInterceptorChains() ?
+					this.advised.getPrecompiledInterceptorChain(method, targetClass) : null);
+			List<Object> chain = (precompiledChain != null ? precompiledChain.getChain() :
+					this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
 			//如果没有可以应用到此方法的通知(Interceptor)，此直接反射调用 method.invoke(target, args)
 
 			//===========chain是空的，就不需要代理，调用自己
-			if (chain.isEmpty()) {
+			if (precompiledChain != null && !chain.isEmpty() && precompiledChain.getStaticInterceptors() != null) {
+				// Pre-resolved interceptor sequence without dynamic method matchers
+				retVal = new PrecompiledMethodInvocation(proxy, target, args, precompiledChain).proceed();
+			}
+			else if (chain.isEmpty()) {
 				// We can skip creating a MethodInvocation: just invoke the target directly
 				// Note that the final invoker must be an InvokerInterceptor so we know it does
 				// nothing but a reflective operation on the target, and no hot swapping or fancy proxying.
 				Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
 				retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
 			}
+			else if (this.advised.isLightweightInvocation() &&
+					chain.size() == 1 && chain.get(0) instanceof MethodInterceptor) {
+				// Single interceptor (e.g. transactional or caching proxy): no chain state to
+				// keep track of, so we can use a lightweight invocation without index and list.
+				retVal = SingleInterceptorMethodInvocation.invoke(
+						(MethodInterceptor) chain.get(0), proxy, target, method, args);
+			}
 			//==========chain不是空的
 			else {
 				// We need to create a method invocation...
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInterceptor;
+
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.lang.Nullable;
+
+/**
+ * Interceptor chain for a specific proxied method, with everything that
+ * does not vary per invocation resolved upfront: the bridged method, the
+ * need for argument adaptation, and - for a chain without dynamic method
+ * matchers - a plain array of interceptors to be run in sequence by a
+ * {@link PrecompiledMethodInvocation}.
+ *
+ * <p>Instances are cached by {@link AdvisedSupport} and used by the AOP proxies
+ * if {@link ProxyConfig#setPrecompileInterceptorChains precompiled interceptor
+ * chains} are enabled.
+ *
+ * @since 5.1
+ * @see AdvisedSupport#getPrecompiledInterceptorChain
+ */
+final class PrecompiledInterceptorChain {
+
+	private static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
+
+	private final Method method;
+
+	private final Method bridgedMethod;
+
+	private final boolean publicMethod;
+
+	private final boolean varArgs;
+
+	private final List<Object> chain;
+
+	@Nullable
+	private final MethodInterceptor[] staticInterceptors;
+
+
+	PrecompiledInterceptorChain(Method method, List<Object> chain) {
+		this.method = method;
+		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
+		this.publicMethod = Modifier.isPublic(method.getModifiers());
+		this.varArgs = method.isVarArgs();
+		this.chain = chain;
+		this.staticInterceptors = resolveStaticInterceptors(chain);
+	}
+
+	@Nullable
+	private static MethodInterceptor[] resolveStaticInterceptors(List<Object> chain) {
+		MethodInterceptor[] interceptors = new MethodInterceptor[chain.size()];
+		for (int i = 0; i < interceptors.length; i++) {
+			Object interceptor = chain.get(i);
+			if (!(interceptor instanceof MethodInterceptor)) {
+				// InterceptorAndDynamicMethodMatcher -> needs to go through the regular chain
+				return null;
+			}
+			interceptors[i] = (MethodInterceptor) interceptor;
+		}
+		return interceptors;
+	}
+
+	/**
+	 * Return the method as originally invoked on the proxy.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Return the bridged method, as exposed by {@link ReflectiveMethodInvocation}.
+	 */
+	public Method getBridgedMethod() {
+		return this.bridgedMethod;
+	}
+
+	/**
+	 * Return whether the method is public.
+	 */
+	public boolean isPublicMethod() {
+		return this.publicMethod;
+	}
+
+	/**
+	 * Return whether this chain does not contain any advice.
+	 */
+	public boolean isEmpty() {
+		return this.chain.isEmpty();
+	}
+
+	/**
+	 * Return the original list of interceptors and dynamic method matchers.
+	 */
+	public List<Object> getChain() {
+		return this.chain;
+	}
+
+	/**
+	 * Return the interceptors to run in sequence, or {@code null} if the chain
+	 * contains dynamic method matchers which need to be evaluated per invocation.
+	 */
+	@Nullable
+	public MethodInterceptor[] getStaticInterceptors() {
+		return this.staticInterceptors;
+	}
+
+	/**
+	 * Adapt the given arguments to the method, if necessary.
+	 * @see AopProxyUtils#adaptArgumentsIfNecessary
+	 */
+	public Object[] adaptArguments(@Nullable Object[] arguments) {
+		if (arguments == null || arguments.length == 0) {
+			return EMPTY_ARGUMENTS;
+		}
+		return (this.varArgs ? AopProxyUtils.adaptArgumentsIfNecessary(this.method, arguments) : arguments);
+	}
+
+}
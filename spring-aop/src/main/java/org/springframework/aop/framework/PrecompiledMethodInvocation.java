@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ProxyMethodInvocation} for a {@link PrecompiledInterceptorChain}
+ * without dynamic method matchers.
+ *
+ * <p>In contrast to {@link ReflectiveMethodInvocation}, the interceptors are
+ * taken from the pre-resolved array of the chain, without any interceptor list
+ * to copy or dynamic method matchers to check, and the bridged method and the
+ * adapted arguments are resolved once per chain rather than per invocation.
+ * The joinpoint is invoked via reflection, with the same exception translation
+ * as {@link AopUtils#invokeJoinpointUsingReflection}.
+ *
+ * <p>Only used if {@link ProxyConfig#setPrecompileInterceptorChains
+ * "precompileInterceptorChains"} is switched on, since it is not a
+ * {@code ReflectiveMethodInvocation}.
+ *
+ * @since 5.1
+ * @see JdkDynamicAopProxy
+ * @see CglibAopProxy
+ */
+class PrecompiledMethodInvocation implements ProxyMethodInvocation, Cloneable {
+
+	private final Object proxy;
+
+	@Nullable
+	private final Object target;
+
+	private final Method method;
+
+	private final MethodInterceptor[] interceptors;
+
+	private Object[] arguments;
+
+	/**
+	 * Index from 0 of the current interceptor we're invoking.
+	 * -1 until we invoke: then the current interceptor.
+	 */
+	private int currentInterceptorIndex = -1;
+
+	@Nullable
+	private Map<String, Object> userAttributes;
+
+
+	/**
+	 * Construct a new PrecompiledMethodInvocation.
+	 * @param proxy the proxy object that the invocation was made on
+	 * @param target the target object to invoke
+	 * @param arguments the arguments to invoke the method with
+	 * @param chain the precompiled chain for the invoked method, which must
+	 * not contain any dynamic method matchers
+	 */
+	PrecompiledMethodInvocation(Object proxy, @Nullable Object target, @Nullable Object[] arguments,
+			PrecompiledInterceptorChain chain) {
+
+		MethodInterceptor[] interceptors = chain.getStaticInterceptors();
+		Assert.notNull(interceptors, "Chain with dynamic method matchers not supported");
+		this.proxy = proxy;
+		this.target = target;
+		this.method = chain.getBridgedMethod();
+		this.interceptors = interceptors;
+		this.arguments = chain.adaptArguments(arguments);
+	}
+
+
+	@Override
+	public final Object getProxy() {
+		return this.proxy;
+	}
+
+	@Override
+	@Nullable
+	public final Object getThis() {
+		return this.target;
+	}
+
+	@Override
+	public final AccessibleObject getStaticPart() {
+		return this.method;
+	}
+
+	@Override
+	public final Method getMethod() {
+		return this.method;
+	}
+
+	@Override
+	public final Object[] getArguments() {
+		return this.arguments;
+	}
+
+	@Override
+	public void setArguments(Object... arguments) {
+		this.arguments = arguments;
+	}
+
+	@Override
+	@Nullable
+	public Object proceed() throws Throwable {
+		if (this.currentInterceptorIndex == this.interceptors.length - 1) {
+			return invokeJoinpoint();
+		}
+		return this.interceptors[++this.currentInterceptorIndex].invoke(this);
+	}
+
+	/**
+	 * Invoke the joinpoint using reflection.
+	 * Subclasses can override this to use custom invocation.
+	 * @return the return value of the joinpoint
+	 * @throws Throwable if invoking the joinpoint resulted in an exception
+	 */
+	@Nullable
+	protected Object invokeJoinpoint() throws Throwable {
+		return AopUtils.invokeJoinpointUsingReflection(this.target, this.method, this.arguments);
+	}
+
+	@Override
+	public MethodInvocation invocableClone() {
+		Object[] cloneArguments = this.arguments;
+		if (this.arguments.length > 0) {
+			// Build an independent copy of the arguments array.
+			cloneArguments = this.arguments.clone();
+		}
+		return invocableClone(cloneArguments);
+	}
+
+	@Override
+	public MethodInvocation invocableClone(Object... arguments) {
+		// Force initialization of the user attributes Map,
+		// for having a shared Map reference in the clone.
+		if (this.userAttributes == null) {
+			this.userAttributes = new HashMap<>();
+		}
+		try {
+			PrecompiledMethodInvocation clone = (PrecompiledMethodInvocation) clone();
+			clone.arguments = arguments;
+			return clone;
+		}
+		catch (CloneNotSupportedException ex) {
+			throw new IllegalStateException(
+					"Should be able to clone object of type [" + getClass() + "]: " + ex);
+		}
+	}
+
+	@Override
+	public void setUserAttribute(String key, @Nullable Object value) {
+		if (value != null) {
+			if (this.userAttributes == null) {
+				this.userAttributes = new HashMap<>();
+			}
+			this.userAttributes.put(key, value);
+		}
+		else {
+			if (this.userAttributes != null) {
+				this.userAttributes.remove(key);
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public Object getUserAttribute(String key) {
+		return (this.userAttributes != null ? this.userAttributes.get(key) : null);
+	}
+
+
+	@Override
+	public String toString() {
+		// Don't do toString on target, it may be proxied.
+		StringBuilder sb = new StringBuilder("PrecompiledMethodInvocation: ");
+		sb.append(this.method).append("; ");
+		if (this.target == null) {
+			sb.append("target is null");
+		}
+		else {
+			sb.append("target is of class [").append(this.target.getClass().getName()).append(']');
+		}
+		return sb.toString();
+	}
+
+}
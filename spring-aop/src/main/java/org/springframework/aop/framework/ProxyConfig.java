@@ -44,6 +44,10 @@ public class ProxyConfig implements Serializable {
 
 	private boolean frozen = false;
 
+	private boolean precompileInterceptorChains = false;
+
+	private boolean lightweightInvocation = false;
+
 
 	/**
 	 * Set whether to proxy the target class directly, instead of just proxying
@@ -147,6 +151,55 @@ public class ProxyConfig implements Serializable {
 	}
 
 
+	/**
+	 * Set whether proxies should use precompiled interceptor chains per method.
+	 * Default is "false".
+	 * <p>If "true", everything about a method's interceptor chain that does not
+	 * vary per invocation is resolved once: interceptors without dynamic method
+	 * matchers get invoked in sequence from a plain array by a dedicated
+	 * invocation that is not a {@link ReflectiveMethodInvocation}, with the
+	 * bridged method and argument adaptation determined upfront. This trades
+	 * some memory per proxied method for lower per-invocation overhead on
+	 * heavily used proxies.
+	 * @since 5.1
+	 */
+	public void setPrecompileInterceptorChains(boolean precompileInterceptorChains) {
+		this.precompileInterceptorChains = precompileInterceptorChains;
+	}
+
+	/**
+	 * Return whether proxies should use precompiled interceptor chains per method.
+	 * @since 5.1
+	 */
+	public boolean isPrecompileInterceptorChains() {
+		return this.precompileInterceptorChains;
+	}
+
+	/**
+	 * Set whether JDK proxies may invoke a chain that consists of a single
+	 * {@link org.aopalliance.intercept.MethodInterceptor} (e.g. a transactional
+	 * or caching proxy) with a lightweight invocation object. Default is "false".
+	 * <p>If "true", such an interceptor receives a minimal
+	 * {@link org.springframework.aop.ProxyMethodInvocation} instead of a
+	 * {@link ReflectiveMethodInvocation}, saving the chain state per call.
+	 * Only switch this on if the interceptor does not depend on receiving a
+	 * {@code ReflectiveMethodInvocation}, e.g. for its user attributes Map.
+	 * @since 5.1
+	 */
+	public void setLightweightInvocation(boolean lightweightInvocation) {
+		this.lightweightInvocation = lightweightInvocation;
+	}
+
+	/**
+	 * Return whether JDK proxies may invoke a single interceptor
+	 * with a lightweight invocation object.
+	 * @since 5.1
+	 */
+	public boolean isLightweightInvocation() {
+		return this.lightweightInvocation;
+	}
+
+
 	/**
 	 * Copy configuration from the other config object.
 	 * @param other object to copy configuration from
@@ -158,6 +211,8 @@ public class ProxyConfig implements Serializable {
 		this.exposeProxy = other.exposeProxy;
 		this.frozen = other.frozen;
 		this.opaque = other.opaque;
+		this.precompileInterceptorChains = other.precompileInterceptorChains;
+		this.lightweightInvocation = other.lightweightInvocation;
 	}
 
 	@Override
@@ -167,7 +222,9 @@ public class ProxyConfig implements Serializable {
 		sb.append("optimize=").append(this.optimize).append("; ");
 		sb.append("opaque=").append(this.opaque).append("; ");
 		sb.append("exposeProxy=").append(this.exposeProxy).append("; ");
-		sb.append("frozen=").append(this.frozen);
+		sb.append("frozen=").append(this.frozen).append("; ");
+		sb.append("precompileInterceptorChains=").append(this.precompileInterceptorChains).append("; ");
+		sb.append("lightweightInvocation=").append(this.lightweightInvocation);
 		return sb.toString();
 	}
 
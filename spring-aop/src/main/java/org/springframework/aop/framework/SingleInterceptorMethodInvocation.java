@@ -0,0 +1,200 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.lang.Nullable;
+
+/**
+ * Lightweight {@link ProxyMethodInvocation} for a chain that consists of a
+ * single {@link MethodInterceptor}, as is common for transactional, caching
+ * or asynchronous proxies.
+ *
+ * <p>In contrast to {@link ReflectiveMethodInvocation}, there is no interceptor
+ * list and no index to keep track of: {@link #proceed()} always invokes the
+ * joinpoint. The invocation only holds the references passed in, with user
+ * attributes initialized on demand, which makes it a good candidate for
+ * escape analysis when the interceptor does not hold on to it.
+ *
+ * <p>Only used if {@link ProxyConfig#setLightweightInvocation "lightweightInvocation"}
+ * is switched on, since it is not a {@code ReflectiveMethodInvocation}.
+ *
+ * @since 5.1
+ * @see JdkDynamicAopProxy
+ */
+final class SingleInterceptorMethodInvocation implements ProxyMethodInvocation, Cloneable {
+
+	private final Object proxy;
+
+	@Nullable
+	private final Object target;
+
+	private final Method method;
+
+	private Object[] arguments;
+
+	@Nullable
+	private Map<String, Object> userAttributes;
+
+
+	/**
+	 * Construct a new SingleInterceptorMethodInvocation.
+	 * @param proxy the proxy object that the invocation was made on
+	 * @param target the target object to invoke
+	 * @param method the method to invoke
+	 * @param arguments the arguments to invoke the method with
+	 */
+	SingleInterceptorMethodInvocation(
+			Object proxy, @Nullable Object target, Method method, @Nullable Object[] arguments) {
+
+		this.proxy = proxy;
+		this.target = target;
+		this.method = BridgeMethodResolver.findBridgedMethod(method);
+		this.arguments = AopProxyUtils.adaptArgumentsIfNecessary(method, arguments);
+	}
+
+
+	/**
+	 * Invoke the given interceptor with a new invocation for the specified method.
+	 * @param interceptor the only interceptor in the chain
+	 * @param proxy the proxy object that the invocation was made on
+	 * @param target the target object to invoke
+	 * @param method the method to invoke
+	 * @param arguments the arguments to invoke the method with
+	 * @return the return value of the interceptor
+	 * @throws Throwable if thrown by the interceptor or the joinpoint
+	 */
+	@Nullable
+	static Object invoke(MethodInterceptor interceptor, Object proxy, @Nullable Object target,
+			Method method, @Nullable Object[] arguments) throws Throwable {
+
+		return interceptor.invoke(new SingleInterceptorMethodInvocation(proxy, target, method, arguments));
+	}
+
+
+	@Override
+	public Object getProxy() {
+		return this.proxy;
+	}
+
+	@Override
+	@Nullable
+	public Object getThis() {
+		return this.target;
+	}
+
+	@Override
+	public AccessibleObject getStaticPart() {
+		return this.method;
+	}
+
+	@Override
+	public Method getMethod() {
+		return this.method;
+	}
+
+	@Override
+	public Object[] getArguments() {
+		return this.arguments;
+	}
+
+	@Override
+	public void setArguments(Object... arguments) {
+		this.arguments = arguments;
+	}
+
+	@Override
+	@Nullable
+	public Object proceed() throws Throwable {
+		return AopUtils.invokeJoinpointUsingReflection(this.target, this.method, this.arguments);
+	}
+
+	@Override
+	public MethodInvocation invocableClone() {
+		Object[] cloneArguments = this.arguments;
+		if (this.arguments.length > 0) {
+			// Build an independent copy of the arguments array.
+			cloneArguments = this.arguments.clone();
+		}
+		return invocableClone(cloneArguments);
+	}
+
+	@Override
+	public MethodInvocation invocableClone(Object... arguments) {
+		// Force initialization of the user attributes Map,
+		// for having a shared Map reference in the clone.
+		if (this.userAttributes == null) {
+			this.userAttributes = new HashMap<>();
+		}
+		try {
+			SingleInterceptorMethodInvocation clone = (SingleInterceptorMethodInvocation) clone();
+			clone.arguments = arguments;
+			return clone;
+		}
+		catch (CloneNotSupportedException ex) {
+			throw new IllegalStateException(
+					"Should be able to clone object of type [" + getClass() + "]: " + ex);
+		}
+	}
+
+	@Override
+	public void setUserAttribute(String key, @Nullable Object value) {
+		if (value != null) {
+			if (this.userAttributes == null) {
+				this.userAttributes = new HashMap<>();
+			}
+			this.userAttributes.put(key, value);
+		}
+		else {
+			if (this.userAttributes != null) {
+				this.userAttributes.remove(key);
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public Object getUserAttribute(String key) {
+		return (this.userAttributes != null ? this.userAttributes.get(key) : null);
+	}
+
+
+	@Override
+	public String toString() {
+		// Don't do toString on target, it may be proxied.
+		StringBuilder sb = new StringBuilder("SingleInterceptorMethodInvocation: ");
+		sb.append(this.method).append("; ");
+		if (this.target == null) {
+			sb.append("target is null");
+		}
+		else {
+			sb.append("target is of class [").append(this.target.getClass().getName()).append(']');
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.support.AopUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ShadowMatchPrefilter} and the shared shadow match cache
+ * used by {@link AspectJExpressionPointcut}.
+ */
+public class ShadowMatchPrefilterTests {
+
+	private static final String PREFIX = "org.springframework.aop.aspectj.ShadowMatchPrefilterTests.";
+
+
+	@After
+	public void clearCache() {
+		ShadowMatchUtils.clearCache();
+	}
+
+
+	@Test
+	public void nameConstraint() throws Exception {
+		ShadowMatchPrefilter prefilter = prefilter("execution(* set*(..))");
+		assertTrue(prefilter.couldMatch(method("setName")));
+		assertFalse(prefilter.couldMatch(method("getName")));
+		assertTrue(prefilter.isContextIndependent());
+	}
+
+	@Test
+	public void parameterCountConstraint() throws Exception {
+		ShadowMatchPrefilter prefilter = prefilter("execution(* *(String))");
+		assertTrue(prefilter.couldMatch(method("setName")));
+		assertFalse(prefilter.couldMatch(method("getName")));
+
+		prefilter = prefilter("execution(* *(String, ..))");
+		assertTrue(prefilter.couldMatch(method("setName")));
+		assertTrue(prefilter.couldMatch(method("getName")));
+	}
+
+	@Test
+	public void annotationConstraint() throws Exception {
+		ShadowMatchPrefilter prefilter = prefilter("@annotation(" + PREFIX + "RuntimeMarker)");
+		assertTrue(prefilter.couldMatch(method("getName")));
+		assertFalse(prefilter.couldMatch(method("setName")));
+
+		prefilter = prefilter("execution(@" + PREFIX + "RuntimeMarker * *(..))");
+		assertTrue(prefilter.couldMatch(method("getName")));
+		assertFalse(prefilter.couldMatch(method("setName")));
+	}
+
+	@Test
+	public void classRetentionAnnotationNotFiltered() throws Exception {
+		ShadowMatchPrefilter prefilter = prefilter("@annotation(" + PREFIX + "ClassMarker)");
+		assertTrue(prefilter.couldMatch(method("setName")));
+	}
+
+	@Test
+	public void combinedConstraints() throws Exception {
+		ShadowMatchPrefilter prefilter = prefilter("execution(* get*(..)) && args()");
+		assertTrue(prefilter.couldMatch(method("getName")));
+		assertFalse(prefilter.couldMatch(method("setName")));
+
+		prefilter = prefilter("execution(* get*(..)) || execution(* set*(..))");
+		assertTrue(prefilter.couldMatch(method("getName")));
+		assertTrue(prefilter.couldMatch(method("setName")));
+		assertFalse(prefilter.couldMatch(method("reset")));
+
+		prefilter = prefilter("execution(* get*(..)) || within(" + PREFIX + "Target)");
+		assertTrue(prefilter.couldMatch(method("reset")));
+	}
+
+	@Test
+	public void negationNotFiltered() throws Exception {
+		ShadowMatchPrefilter prefilter = prefilter("!execution(* get*(..))");
+		assertTrue(prefilter.couldMatch(method("setName")));
+		assertTrue(prefilter.couldMatch(method("getName")));
+	}
+
+	@Test
+	public void beanDesignatorIsContextDependent() {
+		assertFalse(prefilter("execution(* *(..)) && bean(target)").isContextIndependent());
+		assertFalse(prefilter("!bean(target)").isContextIndependent());
+		assertTrue(prefilter("execution(* *(..)) && within(" + PREFIX + "Target)").isContextIndependent());
+	}
+
+	@Test
+	public void matchingWithSharedShadowMatches() throws Exception {
+		AspectJExpressionPointcut pc1 = pointcut("execution(* get*(..)) && @annotation(" + PREFIX + "RuntimeMarker)");
+		AspectJExpressionPointcut pc2 = pointcut("execution(* get*(..)) && @annotation(" + PREFIX + "RuntimeMarker)");
+		for (AspectJExpressionPointcut pc : new AspectJExpressionPointcut[] {pc1, pc2}) {
+			assertTrue(pc.matches(method("getName"), Target.class));
+			assertFalse(pc.matches(method("getAge"), Target.class));
+			assertFalse(pc.matches(method("setName"), Target.class));
+			assertFalse(pc.matches(method("reset"), Target.class));
+		}
+	}
+
+
+	@Test
+	public void annotationBindingOnImplementationThroughJdkProxy() {
+		AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Target());
+		proxyFactory.addInterface(Named.class);
+		MarkerAspect aspect = new MarkerAspect();
+		proxyFactory.addAspect(aspect);
+		Named proxy = proxyFactory.getProxy();
+
+		assertTrue(AopUtils.isJdkDynamicProxy(proxy));
+		assertEquals("advised name", proxy.getName());
+		assertEquals(1, aspect.count);
+	}
+
+
+	private static ShadowMatchPrefilter prefilter(String expression) {
+		return ShadowMatchPrefilter.forPointcutExpression(
+				pointcut(expression).getPointcutExpression(), ShadowMatchPrefilterTests.class.getClassLoader());
+	}
+
+	private static AspectJExpressionPointcut pointcut(String expression) {
+		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression(expression);
+		return pointcut;
+	}
+
+	private static Method method(String name) throws NoSuchMethodException {
+		for (Method method : Target.class.getMethods()) {
+			if (method.getName().equals(name)) {
+				return method;
+			}
+		}
+		throw new NoSuchMethodException(name);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface RuntimeMarker {
+	}
+
+
+	@Retention(RetentionPolicy.CLASS)
+	public @interface ClassMarker {
+	}
+
+
+	public interface Named {
+
+		String getName();
+	}
+
+
+	@Aspect
+	public static class MarkerAspect {
+
+		int count;
+
+		@Around("@annotation(marker)")
+		public Object advise(ProceedingJoinPoint pjp, RuntimeMarker marker) throws Throwable {
+			this.count++;
+			return "advised " + pjp.proceed();
+		}
+	}
+
+
+	public static class Target implements Named {
+
+		@RuntimeMarker
+		public String getName() {
+			return "name";
+		}
+
+		public int getAge() {
+			return 0;
+		}
+
+		@ClassMarker
+		public void setName(String name) {
+		}
+
+		public void reset() {
+		}
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.Test;
+
+import org.springframework.aop.AopInvocationException;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.DynamicMethodMatcherPointcut;
+import org.springframework.tests.aop.advice.CountingBeforeAdvice;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for proxies with {@link ProxyConfig#setPrecompileInterceptorChains
+ * precompiled interceptor chains}.
+ */
+public class PrecompiledInterceptorChainTests {
+
+	@Test
+	public void jdkProxyWithStaticChain() {
+		staticChain(false);
+	}
+
+	@Test
+	public void cglibProxyWithStaticChain() {
+		staticChain(true);
+	}
+
+	private void staticChain(boolean proxyTargetClass) {
+		ProxyFactory pf = createProxyFactory(proxyTargetClass);
+		NopInterceptor nop = new NopInterceptor();
+		CountingBeforeAdvice before = new CountingBeforeAdvice();
+		pf.addAdvice(nop);
+		pf.addAdvice(before);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		assertEquals(proxyTargetClass, AopUtils.isCglibProxy(proxy));
+
+		proxy.setAge(35);
+		assertEquals(35, proxy.getAge());
+		assertEquals(2, nop.getCount());
+		assertEquals(2, before.getCalls());
+	}
+
+	@Test
+	public void jdkProxyWithStaticChainUsesPrecompiledInvocation() throws Throwable {
+		precompiledInvocation(false);
+	}
+
+	@Test
+	public void cglibProxyWithStaticChainUsesPrecompiledInvocation() throws Throwable {
+		precompiledInvocation(true);
+	}
+
+	private void precompiledInvocation(boolean proxyTargetClass) throws Throwable {
+		ProxyFactory pf = createProxyFactory(proxyTargetClass);
+		pf.addAdvice((MethodInterceptor) invocation -> {
+			assertTrue(invocation instanceof PrecompiledMethodInvocation);
+			assertEquals("exceptional", invocation.getMethod().getName());
+			return invocation.proceed();
+		});
+		pf.addAdvice(new NopInterceptor());
+		ITestBean proxy = (ITestBean) pf.getProxy();
+
+		IOException ex = new IOException();
+		try {
+			proxy.exceptional(ex);
+			fail("Should have thrown IOException");
+		}
+		catch (IOException actual) {
+			assertSame(ex, actual);
+		}
+	}
+
+	@Test
+	public void jdkProxyWithStaticChainTranslatesReflectionFailure() {
+		ProxyFactory pf = createProxyFactory(false);
+		pf.addAdvice((MethodInterceptor) invocation -> {
+			invocation.getArguments()[0] = "not an int";
+			return invocation.proceed();
+		});
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		try {
+			proxy.setAge(1);
+			fail("Should have thrown AopInvocationException");
+		}
+		catch (AopInvocationException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void jdkProxyWithDynamicMethodMatcher() {
+		dynamicMethodMatcher(false);
+	}
+
+	@Test
+	public void cglibProxyWithDynamicMethodMatcher() {
+		dynamicMethodMatcher(true);
+	}
+
+	private void dynamicMethodMatcher(boolean proxyTargetClass) {
+		ProxyFactory pf = createProxyFactory(proxyTargetClass);
+		NopInterceptor nop = new NopInterceptor();
+		pf.addAdvisor(new DefaultPointcutAdvisor(new DynamicMethodMatcherPointcut() {
+			@Override
+			public boolean matches(Method method, Class<?> targetClass, Object... args) {
+				return (args.length == 1 && Integer.valueOf(5).equals(args[0]));
+			}
+		}, nop));
+		ITestBean proxy = (ITestBean) pf.getProxy();
+
+		proxy.setAge(4);
+		assertEquals(0, nop.getCount());
+		proxy.setAge(5);
+		assertEquals(1, nop.getCount());
+		assertEquals(5, proxy.getAge());
+		assertEquals(1, nop.getCount());
+	}
+
+	@Test
+	public void jdkProxyWithoutAdvice() throws Throwable {
+		withoutAdvice(false);
+	}
+
+	@Test
+	public void cglibProxyWithoutAdvice() throws Throwable {
+		withoutAdvice(true);
+	}
+
+	private void withoutAdvice(boolean proxyTargetClass) throws Throwable {
+		ITestBean proxy = (ITestBean) createProxyFactory(proxyTargetClass).getProxy();
+		proxy.setName("name");
+		assertEquals("name", proxy.getName());
+		proxy.setStringArray(new String[] {"a", "b"});
+		assertArrayEquals(new String[] {"a", "b"}, proxy.getStringArray());
+
+		IOException ex = new IOException();
+		try {
+			proxy.exceptional(ex);
+			fail("Should have thrown IOException");
+		}
+		catch (IOException actual) {
+			assertSame(ex, actual);
+		}
+	}
+
+	@Test
+	public void adviceChangeAfterInvocation() {
+		ProxyFactory pf = createProxyFactory(false);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		proxy.setAge(1);
+
+		NopInterceptor nop = new NopInterceptor();
+		((Advised) proxy).addAdvice(nop);
+		proxy.setAge(2);
+		assertEquals(2, proxy.getAge());
+		assertEquals(2, nop.getCount());
+
+		((Advised) proxy).removeAdvice(nop);
+		proxy.setAge(3);
+		assertEquals(2, nop.getCount());
+	}
+
+	@Test
+	public void copiedConfiguration() {
+		ProxyFactory pf = createProxyFactory(false);
+		ProxyFactory copy = new ProxyFactory();
+		copy.copyFrom(pf);
+		assertTrue(copy.isPrecompileInterceptorChains());
+	}
+
+
+	private static ProxyFactory createProxyFactory(boolean proxyTargetClass) {
+		ProxyFactory pf = new ProxyFactory(new TestBean());
+		pf.setProxyTargetClass(proxyTargetClass);
+		pf.setPrecompileInterceptorChains(true);
+		return pf;
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Assume;
+import org.junit.Test;
+
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for JDK proxies with a single interceptor,
+ * as invoked through {@link SingleInterceptorMethodInvocation}.
+ */
+public class SingleInterceptorMethodInvocationTests {
+
+	@Test
+	public void invocationState() throws Throwable {
+		TestBean target = new TestBean();
+		AtomicReference<MethodInvocation> invocation = new AtomicReference<>();
+		ITestBean proxy = createProxy(target, mi -> {
+			invocation.set(mi);
+			return mi.proceed();
+		});
+
+		proxy.setName("name");
+		assertEquals("name", target.getName());
+		assertTrue(invocation.get() instanceof SingleInterceptorMethodInvocation);
+		assertSame(target, invocation.get().getThis());
+		assertSame(proxy, ((ProxyMethodInvocation) invocation.get()).getProxy());
+		assertEquals(ITestBean.class.getMethod("setName", String.class), invocation.get().getMethod());
+		assertArrayEquals(new Object[] {"name"}, invocation.get().getArguments());
+
+		assertEquals("name", proxy.getName());
+		assertEquals(0, invocation.get().getArguments().length);
+	}
+
+	@Test
+	public void replacedArguments() {
+		TestBean target = new TestBean();
+		ITestBean proxy = createProxy(target, mi -> {
+			((ProxyMethodInvocation) mi).setArguments("replaced");
+			return mi.proceed();
+		});
+
+		proxy.setName("name");
+		assertEquals("replaced", target.getName());
+	}
+
+	@Test
+	public void invocableClone() {
+		TestBean target = new TestBean();
+		ITestBean proxy = createProxy(target, mi -> {
+			ProxyMethodInvocation pmi = (ProxyMethodInvocation) mi;
+			pmi.setUserAttribute("key", "value");
+			MethodInvocation clone = pmi.invocableClone(5);
+			assertEquals("value", ((ProxyMethodInvocation) clone).getUserAttribute("key"));
+			clone.proceed();
+			assertEquals(5, target.getAge());
+			return mi.proceed();
+		});
+
+		proxy.setAge(10);
+		assertEquals(10, target.getAge());
+	}
+
+	@Test
+	public void userAttributes() {
+		ITestBean proxy = createProxy(new TestBean(), mi -> {
+			ProxyMethodInvocation pmi = (ProxyMethodInvocation) mi;
+			assertNull(pmi.getUserAttribute("key"));
+			pmi.setUserAttribute("key", "value");
+			assertEquals("value", pmi.getUserAttribute("key"));
+			pmi.setUserAttribute("key", null);
+			assertNull(pmi.getUserAttribute("key"));
+			return mi.proceed();
+		});
+
+		proxy.getAge();
+	}
+
+	@Test
+	public void exceptionFromTarget() throws Throwable {
+		NopInterceptor nop = new NopInterceptor();
+		ITestBean proxy = createProxy(new TestBean(), nop);
+		IOException ex = new IOException();
+		try {
+			proxy.exceptional(ex);
+			fail("Should have thrown IOException");
+		}
+		catch (IOException actual) {
+			assertSame(ex, actual);
+		}
+		assertEquals(1, nop.getCount());
+	}
+
+
+	@Test
+	public void reflectiveInvocationByDefault() {
+		AtomicReference<MethodInvocation> invocation = new AtomicReference<>();
+		ProxyFactory pf = new ProxyFactory(new TestBean());
+		pf.addAdvice((MethodInterceptor) mi -> {
+			invocation.set(mi);
+			return mi.proceed();
+		});
+		((ITestBean) pf.getProxy()).getAge();
+		assertTrue(invocation.get() instanceof ReflectiveMethodInvocation);
+	}
+
+	@Test
+	public void allocatesLessThanReflectiveInvocation() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean &&
+				((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported());
+		ITestBean reflective = createProxy(new TestBean(), new NopInterceptor(), false);
+		ITestBean lightweight = createProxy(new TestBean(), new NopInterceptor(), true);
+
+		// Alternate between both code paths, taking the minimum per path
+		// in order to factor out warm-up and JIT compilation effects
+		long reflectiveBytes = Long.MAX_VALUE;
+		long lightweightBytes = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			reflectiveBytes = Math.min(reflectiveBytes, allocatedBytes(reflective));
+			lightweightBytes = Math.min(lightweightBytes, allocatedBytes(lightweight));
+		}
+		assertTrue("Lightweight invocation allocated " + lightweightBytes +
+				" bytes, reflective invocation " + reflectiveBytes + " bytes",
+				lightweightBytes < reflectiveBytes);
+	}
+
+
+	private static long allocatedBytes(ITestBean proxy) {
+		com.sun.management.ThreadMXBean threadBean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < 100000; i++) {
+			proxy.getAge();
+		}
+		return threadBean.getThreadAllocatedBytes(threadId) - before;
+	}
+
+	private static ITestBean createProxy(TestBean target, MethodInterceptor interceptor) {
+		return createProxy(target, interceptor, true);
+	}
+
+	private static ITestBean createProxy(TestBean target, MethodInterceptor interceptor, boolean lightweight) {
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvice(interceptor);
+		pf.setLightweightInvocation(lightweight);
+		return (ITestBean) pf.getProxy();
+	}
+
+}
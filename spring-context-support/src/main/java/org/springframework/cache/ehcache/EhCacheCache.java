@@ -16,6 +16,11 @@
 
 package org.springframework.cache.ehcache;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import net.sf.ehcache.Ehcache;
@@ -132,6 +137,28 @@ public class EhCacheCache implements Cache {
 		return toValueWrapper(existingElement);
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Element> elements = this.cache.getAll(keys);
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(elements.size());
+		for (Map.Entry<Object, Element> entry : elements.entrySet()) {
+			ValueWrapper wrapper = toValueWrapper(entry.getValue());
+			if (wrapper != null) {
+				result.put(entry.getKey(), wrapper);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		List<Element> elements = new ArrayList<>(entries.size());
+		for (Map.Entry<?, ?> entry : entries.entrySet()) {
+			elements.add(new Element(entry.getKey(), entry.getValue()));
+		}
+		this.cache.putAll(elements);
+	}
+
 	@Override
 	public void evict(Object key) {
 		this.cache.remove(key);
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheInvalidationChannel} which broadcasts invalidations as
+ * {@link CacheInvalidationEvent CacheInvalidationEvents} through the
+ * {@link ApplicationEventPublisher} of the containing application context,
+ * and dispatches all {@code CacheInvalidationEvents} received from the
+ * context to its subscribers.
+ *
+ * <p>This allows for bridging invalidations to a messaging system with
+ * plain application listeners: a listener for {@code CacheInvalidationEvent}
+ * may forward local invalidations, while a message consumer may publish
+ * remote invalidations as events (with a different origin) into the context.
+ * Note that with a hierarchy of application contexts, events published in a
+ * child context are propagated to this channel in the parent context as well.
+ *
+ * @since 5.1
+ */
+public class ApplicationEventCacheInvalidationChannel extends SimpleCacheInvalidationChannel
+		implements ApplicationEventPublisherAware, ApplicationListener<CacheInvalidationEvent> {
+
+	@Nullable
+	private ApplicationEventPublisher applicationEventPublisher;
+
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
+
+	@Override
+	public void publish(CacheInvalidationEvent event) {
+		Assert.state(this.applicationEventPublisher != null, "No ApplicationEventPublisher set");
+		this.applicationEventPublisher.publishEvent(event);
+	}
+
+	@Override
+	public void onApplicationEvent(CacheInvalidationEvent event) {
+		super.publish(event);
+	}
+
+}
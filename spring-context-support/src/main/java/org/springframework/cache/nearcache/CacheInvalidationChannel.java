@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import java.util.function.Consumer;
+
+/**
+ * Strategy interface for propagating invalidations of near cache entries
+ * across all {@link NearCacheDecorator} instances for the same cache,
+ * e.g. within the same JVM or across a cluster through a messaging system.
+ *
+ * <p>Implementations are expected to deliver each published event to all
+ * subscribers, including the publisher's own subscriber (which ignores
+ * events that it has published itself).
+ *
+ * @since 5.1
+ * @see SimpleCacheInvalidationChannel
+ * @see ApplicationEventCacheInvalidationChannel
+ */
+public interface CacheInvalidationChannel {
+
+	/**
+	 * Publish the given invalidation to all subscribers.
+	 * @param event the invalidation event
+	 */
+	void publish(CacheInvalidationEvent event);
+
+	/**
+	 * Register a subscriber for invalidations published through this channel.
+	 * @param subscriber the callback to invoke for each invalidation
+	 * @return a handle for cancelling the subscription
+	 */
+	Subscription subscribe(Consumer<CacheInvalidationEvent> subscriber);
+
+
+	/**
+	 * Handle for a subscription, to be cancelled once its subscriber
+	 * is not in use anymore.
+	 */
+	@FunctionalInterface
+	interface Subscription {
+
+		/**
+		 * Cancel this subscription: the subscriber does not receive
+		 * any further invalidations afterwards.
+		 */
+		void cancel();
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Event signalling that an entry (or all entries) of a cache has changed,
+ * so that near caches for that cache need to drop their local copies.
+ *
+ * @since 5.1
+ * @see CacheInvalidationChannel
+ */
+@SuppressWarnings("serial")
+public class CacheInvalidationEvent extends ApplicationEvent {
+
+	private final String cacheName;
+
+	@Nullable
+	private final Object key;
+
+	private final String origin;
+
+
+	/**
+	 * Create a new CacheInvalidationEvent.
+	 * @param source the object on which the event initially occurred
+	 * @param cacheName the name of the affected cache
+	 * @param key the affected key, or {@code null} if the entire cache has been cleared
+	 * @param origin the identifier of the near cache that caused the invalidation
+	 */
+	public CacheInvalidationEvent(Object source, String cacheName, @Nullable Object key, String origin) {
+		super(source);
+		Assert.notNull(cacheName, "Cache name must not be null");
+		Assert.notNull(origin, "Origin must not be null");
+		this.cacheName = cacheName;
+		this.key = key;
+		this.origin = origin;
+	}
+
+
+	/**
+	 * Return the name of the affected cache.
+	 */
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Return the affected key, or {@code null} if the entire cache has been cleared.
+	 */
+	@Nullable
+	public Object getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Return the identifier of the near cache that caused the invalidation.
+	 */
+	public String getOrigin() {
+		return this.origin;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": cache '" + this.cacheName + "', " +
+				(this.key != null ? "key '" + this.key + "'" : "all keys") + ", origin " + this.origin;
+	}
+
+}
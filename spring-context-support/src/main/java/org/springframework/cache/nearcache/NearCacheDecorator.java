@@ -0,0 +1,362 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache decorator which layers a bounded local cache (L1) in front of a target
+ * cache (L2), typically a remote cache: hot entries are served from local memory
+ * without a network round-trip and deserialization.
+ *
+ * <p>Values read from the target cache are copied into the local cache; all
+ * modifications are applied to the target cache first, followed by the local
+ * cache. Every modification is published through a {@link CacheInvalidationChannel},
+ * making all other near caches for the same cache drop their local copy of the
+ * affected entry. Since other processes may modify the target cache without
+ * notice (unless bridged through the channel), an expiration period for local
+ * entries is strongly recommended.
+ *
+ * <p>The decorator subscribes to the invalidation channel in {@link #afterPropertiesSet()}
+ * and cancels its subscription in {@link #destroy()}; {@link NearCacheManagerProxy}
+ * takes care of both for the near caches that it manages.
+ *
+ * <p>The local hit rate is exposed through {@link #getLocalHitRate()}.
+ *
+ * @since 5.1
+ * @see NearCacheManagerProxy
+ * @see BoundedConcurrentMapCache
+ */
+public class NearCacheDecorator implements Cache, InitializingBean, DisposableBean {
+
+	private static final int INVALIDATION_STRIPES = 64;
+
+	private final Cache targetCache;
+
+	private final BoundedConcurrentMapCache localCache;
+
+	private final CacheInvalidationChannel invalidationChannel;
+
+	private final String id = UUID.randomUUID().toString();
+
+	/** Invalidation counters per key stripe, guarding local puts of target values */
+	private final AtomicLongArray invalidationVersions = new AtomicLongArray(INVALIDATION_STRIPES);
+
+	@Nullable
+	private volatile CacheInvalidationChannel.Subscription subscription;
+
+	private final LongAdder localHitCount = new LongAdder();
+
+	private final LongAdder localMissCount = new LongAdder();
+
+
+	/**
+	 * Create a new NearCacheDecorator for the given target Cache,
+	 * with a local cache of the given maximum size and without expiration.
+	 * Invalidations are only propagated within this decorator.
+	 * @param targetCache the target Cache to decorate
+	 * @param maximumSize the maximum number of entries in the local cache
+	 */
+	public NearCacheDecorator(Cache targetCache, long maximumSize) {
+		this(targetCache, new BoundedConcurrentMapCache(targetCache.getName(), maximumSize),
+				new SimpleCacheInvalidationChannel());
+	}
+
+	/**
+	 * Create a new NearCacheDecorator for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 * @param localCache the local cache to hold copies of target entries
+	 * (accepting {@code null} values)
+	 * @param invalidationChannel the channel to publish invalidations to,
+	 * and to receive invalidations from other near caches through
+	 */
+	public NearCacheDecorator(Cache targetCache, BoundedConcurrentMapCache localCache,
+			CacheInvalidationChannel invalidationChannel) {
+
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.isTrue(localCache.isAllowNullValues(), "Local Cache must allow null values");
+		Assert.notNull(invalidationChannel, "CacheInvalidationChannel must not be null");
+		this.targetCache = targetCache;
+		this.localCache = localCache;
+		this.invalidationChannel = invalidationChannel;
+	}
+
+
+	/**
+	 * Subscribe to invalidations from other near caches.
+	 */
+	@Override
+	public synchronized void afterPropertiesSet() {
+		if (this.subscription == null) {
+			this.subscription = this.invalidationChannel.subscribe(this::onInvalidation);
+		}
+	}
+
+	/**
+	 * Cancel the subscription to invalidations from other near caches.
+	 */
+	@Override
+	public synchronized void destroy() {
+		CacheInvalidationChannel.Subscription subscription = this.subscription;
+		if (subscription != null) {
+			subscription.cancel();
+			this.subscription = null;
+		}
+	}
+
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+	/**
+	 * Return the local cache that holds copies of target entries.
+	 */
+	public BoundedConcurrentMapCache getLocalCache() {
+		return this.localCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			this.localHitCount.increment();
+			return wrapper;
+		}
+		this.localMissCount.increment();
+		long version = getInvalidationVersion(key);
+		wrapper = this.targetCache.get(key);
+		if (wrapper != null) {
+			putLocal(key, wrapper.get(), version);
+		}
+		return wrapper;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			this.localHitCount.increment();
+			return (T) wrapper.get();
+		}
+		this.localMissCount.increment();
+		long version = getInvalidationVersion(key);
+		T value = this.targetCache.get(key, valueLoader);
+		putLocal(key, value, version);
+		return value;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> localEntries = this.localCache.getAll(keys);
+		this.localHitCount.add(localEntries.size());
+		if (localEntries.size() == keys.size()) {
+			return localEntries;
+		}
+		List<Object> missingKeys = new ArrayList<>(keys.size() - localEntries.size());
+		for (Object key : keys) {
+			if (!localEntries.containsKey(key)) {
+				missingKeys.add(key);
+			}
+		}
+		this.localMissCount.add(missingKeys.size());
+		Map<Object, Long> versions = new LinkedHashMap<>(missingKeys.size());
+		for (Object key : missingKeys) {
+			versions.put(key, getInvalidationVersion(key));
+		}
+		Map<Object, ValueWrapper> targetEntries = this.targetCache.getAll(missingKeys);
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = localEntries.get(key);
+			if (wrapper == null) {
+				wrapper = targetEntries.get(key);
+				if (wrapper != null) {
+					putLocal(key, wrapper.get(), versions.get(key));
+				}
+			}
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.targetCache.put(key, value);
+		invalidate(key);
+		this.localCache.put(key, value);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.targetCache.putIfAbsent(key, value);
+		if (existing == null) {
+			invalidate(key);
+			this.localCache.put(key, value);
+		}
+		return existing;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.targetCache.putAll(entries);
+		for (Object key : entries.keySet()) {
+			invalidate(key);
+		}
+		this.localCache.putAll(entries);
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.targetCache.evict(key);
+		invalidate(key);
+	}
+
+	@Override
+	public void clear() {
+		this.targetCache.clear();
+		invalidateAllVersions();
+		this.localCache.clear();
+		this.invalidationChannel.publish(new CacheInvalidationEvent(this, getName(), null, this.id));
+	}
+
+
+	/**
+	 * Return the number of lookups served from the local cache.
+	 */
+	public long getLocalHitCount() {
+		return this.localHitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups which had to consult the target cache.
+	 */
+	public long getLocalMissCount() {
+		return this.localMissCount.sum();
+	}
+
+	/**
+	 * Return the ratio of lookups served from the local cache,
+	 * or {@code 1.0} if there have not been any lookups yet.
+	 */
+	public double getLocalHitRate() {
+		long hits = getLocalHitCount();
+		long total = hits + getLocalMissCount();
+		return (total > 0 ? (double) hits / total : 1.0);
+	}
+
+
+	private int getInvalidationStripe(Object key) {
+		return (key.hashCode() & Integer.MAX_VALUE) % INVALIDATION_STRIPES;
+	}
+
+	private long getInvalidationVersion(Object key) {
+		return this.invalidationVersions.get(getInvalidationStripe(key));
+	}
+
+	private void invalidateAllVersions() {
+		for (int i = 0; i < INVALIDATION_STRIPES; i++) {
+			this.invalidationVersions.incrementAndGet(i);
+		}
+	}
+
+	/**
+	 * Store a value read from the target cache locally, unless the key's stripe
+	 * has seen an invalidation in the meantime (which may have made the value
+	 * outdated). Since invalidations bump the version before evicting, a version
+	 * change between the check and the put gets detected by re-checking after
+	 * the put, removing the possibly outdated value again.
+	 */
+	private void putLocal(Object key, @Nullable Object value, long version) {
+		int stripe = getInvalidationStripe(key);
+		if (this.invalidationVersions.get(stripe) == version) {
+			this.localCache.put(key, value);
+			if (this.invalidationVersions.get(stripe) != version) {
+				this.localCache.evict(key);
+			}
+		}
+	}
+
+	private void invalidate(Object key) {
+		this.invalidationVersions.incrementAndGet(getInvalidationStripe(key));
+		this.localCache.evict(key);
+		this.invalidationChannel.publish(new CacheInvalidationEvent(this, getName(), key, this.id));
+	}
+
+	private void onInvalidation(CacheInvalidationEvent event) {
+		if (this.id.equals(event.getOrigin()) || !getName().equals(event.getCacheName())) {
+			return;
+		}
+		Object key = event.getKey();
+		if (key != null) {
+			this.invalidationVersions.incrementAndGet(getInvalidationStripe(key));
+			this.localCache.evict(key);
+		}
+		else {
+			invalidateAllVersions();
+			this.localCache.clear();
+		}
+	}
+
+}
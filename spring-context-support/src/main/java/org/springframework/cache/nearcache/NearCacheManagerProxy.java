@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Proxy for a target {@link CacheManager}, exposing {@link NearCacheDecorator near caches}
+ * which keep a bounded local copy of recently used entries of the target caches.
+ *
+ * <p>Invalidations are exchanged through the configured {@link CacheInvalidationChannel}:
+ * by default, a {@link SimpleCacheInvalidationChannel} which only covers the near caches
+ * of this proxy. Specify an {@link ApplicationEventCacheInvalidationChannel} bean to share
+ * invalidations within an application context hierarchy, or a custom channel which relays
+ * invalidations through a messaging system in order to cover several processes.
+ * Each near cache subscribes to the channel once created, with all subscriptions
+ * getting cancelled on {@link #destroy()}.
+ *
+ * @since 5.1
+ * @see #setTargetCacheManager
+ * @see #setInvalidationChannel
+ * @see NearCacheDecorator
+ */
+public class NearCacheManagerProxy implements CacheManager, InitializingBean, DisposableBean {
+
+	@Nullable
+	private CacheManager targetCacheManager;
+
+	private CacheInvalidationChannel invalidationChannel = new SimpleCacheInvalidationChannel();
+
+	private long maximumSize = 1000;
+
+	private long expireAfterWrite = -1;
+
+	private final ConcurrentMap<String, NearCacheDecorator> cacheMap = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new NearCacheManagerProxy, setting the target CacheManager
+	 * through the {@link #setTargetCacheManager} bean property.
+	 */
+	public NearCacheManagerProxy() {
+	}
+
+	/**
+	 * Create a new NearCacheManagerProxy for the given target CacheManager.
+	 * @param targetCacheManager the target CacheManager to proxy
+	 */
+	public NearCacheManagerProxy(CacheManager targetCacheManager) {
+		Assert.notNull(targetCacheManager, "Target CacheManager must not be null");
+		this.targetCacheManager = targetCacheManager;
+	}
+
+
+	/**
+	 * Set the target CacheManager to proxy.
+	 */
+	public void setTargetCacheManager(CacheManager targetCacheManager) {
+		this.targetCacheManager = targetCacheManager;
+	}
+
+	/**
+	 * Set the channel to exchange invalidations with other near caches through.
+	 * <p>Default is a {@link SimpleCacheInvalidationChannel} local to this proxy.
+	 * @see ApplicationEventCacheInvalidationChannel
+	 */
+	public void setInvalidationChannel(CacheInvalidationChannel invalidationChannel) {
+		Assert.notNull(invalidationChannel, "CacheInvalidationChannel must not be null");
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	/**
+	 * Set the maximum number of entries in each local cache.
+	 * <p>Default is 1000.
+	 */
+	public void setMaximumSize(long maximumSize) {
+		Assert.isTrue(maximumSize >= 0, "Maximum size must not be negative");
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Set the time in milliseconds after which a local entry expires,
+	 * limiting the staleness of local copies in case of modifications
+	 * which have not been propagated through the invalidation channel.
+	 * <p>Default is -1, not expiring local entries at all.
+	 */
+	public void setExpireAfterWrite(long expireAfterWrite) {
+		this.expireAfterWrite = expireAfterWrite;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.targetCacheManager == null) {
+			throw new IllegalArgumentException("Property 'targetCacheManager' is required");
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		NearCacheDecorator cache = this.cacheMap.get(name);
+		if (cache == null) {
+			Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+			Cache targetCache = this.targetCacheManager.getCache(name);
+			if (targetCache == null) {
+				return null;
+			}
+			cache = this.cacheMap.computeIfAbsent(name, key -> {
+				NearCacheDecorator decorator = decorateCache(targetCache);
+				decorator.afterPropertiesSet();
+				return decorator;
+			});
+		}
+		return cache;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		return this.targetCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Cancel the invalidation subscriptions of all near caches created so far.
+	 */
+	@Override
+	public void destroy() {
+		for (NearCacheDecorator cache : this.cacheMap.values()) {
+			cache.destroy();
+		}
+		this.cacheMap.clear();
+	}
+
+	/**
+	 * Create a near cache for the given target Cache.
+	 * <p>The returned near cache gets initialized by the caller.
+	 * @param targetCache the target Cache to decorate
+	 * @return the decorated Cache
+	 */
+	protected NearCacheDecorator decorateCache(Cache targetCache) {
+		BoundedConcurrentMapCache localCache = new BoundedConcurrentMapCache(
+				targetCache.getName(), this.maximumSize, this.expireAfterWrite, true);
+		return new NearCacheDecorator(targetCache, localCache, this.invalidationChannel);
+	}
+
+}
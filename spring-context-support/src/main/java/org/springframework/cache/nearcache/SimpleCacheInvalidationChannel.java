@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.util.Assert;
+
+/**
+ * Simple in-JVM {@link CacheInvalidationChannel}, invoking all subscribers
+ * synchronously within the publishing thread.
+ *
+ * <p>This is the default channel of {@link NearCacheManagerProxy}, keeping
+ * all near caches created by the same proxy consistent with each other.
+ *
+ * @since 5.1
+ */
+public class SimpleCacheInvalidationChannel implements CacheInvalidationChannel {
+
+	private final List<Consumer<CacheInvalidationEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+
+	@Override
+	public void publish(CacheInvalidationEvent event) {
+		for (Consumer<CacheInvalidationEvent> subscriber : this.subscribers) {
+			subscriber.accept(event);
+		}
+	}
+
+	@Override
+	public Subscription subscribe(Consumer<CacheInvalidationEvent> subscriber) {
+		Assert.notNull(subscriber, "Subscriber must not be null");
+		this.subscribers.add(subscriber);
+		return () -> this.subscribers.remove(subscriber);
+	}
+
+}
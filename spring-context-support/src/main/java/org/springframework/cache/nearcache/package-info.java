@@ -0,0 +1,10 @@
+/**
+ * Two-level "near cache" decorators for the org.springframework.cache package,
+ * layering a bounded local cache in front of a (typically remote) target cache.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.nearcache;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
\ No newline at end of file
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.cache.Cache;
@@ -25,7 +28,7 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 import org.springframework.util.Assert;
 
 /**
- * Cache decorator which synchronizes its {@link #put}, {@link #evict} and {@link #clear}
+ * Cache decorator which synchronizes its {@link #put}, {@link #putAll}, {@link #evict} and {@link #clear}
  * operations with Spring-managed transactions (through Spring's {@link TransactionSynchronizationManager},
  * performing the actual cache put/evict/clear operation only in the after-commit phase of a
  * successful transaction. If no transaction is active, {@link #put}, {@link #evict} and
@@ -109,6 +112,27 @@ public class TransactionAwareCacheDecorator implements Cache {
 		return this.targetCache.putIfAbsent(key, value);
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		return this.targetCache.getAll(keys);
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			final Map<?, ?> entriesToPut = new LinkedHashMap<>(entries);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					TransactionAwareCacheDecorator.this.targetCache.putAll(entriesToPut);
+				}
+			});
+		}
+		else {
+			this.targetCache.putAll(entries);
+		}
+	}
+
 	@Override
 	public void evict(final Object key) {
 		if (TransactionSynchronizationManager.isSynchronizationActive()) {
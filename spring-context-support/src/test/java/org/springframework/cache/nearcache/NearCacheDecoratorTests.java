@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.nearcache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link NearCacheDecorator} and {@link NearCacheManagerProxy}.
+ */
+public class NearCacheDecoratorTests {
+
+	private final ConcurrentMapCache target = new ConcurrentMapCache("test");
+
+
+	@Test
+	public void localHits() {
+		NearCacheDecorator cache = new NearCacheDecorator(this.target, 10);
+		this.target.put("key", "value");
+
+		assertEquals("value", cache.get("key", String.class));
+		assertEquals("value", cache.get("key", String.class));
+		assertNull(cache.get("other"));
+		assertEquals(1, cache.getLocalHitCount());
+		assertEquals(2, cache.getLocalMissCount());
+		assertEquals(1.0 / 3, cache.getLocalHitRate(), 0.001);
+
+		assertEquals("loaded", cache.get("loaded", () -> "loaded"));
+		assertEquals("loaded", this.target.get("loaded").get());
+		assertEquals("loaded", cache.getLocalCache().get("loaded").get());
+	}
+
+	@Test
+	public void writeThrough() {
+		NearCacheDecorator cache = new NearCacheDecorator(this.target, 10);
+		cache.put("key", "value");
+		assertEquals("value", this.target.get("key").get());
+		assertEquals("value", cache.getLocalCache().get("key").get());
+
+		assertEquals("value", cache.putIfAbsent("key", "other").get());
+		assertEquals("value", cache.getLocalCache().get("key").get());
+
+		cache.evict("key");
+		assertNull(this.target.get("key"));
+		assertNull(cache.getLocalCache().get("key"));
+
+		cache.put("key", "value");
+		cache.clear();
+		assertNull(this.target.get("key"));
+		assertNull(cache.getLocalCache().get("key"));
+	}
+
+	@Test
+	public void invalidationAcrossNearCaches() {
+		CacheInvalidationChannel channel = new SimpleCacheInvalidationChannel();
+		NearCacheDecorator cache1 = createCache(channel);
+		NearCacheDecorator cache2 = createCache(channel);
+
+		cache1.put("key", "value1");
+		assertEquals("value1", cache2.get("key").get());
+
+		cache1.put("key", "value2");
+		assertNull(cache2.getLocalCache().get("key"));
+		assertEquals("value2", cache2.get("key").get());
+
+		cache2.evict("key");
+		assertNull(cache1.getLocalCache().get("key"));
+		assertNull(cache1.get("key"));
+
+		cache1.put("key", "value3");
+		assertEquals("value3", cache2.get("key").get());
+		cache1.clear();
+		assertNull(cache2.get("key"));
+	}
+
+	@Test
+	public void noInvalidationsAfterDestroy() {
+		CacheInvalidationChannel channel = new SimpleCacheInvalidationChannel();
+		NearCacheDecorator cache1 = createCache(channel);
+		NearCacheDecorator cache2 = createCache(channel);
+
+		cache1.put("key", "value1");
+		assertEquals("value1", cache2.get("key").get());
+		cache2.destroy();
+		cache1.put("key", "value2");
+		assertEquals("value1", cache2.getLocalCache().get("key").get());
+	}
+
+	@Test
+	public void invalidationDuringTargetReadPreventsLocalCopy() {
+		CacheInvalidationChannel channel = new SimpleCacheInvalidationChannel();
+		NearCacheDecorator writer = createCache(channel);
+		ConcurrentMapCache target = new ConcurrentMapCache("test") {
+			@Override
+			public ValueWrapper get(Object key) {
+				ValueWrapper wrapper = super.get(key);
+				// Concurrent modification through another near cache while reading
+				writer.put(key, "value2");
+				return wrapper;
+			}
+		};
+		target.put("key", "value1");
+		NearCacheDecorator reader = createCache(target, channel);
+
+		assertEquals("value1", reader.get("key").get());
+		assertNull(reader.getLocalCache().get("key"));
+	}
+
+	@Test
+	public void bulkOperations() {
+		NearCacheDecorator cache = new NearCacheDecorator(this.target, 10);
+		this.target.put("a", "1");
+		cache.putAll(Collections.singletonMap("b", "2"));
+
+		Map<Object, Cache.ValueWrapper> result = cache.getAll(Arrays.asList("a", "b", "c"));
+		assertEquals(Arrays.asList("a", "b"), Arrays.asList(result.keySet().toArray()));
+		assertEquals("1", result.get("a").get());
+		assertEquals("2", result.get("b").get());
+		assertEquals(1, cache.getLocalHitCount());
+		assertEquals("1", cache.getLocalCache().get("a").get());
+	}
+
+	@Test
+	public void applicationEventChannel() {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(ApplicationEventCacheInvalidationChannel.class);
+		context.refresh();
+		CacheInvalidationChannel channel = context.getBean(CacheInvalidationChannel.class);
+		NearCacheDecorator cache1 = createCache(channel);
+		NearCacheDecorator cache2 = createCache(channel);
+
+		cache1.put("key", "value1");
+		assertEquals("value1", cache2.get("key").get());
+		cache1.put("key", "value2");
+		assertNull(cache2.getLocalCache().get("key"));
+
+		// Remote invalidation relayed into the context
+		context.publishEvent(new CacheInvalidationEvent(this, "test", "key", "remote"));
+		assertNull(cache1.getLocalCache().get("key"));
+		context.close();
+	}
+
+	@Test
+	public void cacheManagerProxy() {
+		NearCacheManagerProxy cacheManager = new NearCacheManagerProxy(new ConcurrentMapCacheManager("test"));
+		cacheManager.setMaximumSize(5);
+		cacheManager.afterPropertiesSet();
+
+		Cache cache = cacheManager.getCache("test");
+		assertTrue(cache instanceof NearCacheDecorator);
+		assertSame(cache, cacheManager.getCache("test"));
+		assertNull(cacheManager.getCache("other"));
+		assertEquals(Arrays.asList("test"), Arrays.asList(cacheManager.getCacheNames().toArray()));
+	}
+
+	@Test
+	public void cacheManagerProxyCancelsSubscriptionsOnDestroy() {
+		CacheInvalidationChannel channel = new SimpleCacheInvalidationChannel();
+		NearCacheManagerProxy cacheManager = new NearCacheManagerProxy(new ConcurrentMapCacheManager("test"));
+		cacheManager.setInvalidationChannel(channel);
+		cacheManager.afterPropertiesSet();
+		NearCacheDecorator cache = (NearCacheDecorator) cacheManager.getCache("test");
+		NearCacheDecorator other = createCache(cache.getTargetCache(), channel);
+
+		cache.put("key", "value1");
+		other.put("key", "value2");
+		assertNull(cache.getLocalCache().get("key"));
+
+		cache.put("key", "value1");
+		cacheManager.destroy();
+		other.put("key", "value2");
+		assertEquals("value1", cache.getLocalCache().get("key").get());
+	}
+
+
+	private NearCacheDecorator createCache(CacheInvalidationChannel channel) {
+		return createCache(this.target, channel);
+	}
+
+	private NearCacheDecorator createCache(Cache target, CacheInvalidationChannel channel) {
+		NearCacheDecorator cache = new NearCacheDecorator(target, new BoundedConcurrentMapCache("test", 10), channel);
+		cache.afterPropertiesSet();
+		return cache;
+	}
+
+}
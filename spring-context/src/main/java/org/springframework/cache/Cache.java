@@ -16,6 +16,9 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.lang.Nullable;
@@ -136,6 +139,42 @@ public interface Cache {
 	@Nullable
 	ValueWrapper putIfAbsent(Object key, @Nullable Object value);
 
+	/**
+	 * Return the values to which this cache maps the specified keys, in a single
+	 * round-trip if supported by the underlying cache provider.
+	 * <p>The default implementation calls {@link #get(Object)} for each key.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map from each key that this cache contains a mapping for to
+	 * a {@link ValueWrapper} for its (possibly {@code null}) value
+	 * @since 5.1
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = get(key);
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Associate each of the specified values with its key in this cache,
+	 * in a single round-trip if supported by the underlying cache provider.
+	 * <p>The default implementation calls {@link #put(Object, Object)}
+	 * for each entry.
+	 * @param entries the keys and (possibly {@code null}) values to store
+	 * @since 5.1
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		for (Map.Entry<?, ?> entry : entries.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
 	/**
 	 * Evict the mapping for this key from this cache if it is present.
 	 * @param key the key whose mapping is to be removed from the cache
@@ -179,4 +179,29 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the entries of a bulk lookup individually: the method is expected
+	 * to declare a single {@link java.util.Collection} parameter holding the keys
+	 * (e.g. a {@code Collection}, {@code List} or {@code Set}, with the missing keys
+	 * getting passed in as an {@code ArrayList} or {@code LinkedHashSet}) and to
+	 * return a {@link java.util.Map} from each key found to its value.
+	 * <p>All keys are looked up at once through
+	 * {@link org.springframework.cache.Cache#getAll}, the method is only invoked
+	 * with the keys that are missing from the cache (if any), and its results
+	 * are stored at once through {@link org.springframework.cache.Cache#putAll}
+	 * before being merged with the cached entries. Each collection element
+	 * serves as the cache key of its entry. This leads to a couple of limitations:
+	 * <ol>
+	 * <li>{@link #key()}, {@link #keyGenerator()} and {@link #unless()} are not supported</li>
+	 * <li>{@link #sync()} is not supported</li>
+	 * <li>Only one cache may be specified</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * Keys that are missing from the returned map are not cached.
+	 * @since 5.1
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean bulk() default false;
+
 }
@@ -0,0 +1,757 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.core.serializer.support.SerializationDelegate;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.cache.Cache} implementation based on the core JDK
+ * {@code java.util.concurrent} package, bounded in size and/or entry lifetime.
+ *
+ * <p>Entries are evicted once the configured maximum size (the number of
+ * entries, or their total weight if a weigher is specified) is exceeded,
+ * according to one of the following {@link EvictionPolicy eviction policies}:
+ * <ul>
+ * <li>{@link EvictionPolicy#LRU}: the least recently used entry is evicted.
+ * <li>{@link EvictionPolicy#W_TINY_LFU} (the default): new entries enter a small
+ * LRU admission window; entries leaving the window are only admitted to the main
+ * LRU region if they have been used more frequently than the entry that would be
+ * evicted in turn, as estimated by a compact frequency sketch. This protects
+ * frequently used entries from being flushed out by scans of one-off keys.
+ * </ul>
+ *
+ * <p>An expire-after-write period can be specified in addition to (or instead of)
+ * a maximum size. Expired entries are never returned; they are removed when
+ * accessed or as part of size-based eviction. Without a maximum size, each write
+ * also checks a few entries for expiration, sweeping through the entire cache
+ * over time.
+ *
+ * <p>Reads never block: recency and frequency information is recorded on a
+ * best-effort basis, skipping the bookkeeping if the eviction lock is held
+ * by another thread. Hit, miss and eviction counts are available through
+ * {@link #getHitCount()}, {@link #getMissCount()} and {@link #getEvictionCount()},
+ * or as a {@link #getStatistics() snapshot}.
+ *
+ * @since 5.1
+ * @see ConcurrentMapCacheManager#setMaximumSize
+ * @see ConcurrentMapCacheManager#setExpireAfterWrite
+ */
+public class BoundedConcurrentMapCache extends AbstractValueAdaptingCache {
+
+	/** Number of entries checked for expiration per write without a maximum size */
+	private static final int EXPIRATION_SWEEP_BATCH = 8;
+
+	/**
+	 * Policies for choosing the entries to evict from a full cache.
+	 */
+	public enum EvictionPolicy {
+
+		/**
+		 * Evict the least recently used entry.
+		 */
+		LRU,
+
+		/**
+		 * Evict according to the Window TinyLFU policy, taking both
+		 * recency and frequency of use into account.
+		 */
+		W_TINY_LFU
+	}
+
+
+	private final String name;
+
+	private final ConcurrentMap<Object, Node> store = new ConcurrentHashMap<>(256);
+
+	private final long maximumSize;
+
+	@Nullable
+	private final ToIntBiFunction<Object, Object> weigher;
+
+	private final long expireAfterWriteNanos;
+
+	@Nullable
+	private final SerializationDelegate serialization;
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	// The following fields are guarded by the eviction lock
+
+	private final NodeQueue window = new NodeQueue();
+
+	private final NodeQueue main = new NodeQueue();
+
+	private final long windowMaximum;
+
+	@Nullable
+	private final FrequencySketch sketch;
+
+	private long windowWeight;
+
+	private long totalWeight;
+
+	/** Position of the incremental expiration sweep, without a maximum size */
+	@Nullable
+	private Iterator<Node> sweepIterator;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name,
+	 * holding up to the given number of entries.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumSize) {
+		this(name, maximumSize, null, EvictionPolicy.W_TINY_LFU, -1, true, null);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries (-1 for no limit)
+	 * @param expireAfterWrite the time (in milliseconds) after which an entry
+	 * expires (-1 for no expiration)
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumSize, long expireAfterWrite, boolean allowNullValues) {
+		this(name, maximumSize, null, EvictionPolicy.W_TINY_LFU, expireAfterWrite, allowNullValues, null);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name.
+	 * If the {@link SerializationDelegate} is specified, store-by-value is enabled.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries, or the maximum total
+	 * weight of all entries if a weigher is specified (-1 for no limit)
+	 * @param weigher the function computing the weight of an entry from its key
+	 * and (user-level) value, or {@code null} to count each entry as 1
+	 * (requires a maximum size)
+	 * @param evictionPolicy the policy for choosing the entries to evict
+	 * @param expireAfterWrite the time (in milliseconds) after which an entry
+	 * expires (-1 for no expiration)
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 * @param serialization the {@link SerializationDelegate} to use
+	 * to serialize cache entries, or {@code null} to store the reference
+	 * @throws IllegalStateException if a weigher is specified without a maximum size
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumSize,
+			@Nullable ToIntBiFunction<Object, Object> weigher, EvictionPolicy evictionPolicy,
+			long expireAfterWrite, boolean allowNullValues, @Nullable SerializationDelegate serialization) {
+
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(evictionPolicy, "EvictionPolicy must not be null");
+		Assert.state(weigher == null || maximumSize >= 0, "A weigher requires a maximum size");
+		this.name = name;
+		this.maximumSize = maximumSize;
+		this.weigher = weigher;
+		this.expireAfterWriteNanos = (expireAfterWrite >= 0 ? TimeUnit.MILLISECONDS.toNanos(expireAfterWrite) : -1);
+		this.serialization = serialization;
+		if (evictionPolicy == EvictionPolicy.W_TINY_LFU && maximumSize > 0) {
+			this.windowMaximum = Math.max(1, maximumSize / 100);
+			this.sketch = new FrequencySketch(maximumSize);
+		}
+		else {
+			this.windowMaximum = 0;
+			this.sketch = null;
+		}
+	}
+
+
+	/**
+	 * Return whether this cache stores a copy of each entry ({@code true}) or
+	 * a reference ({@code false}, default).
+	 */
+	public final boolean isStoreByValue() {
+		return (this.serialization != null);
+	}
+
+	/**
+	 * Return the maximum number of entries, or the maximum total weight
+	 * if a weigher has been specified (-1 if not bounded in size).
+	 */
+	public final long getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Return the number of lookups which found a (non-expired) entry.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups which did not find a (non-expired) entry.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries evicted because of the size limit
+	 * or because they expired.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Return a snapshot of the hit, miss and eviction counts of this cache.
+	 * @see ConcurrentMapCacheManager#getCacheStatistics()
+	 */
+	public Statistics getStatistics() {
+		return new Statistics(getHitCount(), getMissCount(), getEvictionCount());
+	}
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	/**
+	 * This implementation returns the cache itself, as there is
+	 * no underlying native cache provider.
+	 */
+	@Override
+	public final Object getNativeCache() {
+		return this;
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		Node node = this.store.get(key);
+		if (node == null || isExpired(node)) {
+			if (node != null && this.store.remove(key, node)) {
+				this.evictionCount.increment();
+				afterRemoval(node);
+			}
+			this.missCount.increment();
+			if (this.sketch != null && this.evictionLock.tryLock()) {
+				try {
+					this.sketch.increment(key.hashCode());
+				}
+				finally {
+					this.evictionLock.unlock();
+				}
+			}
+			return null;
+		}
+		this.hitCount.increment();
+		if (this.maximumSize >= 0 && this.evictionLock.tryLock()) {
+			try {
+				onAccess(node);
+			}
+			finally {
+				this.evictionLock.unlock();
+			}
+		}
+		return node.value;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Object storeValue = lookup(key);
+		if (storeValue != null) {
+			return (T) fromStoreValue(storeValue);
+		}
+		Node[] written = new Node[2];
+		Node node = this.store.compute(key, (k, existing) -> {
+			if (existing != null && !isExpired(existing)) {
+				return existing;
+			}
+			try {
+				written[0] = createNode(k, valueLoader.call());
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+			written[1] = existing;
+			return written[0];
+		});
+		if (written[0] != null) {
+			afterWrite(written[0], written[1]);
+		}
+		return (T) fromStoreValue(node.value);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		Node node = createNode(key, value);
+		afterWrite(node, this.store.put(key, node));
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		Node[] written = new Node[2];
+		Node node = this.store.compute(key, (k, existing) -> {
+			if (existing != null && !isExpired(existing)) {
+				return existing;
+			}
+			written[0] = createNode(k, value);
+			written[1] = existing;
+			return written[0];
+		});
+		if (written[0] != null) {
+			afterWrite(written[0], written[1]);
+			return null;
+		}
+		return toValueWrapper(node.value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		Node node = this.store.remove(key);
+		if (node != null) {
+			afterRemoval(node);
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (this.maximumSize < 0) {
+			this.store.clear();
+			return;
+		}
+		this.evictionLock.lock();
+		try {
+			this.store.clear();
+			this.window.clear();
+			this.main.clear();
+			this.windowWeight = 0;
+			this.totalWeight = 0;
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	@Override
+	protected Object toStoreValue(@Nullable Object userValue) {
+		Object storeValue = super.toStoreValue(userValue);
+		if (this.serialization != null) {
+			try {
+				return ConcurrentMapCache.serializeValue(this.serialization, storeValue);
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException("Failed to serialize cache value '" + userValue +
+						"'. Does it implement Serializable?", ex);
+			}
+		}
+		return storeValue;
+	}
+
+	@Override
+	@Nullable
+	protected Object fromStoreValue(Object storeValue) {
+		if (this.serialization != null) {
+			try {
+				return super.fromStoreValue(ConcurrentMapCache.deserializeValue(this.serialization, storeValue));
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException("Failed to deserialize cache value '" + storeValue + "'", ex);
+			}
+		}
+		return super.fromStoreValue(storeValue);
+	}
+
+
+	private Node createNode(Object key, @Nullable Object value) {
+		int weight = (this.weigher != null ? this.weigher.applyAsInt(key, value) : 1);
+		Assert.isTrue(weight >= 0, "Entry weight must not be negative");
+		long expiresAt = (this.expireAfterWriteNanos >= 0 ? System.nanoTime() + this.expireAfterWriteNanos : 0);
+		return new Node(key, toStoreValue(value), weight, expiresAt);
+	}
+
+	private boolean isExpired(Node node) {
+		return (this.expireAfterWriteNanos >= 0 && System.nanoTime() - node.expiresAt >= 0);
+	}
+
+	/**
+	 * Track a node which has just been mapped, replacing the given previous node (if any).
+	 */
+	private void afterWrite(Node node, @Nullable Node replaced) {
+		if (this.maximumSize < 0) {
+			if (this.expireAfterWriteNanos >= 0) {
+				sweepExpired();
+			}
+			return;
+		}
+		this.evictionLock.lock();
+		try {
+			if (replaced != null) {
+				unlink(replaced);
+			}
+			// A concurrent write or removal may have unmapped the node already
+			if (this.store.get(node.key) == node) {
+				if (this.sketch != null) {
+					this.sketch.increment(node.key.hashCode());
+					this.window.addLast(node);
+					this.windowWeight += node.weight;
+				}
+				else {
+					this.main.addLast(node);
+				}
+				this.totalWeight += node.weight;
+				evictIfNecessary();
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Stop tracking a node which has just been unmapped.
+	 */
+	private void afterRemoval(Node node) {
+		if (this.maximumSize < 0) {
+			return;
+		}
+		this.evictionLock.lock();
+		try {
+			unlink(node);
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Check the next few entries for expiration, continuing where the previous
+	 * sweep left off: without a maximum size, this is the only way for expired
+	 * entries to get removed unless they are accessed again.
+	 */
+	private void sweepExpired() {
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			Iterator<Node> it = this.sweepIterator;
+			for (int i = 0; i < EXPIRATION_SWEEP_BATCH; i++) {
+				if (it == null || !it.hasNext()) {
+					it = this.store.values().iterator();
+					if (!it.hasNext()) {
+						break;
+					}
+				}
+				Node node = it.next();
+				if (isExpired(node) && this.store.remove(node.key, node)) {
+					this.evictionCount.increment();
+				}
+			}
+			this.sweepIterator = it;
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void onAccess(Node node) {
+		if (node.queue != null) {
+			node.queue.moveToBack(node);
+			if (this.sketch != null) {
+				this.sketch.increment(node.key.hashCode());
+			}
+		}
+	}
+
+	private void unlink(Node node) {
+		NodeQueue queue = node.queue;
+		if (queue != null) {
+			queue.remove(node);
+			if (queue == this.window) {
+				this.windowWeight -= node.weight;
+			}
+			this.totalWeight -= node.weight;
+		}
+	}
+
+	private void evictIfNecessary() {
+		// Entries leaving the admission window compete with the main region's LRU victim
+		while (this.windowWeight > this.windowMaximum) {
+			Node candidate = this.window.pollFirst();
+			this.windowWeight -= candidate.weight;
+			Node victim = this.main.peekFirst();
+			if (this.totalWeight <= this.maximumSize || victim == null ||
+					this.sketch.frequency(candidate.key.hashCode()) > this.sketch.frequency(victim.key.hashCode())) {
+				this.main.addLast(candidate);
+			}
+			else {
+				evictNode(candidate);
+			}
+		}
+		while (this.totalWeight > this.maximumSize) {
+			Node victim = this.main.pollFirst();
+			if (victim == null) {
+				victim = this.window.pollFirst();
+				if (victim == null) {
+					break;
+				}
+				this.windowWeight -= victim.weight;
+			}
+			evictNode(victim);
+		}
+	}
+
+	private void evictNode(Node node) {
+		this.totalWeight -= node.weight;
+		if (this.store.remove(node.key, node)) {
+			this.evictionCount.increment();
+		}
+	}
+
+
+	/**
+	 * Snapshot of the usage statistics of a {@link BoundedConcurrentMapCache}.
+	 */
+	public static final class Statistics {
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		Statistics(long hitCount, long missCount, long evictionCount) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+		}
+
+		/**
+		 * Return the number of lookups which found a (non-expired) entry.
+		 */
+		public long getHitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * Return the number of lookups which did not find a (non-expired) entry.
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * Return the ratio of lookups which found an entry,
+		 * or 1.0 if there have not been any lookups yet.
+		 */
+		public double getHitRatio() {
+			long requestCount = this.hitCount + this.missCount;
+			return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+		}
+
+		/**
+		 * Return the number of entries evicted because of the size limit
+		 * or because they expired.
+		 */
+		public long getEvictionCount() {
+			return this.evictionCount;
+		}
+
+		@Override
+		public String toString() {
+			return "hits=" + this.hitCount + ", misses=" + this.missCount + ", evictions=" + this.evictionCount;
+		}
+	}
+
+
+	/**
+	 * Cache entry, linked into the window or main access-order queue
+	 * while being tracked for eviction.
+	 */
+	private static final class Node {
+
+		final Object key;
+
+		final Object value;
+
+		final int weight;
+
+		final long expiresAt;
+
+		@Nullable
+		NodeQueue queue;
+
+		@Nullable
+		Node prev;
+
+		@Nullable
+		Node next;
+
+		Node(Object key, Object value, int weight, long expiresAt) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+
+	/**
+	 * Doubly-linked queue of nodes in access order (least recently used first).
+	 */
+	private static final class NodeQueue {
+
+		@Nullable
+		private Node head;
+
+		@Nullable
+		private Node tail;
+
+		@Nullable
+		Node peekFirst() {
+			return this.head;
+		}
+
+		@Nullable
+		Node pollFirst() {
+			Node node = this.head;
+			if (node != null) {
+				remove(node);
+			}
+			return node;
+		}
+
+		void addLast(Node node) {
+			node.queue = this;
+			node.prev = this.tail;
+			node.next = null;
+			if (this.tail != null) {
+				this.tail.next = node;
+			}
+			else {
+				this.head = node;
+			}
+			this.tail = node;
+		}
+
+		void remove(Node node) {
+			if (node.prev != null) {
+				node.prev.next = node.next;
+			}
+			else {
+				this.head = node.next;
+			}
+			if (node.next != null) {
+				node.next.prev = node.prev;
+			}
+			else {
+				this.tail = node.prev;
+			}
+			node.queue = null;
+			node.prev = null;
+			node.next = null;
+		}
+
+		void moveToBack(Node node) {
+			if (node != this.tail) {
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		void clear() {
+			while (pollFirst() != null) {
+				// unlink all nodes, in case of concurrent removal attempts
+			}
+		}
+	}
+
+
+	/**
+	 * Count-min sketch estimating the access frequency of keys, with
+	 * four saturating counters per key that are halved periodically
+	 * so that the estimates reflect recent usage.
+	 */
+	private static final class FrequencySketch {
+
+		private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+		private static final int MAXIMUM_COUNT = 15;
+
+		private final byte[] table;
+
+		private final int sampleSize;
+
+		private int additions;
+
+		FrequencySketch(long maximumSize) {
+			// 16 counters per entry keep collisions rare, within a bounded footprint
+			int size = (int) Math.min(Math.max(maximumSize, 16) * 16, 1 << 22);
+			this.table = new byte[Integer.highestOneBit(size - 1) << 1];
+			this.sampleSize = (int) Math.min(maximumSize * 10, Integer.MAX_VALUE);
+		}
+
+		int frequency(int hash) {
+			int frequency = MAXIMUM_COUNT;
+			for (int seed : SEEDS) {
+				frequency = Math.min(frequency, this.table[indexOf(hash, seed)]);
+			}
+			return frequency;
+		}
+
+		void increment(int hash) {
+			boolean added = false;
+			for (int seed : SEEDS) {
+				int index = indexOf(hash, seed);
+				if (this.table[index] < MAXIMUM_COUNT) {
+					this.table[index]++;
+					added = true;
+				}
+			}
+			if (added && ++this.additions >= this.sampleSize) {
+				for (int i = 0; i < this.table.length; i++) {
+					this.table[i] >>= 1;
+				}
+				this.additions /= 2;
+			}
+		}
+
+		private int indexOf(int hash, int seed) {
+			int h = hash * seed;
+			h ^= (h >>> 16);
+			return h & (this.table.length - 1);
+		}
+	}
+
+}
@@ -189,7 +189,7 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		}
 	}
 
-	private Object serializeValue(SerializationDelegate serialization, Object storeValue) throws IOException {
+	static Object serializeValue(SerializationDelegate serialization, Object storeValue) throws IOException {
 		ByteArrayOutputStream out = new ByteArrayOutputStream();
 		try {
 			serialization.serialize(storeValue, out);
@@ -216,7 +216,7 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 
 	}
 
-	private Object deserializeValue(SerializationDelegate serialization, Object storeValue) throws IOException {
+	static Object deserializeValue(SerializationDelegate serialization, Object storeValue) throws IOException {
 		ByteArrayInputStream in = new ByteArrayInputStream((byte[]) storeValue);
 		try {
 			return serialization.deserialize(in);
@@ -19,15 +19,18 @@ package org.springframework.cache.concurrent;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntBiFunction;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * {@link CacheManager} implementation that lazily builds {@link ConcurrentMapCache}
@@ -35,9 +38,13 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
- * cache configuration options. However, it may be useful for testing or simple
- * caching scenarios. For advanced local caching needs, consider
+ * <p>Caches are unbounded by default. As of 5.1, a {@link #setMaximumSize maximum size}
+ * and/or an {@link #setExpireAfterWrite expiration period} can be specified, in which
+ * case {@link BoundedConcurrentMapCache} instances are built, which also expose hit,
+ * miss and eviction counts (see {@link #getCacheStatistics()}).
+ *
+ * <p>Note: This is by no means a sophisticated CacheManager. However, it may be
+ * useful for testing or simple caching scenarios. For advanced local caching needs, consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
  * {@link org.springframework.cache.ehcache.EhCacheCacheManager},
  * {@link org.springframework.cache.caffeine.CaffeineCacheManager}.
@@ -45,6 +52,7 @@ import org.springframework.lang.Nullable;
  * @author Juergen Hoeller
  * @since 3.1
  * @see ConcurrentMapCache
+ * @see BoundedConcurrentMapCache
  */
 public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderAware {
 
@@ -56,6 +64,15 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	private boolean storeByValue = false;
 
+	private long maximumSize = -1;
+
+	@Nullable
+	private ToIntBiFunction<Object, Object> weigher;
+
+	private BoundedConcurrentMapCache.EvictionPolicy evictionPolicy = BoundedConcurrentMapCache.EvictionPolicy.W_TINY_LFU;
+
+	private long expireAfterWrite = -1;
+
 	@Nullable
 	private SerializationDelegate serialization;
 
@@ -146,6 +163,85 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the maximum number of entries for each cache, or the maximum total
+	 * weight of the entries in each cache if a {@link #setWeigher weigher} is set.
+	 * <p>Default is -1, not bounding the size of caches.
+	 * <p>Note: A change of the maximum size will reset all existing caches,
+	 * if any, to reconfigure them with the new size limit.
+	 * @since 5.1
+	 * @see BoundedConcurrentMapCache
+	 */
+	public void setMaximumSize(long maximumSize) {
+		if (maximumSize != this.maximumSize) {
+			this.maximumSize = maximumSize;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the maximum number of entries (or maximum total weight) for
+	 * each cache, or -1 if caches are not bounded in size.
+	 * @since 5.1
+	 */
+	public long getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Specify a function computing the weight of each cache entry from its key
+	 * and value, turning the {@link #setMaximumSize maximum size} into a limit
+	 * for the total weight of a cache's entries.
+	 * <p>A weigher requires a maximum size: caches fail to be created
+	 * with an {@link IllegalStateException} otherwise.
+	 * <p>Note: A change of the weigher will reset all existing caches, if any.
+	 * @since 5.1
+	 */
+	public void setWeigher(@Nullable ToIntBiFunction<Object, Object> weigher) {
+		if (weigher != this.weigher) {
+			this.weigher = weigher;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the policy for evicting entries from caches which have reached
+	 * their {@link #setMaximumSize maximum size}.
+	 * <p>Default is {@link BoundedConcurrentMapCache.EvictionPolicy#W_TINY_LFU}.
+	 * <p>Note: A change of the eviction policy will reset all existing caches, if any.
+	 * @since 5.1
+	 */
+	public void setEvictionPolicy(BoundedConcurrentMapCache.EvictionPolicy evictionPolicy) {
+		Assert.notNull(evictionPolicy, "EvictionPolicy must not be null");
+		if (evictionPolicy != this.evictionPolicy) {
+			this.evictionPolicy = evictionPolicy;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the time (in milliseconds) after which each cache entry expires,
+	 * counting from the time it has been written.
+	 * <p>Default is -1, not expiring entries at all.
+	 * <p>Note: A change of the expiration period will reset all existing caches, if any.
+	 * @since 5.1
+	 */
+	public void setExpireAfterWrite(long expireAfterWrite) {
+		if (expireAfterWrite != this.expireAfterWrite) {
+			this.expireAfterWrite = expireAfterWrite;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the time (in milliseconds) after which each cache entry expires,
+	 * or -1 if entries do not expire.
+	 * @since 5.1
+	 */
+	public long getExpireAfterWrite() {
+		return this.expireAfterWrite;
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -156,6 +252,23 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	}
 
 
+	/**
+	 * Return a snapshot of the usage statistics of each cache which is bounded
+	 * in size or entry lifetime, keyed by cache name.
+	 * @since 5.1
+	 * @see BoundedConcurrentMapCache#getStatistics()
+	 */
+	public Map<String, BoundedConcurrentMapCache.Statistics> getCacheStatistics() {
+		Map<String, BoundedConcurrentMapCache.Statistics> statistics = new LinkedHashMap<>();
+		for (Map.Entry<String, Cache> entry : this.cacheMap.entrySet()) {
+			if (entry.getValue() instanceof BoundedConcurrentMapCache) {
+				statistics.put(entry.getKey(), ((BoundedConcurrentMapCache) entry.getValue()).getStatistics());
+			}
+		}
+		return statistics;
+	}
+
+
 	@Override
 	public Collection<String> getCacheNames() {
 		return Collections.unmodifiableSet(this.cacheMap.keySet());
@@ -185,14 +298,20 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	/**
 	 * Create a new ConcurrentMapCache instance for the specified cache name.
+	 * <p>As of 5.1, a {@link BoundedConcurrentMapCache} gets created if a
+	 * maximum size or an expiration period has been specified.
 	 * @param name the name of the cache
 	 * @return the ConcurrentMapCache (or a decorator thereof)
 	 */
 	protected Cache createConcurrentMapCache(String name) {
+		Assert.state(this.weigher == null || this.maximumSize >= 0, "A weigher requires a maximum size");
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
+		if (this.maximumSize >= 0 || this.expireAfterWrite >= 0) {
+			return new BoundedConcurrentMapCache(name, this.maximumSize, this.weigher, this.evictionPolicy,
+					this.expireAfterWrite, isAllowNullValues(), actualSerialization);
+		}
 		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256),
 				isAllowNullValues(), actualSerialization);
-
 	}
 
 }
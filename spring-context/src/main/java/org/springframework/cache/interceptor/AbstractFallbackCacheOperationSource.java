@@ -30,6 +30,8 @@ import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.MethodClassKey;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Abstract implementation of {@link CacheOperation} that caches attributes
@@ -43,7 +45,10 @@ import org.springframework.util.ClassUtils;
  * has been called through (in case of a JDK proxy) will be checked.
  *
  * <p>This implementation caches attributes by method after they are first
- * used. If it is ever desirable to allow dynamic changing of cacheable
+ * used. Attributes for invocations with a target class are cached in a per-class
+ * {@link MethodAttributeTable} keyed by the invoked method, unless a custom
+ * {@link #getCacheKey} strategy has been specified.
+ * If it is ever desirable to allow dynamic changing of cacheable
  * attributes (which is very unlikely), caching could be made configurable.
  *
  * @author Costin Leau
@@ -73,6 +78,18 @@ public abstract class AbstractFallbackCacheOperationSource implements CacheOpera
 	 */
 	private final Map<Object, Collection<CacheOperation>> attributeCache = new ConcurrentHashMap<>(1024);
 
+	/**
+	 * Cache of CacheOperations per target class, keyed by the method as invoked.
+	 */
+	private final Map<Class<?>, MethodAttributeTable<Collection<CacheOperation>>> classAttributeCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	/**
+	 * Whether the per-class cache applies, i.e. whether {@link #getCacheKey}
+	 * has not been overridden with custom key semantics.
+	 */
+	private final boolean classAttributeCacheApplicable = isClassAttributeCacheApplicable(getClass());
+
 
 	/**
 	 * Determine the caching attribute for this method invocation.
@@ -89,6 +106,18 @@ public abstract class AbstractFallbackCacheOperationSource implements CacheOpera
 			return null;
 		}
 
+		if (targetClass != null && this.classAttributeCacheApplicable) {
+			// Per-class cache, avoiding a method/class key per lookup
+			MethodAttributeTable<Collection<CacheOperation>> table =
+					this.classAttributeCache.computeIfAbsent(targetClass, key -> new MethodAttributeTable<>());
+			Collection<CacheOperation> cacheOps = table.get(method);
+			if (cacheOps == null) {
+				cacheOps = resolveCacheOperations(method, targetClass);
+				table.put(method, cacheOps);
+			}
+			return (cacheOps != NULL_CACHING_ATTRIBUTE ? cacheOps : null);
+		}
+
 		Object cacheKey = getCacheKey(method, targetClass);
 		Collection<CacheOperation> cached = this.attributeCache.get(cacheKey);
 
@@ -96,20 +125,32 @@ public abstract class AbstractFallbackCacheOperationSource implements CacheOpera
 			return (cached != NULL_CACHING_ATTRIBUTE ? cached : null);
 		}
 		else {
-			Collection<CacheOperation> cacheOps = computeCacheOperations(method, targetClass);
-			if (cacheOps != null) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Adding cacheable method '" + method.getName() + "' with attribute: " + cacheOps);
-				}
-				this.attributeCache.put(cacheKey, cacheOps);
-			}
-			else {
-				this.attributeCache.put(cacheKey, NULL_CACHING_ATTRIBUTE);
-			}
-			return cacheOps;
+			Collection<CacheOperation> cacheOps = resolveCacheOperations(method, targetClass);
+			this.attributeCache.put(cacheKey, cacheOps);
+			return (cacheOps != NULL_CACHING_ATTRIBUTE ? cacheOps : null);
 		}
 	}
 
+	/**
+	 * Compute the caching attribute for the given method, preparing it for caching.
+	 * @return the cache operations, or {@code NULL_CACHING_ATTRIBUTE} if none
+	 */
+	private Collection<CacheOperation> resolveCacheOperations(Method method, @Nullable Class<?> targetClass) {
+		Collection<CacheOperation> cacheOps = computeCacheOperations(method, targetClass);
+		if (cacheOps == null) {
+			return NULL_CACHING_ATTRIBUTE;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Adding cacheable method '" + method.getName() + "' with attribute: " + cacheOps);
+		}
+		return cacheOps;
+	}
+
+	private static boolean isClassAttributeCacheApplicable(Class<?> sourceClass) {
+		Method method = ReflectionUtils.findMethod(sourceClass, "getCacheKey", Method.class, Class.class);
+		return (method != null && method.getDeclaringClass() == AbstractFallbackCacheOperationSource.class);
+	}
+
 	/**
 	 * Determine a cache key for the given method and target class.
 	 * <p>Must not produce same key for overloaded methods.
@@ -20,10 +20,13 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
@@ -336,6 +339,19 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return invoker.invoke();
 	}
 
+	/**
+	 * Execute the underlying operation with the given arguments instead of
+	 * the original ones, as used for bulk operations.
+	 * @param invoker the invoker handling the operation being cached
+	 * @param args the arguments to use for the invocation
+	 * @return the result of the invocation
+	 * @since 5.1
+	 * @see CacheOperationInvoker#invoke(Object[])
+	 */
+	protected Object invokeOperation(CacheOperationInvoker invoker, Object[] args) {
+		return invoker.invoke(args);
+	}
+
 	private Class<?> getTargetClass(Object target) {
 		return AopProxyUtils.ultimateTargetClass(target);
 	}
@@ -365,6 +381,18 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of bulk invocation
+		if (contexts.isBulk()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				return executeBulk(invoker, method, context);
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
+
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
@@ -408,6 +436,90 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Look up all keys of a bulk operation at once, invoke the underlying method
+	 * for the missing keys only and merge its results with the cached entries.
+	 * <p>The collection of missing keys is passed to the method through
+	 * {@link CacheOperationInvoker#invoke(Object[])}; invokers which cannot
+	 * pass different arguments on receive the full collection of keys
+	 * instead, with the same overall result.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private Object executeBulk(CacheOperationInvoker invoker, Method method, CacheOperationContext context) {
+		Object[] args = context.getArgs();
+		Collection<Object> keys = (Collection<Object>) args[0];
+		if (CollectionUtils.isEmpty(keys)) {
+			return invokeOperation(invoker);
+		}
+		Cache cache = context.getCaches().iterator().next();
+		Map<Object, Cache.ValueWrapper> cached = doGetAll(cache, keys);
+		if (logger.isTraceEnabled()) {
+			logger.trace("Found " + cached.size() + " of " + keys.size() + " keys in cache '" + cache.getName() + "'");
+		}
+		if (cached.isEmpty()) {
+			Object returnValue = invokeOperation(invoker);
+			putLoadedEntries(cache, keys, (Map<Object, Object>) returnValue);
+			return returnValue;
+		}
+
+		Collection<Object> missingKeys = createMissingKeys(method.getParameterTypes()[0], keys);
+		for (Object key : keys) {
+			if (!cached.containsKey(key)) {
+				missingKeys.add(key);
+			}
+		}
+		Map<Object, Object> loaded = Collections.emptyMap();
+		if (!missingKeys.isEmpty()) {
+			Object returnValue = invokeOperation(invoker, new Object[] {missingKeys});
+			if (returnValue != null) {
+				loaded = (Map<Object, Object>) returnValue;
+				putLoadedEntries(cache, missingKeys, loaded);
+			}
+		}
+
+		Map<Object, Object> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			Cache.ValueWrapper wrapper = cached.get(key);
+			if (wrapper != null) {
+				result.put(key, wrapper.get());
+			}
+			else if (loaded.containsKey(key)) {
+				result.put(key, loaded.get(key));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Create the collection of missing keys for the given parameter type,
+	 * as validated for bulk operations: a {@link LinkedHashSet} if the
+	 * requested keys are a {@link Set} or the parameter type does not accept
+	 * a {@link List}, an {@link ArrayList} otherwise.
+	 */
+	private static Collection<Object> createMissingKeys(Class<?> parameterType, Collection<Object> keys) {
+		if ((keys instanceof Set || !parameterType.isAssignableFrom(ArrayList.class)) &&
+				parameterType.isAssignableFrom(LinkedHashSet.class)) {
+			return new LinkedHashSet<>(keys.size());
+		}
+		return new ArrayList<>(keys.size());
+	}
+
+	private void putLoadedEntries(Cache cache, Collection<Object> keys, @Nullable Map<Object, Object> loaded) {
+		if (loaded == null) {
+			return;
+		}
+		Map<Object, Object> entries = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			if (loaded.containsKey(key)) {
+				entries.put(key, loaded.get(key));
+			}
+		}
+		if (!entries.isEmpty()) {
+			doPutAll(cache, entries);
+		}
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -564,6 +676,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final boolean bulk;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -571,6 +685,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(operation.getClass(), getOperationContext(operation, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.bulk = determineBulkFlag(method);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -582,6 +697,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBulk() {
+			return this.bulk;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -613,6 +732,51 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private boolean determineBulkFlag(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return false;
+			}
+			boolean bulkEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBulk()) {
+					bulkEnabled = true;
+					break;
+				}
+			}
+			if (bulkEnabled) {
+				if (this.contexts.size() > 1 || cacheOperationContexts.size() > 1) {
+					throw new IllegalStateException("@Cacheable(bulk=true) cannot be combined with other cache operations on '" + method + "'");
+				}
+				CacheOperationContext cacheOperationContext = cacheOperationContexts.iterator().next();
+				CacheableOperation operation = (CacheableOperation) cacheOperationContext.getOperation();
+				if (operation.isSync()) {
+					throw new IllegalStateException("@Cacheable(bulk=true) cannot be combined with sync=true on '" + operation + "'");
+				}
+				if (cacheOperationContext.getCaches().size() > 1) {
+					throw new IllegalStateException("@Cacheable(bulk=true) only allows a single cache on '" + operation + "'");
+				}
+				if (StringUtils.hasText(operation.getKey()) || StringUtils.hasText(operation.getKeyGenerator()) ||
+						StringUtils.hasText(operation.getUnless())) {
+					throw new IllegalStateException("@Cacheable(bulk=true) does not support key, keyGenerator " +
+							"and unless attributes on '" + operation + "'");
+				}
+				if (method.getParameterCount() != 1 || !isBulkKeyType(method.getParameterTypes()[0]) ||
+						!method.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+					throw new IllegalStateException("@Cacheable(bulk=true) requires a single Collection parameter " +
+							"assignable from ArrayList or LinkedHashSet and a Map return type assignable from " +
+							"LinkedHashMap on '" + method + "'");
+				}
+				return true;
+			}
+			return false;
+		}
+
+		private boolean isBulkKeyType(Class<?> parameterType) {
+			return (parameterType.isAssignableFrom(ArrayList.class) ||
+					parameterType.isAssignableFrom(LinkedHashSet.class));
+		}
 	}
 
 
@@ -632,6 +796,11 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private volatile KeyExpressionAccessor keyAccessor;
+
+		private volatile boolean keyAccessorResolved;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -728,12 +897,30 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		@Nullable
 		protected Object generateKey(@Nullable Object result) {
 			if (StringUtils.hasText(this.metadata.operation.getKey())) {
+				KeyExpressionAccessor keyAccessor = getKeyAccessor();
+				if (keyAccessor != null) {
+					Object key = keyAccessor.getValue(this.args, result);
+					if (key != KeyExpressionAccessor.UNRESOLVED) {
+						return key;
+					}
+				}
 				EvaluationContext evaluationContext = createEvaluationContext(result);
 				return evaluator.key(this.metadata.operation.getKey(), this.methodCacheKey, evaluationContext);
 			}
 			return this.metadata.keyGenerator.generate(this.target, this.metadata.method, this.args);
 		}
 
+		@Nullable
+		private KeyExpressionAccessor getKeyAccessor() {
+			CacheOperationMetadata metadata = this.metadata;
+			if (!metadata.keyAccessorResolved) {
+				metadata.keyAccessor = evaluator.keyAccessor(
+						metadata.operation.getKey(), metadata.method, metadata.targetClass);
+				metadata.keyAccessorResolved = true;
+			}
+			return metadata.keyAccessor;
+		}
+
 		private EvaluationContext createEvaluationContext(@Nullable Object result) {
 			return evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
 					this.target, this.metadata.targetClass, result, beanFactory);
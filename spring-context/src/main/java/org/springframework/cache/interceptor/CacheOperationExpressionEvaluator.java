@@ -118,6 +118,23 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
 	}
 
+	/**
+	 * Create a {@link KeyExpressionAccessor} for the specified key expression,
+	 * resolving simple expressions against the method arguments directly.
+	 * @param keyExpression the key expression
+	 * @param method the method
+	 * @param targetClass the target class
+	 * @return the accessor, or {@code null} if the expression needs to be
+	 * evaluated through {@link #key}
+	 * @since 5.1
+	 */
+	@Nullable
+	public KeyExpressionAccessor keyAccessor(String keyExpression, Method method, Class<?> targetClass) {
+		Method targetMethod = getTargetMethod(targetClass, method);
+		return KeyExpressionAccessor.forExpression(keyExpression, targetMethod,
+				getParameterNameDiscoverer().getParameterNames(targetMethod));
+	}
+
 	public boolean condition(String conditionExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
 		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
 				evalContext, Boolean.class)));
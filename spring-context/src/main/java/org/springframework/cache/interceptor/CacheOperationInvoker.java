@@ -38,6 +38,21 @@ public interface CacheOperationInvoker {
 	 */
 	Object invoke() throws ThrowableWrapper;
 
+	/**
+	 * Invoke the cache operation defined by this instance with the given
+	 * arguments instead of the original ones, as used for bulk operations.
+	 * <p>The default implementation ignores the given arguments and delegates
+	 * to {@link #invoke()}: invokers which are able to pass different arguments
+	 * on to the underlying invocation should override this method.
+	 * @param args the arguments to use for the invocation
+	 * @return the result of the operation
+	 * @throws ThrowableWrapper if an error occurred while invoking the operation
+	 * @since 5.1
+	 */
+	default Object invoke(Object[] args) throws ThrowableWrapper {
+		return invoke();
+	}
+
 
 	/**
 	 * Wrap any exception thrown while invoking {@link #invoke()}.
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.regex.Pattern;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Specialized evaluation of simple cache key expressions such as {@code #id},
+ * {@code #p0} or {@code #user.id}, resolved once per cached method: the
+ * referenced argument (or the method result) is accessed directly, followed
+ * by plain getter invocations, without creating an evaluation context.
+ *
+ * <p>Whenever a value cannot be resolved in the same way as through SpEL
+ * (e.g. a {@code null} intermediate value, a property without a public getter,
+ * or a getter throwing an exception), {@link #UNRESOLVED} is returned and the
+ * caller is expected to fall back to regular expression evaluation.
+ *
+ * @since 5.1
+ * @see CacheOperationExpressionEvaluator#keyAccessor
+ */
+final class KeyExpressionAccessor {
+
+	/**
+	 * Indicate that the key could not be resolved directly.
+	 */
+	static final Object UNRESOLVED = new Object();
+
+	private static final Pattern SIMPLE_EXPRESSION =
+			Pattern.compile("#[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)*");
+
+	private static final int RESULT_INDEX = -1;
+
+
+	private final int argumentIndex;
+
+	private final PropertyGetter[] getters;
+
+
+	private KeyExpressionAccessor(int argumentIndex, String[] propertyNames) {
+		this.argumentIndex = argumentIndex;
+		this.getters = new PropertyGetter[propertyNames.length];
+		for (int i = 0; i < propertyNames.length; i++) {
+			this.getters[i] = new PropertyGetter(propertyNames[i]);
+		}
+	}
+
+
+	/**
+	 * Resolve the key for the given invocation.
+	 * @param args the method arguments
+	 * @param result the return value, or {@link CacheOperationExpressionEvaluator#NO_RESULT}
+	 * or {@link CacheOperationExpressionEvaluator#RESULT_UNAVAILABLE}
+	 * @return the key, or {@link #UNRESOLVED} if the expression needs to be evaluated
+	 */
+	@Nullable
+	public Object getValue(Object[] args, @Nullable Object result) {
+		Object value;
+		if (this.argumentIndex == RESULT_INDEX) {
+			if (result == CacheOperationExpressionEvaluator.NO_RESULT ||
+					result == CacheOperationExpressionEvaluator.RESULT_UNAVAILABLE) {
+				return UNRESOLVED;
+			}
+			value = result;
+		}
+		else {
+			value = args[this.argumentIndex];
+		}
+		for (PropertyGetter getter : this.getters) {
+			if (value == null) {
+				return UNRESOLVED;
+			}
+			value = getter.getValue(value);
+			if (value == UNRESOLVED) {
+				return UNRESOLVED;
+			}
+		}
+		return value;
+	}
+
+
+	/**
+	 * Create an accessor for the given key expression, if it is simple enough.
+	 * @param expression the key expression
+	 * @param method the target method that the expression is declared for
+	 * @param parameterNames the discovered parameter names (if any)
+	 * @return the accessor, or {@code null} if the expression needs to be evaluated
+	 */
+	@Nullable
+	public static KeyExpressionAccessor forExpression(
+			String expression, Method method, @Nullable String[] parameterNames) {
+
+		String trimmed = expression.trim();
+		if (method.isVarArgs() || !SIMPLE_EXPRESSION.matcher(trimmed).matches()) {
+			return null;
+		}
+		String[] parts = StringUtils.delimitedListToStringArray(trimmed.substring(1), ".");
+		String variable = parts[0];
+		if ("root".equals(variable) || "this".equals(variable)) {
+			return null;
+		}
+		// Same precedence as MethodBasedEvaluationContext: later parameters win
+		int index = RESULT_INDEX;
+		int paramCount = method.getParameterCount();
+		if (parameterNames != null && parameterNames.length != paramCount) {
+			return null;
+		}
+		for (int i = 0; i < paramCount; i++) {
+			if (variable.equals("a" + i) || variable.equals("p" + i) ||
+					(parameterNames != null && variable.equals(parameterNames[i]))) {
+				index = i;
+			}
+		}
+		if (index == RESULT_INDEX && !CacheOperationExpressionEvaluator.RESULT_VARIABLE.equals(variable)) {
+			// Unknown variable: leave it to SpEL
+			return null;
+		}
+		if (index != RESULT_INDEX && CacheOperationExpressionEvaluator.RESULT_VARIABLE.equals(variable)) {
+			// Parameter named 'result': depends on the presence of a result
+			return null;
+		}
+		String[] propertyNames = new String[parts.length - 1];
+		System.arraycopy(parts, 1, propertyNames, 0, propertyNames.length);
+		return new KeyExpressionAccessor(index, propertyNames);
+	}
+
+
+	/**
+	 * Invokes the getter for a specific property, caching the getter
+	 * for the most recently encountered target class.
+	 */
+	private static class PropertyGetter {
+
+		private final String propertyName;
+
+		@Nullable
+		private volatile ResolvedGetter resolved;
+
+		PropertyGetter(String propertyName) {
+			this.propertyName = propertyName;
+		}
+
+		public Object getValue(Object target) {
+			Class<?> targetClass = target.getClass();
+			ResolvedGetter resolved = this.resolved;
+			if (resolved == null || resolved.targetClass != targetClass) {
+				resolved = new ResolvedGetter(targetClass, findGetter(targetClass));
+				this.resolved = resolved;
+			}
+			if (resolved.method == null) {
+				return UNRESOLVED;
+			}
+			try {
+				return resolved.method.invoke(target);
+			}
+			catch (Throwable ex) {
+				return UNRESOLVED;
+			}
+		}
+
+		@Nullable
+		private Method findGetter(Class<?> targetClass) {
+			if (targetClass.isArray() || Class.class == targetClass) {
+				return null;
+			}
+			String suffix = StringUtils.capitalize(this.propertyName);
+			Method getter = ReflectionUtils.findMethod(targetClass, "get" + suffix);
+			if (getter == null) {
+				getter = ReflectionUtils.findMethod(targetClass, "is" + suffix);
+				if (getter != null && getter.getReturnType() != boolean.class && getter.getReturnType() != Boolean.class) {
+					getter = null;
+				}
+			}
+			if (getter == null || getter.getReturnType() == void.class ||
+					!Modifier.isPublic(getter.getModifiers()) || Modifier.isStatic(getter.getModifiers())) {
+				return null;
+			}
+			ReflectionUtils.makeAccessible(getter);
+			return getter;
+		}
+	}
+
+
+	private static class ResolvedGetter {
+
+		final Class<?> targetClass;
+
+		@Nullable
+		final Method method;
+
+		ResolvedGetter(Class<?> targetClass, @Nullable Method method) {
+			this.targetClass = targetClass;
+			this.method = method;
+		}
+	}
+
+}
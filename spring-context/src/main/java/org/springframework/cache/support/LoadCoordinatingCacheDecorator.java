@@ -0,0 +1,536 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Cache decorator which coordinates the loading of values through
+ * {@link #get(Object, Callable)}, as used for {@code @Cacheable(sync=true)},
+ * on top of any target {@link Cache}.
+ *
+ * <p>Concurrent misses for the same key are collapsed into a single load:
+ * loads are guarded by a fixed set of striped locks, and callers waiting on
+ * a lock pick up the value that has been loaded in the meantime. Unlike
+ * synchronized computation within the target cache, reads are never blocked
+ * by a load in progress, and loads for different keys only wait for each
+ * other if their keys share a lock stripe.
+ *
+ * <p>Once a {@link #setRefreshAfterWrite "refreshAfterWrite"} period is set,
+ * entries get stored along with their load time. An entry that is requested
+ * after that period is still returned right away (stale-while-revalidate),
+ * while a single asynchronous refresh of it is triggered through the
+ * {@link #setRefreshExecutor refresh executor}; entries which are not being
+ * requested anymore are not refreshed. A refreshed value only replaces the
+ * stale entry it has been triggered for, never an entry that has been evicted
+ * or overwritten in the meantime. Hard expiration remains up to the
+ * target cache. Note that with refresh enabled, the target cache holds
+ * {@link Serializable} wrappers for its non-null values, so all access to
+ * it should go through this decorator.
+ *
+ * <p>Statistics on loads, collapsed loads, stale hits and refreshes are
+ * exposed through the corresponding getters.
+ *
+ * @since 5.1
+ * @see LoadCoordinatingCacheManagerProxy
+ */
+public class LoadCoordinatingCacheDecorator implements Cache, DisposableBean {
+
+	private static final int DEFAULT_LOCK_STRIPES = 64;
+
+	private static final int DEFAULT_REFRESH_THREADS = 4;
+
+	private static final int DEFAULT_REFRESH_QUEUE_CAPACITY = 1024;
+
+	private static final Log logger = LogFactory.getLog(LoadCoordinatingCacheDecorator.class);
+
+
+	private final Cache targetCache;
+
+	private final Object[] locks;
+
+	private final Set<Object> refreshingKeys = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Per stripe: guards the compare-and-set of refreshed values (write lock)
+	 * against regular modifications of the target cache (read lock, shared).
+	 */
+	private final ReadWriteLock[] refreshLocks;
+
+	private long refreshAfterWrite = -1;
+
+	@Nullable
+	private volatile Executor refreshExecutor;
+
+	@Nullable
+	private ThreadPoolExecutor defaultRefreshExecutor;
+
+	private final Object refreshExecutorMonitor = new Object();
+
+	private final LongAdder loadCount = new LongAdder();
+
+	private final LongAdder collapsedLoadCount = new LongAdder();
+
+	private final LongAdder staleHitCount = new LongAdder();
+
+	private final LongAdder refreshCount = new LongAdder();
+
+	private final LongAdder refreshFailureCount = new LongAdder();
+
+
+	/**
+	 * Create a new LoadCoordinatingCacheDecorator for the given target Cache,
+	 * using a default number of lock stripes.
+	 * @param targetCache the target Cache to decorate
+	 */
+	public LoadCoordinatingCacheDecorator(Cache targetCache) {
+		this(targetCache, DEFAULT_LOCK_STRIPES);
+	}
+
+	/**
+	 * Create a new LoadCoordinatingCacheDecorator for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 * @param lockStripes the number of locks to distribute loads across
+	 * (rounded up to the next power of two)
+	 */
+	public LoadCoordinatingCacheDecorator(Cache targetCache, int lockStripes) {
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		Assert.isTrue(lockStripes > 0, "Number of lock stripes must be greater than 0");
+		this.targetCache = targetCache;
+		this.locks = new Object[lockStripes > 1 ? Integer.highestOneBit(lockStripes - 1) << 1 : 1];
+		this.refreshLocks = new ReadWriteLock[this.locks.length];
+		for (int i = 0; i < this.locks.length; i++) {
+			this.locks[i] = new Object();
+			this.refreshLocks[i] = new ReentrantReadWriteLock();
+		}
+	}
+
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+	/**
+	 * Set the time (in milliseconds) after which a loaded value is considered
+	 * stale and gets refreshed asynchronously on its next access.
+	 * <p>Default is -1, not refreshing values at all.
+	 */
+	public void setRefreshAfterWrite(long refreshAfterWrite) {
+		this.refreshAfterWrite = refreshAfterWrite;
+	}
+
+	/**
+	 * Return the time (in milliseconds) after which a loaded value is
+	 * considered stale, or -1 if values are not refreshed.
+	 */
+	public long getRefreshAfterWrite() {
+		return this.refreshAfterWrite;
+	}
+
+	/**
+	 * Set the executor to run asynchronous refreshes with.
+	 * <p>Default is a bounded pool of 4 daemon threads with a queue of 1024
+	 * pending refreshes, created on the first refresh and shut down on
+	 * {@link #destroy()}; refreshes beyond that are rejected and counted as
+	 * failures, keeping the stale value. Any custom executor should be bounded
+	 * as well, since every stale hit on a distinct key triggers a refresh.
+	 */
+	public void setRefreshExecutor(Executor refreshExecutor) {
+		Assert.notNull(refreshExecutor, "Refresh executor must not be null");
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * Shut down the default refresh executor, if it has been created.
+	 * A custom executor specified through {@link #setRefreshExecutor}
+	 * remains untouched.
+	 */
+	@Override
+	public void destroy() {
+		synchronized (this.refreshExecutorMonitor) {
+			if (this.defaultRefreshExecutor != null) {
+				this.defaultRefreshExecutor.shutdownNow();
+				this.defaultRefreshExecutor = null;
+				this.refreshExecutor = null;
+			}
+		}
+	}
+
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.targetCache.get(key);
+		if (wrapper != null && wrapper.get() instanceof RefreshableValue) {
+			return new SimpleValueWrapper(((RefreshableValue) wrapper.get()).value);
+		}
+		return wrapper;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.targetCache.get(key);
+		if (wrapper != null) {
+			return (T) getCachedValue(key, wrapper.get(), valueLoader);
+		}
+		synchronized (this.locks[lockIndex(key)]) {
+			wrapper = this.targetCache.get(key);
+			if (wrapper != null) {
+				// Loaded by another caller while we have been waiting for the lock
+				this.collapsedLoadCount.increment();
+				return (T) getCachedValue(key, wrapper.get(), valueLoader);
+			}
+			T value;
+			try {
+				value = valueLoader.call();
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+			this.loadCount.increment();
+			put(key, value);
+			return value;
+		}
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		Lock lock = refreshLock(key).readLock();
+		lock.lock();
+		try {
+			this.targetCache.put(key, toStoreValue(value));
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing;
+		Lock lock = refreshLock(key).readLock();
+		lock.lock();
+		try {
+			existing = this.targetCache.putIfAbsent(key, toStoreValue(value));
+		}
+		finally {
+			lock.unlock();
+		}
+		if (existing != null && existing.get() instanceof RefreshableValue) {
+			return new SimpleValueWrapper(((RefreshableValue) existing.get()).value);
+		}
+		return existing;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> cached = this.targetCache.getAll(keys);
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(cached.size());
+		for (Map.Entry<Object, ValueWrapper> entry : cached.entrySet()) {
+			Object storeValue = entry.getValue().get();
+			result.put(entry.getKey(), storeValue instanceof RefreshableValue ?
+					new SimpleValueWrapper(((RefreshableValue) storeValue).value) : entry.getValue());
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeValues = new LinkedHashMap<>(entries.size());
+		for (Map.Entry<?, ?> entry : entries.entrySet()) {
+			storeValues.put(entry.getKey(), toStoreValue(entry.getValue()));
+		}
+		lockAllStripes();
+		try {
+			this.targetCache.putAll(storeValues);
+		}
+		finally {
+			unlockAllStripes();
+		}
+	}
+
+	@Override
+	public void evict(Object key) {
+		Lock lock = refreshLock(key).readLock();
+		lock.lock();
+		try {
+			this.targetCache.evict(key);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		lockAllStripes();
+		try {
+			this.targetCache.clear();
+		}
+		finally {
+			unlockAllStripes();
+		}
+	}
+
+
+	/**
+	 * Return the number of values loaded through {@link #get(Object, Callable)}.
+	 */
+	public long getLoadCount() {
+		return this.loadCount.sum();
+	}
+
+	/**
+	 * Return the number of loads that have been avoided since the value
+	 * got loaded by a concurrent caller for the same key.
+	 */
+	public long getCollapsedLoadCount() {
+		return this.collapsedLoadCount.sum();
+	}
+
+	/**
+	 * Return the number of stale values that have been returned
+	 * while triggering an asynchronous refresh.
+	 */
+	public long getStaleHitCount() {
+		return this.staleHitCount.sum();
+	}
+
+	/**
+	 * Return the number of successful asynchronous refreshes.
+	 */
+	public long getRefreshCount() {
+		return this.refreshCount.sum();
+	}
+
+	/**
+	 * Return the number of failed asynchronous refreshes.
+	 */
+	public long getRefreshFailureCount() {
+		return this.refreshFailureCount.sum();
+	}
+
+
+	@Nullable
+	private Object getCachedValue(Object key, @Nullable Object storeValue, Callable<?> valueLoader) {
+		if (!(storeValue instanceof RefreshableValue)) {
+			return storeValue;
+		}
+		RefreshableValue refreshableValue = (RefreshableValue) storeValue;
+		if (this.refreshAfterWrite >= 0 &&
+				System.currentTimeMillis() - refreshableValue.loadTime >= this.refreshAfterWrite) {
+			this.staleHitCount.increment();
+			refresh(key, refreshableValue, valueLoader);
+		}
+		return refreshableValue.value;
+	}
+
+	private void refresh(Object key, RefreshableValue staleValue, Callable<?> valueLoader) {
+		if (!this.refreshingKeys.add(key)) {
+			// Refresh already in progress
+			return;
+		}
+		try {
+			obtainRefreshExecutor().execute(() -> {
+				try {
+					Object value = valueLoader.call();
+					replaceStaleValue(key, staleValue, value);
+					this.refreshCount.increment();
+				}
+				catch (Throwable ex) {
+					this.refreshFailureCount.increment();
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to refresh value for key '" + key + "' in cache '" + getName() + "'", ex);
+					}
+				}
+				finally {
+					this.refreshingKeys.remove(key);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			this.refreshingKeys.remove(key);
+			this.refreshFailureCount.increment();
+		}
+	}
+
+	/**
+	 * Store the refreshed value if the target cache still holds the given stale
+	 * value for the key: entries which have been evicted or overwritten in the
+	 * meantime must neither be resurrected nor replaced. Only blocks writers
+	 * of keys within the same lock stripe.
+	 */
+	private void replaceStaleValue(Object key, RefreshableValue staleValue, @Nullable Object value) {
+		Lock lock = refreshLock(key).writeLock();
+		lock.lock();
+		try {
+			ValueWrapper wrapper = this.targetCache.get(key);
+			if (wrapper != null && staleValue.isSameEntry(wrapper.get())) {
+				this.targetCache.put(key, toStoreValue(value));
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private Executor obtainRefreshExecutor() {
+		Executor executor = this.refreshExecutor;
+		if (executor == null) {
+			synchronized (this.refreshExecutorMonitor) {
+				executor = this.refreshExecutor;
+				if (executor == null) {
+					this.defaultRefreshExecutor = createDefaultRefreshExecutor();
+					executor = this.defaultRefreshExecutor;
+					this.refreshExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	@Nullable
+	private Object toStoreValue(@Nullable Object value) {
+		return (value != null && this.refreshAfterWrite >= 0 ?
+				new RefreshableValue(value, System.currentTimeMillis()) : value);
+	}
+
+	private int lockIndex(Object key) {
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & (this.locks.length - 1);
+	}
+
+	private ReadWriteLock refreshLock(Object key) {
+		return this.refreshLocks[lockIndex(key)];
+	}
+
+	/**
+	 * Acquire the shared lock of every stripe for a bulk modification,
+	 * always in the same order.
+	 */
+	private void lockAllStripes() {
+		for (ReadWriteLock lock : this.refreshLocks) {
+			lock.readLock().lock();
+		}
+	}
+
+	private void unlockAllStripes() {
+		for (ReadWriteLock lock : this.refreshLocks) {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Create the default refresh executor: a bounded pool of daemon threads
+	 * which time out when idle.
+	 */
+	static ThreadPoolExecutor createDefaultRefreshExecutor() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_REFRESH_THREADS, DEFAULT_REFRESH_THREADS,
+				60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(DEFAULT_REFRESH_QUEUE_CAPACITY), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+
+	/**
+	 * Holder for a cached value along with the time it has been loaded at.
+	 */
+	@SuppressWarnings("serial")
+	private static final class RefreshableValue implements Serializable {
+
+		private final Object value;
+
+		private final long loadTime;
+
+		RefreshableValue(Object value, long loadTime) {
+			this.value = value;
+			this.loadTime = loadTime;
+		}
+
+		/**
+		 * Determine whether the given store value represents this very entry,
+		 * also after a by-value copy in the target cache.
+		 */
+		boolean isSameEntry(@Nullable Object storeValue) {
+			if (this == storeValue) {
+				return true;
+			}
+			if (!(storeValue instanceof RefreshableValue)) {
+				return false;
+			}
+			RefreshableValue other = (RefreshableValue) storeValue;
+			return (this.loadTime == other.loadTime && ObjectUtils.nullSafeEquals(this.value, other.value));
+		}
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Proxy for a target {@link CacheManager}, exposing {@link LoadCoordinatingCacheDecorator}
+ * instances which collapse concurrent loads for the same key and optionally refresh
+ * stale entries asynchronously. Works with any target CacheManager.
+ *
+ * <p>Decorators are created once per cache name, so that their statistics
+ * accumulate across {@link #getCache} calls, and recreated if the target
+ * CacheManager returns a different Cache instance for the name later on.
+ * All decorators share a single refresh executor.
+ *
+ * @since 5.1
+ * @see #setTargetCacheManager
+ * @see LoadCoordinatingCacheDecorator
+ */
+public class LoadCoordinatingCacheManagerProxy implements CacheManager, InitializingBean, DisposableBean {
+
+	@Nullable
+	private CacheManager targetCacheManager;
+
+	private long refreshAfterWrite = -1;
+
+	@Nullable
+	private Executor refreshExecutor;
+
+	@Nullable
+	private ThreadPoolExecutor defaultRefreshExecutor;
+
+	private final ConcurrentMap<String, LoadCoordinatingCacheDecorator> cacheMap = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new LoadCoordinatingCacheManagerProxy, setting the target CacheManager
+	 * through the {@link #setTargetCacheManager} bean property.
+	 */
+	public LoadCoordinatingCacheManagerProxy() {
+	}
+
+	/**
+	 * Create a new LoadCoordinatingCacheManagerProxy for the given target CacheManager.
+	 * @param targetCacheManager the target CacheManager to proxy
+	 */
+	public LoadCoordinatingCacheManagerProxy(CacheManager targetCacheManager) {
+		Assert.notNull(targetCacheManager, "Target CacheManager must not be null");
+		this.targetCacheManager = targetCacheManager;
+	}
+
+
+	/**
+	 * Set the target CacheManager to proxy.
+	 */
+	public void setTargetCacheManager(CacheManager targetCacheManager) {
+		this.targetCacheManager = targetCacheManager;
+	}
+
+	/**
+	 * Set the time (in milliseconds) after which a loaded value gets
+	 * refreshed asynchronously on its next access. Default is -1 (none).
+	 * @see LoadCoordinatingCacheDecorator#setRefreshAfterWrite
+	 */
+	public void setRefreshAfterWrite(long refreshAfterWrite) {
+		this.refreshAfterWrite = refreshAfterWrite;
+	}
+
+	/**
+	 * Set the executor to run asynchronous refreshes with, shared by all caches.
+	 * <p>Default is a bounded pool of daemon threads, created once the first
+	 * cache with a {@link #setRefreshAfterWrite "refreshAfterWrite"} period
+	 * gets decorated and shut down on {@link #destroy()}.
+	 * @see LoadCoordinatingCacheDecorator#setRefreshExecutor
+	 */
+	public void setRefreshExecutor(Executor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.targetCacheManager == null) {
+			throw new IllegalArgumentException("Property 'targetCacheManager' is required");
+		}
+	}
+
+	/**
+	 * Shut down the default refresh executor, if it has been created.
+	 */
+	@Override
+	public void destroy() {
+		synchronized (this.cacheMap) {
+			if (this.defaultRefreshExecutor != null) {
+				this.defaultRefreshExecutor.shutdownNow();
+				this.defaultRefreshExecutor = null;
+			}
+		}
+		this.cacheMap.clear();
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		Cache targetCache = this.targetCacheManager.getCache(name);
+		if (targetCache == null) {
+			this.cacheMap.remove(name);
+			return null;
+		}
+		LoadCoordinatingCacheDecorator cache = this.cacheMap.get(name);
+		if (cache == null || cache.getTargetCache() != targetCache) {
+			// New or recreated target Cache
+			cache = this.cacheMap.compute(name, (key, existing) ->
+					(existing != null && existing.getTargetCache() == targetCache ?
+							existing : decorateCache(targetCache)));
+		}
+		return cache;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		return this.targetCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Create the decorator for the given target Cache.
+	 * @param targetCache the Cache obtained from the target CacheManager
+	 * @return the decorated Cache
+	 */
+	protected LoadCoordinatingCacheDecorator decorateCache(Cache targetCache) {
+		LoadCoordinatingCacheDecorator cache = new LoadCoordinatingCacheDecorator(targetCache);
+		cache.setRefreshAfterWrite(this.refreshAfterWrite);
+		if (this.refreshAfterWrite >= 0) {
+			cache.setRefreshExecutor(obtainRefreshExecutor());
+		}
+		return cache;
+	}
+
+	private Executor obtainRefreshExecutor() {
+		if (this.refreshExecutor != null) {
+			return this.refreshExecutor;
+		}
+		synchronized (this.cacheMap) {
+			if (this.defaultRefreshExecutor == null) {
+				this.defaultRefreshExecutor = LoadCoordinatingCacheDecorator.createDefaultRefreshExecutor();
+			}
+			return this.defaultRefreshExecutor;
+		}
+	}
+
+}
@@ -51,6 +51,8 @@ import org.springframework.util.ClassUtils;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * A component provider that provides candidate components from a base package. Can
@@ -80,6 +82,12 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/**
+	 * Default maximum number of resources read by a single task in parallel
+	 * scanning mode; larger ranges get split in halves.
+	 */
+	private static final int DEFAULT_PARALLEL_SCANNING_THRESHOLD = 32;
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -107,6 +115,13 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	private boolean parallelScanning = false;
+
+	@Nullable
+	private ForkJoinPool scanningPool;
+
+	private int parallelScanningThreshold = DEFAULT_PARALLEL_SCANNING_THRESHOLD;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -158,6 +173,51 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.resourcePattern = resourcePattern;
 	}
 
+	/**
+	 * Set whether to read and filter candidate classes in parallel when scanning
+	 * the classpath. Default is "false".
+	 * <p>The resource pattern is still resolved in a single pass; the resulting
+	 * ".class" resources are then parsed and matched against the include/exclude
+	 * filters on a {@link ForkJoinPool}. Candidate components are returned in the
+	 * same order as with sequential scanning.
+	 * <p>Note that custom {@link TypeFilter TypeFilters}, a custom
+	 * {@link MetadataReaderFactory} as well as overrides of the
+	 * {@code isCandidateComponent} methods need to be thread-safe
+	 * when switching this flag on.
+	 * @since 5.1
+	 * @see #setScanningPool
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether candidate classes are read and filtered in parallel.
+	 * @since 5.1
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
+	/**
+	 * Specify the {@link ForkJoinPool} to use for parallel scanning.
+	 * <p>Default is the {@link ForkJoinPool#commonPool() common pool}.
+	 * @since 5.1
+	 * @see #setParallelScanning
+	 */
+	public void setScanningPool(@Nullable ForkJoinPool scanningPool) {
+		this.scanningPool = scanningPool;
+	}
+
+	/**
+	 * Set the maximum number of resources read by a single task in parallel
+	 * scanning mode (default is 32). Mainly intended for testing purposes.
+	 */
+	void setParallelScanningThreshold(int parallelScanningThreshold) {
+		Assert.isTrue(parallelScanningThreshold > 0, "'parallelScanningThreshold' must be positive");
+		this.parallelScanningThreshold = parallelScanningThreshold;
+	}
+
 	/**
 	 * Add an include type filter to the <i>end</i> of the inclusion list.
 	 */
@@ -428,53 +488,82 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+			if (this.parallelScanning && resources.length > this.parallelScanningThreshold) {
+				// Make sure that lazily initialized state is in place before forking
+				getMetadataReaderFactory();
+				ScannedGenericBeanDefinition[] results = new ScannedGenericBeanDefinition[resources.length];
+				ForkJoinPool pool = (this.scanningPool != null ? this.scanningPool : ForkJoinPool.commonPool());
+				pool.invoke(new CandidateComponentScanTask(resources, results, 0, resources.length));
+				for (ScannedGenericBeanDefinition sbd : results) {
+					if (sbd != null) {
+						candidates.add(sbd);
+					}
 				}
-				if (resource.isReadable()) {
-					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-						if (isCandidateComponent(metadataReader)) {
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setResource(resource);
-							sbd.setSource(resource);
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								candidates.add(sbd);
-							}
-							else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						}
-						else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
+			}
+			else {
+				for (Resource resource : resources) {
+					ScannedGenericBeanDefinition sbd = scanCandidateComponent(resource);
+					if (sbd != null) {
+						candidates.add(sbd);
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Read the given class resource and build a bean definition for it
+	 * if it qualifies as a candidate component.
+	 * @param resource the ".class" resource to read
+	 * @return the corresponding bean definition, or {@code null} if none
+	 */
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(Resource resource) {
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		if (resource.isReadable()) {
+			try {
+				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+				if (isCandidateComponent(metadataReader)) {
+					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+					sbd.setResource(resource);
+					sbd.setSource(resource);
+					if (isCandidateComponent(sbd)) {
+						if (debugEnabled) {
+							logger.debug("Identified candidate component class: " + resource);
 						}
+						return sbd;
 					}
-					catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
+					else {
+						if (debugEnabled) {
+							logger.debug("Ignored because not a concrete top-level class: " + resource);
+						}
 					}
 				}
 				else {
 					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+						logger.trace("Ignored because not matching any filter: " + resource);
 					}
 				}
 			}
+			catch (Throwable ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resource, ex);
+			}
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		else {
+			if (traceEnabled) {
+				logger.trace("Ignored because not readable: " + resource);
+			}
 		}
-		return candidates;
+		return null;
 	}
 
 
@@ -521,11 +610,12 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * @return whether the class qualifies as a candidate component
 	 */
 	private boolean isConditionMatch(MetadataReader metadataReader) {
-		if (this.conditionEvaluator == null) {
-			this.conditionEvaluator =
-					new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+		ConditionEvaluator conditionEvaluator = this.conditionEvaluator;
+		if (conditionEvaluator == null) {
+			conditionEvaluator = new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+			this.conditionEvaluator = conditionEvaluator;
 		}
-		return !this.conditionEvaluator.shouldSkip(metadataReader.getAnnotationMetadata());
+		return !conditionEvaluator.shouldSkip(metadataReader.getAnnotationMetadata());
 	}
 
 	/**
@@ -554,4 +644,45 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		}
 	}
 
+
+	/**
+	 * Fork/join task reading a range of class resources in parallel scanning mode,
+	 * storing each result at the resource's index in order to retain the
+	 * resolution order of the resources.
+	 */
+	@SuppressWarnings("serial")
+	private class CandidateComponentScanTask extends RecursiveAction {
+
+		private final Resource[] resources;
+
+		private final ScannedGenericBeanDefinition[] results;
+
+		private final int from;
+
+		private final int to;
+
+		public CandidateComponentScanTask(
+				Resource[] resources, ScannedGenericBeanDefinition[] results, int from, int to) {
+
+			this.resources = resources;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= parallelScanningThreshold) {
+				for (int i = this.from; i < this.to; i++) {
+					this.results[i] = scanCandidateComponent(this.resources[i]);
+				}
+			}
+			else {
+				int mid = (this.from + this.to) >>> 1;
+				invokeAll(new CandidateComponentScanTask(this.resources, this.results, this.from, mid),
+						new CandidateComponentScanTask(this.resources, this.results, mid, this.to));
+			}
+		}
+	}
+
 }
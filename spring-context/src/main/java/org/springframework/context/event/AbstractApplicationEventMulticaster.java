@@ -16,9 +16,13 @@
 
 package org.springframework.context.event;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,12 +35,15 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Abstract implementation of the {@link ApplicationEventMulticaster} interface,
@@ -65,6 +72,10 @@ public abstract class AbstractApplicationEventMulticaster
 
 	final Map<ListenerCacheKey, ListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
+	final Map<DispatchKey, ListenerRetriever> dispatchTable = new ConcurrentHashMap<>(64);
+
+	private final boolean dispatchTableApplicable = isDispatchTableApplicable(getClass());
+
 	@Nullable
 	private ClassLoader beanClassLoader;
 
@@ -110,7 +121,7 @@ public abstract class AbstractApplicationEventMulticaster
 				this.defaultRetriever.applicationListeners.remove(singletonTarget);
 			}
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -118,7 +129,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void addApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -126,7 +137,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -134,7 +145,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -143,11 +154,21 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
 
+	/**
+	 * Clear the cached ListenerRetrievers after a change in listener registration.
+	 * <p>To be called within the retrieval mutex.
+	 */
+	private void clearListenerCaches() {
+		this.retrieverCache.clear();
+		this.dispatchTable.clear();
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -159,6 +180,64 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 	}
 
+	/**
+	 * Return a Collection of ApplicationListeners matching the given event,
+	 * based on the default event type as derived from the event instance.
+	 * <p>Uses a dispatch table keyed by the concrete event class (plus the
+	 * payload class in case of a {@link PayloadApplicationEvent}) and the
+	 * source class, avoiding the resolution of a {@link ResolvableType}
+	 * for subsequent events of the same kind. Falls back to
+	 * {@link #getApplicationListeners(ApplicationEvent, ResolvableType)}
+	 * for events which are not cache-safe or which expose a custom type,
+	 * as well as for subclasses which override that method.
+	 * @param event the event to be propagated
+	 * @return a Collection of ApplicationListeners
+	 * @since 5.1
+	 * @see ResolvableType#forInstance(Object)
+	 */
+	protected Collection<ApplicationListener<?>> getApplicationListeners(ApplicationEvent event) {
+		DispatchKey dispatchKey = (this.dispatchTableApplicable ? DispatchKey.forEvent(event) : null);
+		if (dispatchKey == null || !isCacheSafe(dispatchKey)) {
+			return getApplicationListeners(event, ResolvableType.forInstance(event));
+		}
+
+		// Quick check for existing entry on ConcurrentHashMap...
+		ListenerRetriever retriever = this.dispatchTable.get(dispatchKey);
+		if (retriever != null) {
+			return retriever.getApplicationListeners();
+		}
+
+		ResolvableType eventType = ResolvableType.forInstance(event);
+		Collection<ApplicationListener<?>> listeners = getApplicationListeners(event, eventType);
+		synchronized (this.retrievalMutex) {
+			// Register the ListenerRetriever for the resolved type, if any, in the dispatch table
+			retriever = this.retrieverCache.get(new ListenerCacheKey(eventType, dispatchKey.sourceType));
+			if (retriever != null) {
+				this.dispatchTable.put(dispatchKey, retriever);
+			}
+		}
+		return listeners;
+	}
+
+	/**
+	 * The dispatch table shortcuts {@link #getApplicationListeners(ApplicationEvent, ResolvableType)},
+	 * so it only applies if that method has not been overridden.
+	 */
+	private static boolean isDispatchTableApplicable(Class<?> multicasterClass) {
+		Method method = ReflectionUtils.findMethod(multicasterClass, "getApplicationListeners",
+				ApplicationEvent.class, ResolvableType.class);
+		return (method != null && method.getDeclaringClass() == AbstractApplicationEventMulticaster.class);
+	}
+
+	private boolean isCacheSafe(DispatchKey dispatchKey) {
+		return (this.beanClassLoader == null ||
+				(ClassUtils.isCacheSafe(dispatchKey.eventClass, this.beanClassLoader) &&
+						(dispatchKey.payloadClass == null ||
+								ClassUtils.isCacheSafe(dispatchKey.payloadClass, this.beanClassLoader)) &&
+						(dispatchKey.sourceType == null ||
+								ClassUtils.isCacheSafe(dispatchKey.sourceType, this.beanClassLoader))));
+	}
+
 	/**
 	 * Return a Collection of ApplicationListeners matching the given
 	 * event type. Non-matching listeners get excluded early.
@@ -238,7 +317,13 @@ public abstract class AbstractApplicationEventMulticaster
 								beanFactory.getBean(listenerBeanName, ApplicationListener.class);
 						if (!allListeners.contains(listener) && supportsEvent(listener, eventType, sourceType)) {
 							if (retriever != null) {
-								retriever.applicationListenerBeans.add(listenerBeanName);
+								if (beanFactory.isSingleton(listenerBeanName)) {
+									// Singleton instance can be held right away, no need for a lookup per event
+									retriever.applicationListeners.add(listener);
+								}
+								else {
+									retriever.applicationListenerBeans.add(listenerBeanName);
+								}
 							}
 							allListeners.add(listener);
 						}
@@ -251,6 +336,10 @@ public abstract class AbstractApplicationEventMulticaster
 			}
 		}
 		AnnotationAwareOrderComparator.sort(allListeners);
+		if (retriever != null && retriever.applicationListenerBeans.isEmpty()) {
+			// Fully resolved: keep the sorted listeners as ready-made dispatch list
+			retriever.sortedListeners = Collections.unmodifiableList(new ArrayList<>(allListeners));
+		}
 		return allListeners;
 	}
 
@@ -348,6 +437,77 @@ public abstract class AbstractApplicationEventMulticaster
 	}
 
 
+	/**
+	 * Dispatch table key, based on the concrete event class, the payload class
+	 * (for a {@link PayloadApplicationEvent}) and the source class, i.e. on
+	 * everything that the default event type of such an event is derived from.
+	 */
+	private static final class DispatchKey {
+
+		private final Class<?> eventClass;
+
+		@Nullable
+		private final Class<?> payloadClass;
+
+		@Nullable
+		private final Class<?> sourceType;
+
+		private DispatchKey(Class<?> eventClass, @Nullable Class<?> payloadClass, @Nullable Class<?> sourceType) {
+			this.eventClass = eventClass;
+			this.payloadClass = payloadClass;
+			this.sourceType = sourceType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof DispatchKey)) {
+				return false;
+			}
+			DispatchKey otherKey = (DispatchKey) other;
+			return (this.eventClass == otherKey.eventClass && this.payloadClass == otherKey.payloadClass &&
+					this.sourceType == otherKey.sourceType);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.eventClass.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.payloadClass)) * 29 +
+					ObjectUtils.nullSafeHashCode(this.sourceType);
+		}
+
+		@Override
+		public String toString() {
+			return "DispatchKey [eventClass = " + this.eventClass.getName() + ", payloadClass = " +
+					this.payloadClass + ", sourceType = " + this.sourceType + "]";
+		}
+
+		/**
+		 * Create a dispatch key for the given event, if its type can be
+		 * derived from its class (and its payload class) alone.
+		 * @param event the event to create a key for
+		 * @return the dispatch key, or {@code null} if not applicable
+		 */
+		@Nullable
+		static DispatchKey forEvent(ApplicationEvent event) {
+			Class<?> payloadClass = null;
+			if (event.getClass() == PayloadApplicationEvent.class) {
+				Object payload = ((PayloadApplicationEvent<?>) event).getPayload();
+				if (payload instanceof ResolvableTypeProvider) {
+					return null;
+				}
+				payloadClass = payload.getClass();
+			}
+			else if (event instanceof ResolvableTypeProvider) {
+				return null;
+			}
+			Object source = event.getSource();
+			return new DispatchKey(event.getClass(), payloadClass, (source != null ? source.getClass() : null));
+		}
+	}
+
+
 	/**
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
@@ -361,6 +521,9 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
+		@Nullable
+		private volatile List<ApplicationListener<?>> sortedListeners;
+
 		public ListenerRetriever(boolean preFiltered) {
 			this.applicationListeners = new LinkedHashSet<>();
 			this.applicationListenerBeans = new LinkedHashSet<>();
@@ -368,6 +531,10 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			List<ApplicationListener<?>> sortedListeners = this.sortedListeners;
+			if (sortedListeners != null) {
+				return sortedListeners;
+			}
 			LinkedList<ApplicationListener<?>> allListeners = new LinkedList<>();
 			for (ApplicationListener<?> listener : this.applicationListeners) {
 				allListeners.add(listener);
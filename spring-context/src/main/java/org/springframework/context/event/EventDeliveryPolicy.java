@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Immutable description of how events get delivered to a specific listener
+ * by a {@link QueueingApplicationEventMulticaster}: synchronously in the
+ * publishing thread, or asynchronously through a bounded per-listener queue.
+ *
+ * <p>Asynchronous delivery comes in two flavors: {@link Mode#ASYNC} with a
+ * configurable number of concurrent consumers, and {@link Mode#ASYNC_ORDERED}
+ * with a single consumer, processing events in the order of publication.
+ * The {@link Overflow} strategy determines what happens to an event when
+ * the listener's queue is full.
+ *
+ * @since 5.1
+ * @see EventDeliveryPolicyProvider
+ * @see QueueingApplicationEventMulticaster
+ */
+public final class EventDeliveryPolicy {
+
+	private static final EventDeliveryPolicy SYNC = new EventDeliveryPolicy(Mode.SYNC, 0, 1, Overflow.BLOCK, null);
+
+
+	private final Mode mode;
+
+	private final int queueCapacity;
+
+	private final int concurrency;
+
+	private final Overflow overflow;
+
+	@Nullable
+	private final Executor executor;
+
+
+	private EventDeliveryPolicy(Mode mode, int queueCapacity, int concurrency, Overflow overflow,
+			@Nullable Executor executor) {
+
+		this.mode = mode;
+		this.queueCapacity = queueCapacity;
+		this.concurrency = concurrency;
+		this.overflow = overflow;
+		this.executor = executor;
+	}
+
+
+	/**
+	 * Return the delivery mode.
+	 */
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Return the maximum number of events queued for the listener
+	 * (not applicable to {@link Mode#SYNC}).
+	 */
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	/**
+	 * Return the maximum number of threads concurrently delivering
+	 * events to the listener (always 1 unless {@link Mode#ASYNC}).
+	 */
+	public int getConcurrency() {
+		return this.concurrency;
+	}
+
+	/**
+	 * Return the strategy to apply when the listener's queue is full.
+	 */
+	public Overflow getOverflow() {
+		return this.overflow;
+	}
+
+	/**
+	 * Return the specific executor to deliver events with, if any.
+	 * <p>If {@code null}, the multicaster's task executor is used.
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Return a variant of this policy with the given overflow strategy.
+	 */
+	public EventDeliveryPolicy withOverflow(Overflow overflow) {
+		Assert.notNull(overflow, "Overflow must not be null");
+		return new EventDeliveryPolicy(this.mode, this.queueCapacity, this.concurrency, overflow, this.executor);
+	}
+
+	/**
+	 * Return a variant of this policy which delivers events through the given
+	 * executor, e.g. an executor dedicated to a slow listener.
+	 */
+	public EventDeliveryPolicy withExecutor(Executor executor) {
+		Assert.notNull(executor, "Executor must not be null");
+		return new EventDeliveryPolicy(this.mode, this.queueCapacity, this.concurrency, this.overflow, executor);
+	}
+
+	@Override
+	public String toString() {
+		return (this.mode == Mode.SYNC ? "EventDeliveryPolicy [SYNC]" :
+				"EventDeliveryPolicy [" + this.mode + ", queueCapacity=" + this.queueCapacity +
+						", concurrency=" + this.concurrency + ", overflow=" + this.overflow + "]");
+	}
+
+
+	/**
+	 * Return the policy for synchronous delivery in the publishing thread.
+	 */
+	public static EventDeliveryPolicy sync() {
+		return SYNC;
+	}
+
+	/**
+	 * Create a policy for asynchronous delivery without ordering guarantees.
+	 * <p>The overflow strategy defaults to {@link Overflow#BLOCK}.
+	 * @param queueCapacity the maximum number of queued events
+	 * @param concurrency the maximum number of threads concurrently
+	 * delivering events to the listener
+	 */
+	public static EventDeliveryPolicy async(int queueCapacity, int concurrency) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+		return new EventDeliveryPolicy(Mode.ASYNC, queueCapacity, concurrency, Overflow.BLOCK, null);
+	}
+
+	/**
+	 * Create a policy for asynchronous delivery in publication order,
+	 * i.e. with a single thread at a time delivering events to the listener.
+	 * <p>The overflow strategy defaults to {@link Overflow#BLOCK}.
+	 * @param queueCapacity the maximum number of queued events
+	 */
+	public static EventDeliveryPolicy asyncOrdered(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		return new EventDeliveryPolicy(Mode.ASYNC_ORDERED, queueCapacity, 1, Overflow.BLOCK, null);
+	}
+
+
+	/**
+	 * Enumeration of the supported delivery modes.
+	 */
+	public enum Mode {
+
+		/**
+		 * Invoke the listener in the publishing thread.
+		 */
+		SYNC,
+
+		/**
+		 * Queue the event and invoke the listener asynchronously,
+		 * potentially from several threads at the same time.
+		 */
+		ASYNC,
+
+		/**
+		 * Queue the event and invoke the listener asynchronously,
+		 * one event at a time in the order of publication.
+		 */
+		ASYNC_ORDERED
+	}
+
+
+	/**
+	 * Enumeration of strategies for a full listener queue.
+	 */
+	public enum Overflow {
+
+		/**
+		 * Block the publishing thread until the queue has room again.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the event for the listener in question, keeping track
+		 * of the number of dropped events.
+		 */
+		DROP,
+
+		/**
+		 * Invoke the listener in the publishing thread, bypassing the queue.
+		 * Note that this may break the ordering of {@link Mode#ASYNC_ORDERED}.
+		 */
+		CALLER_RUNS
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Interface to be implemented by {@link org.springframework.context.ApplicationListener
+ * ApplicationListeners} which declare how events should be delivered to them
+ * when registered with a {@link QueueingApplicationEventMulticaster}.
+ *
+ * <p>The policy is determined once per listener instance; it is not supposed
+ * to change over the lifetime of the listener.
+ *
+ * @since 5.1
+ * @see EventDeliveryPolicy
+ */
+public interface EventDeliveryPolicyProvider {
+
+	/**
+	 * Return the delivery policy for this listener.
+	 * @return the policy, or {@code null} for the multicaster's default policy
+	 * @see QueueingApplicationEventMulticaster#setDefaultDeliveryPolicy
+	 */
+	@Nullable
+	EventDeliveryPolicy getDeliveryPolicy();
+
+}
@@ -29,12 +29,20 @@ import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 
 /**
  * Utility class handling the SpEL expression parsing. Meant to be used
  * as a reusable, thread-safe component.
  *
+ * <p>Condition expressions are parsed in the globally configured compiler
+ * mode: set the {@link SpelParserConfiguration#SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME
+ * "spring.expression.compiler.mode"} property to "mixed" or "immediate" in order
+ * to have frequently evaluated conditions compiled to bytecode, against the
+ * ClassLoader given on construction.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see CachedExpressionEvaluator
@@ -46,6 +54,24 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 	private final Map<AnnotatedElementKey, Method> targetMethodCache = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Create a new instance, compiling expressions against the default ClassLoader.
+	 */
+	public EventExpressionEvaluator() {
+		this(null);
+	}
+
+	/**
+	 * Create a new instance, compiling expressions against the given ClassLoader.
+	 * @param classLoader the ClassLoader to use as the basis for expression compilation
+	 * (or {@code null} for the default ClassLoader)
+	 * @since 5.1
+	 */
+	public EventExpressionEvaluator(@Nullable ClassLoader classLoader) {
+		super(new SpelExpressionParser(new SpelParserConfiguration(null, classLoader)));
+	}
+
+
 	/**
 	 * Create the suitable {@link EvaluationContext} for the specified event handling
 	 * on the specified method.
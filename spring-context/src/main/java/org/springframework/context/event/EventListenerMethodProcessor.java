@@ -59,7 +59,8 @@ public class EventListenerMethodProcessor implements SmartInitializingSingleton,
 	@Nullable
 	private ConfigurableApplicationContext applicationContext;
 
-	private final EventExpressionEvaluator evaluator = new EventExpressionEvaluator();
+	@Nullable
+	private EventExpressionEvaluator evaluator;
 
 	private final Set<Class<?>> nonAnnotatedClasses = Collections.newSetFromMap(new ConcurrentHashMap<>(64));
 
@@ -69,6 +70,7 @@ public class EventListenerMethodProcessor implements SmartInitializingSingleton,
 		Assert.isTrue(applicationContext instanceof ConfigurableApplicationContext,
 				"ApplicationContext does not implement ConfigurableApplicationContext");
 		this.applicationContext = (ConfigurableApplicationContext) applicationContext;
+		this.evaluator = new EventExpressionEvaluator(applicationContext.getClassLoader());
 	}
 
 	private ConfigurableApplicationContext getApplicationContext() {
@@ -76,6 +78,11 @@ public class EventListenerMethodProcessor implements SmartInitializingSingleton,
 		return this.applicationContext;
 	}
 
+	private EventExpressionEvaluator getEvaluator() {
+		Assert.state(this.evaluator != null, "No EventExpressionEvaluator set");
+		return this.evaluator;
+	}
+
 
 	@Override
 	public void afterSingletonsInstantiated() {
@@ -166,7 +173,7 @@ public class EventListenerMethodProcessor implements SmartInitializingSingleton,
 							ApplicationListener<?> applicationListener =
 									factory.createApplicationListener(beanName, targetType, methodToUse);
 							if (applicationListener instanceof ApplicationListenerMethodAdapter) {
-								((ApplicationListenerMethodAdapter) applicationListener).init(context, this.evaluator);
+								((ApplicationListenerMethodAdapter) applicationListener).init(context, getEvaluator());
 							}
 							context.addApplicationListener(applicationListener);
 							break;
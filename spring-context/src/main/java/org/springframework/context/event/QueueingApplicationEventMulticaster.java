@@ -0,0 +1,481 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * {@link SimpleApplicationEventMulticaster} variant which delivers events
+ * according to a per-listener {@link EventDeliveryPolicy}: synchronously in
+ * the publishing thread, or asynchronously through a bounded queue that is
+ * dedicated to the listener, either with concurrent or with ordered delivery.
+ *
+ * <p>Listeners declare their policy through the {@link EventDeliveryPolicyProvider}
+ * interface; all other listeners get the {@link #setDefaultDeliveryPolicy default
+ * policy} (synchronous unless configured otherwise). Since each asynchronous
+ * listener has a queue of its own, a slow listener only ever fills up its own
+ * queue, with its {@link EventDeliveryPolicy.Overflow overflow strategy}
+ * determining whether publishers get blocked, whether events get dropped
+ * or whether publishers invoke the listener themselves at that point.
+ *
+ * <p>Queued events are delivered through the policy's executor, if any, or
+ * through the {@link #setTaskExecutor task executor} of this multicaster,
+ * falling back to an internal thread pool. Note that the task executor
+ * only applies to asynchronous listeners here, in contrast to the superclass.
+ * Exceptions thrown by asynchronously invoked listeners get passed to the
+ * {@link #setErrorHandler ErrorHandler}, if any, or logged otherwise; they
+ * never affect the delivery to other listeners.
+ *
+ * <p>The delivery policy and queue of a listener get resolved on its first
+ * event and are held with a weak reference to the listener instance, so that
+ * the state for listener instances of a non-singleton scope gets released
+ * once they are not in use anymore. On {@link #destroy()}, pending events
+ * get delivered within the {@link #setDrainTimeout drain timeout} before
+ * the internal thread pool gets shut down.
+ *
+ * @since 5.1
+ * @see EventDeliveryPolicy
+ * @see EventDeliveryPolicyProvider
+ */
+public class QueueingApplicationEventMulticaster extends SimpleApplicationEventMulticaster
+		implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(QueueingApplicationEventMulticaster.class);
+
+	private EventDeliveryPolicy defaultDeliveryPolicy = EventDeliveryPolicy.sync();
+
+	private long drainTimeout = 5000;
+
+	/** Guarded by itself */
+	private final Map<ApplicationListener<?>, ListenerDelivery> listenerDeliveries = new WeakHashMap<>(16);
+
+	@Nullable
+	private ExecutorService defaultExecutor;
+
+	private final Object defaultExecutorMonitor = new Object();
+
+	private volatile boolean active = true;
+
+
+	/**
+	 * Create a new QueueingApplicationEventMulticaster.
+	 */
+	public QueueingApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new QueueingApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public QueueingApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set the delivery policy for listeners which do not implement
+	 * {@link EventDeliveryPolicyProvider}.
+	 * <p>Default is {@link EventDeliveryPolicy#sync()}. Needs to be set
+	 * before the first event gets multicast.
+	 */
+	public void setDefaultDeliveryPolicy(EventDeliveryPolicy defaultDeliveryPolicy) {
+		Assert.notNull(defaultDeliveryPolicy, "Default EventDeliveryPolicy must not be null");
+		this.defaultDeliveryPolicy = defaultDeliveryPolicy;
+	}
+
+	/**
+	 * Return the delivery policy for listeners which do not specify one.
+	 */
+	public EventDeliveryPolicy getDefaultDeliveryPolicy() {
+		return this.defaultDeliveryPolicy;
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) to wait on {@link #destroy()}
+	 * for pending events to be delivered. Events which are still queued
+	 * after that time get discarded. Default is 5000.
+	 */
+	public void setDrainTimeout(long drainTimeout) {
+		this.drainTimeout = drainTimeout;
+	}
+
+
+	@Override
+	public void multicastEvent(final ApplicationEvent event, @Nullable ResolvableType eventType) {
+		Collection<ApplicationListener<?>> listeners =
+				(eventType != null ? getApplicationListeners(event, eventType) : getApplicationListeners(event));
+		for (ApplicationListener<?> listener : listeners) {
+			ListenerQueue queue = obtainListenerQueue(listener);
+			if (queue != null && this.active) {
+				queue.enqueue(listener, event);
+			}
+			else {
+				invokeListener(listener, event);
+			}
+		}
+	}
+
+	/**
+	 * Determine the delivery policy for the given listener.
+	 * <p>The default implementation checks for {@link EventDeliveryPolicyProvider},
+	 * falling back to the {@link #setDefaultDeliveryPolicy default policy}.
+	 * Can be overridden to apply policies to listeners which cannot implement
+	 * that interface themselves, e.g. {@link ApplicationListenerMethodAdapter}.
+	 * <p>Called once per listener instance, on its first event.
+	 * @param listener the listener to determine the policy for
+	 * @return the delivery policy (never {@code null})
+	 */
+	protected EventDeliveryPolicy determineDeliveryPolicy(ApplicationListener<?> listener) {
+		if (listener instanceof EventDeliveryPolicyProvider) {
+			EventDeliveryPolicy policy = ((EventDeliveryPolicyProvider) listener).getDeliveryPolicy();
+			if (policy != null) {
+				return policy;
+			}
+		}
+		return this.defaultDeliveryPolicy;
+	}
+
+	/**
+	 * Obtain the queue for the given listener, resolving its delivery policy
+	 * on first access.
+	 * @return the listener's queue, or {@code null} for synchronous delivery
+	 */
+	@Nullable
+	private ListenerQueue obtainListenerQueue(ApplicationListener<?> listener) {
+		synchronized (this.listenerDeliveries) {
+			ListenerDelivery delivery = this.listenerDeliveries.get(listener);
+			if (delivery == null) {
+				EventDeliveryPolicy policy = determineDeliveryPolicy(listener);
+				delivery = new ListenerDelivery(policy.getMode() != EventDeliveryPolicy.Mode.SYNC ?
+						new ListenerQueue(policy) : null);
+				this.listenerDeliveries.put(listener, delivery);
+			}
+			return delivery.queue;
+		}
+	}
+
+	@Nullable
+	private ListenerQueue getListenerQueue(ApplicationListener<?> listener) {
+		synchronized (this.listenerDeliveries) {
+			ListenerDelivery delivery = this.listenerDeliveries.get(listener);
+			return (delivery != null ? delivery.queue : null);
+		}
+	}
+
+	private Executor determineExecutor(EventDeliveryPolicy policy) {
+		Executor executor = policy.getExecutor();
+		if (executor == null) {
+			executor = getTaskExecutor();
+		}
+		if (executor == null) {
+			synchronized (this.defaultExecutorMonitor) {
+				if (this.defaultExecutor == null) {
+					CustomizableThreadFactory threadFactory =
+							new CustomizableThreadFactory(getClass().getSimpleName() + "-");
+					this.defaultExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+							60, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+				}
+				executor = this.defaultExecutor;
+			}
+		}
+		return executor;
+	}
+
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		synchronized (this.listenerDeliveries) {
+			this.listenerDeliveries.remove(listener);
+		}
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		synchronized (this.listenerDeliveries) {
+			this.listenerDeliveries.clear();
+		}
+	}
+
+	/**
+	 * Stop queueing events, delivering subsequent events synchronously,
+	 * and wait for pending events to be delivered within the
+	 * {@link #setDrainTimeout drain timeout}; then shut down the
+	 * internal thread pool, if it has been created.
+	 */
+	@Override
+	public void destroy() {
+		this.active = false;
+		List<ListenerQueue> queues = new ArrayList<>();
+		synchronized (this.listenerDeliveries) {
+			for (ListenerDelivery delivery : this.listenerDeliveries.values()) {
+				if (delivery.queue != null) {
+					queues.add(delivery.queue);
+				}
+			}
+		}
+		long deadline = System.currentTimeMillis() + this.drainTimeout;
+		for (ListenerQueue queue : queues) {
+			if (!queue.awaitIdle(deadline)) {
+				int discarded = queue.discard();
+				if (discarded > 0) {
+					logger.warn("Discarded " + discarded + " pending events on shutdown");
+				}
+			}
+		}
+		synchronized (this.defaultExecutorMonitor) {
+			if (this.defaultExecutor != null) {
+				this.defaultExecutor.shutdown();
+				this.defaultExecutor = null;
+			}
+		}
+	}
+
+
+	/**
+	 * Return the number of events currently queued for the given listener.
+	 * @param listener the listener to check
+	 * @return the queue depth, or 0 if the listener has no queue
+	 */
+	public int getQueueSize(ApplicationListener<?> listener) {
+		ListenerQueue queue = getListenerQueue(listener);
+		return (queue != null ? queue.queue.size() : 0);
+	}
+
+	/**
+	 * Return the number of events delivered to the given listener
+	 * through its queue (including events run by the caller on overflow).
+	 * @param listener the listener to check
+	 * @return the number of delivered events, or 0 if the listener has no queue
+	 */
+	public long getDeliveredEventCount(ApplicationListener<?> listener) {
+		ListenerQueue queue = getListenerQueue(listener);
+		return (queue != null ? queue.deliveredCount.get() : 0);
+	}
+
+	/**
+	 * Return the number of events dropped for the given listener
+	 * since its queue was full.
+	 * @param listener the listener to check
+	 * @return the number of dropped events, or 0 if the listener has no queue
+	 * @see EventDeliveryPolicy.Overflow#DROP
+	 */
+	public long getDroppedEventCount(ApplicationListener<?> listener) {
+		ListenerQueue queue = getListenerQueue(listener);
+		return (queue != null ? queue.droppedCount.get() : 0);
+	}
+
+
+	/**
+	 * Resolved delivery state for a listener: its queue,
+	 * or none for synchronous delivery.
+	 */
+	private static class ListenerDelivery {
+
+		@Nullable
+		private final ListenerQueue queue;
+
+		public ListenerDelivery(@Nullable ListenerQueue queue) {
+			this.queue = queue;
+		}
+	}
+
+
+	/**
+	 * Event queued for a listener. Only pending events reference the listener,
+	 * so that the queue itself does not keep it from being garbage-collected.
+	 */
+	private static class PendingEvent {
+
+		private final ApplicationListener<?> listener;
+
+		private final ApplicationEvent event;
+
+		public PendingEvent(ApplicationListener<?> listener, ApplicationEvent event) {
+			this.listener = listener;
+			this.event = event;
+		}
+	}
+
+
+	/**
+	 * Bounded queue of pending events for a specific asynchronous listener,
+	 * drained by at most as many executor tasks as the policy's concurrency.
+	 */
+	private class ListenerQueue {
+
+		private final EventDeliveryPolicy policy;
+
+		private final Executor executor;
+
+		private final BlockingQueue<PendingEvent> queue;
+
+		private final AtomicInteger activeConsumers = new AtomicInteger();
+
+		private final AtomicLong deliveredCount = new AtomicLong();
+
+		private final AtomicLong droppedCount = new AtomicLong();
+
+		public ListenerQueue(EventDeliveryPolicy policy) {
+			this.policy = policy;
+			this.executor = determineExecutor(policy);
+			this.queue = new ArrayBlockingQueue<>(policy.getQueueCapacity());
+		}
+
+		public void enqueue(ApplicationListener<?> listener, ApplicationEvent event) {
+			PendingEvent pendingEvent = new PendingEvent(listener, event);
+			if (this.queue.offer(pendingEvent)) {
+				scheduleConsumerIfNecessary();
+				return;
+			}
+			switch (this.policy.getOverflow()) {
+				case BLOCK:
+					try {
+						this.queue.put(pendingEvent);
+						scheduleConsumerIfNecessary();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						drop(pendingEvent);
+					}
+					break;
+				case CALLER_RUNS:
+					invokeListener(listener, event);
+					this.deliveredCount.incrementAndGet();
+					break;
+				default:
+					drop(pendingEvent);
+			}
+		}
+
+		private void drop(PendingEvent pendingEvent) {
+			this.droppedCount.incrementAndGet();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Dropped event for listener [" + pendingEvent.listener + "] with full queue: " +
+						pendingEvent.event);
+			}
+		}
+
+		private void scheduleConsumerIfNecessary() {
+			int active;
+			do {
+				active = this.activeConsumers.get();
+				if (active >= this.policy.getConcurrency()) {
+					return;
+				}
+			}
+			while (!this.activeConsumers.compareAndSet(active, active + 1));
+			try {
+				this.executor.execute(this::consume);
+			}
+			catch (RuntimeException ex) {
+				this.activeConsumers.decrementAndGet();
+				throw ex;
+			}
+		}
+
+		private void consume() {
+			try {
+				PendingEvent pendingEvent;
+				while ((pendingEvent = this.queue.poll()) != null) {
+					try {
+						invokeListener(pendingEvent.listener, pendingEvent.event);
+					}
+					catch (Throwable ex) {
+						logger.error("Listener [" + pendingEvent.listener + "] failed to process event: " +
+								pendingEvent.event, ex);
+					}
+					this.deliveredCount.incrementAndGet();
+				}
+			}
+			finally {
+				this.activeConsumers.decrementAndGet();
+				synchronized (this) {
+					notifyAll();
+				}
+			}
+			// An event may have been queued after our last poll but before the decrement
+			if (!this.queue.isEmpty()) {
+				try {
+					scheduleConsumerIfNecessary();
+				}
+				catch (RuntimeException ex) {
+					logger.error("Failed to reschedule event delivery", ex);
+				}
+			}
+		}
+
+		/**
+		 * Wait until all pending events have been delivered.
+		 * @param deadline the latest point in time to wait for
+		 * @return whether the queue is idle
+		 */
+		public boolean awaitIdle(long deadline) {
+			synchronized (this) {
+				long remaining;
+				while (!(this.queue.isEmpty() && this.activeConsumers.get() == 0) &&
+						(remaining = deadline - System.currentTimeMillis()) > 0) {
+					try {
+						wait(remaining);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+				}
+				return (this.queue.isEmpty() && this.activeConsumers.get() == 0);
+			}
+		}
+
+		/**
+		 * Discard all pending events.
+		 * @return the number of discarded events
+		 */
+		public int discard() {
+			List<PendingEvent> discarded = new ArrayList<>();
+			this.queue.drainTo(discarded);
+			this.droppedCount.addAndGet(discarded.size());
+			return discarded.size();
+		}
+	}
+
+}
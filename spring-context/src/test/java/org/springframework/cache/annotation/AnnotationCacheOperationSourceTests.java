@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -34,6 +35,7 @@ import org.springframework.cache.interceptor.CacheEvictOperation;
 import org.springframework.cache.interceptor.CacheOperation;
 import org.springframework.cache.interceptor.CacheableOperation;
 import org.springframework.core.annotation.AliasFor;
+import org.springframework.lang.Nullable;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
@@ -281,6 +283,72 @@ public class AnnotationCacheOperationSourceTests {
 	}
 
 
+	@Test
+	public void cacheOperationsResolvedLazilyPerMethod() throws Exception {
+		AtomicInteger computations = new AtomicInteger();
+		AnnotationCacheOperationSource source = new AnnotationCacheOperationSource() {
+			@Override
+			protected Collection<CacheOperation> findCacheOperations(Method method) {
+				computations.incrementAndGet();
+				return super.findCacheOperations(method);
+			}
+		};
+		Method singular = AnnotatedClass.class.getMethod("singular");
+
+		Collection<CacheOperation> ops = source.getCacheOperations(singular, AnnotatedClass.class);
+		assertEquals(1, ops.size());
+		assertEquals(1, computations.get());
+
+		assertSame(ops, source.getCacheOperations(singular, AnnotatedClass.class));
+		assertEquals(1, computations.get());
+		Method multiple = AnnotatedClass.class.getMethod("multiple");
+		assertEquals(2, source.getCacheOperations(multiple, AnnotatedClass.class).size());
+		assertEquals(2, source.getCacheOperations(multiple, AnnotatedClass.class).size());
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	public void cacheOperationsResolutionFailureNotCached() throws Exception {
+		AtomicInteger computations = new AtomicInteger();
+		AnnotationCacheOperationSource source = new AnnotationCacheOperationSource() {
+			@Override
+			protected Collection<CacheOperation> findCacheOperations(Method method) {
+				if (computations.incrementAndGet() == 1) {
+					throw new IllegalStateException("Resolution failure");
+				}
+				return super.findCacheOperations(method);
+			}
+		};
+		Method singular = AnnotatedClass.class.getMethod("singular");
+
+		try {
+			source.getCacheOperations(singular, AnnotatedClass.class);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("Resolution failure", ex.getMessage());
+		}
+		assertEquals(1, source.getCacheOperations(singular, AnnotatedClass.class).size());
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	public void customCacheKeyHonored() throws Exception {
+		AtomicInteger keyLookups = new AtomicInteger();
+		AnnotationCacheOperationSource source = new AnnotationCacheOperationSource() {
+			@Override
+			protected Object getCacheKey(Method method, @Nullable Class<?> targetClass) {
+				keyLookups.incrementAndGet();
+				return method;
+			}
+		};
+		Method singular = AnnotatedClass.class.getMethod("singular");
+
+		assertEquals(1, source.getCacheOperations(singular, AnnotatedClass.class).size());
+		assertEquals(1, source.getCacheOperations(singular, AnnotatedClass.class).size());
+		assertEquals(2, keyLookups.get());
+	}
+
 	private Collection<CacheOperation> getOps(Class<?> target, String name, int expectedNumberOfOperations) {
 		Collection<CacheOperation> result = getOps(target, name);
 		assertEquals("Wrong number of operation(s) for '" + name + "'", expectedNumberOfOperations, result.size());
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.AbstractValueAdaptingCacheTests;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache.EvictionPolicy;
+import org.springframework.core.serializer.support.SerializationDelegate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoundedConcurrentMapCache}.
+ */
+public class BoundedConcurrentMapCacheTests extends AbstractValueAdaptingCacheTests<BoundedConcurrentMapCache> {
+
+	private BoundedConcurrentMapCache cache;
+
+	private BoundedConcurrentMapCache cacheNoNull;
+
+
+	@Before
+	public void setUp() {
+		this.cache = new BoundedConcurrentMapCache(CACHE_NAME, 1000);
+		this.cacheNoNull = new BoundedConcurrentMapCache(CACHE_NAME_NO_NULL, 1000, -1, false);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache(boolean allowNull) {
+		return (allowNull ? this.cache : this.cacheNoNull);
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.cache;
+	}
+
+
+	@Test
+	public void lruEviction() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(
+				CACHE_NAME, 3, null, EvictionPolicy.LRU, -1, true, null);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.put("c", 3);
+		assertNotNull(cache.get("a"));
+		cache.put("d", 4);
+
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("a"));
+		assertNotNull(cache.get("c"));
+		assertNotNull(cache.get("d"));
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void tinyLfuKeepsFrequentlyUsedEntries() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 100);
+		for (int i = 0; i < 50; i++) {
+			cache.put("hot" + i, i);
+			for (int j = 0; j < 5; j++) {
+				cache.get("hot" + i);
+			}
+		}
+		// Scan of one-off keys
+		for (int i = 0; i < 1000; i++) {
+			cache.put("cold" + i, i);
+		}
+
+		for (int i = 0; i < 50; i++) {
+			assertNotNull("hot" + i, cache.get("hot" + i));
+		}
+		assertEquals(950, cache.getEvictionCount());
+	}
+
+	@Test
+	public void weightBasedEviction() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10,
+				(key, value) -> ((String) value).length(), EvictionPolicy.LRU, -1, true, null);
+		cache.put("a", "aaaa");
+		cache.put("b", "bbbb");
+		cache.put("c", "cccc");
+
+		assertNull(cache.get("a"));
+		assertNotNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		cache.put("d", "dddddddddddd");
+		assertNull(cache.get("d"));
+	}
+
+	@Test
+	public void expireAfterWrite() throws Exception {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, -1, 50, true);
+		cache.put("key", "value");
+		assertEquals("value", cache.get("key", String.class));
+		Thread.sleep(100);
+
+		assertNull(cache.get("key"));
+		assertNull(cache.putIfAbsent("key", "value2"));
+		assertEquals("value2", cache.get("key", () -> "value3"));
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void expiredEntriesSweptOnWrite() throws Exception {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, -1, 50, true);
+		for (int i = 0; i < 10; i++) {
+			cache.put("old" + i, i);
+		}
+		Thread.sleep(100);
+		for (int i = 0; i < 5; i++) {
+			cache.put("new" + i, i);
+		}
+		assertEquals(10, cache.getEvictionCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void weigherWithoutMaximumSize() {
+		new BoundedConcurrentMapCache(CACHE_NAME, -1, (key, value) -> 1, EvictionPolicy.LRU, 1000, true, null);
+	}
+
+	@Test
+	public void expiredEntryReloaded() throws Exception {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10, 50, true);
+		assertEquals("value1", cache.get("key", () -> "value1"));
+		Thread.sleep(100);
+		assertEquals("value2", cache.get("key", () -> "value2"));
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.put("key", "value");
+		this.cache.get("key");
+		this.cache.get("key", String.class);
+		this.cache.get("other");
+		this.cache.get("other", () -> "loaded");
+
+		assertEquals(2, this.cache.getHitCount());
+		assertEquals(2, this.cache.getMissCount());
+		assertEquals(0, this.cache.getEvictionCount());
+
+		BoundedConcurrentMapCache.Statistics statistics = this.cache.getStatistics();
+		assertEquals(2, statistics.getHitCount());
+		assertEquals(2, statistics.getMissCount());
+		assertEquals(0, statistics.getEvictionCount());
+		assertEquals(0.5, statistics.getHitRatio(), 0.0);
+	}
+
+	@Test
+	public void storeByValue() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10, null,
+				EvictionPolicy.W_TINY_LFU, -1, true, new SerializationDelegate(getClass().getClassLoader()));
+		assertTrue(cache.isStoreByValue());
+		StringBuilder value = new StringBuilder("value");
+		cache.put("key", value);
+		value.append("-changed");
+		assertEquals("value", cache.get("key").get().toString());
+	}
+
+	@Test
+	public void clearResetsSize() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(
+				CACHE_NAME, 2, null, EvictionPolicy.LRU, -1, true, null);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.clear();
+		cache.put("c", 3);
+		cache.put("d", 4);
+		assertNotNull(cache.get("c"));
+		assertNotNull(cache.get("d"));
+		assertEquals(0, cache.getEvictionCount());
+	}
+
+}
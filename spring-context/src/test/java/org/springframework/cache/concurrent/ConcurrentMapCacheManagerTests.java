@@ -16,6 +16,8 @@
 
 package org.springframework.cache.concurrent;
 
+import java.util.Map;
+
 import org.junit.Test;
 
 import org.springframework.cache.Cache;
@@ -131,4 +133,53 @@ public class ConcurrentMapCacheManagerTests {
 		assertNull(cache1x.get("key"));
 	}
 
+	@Test
+	public void testBoundedCaches() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1");
+		Cache cache1 = cm.getCache("c1");
+		assertTrue(cache1 instanceof ConcurrentMapCache);
+
+		cm.setMaximumSize(2);
+		cm.setEvictionPolicy(BoundedConcurrentMapCache.EvictionPolicy.LRU);
+		Cache cache1x = cm.getCache("c1");
+		assertTrue(cache1x instanceof BoundedConcurrentMapCache);
+		cache1x.put("key1", "value1");
+		cache1x.put("key2", "value2");
+		cache1x.put("key3", "value3");
+		assertNull(cache1x.get("key1"));
+		assertEquals("value3", cache1x.get("key3").get());
+		assertEquals(1, ((BoundedConcurrentMapCache) cache1x).getEvictionCount());
+		assertEquals(1, ((BoundedConcurrentMapCache) cache1x).getMissCount());
+		assertEquals(1, ((BoundedConcurrentMapCache) cache1x).getHitCount());
+
+		cm.setMaximumSize(-1);
+		assertTrue(cm.getCache("c1") instanceof ConcurrentMapCache);
+		cm.setExpireAfterWrite(1000);
+		assertTrue(cm.getCache("c1") instanceof BoundedConcurrentMapCache);
+	}
+
+	@Test
+	public void testCacheStatistics() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1", "c2");
+		assertTrue(cm.getCacheStatistics().isEmpty());
+
+		cm.setMaximumSize(10);
+		cm.getCache("c1").put("key", "value");
+		cm.getCache("c1").get("key");
+		cm.getCache("c2").get("key");
+		Map<String, BoundedConcurrentMapCache.Statistics> statistics = cm.getCacheStatistics();
+		assertEquals(2, statistics.size());
+		assertEquals(1, statistics.get("c1").getHitCount());
+		assertEquals(0, statistics.get("c1").getMissCount());
+		assertEquals(0, statistics.get("c2").getHitCount());
+		assertEquals(1, statistics.get("c2").getMissCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testWeigherWithoutMaximumSize() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager();
+		cm.setWeigher((key, value) -> 1);
+		cm.getCache("c1");
+	}
+
 }
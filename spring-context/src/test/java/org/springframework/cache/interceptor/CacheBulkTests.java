@@ -0,0 +1,307 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link Cacheable#bulk()}.
+ */
+public class CacheBulkTests {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private ConfigurableApplicationContext context;
+
+	private UserService userService;
+
+	private RecordingCache cache;
+
+
+	@Before
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.userService = this.context.getBean(UserService.class);
+		this.cache = this.context.getBean(RecordingCache.class);
+	}
+
+	@After
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	public void allKeysMissing() {
+		Map<Long, String> users = this.userService.findUsers(Arrays.asList(1L, 2L, 3L));
+
+		assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(users.keySet()));
+		assertEquals(Collections.singletonList(Arrays.asList(1L, 2L, 3L)), this.userService.getInvocations());
+		assertEquals("user2", this.cache.get(2L).get());
+		assertEquals(1, this.cache.getAllCount);
+		assertEquals(1, this.cache.putAllCount);
+	}
+
+	@Test
+	public void someKeysCached() {
+		this.userService.findUsers(Arrays.asList(1L, 2L));
+		Map<Long, String> users = this.userService.findUsers(Arrays.asList(3L, 2L, 4L, 1L));
+
+		assertEquals(Arrays.asList(3L, 2L, 4L, 1L), new ArrayList<>(users.keySet()));
+		assertEquals("user3", users.get(3L));
+		assertEquals("user1", users.get(1L));
+		assertEquals(Arrays.asList(3L, 4L), new ArrayList<>(this.userService.getInvocations().get(1)));
+		assertEquals(2, this.cache.getAllCount);
+		assertEquals(2, this.cache.putAllCount);
+	}
+
+	@Test
+	public void allKeysCached() {
+		this.userService.findUsers(Arrays.asList(1L, 2L));
+		Map<Long, String> users = this.userService.findUsers(Arrays.asList(2L, 1L));
+
+		assertEquals(Arrays.asList(2L, 1L), new ArrayList<>(users.keySet()));
+		assertEquals(1, this.userService.getInvocations().size());
+		assertEquals(1, this.cache.putAllCount);
+	}
+
+	@Test
+	public void keysNotFoundAreNotCached() {
+		Map<Long, String> users = this.userService.findUsers(Arrays.asList(1L, -1L));
+		assertEquals(Collections.singleton(1L), users.keySet());
+		assertNull(this.cache.get(-1L));
+
+		this.userService.findUsers(Arrays.asList(1L, -1L));
+		assertEquals(Collections.singletonList(-1L), new ArrayList<>(this.userService.getInvocations().get(1)));
+	}
+
+	@Test
+	public void entriesSharedWithSingleKeyOperation() {
+		this.userService.findUsers(Collections.singleton(5L));
+		assertEquals("user5", this.userService.findUser(5L));
+		assertEquals(1, this.userService.getInvocations().size());
+	}
+
+	@Test
+	public void setParameterType() {
+		this.userService.findUsersBySet(Collections.singleton(1L));
+		Map<Long, String> users = this.userService.findUsersBySet(new LinkedHashSet<>(Arrays.asList(1L, 2L)));
+
+		assertEquals(2, users.size());
+		assertTrue(this.userService.getInvocations().get(1) instanceof Set);
+		assertEquals(Collections.singleton(2L), this.userService.getInvocations().get(1));
+	}
+
+	@Test
+	public void concreteParameterType() {
+		this.userService.findUsersByHashSet(new HashSet<>(Collections.singleton(1L)));
+		Map<Long, String> users = this.userService.findUsersByHashSet(new HashSet<>(Arrays.asList(1L, 2L)));
+
+		assertEquals(2, users.size());
+		assertTrue(this.userService.getInvocations().get(1) instanceof HashSet);
+		assertEquals(Collections.singleton(2L), this.userService.getInvocations().get(1));
+	}
+
+	@Test
+	public void argumentsNotModified() {
+		this.userService.findUsers(Collections.singletonList(1L));
+		List<Long> ids = Arrays.asList(1L, 2L);
+		this.userService.findUsers(ids);
+
+		assertEquals(Arrays.asList(1L, 2L), ids);
+		assertEquals(Collections.singletonList(2L), this.userService.getInvocations().get(1));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void invokerWithoutArgumentsSupport() throws Exception {
+		this.userService.findUsers(Collections.singletonList(1L));
+		CacheInterceptor interceptor = this.context.getBean(CacheInterceptor.class);
+		UserService target = new UserService();
+		Method method = UserService.class.getMethod("findUsers", Collection.class);
+		List<Long> ids = Arrays.asList(1L, 2L);
+		CacheOperationInvoker invoker = () -> target.findUsers(ids);
+
+		Map<Long, String> users = (Map<Long, String>) interceptor.execute(invoker, target, method, new Object[] {ids});
+		assertEquals(Arrays.asList(1L, 2L), new ArrayList<>(users.keySet()));
+		assertEquals(Collections.singletonList(ids), target.getInvocations());
+		assertEquals("user2", this.cache.get(2L).get());
+	}
+
+	@Test
+	public void bulkWithKey() {
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("@Cacheable(bulk=true) does not support key");
+		this.userService.bulkWithKey(Collections.singletonList(1L));
+	}
+
+	@Test
+	public void bulkWithInvalidSignature() {
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("@Cacheable(bulk=true) requires a single Collection parameter");
+		this.userService.bulkWithInvalidSignature(1L);
+	}
+
+	@Test
+	public void bulkWithCustomCollectionType() {
+		this.thrown.expect(IllegalStateException.class);
+		this.thrown.expectMessage("@Cacheable(bulk=true) requires a single Collection parameter");
+		this.userService.bulkWithCustomCollectionType(new IdList());
+	}
+
+
+	static class UserService {
+
+		private final List<Collection<Long>> invocations = new ArrayList<>();
+
+		public List<Collection<Long>> getInvocations() {
+			return this.invocations;
+		}
+
+		@Cacheable(cacheNames = "users", bulk = true)
+		public Map<Long, String> findUsers(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "users", bulk = true)
+		public Map<Long, String> findUsersBySet(Set<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "users", bulk = true)
+		public Map<Long, String> findUsersByHashSet(HashSet<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable("users")
+		public String findUser(Long id) {
+			return "user" + id;
+		}
+
+		@Cacheable(cacheNames = "users", bulk = true, key = "#ids")
+		public Map<Long, String> bulkWithKey(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "users", bulk = true)
+		public Map<Long, String> bulkWithInvalidSignature(Long id) {
+			return load(Collections.singletonList(id));
+		}
+
+		@Cacheable(cacheNames = "users", bulk = true)
+		public Map<Long, String> bulkWithCustomCollectionType(IdList ids) {
+			return load(ids);
+		}
+
+		private Map<Long, String> load(Collection<Long> ids) {
+			this.invocations.add(ids);
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				if (id > 0) {
+					result.put(id, "user" + id);
+				}
+			}
+			return result;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class IdList extends ArrayList<Long> {
+	}
+
+
+	static class RecordingCache extends ConcurrentMapCache {
+
+		int getAllCount;
+
+		int putAllCount;
+
+		RecordingCache(String name) {
+			super(name);
+		}
+
+		@Override
+		public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+			this.getAllCount++;
+			return super.getAll(keys);
+		}
+
+		@Override
+		public void putAll(Map<?, ?> entries) {
+			this.putAllCount++;
+			super.putAll(entries);
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Bean
+		public RecordingCache usersCache() {
+			return new RecordingCache("users");
+		}
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			SimpleCacheManager cacheManager = new SimpleCacheManager();
+			cacheManager.setCaches(Collections.singletonList(usersCache()));
+			return cacheManager;
+		}
+
+		@Bean
+		public UserService userService() {
+			return new UserService();
+		}
+	}
+
+}
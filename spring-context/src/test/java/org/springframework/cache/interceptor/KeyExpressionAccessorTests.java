@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link KeyExpressionAccessor}.
+ */
+public class KeyExpressionAccessorTests {
+
+	private final Method method = ReflectionUtils.findMethod(
+			Service.class, "find", String.class, User.class);
+
+	private final String[] parameterNames = {"id", "user"};
+
+
+	@Test
+	public void argumentReferences() {
+		Object[] args = {"1", new User("juergen")};
+		assertEquals("1", accessor("#id").getValue(args, CacheOperationExpressionEvaluator.NO_RESULT));
+		assertEquals("1", accessor("#p0").getValue(args, CacheOperationExpressionEvaluator.NO_RESULT));
+		assertSame(args[1], accessor("#a1").getValue(args, CacheOperationExpressionEvaluator.NO_RESULT));
+		assertNull(accessor("#id").getValue(new Object[] {null, null}, CacheOperationExpressionEvaluator.NO_RESULT));
+	}
+
+	@Test
+	public void propertyReferences() {
+		Object[] args = {"1", new User("juergen")};
+		assertEquals("juergen", accessor("#user.name").getValue(args, CacheOperationExpressionEvaluator.NO_RESULT));
+		assertEquals(true, accessor("#user.active").getValue(args, CacheOperationExpressionEvaluator.NO_RESULT));
+		assertEquals(false, accessor("#p1.name.empty").getValue(args, CacheOperationExpressionEvaluator.NO_RESULT));
+	}
+
+	@Test
+	public void resultReference() {
+		KeyExpressionAccessor accessor = accessor("#result.name");
+		Object[] args = {"1", null};
+		assertEquals("juergen", accessor.getValue(args, new User("juergen")));
+		assertSame(KeyExpressionAccessor.UNRESOLVED,
+				accessor.getValue(args, CacheOperationExpressionEvaluator.NO_RESULT));
+		assertSame(KeyExpressionAccessor.UNRESOLVED,
+				accessor.getValue(args, CacheOperationExpressionEvaluator.RESULT_UNAVAILABLE));
+	}
+
+	@Test
+	public void unresolvableValues() {
+		assertSame(KeyExpressionAccessor.UNRESOLVED,
+				accessor("#user.name").getValue(new Object[] {"1", null}, CacheOperationExpressionEvaluator.NO_RESULT));
+		assertSame(KeyExpressionAccessor.UNRESOLVED,
+				accessor("#user.unknown").getValue(new Object[] {"1", new User("juergen")},
+						CacheOperationExpressionEvaluator.NO_RESULT));
+		assertSame(KeyExpressionAccessor.UNRESOLVED,
+				accessor("#user.failing").getValue(new Object[] {"1", new User("juergen")},
+						CacheOperationExpressionEvaluator.NO_RESULT));
+	}
+
+	@Test
+	public void unsupportedExpressions() {
+		assertNull(KeyExpressionAccessor.forExpression("#id + 'x'", this.method, this.parameterNames));
+		assertNull(KeyExpressionAccessor.forExpression("#root.args[0]", this.method, this.parameterNames));
+		assertNull(KeyExpressionAccessor.forExpression("#user?.name", this.method, this.parameterNames));
+		assertNull(KeyExpressionAccessor.forExpression("#other", this.method, this.parameterNames));
+		assertNull(KeyExpressionAccessor.forExpression("#p2", this.method, null));
+		assertNull(KeyExpressionAccessor.forExpression("'id'", this.method, this.parameterNames));
+	}
+
+	@Test
+	public void withoutParameterNames() {
+		KeyExpressionAccessor accessor = KeyExpressionAccessor.forExpression("#p1.name", this.method, null);
+		assertNotNull(accessor);
+		assertEquals("juergen", accessor.getValue(new Object[] {"1", new User("juergen")},
+				CacheOperationExpressionEvaluator.NO_RESULT));
+		assertNull(KeyExpressionAccessor.forExpression("#id", this.method, null));
+	}
+
+
+	private KeyExpressionAccessor accessor(String expression) {
+		KeyExpressionAccessor accessor = KeyExpressionAccessor.forExpression(expression, this.method, this.parameterNames);
+		assertNotNull(accessor);
+		return accessor;
+	}
+
+
+	public interface Service {
+
+		User find(String id, User user);
+	}
+
+
+	public static class User {
+
+		private final String name;
+
+		public User(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public boolean isActive() {
+			return true;
+		}
+
+		public String getFailing() {
+			throw new IllegalStateException();
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LoadCoordinatingCacheDecorator} and
+ * {@link LoadCoordinatingCacheManagerProxy}.
+ */
+public class LoadCoordinatingCacheDecoratorTests {
+
+	private final LoadCoordinatingCacheDecorator cache =
+			new LoadCoordinatingCacheDecorator(new ConcurrentMapCache("test"));
+
+
+	@Test
+	public void concurrentLoadsCollapsed() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			threads.add(new Thread(() -> this.cache.get("key", () -> {
+				loads.incrementAndGet();
+				loading.countDown();
+				release.await();
+				return "value";
+			})));
+		}
+		threads.get(0).start();
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		for (Thread thread : threads.subList(1, threads.size())) {
+			thread.start();
+			while (thread.getState() != Thread.State.BLOCKED) {
+				Thread.sleep(1);
+			}
+		}
+		release.countDown();
+		for (Thread thread : threads) {
+			thread.join(5000);
+		}
+
+		assertEquals(1, loads.get());
+		assertEquals(1, this.cache.getLoadCount());
+		assertEquals(3, this.cache.getCollapsedLoadCount());
+		assertEquals("value", this.cache.get("key", String.class));
+	}
+
+	@Test
+	public void nestedLoadForOtherKey() {
+		String value = this.cache.get("key", () -> this.cache.get("other", () -> "nested") + "-outer");
+		assertEquals("nested-outer", value);
+		assertEquals(2, this.cache.getLoadCount());
+	}
+
+	@Test
+	public void loadFailure() {
+		try {
+			this.cache.get("key", () -> {
+				throw new IllegalStateException("failure");
+			});
+			fail("Should have thrown ValueRetrievalException");
+		}
+		catch (Cache.ValueRetrievalException ex) {
+			assertEquals("key", ex.getKey());
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+		assertNull(this.cache.get("key"));
+	}
+
+	@Test
+	public void staleValueServedWhileRefreshing() {
+		this.cache.setRefreshAfterWrite(0);
+		this.cache.setRefreshExecutor(Runnable::run);
+
+		assertEquals("v1", this.cache.get("key", () -> "v1"));
+		assertEquals("v1", this.cache.get("key", () -> "v2"));
+		assertEquals("v2", this.cache.get("key").get());
+		assertEquals(1, this.cache.getLoadCount());
+		assertEquals(1, this.cache.getStaleHitCount());
+		assertEquals(1, this.cache.getRefreshCount());
+	}
+
+	@Test
+	public void freshValueNotRefreshed() {
+		this.cache.setRefreshAfterWrite(60000);
+		this.cache.setRefreshExecutor(Runnable::run);
+
+		assertEquals("v1", this.cache.get("key", () -> "v1"));
+		assertEquals("v1", this.cache.get("key", () -> "v2"));
+		assertEquals("v1", this.cache.get("key", String.class));
+		assertEquals(0, this.cache.getStaleHitCount());
+	}
+
+	@Test
+	public void refreshFailureKeepsStaleValue() {
+		this.cache.setRefreshAfterWrite(0);
+		this.cache.setRefreshExecutor(Runnable::run);
+
+		this.cache.put("key", "v1");
+		assertEquals("v1", this.cache.get("key", () -> {
+			throw new IllegalStateException("failure");
+		}));
+		assertEquals("v1", this.cache.get("key").get());
+		assertEquals(1, this.cache.getRefreshFailureCount());
+	}
+
+	@Test
+	public void singleRefreshPerKeyAndNoResurrectionAfterEvict() {
+		List<Runnable> refreshes = new ArrayList<>();
+		this.cache.setRefreshAfterWrite(0);
+		this.cache.setRefreshExecutor(refreshes::add);
+
+		this.cache.put("key", "v1");
+		this.cache.get("key", () -> "v2");
+		this.cache.get("key", () -> "v3");
+		assertEquals(1, refreshes.size());
+
+		this.cache.evict("key");
+		refreshes.get(0).run();
+		assertNull(this.cache.get("key"));
+	}
+
+	@Test
+	public void refreshDoesNotOverwriteNewerValue() {
+		List<Runnable> refreshes = new ArrayList<>();
+		this.cache.setRefreshAfterWrite(0);
+		this.cache.setRefreshExecutor(refreshes::add);
+
+		this.cache.put("key", "v1");
+		this.cache.get("key", () -> "v2");
+		assertEquals(1, refreshes.size());
+
+		this.cache.put("key", "v3");
+		refreshes.get(0).run();
+		assertEquals("v3", this.cache.get("key").get());
+		assertEquals(1, this.cache.getRefreshCount());
+	}
+
+	@Test
+	public void noResurrectionAfterClear() {
+		List<Runnable> refreshes = new ArrayList<>();
+		this.cache.setRefreshAfterWrite(0);
+		this.cache.setRefreshExecutor(refreshes::add);
+
+		this.cache.put("key", "v1");
+		this.cache.get("key", () -> "v2");
+		this.cache.clear();
+		refreshes.get(0).run();
+		assertNull(this.cache.get("key"));
+	}
+
+	@Test
+	public void defaultRefreshExecutorShutDownOnDestroy() throws Exception {
+		this.cache.setRefreshAfterWrite(0);
+		this.cache.put("key", "v1");
+		this.cache.get("key", () -> "v2");
+		for (int i = 0; i < 500 && !"v2".equals(this.cache.get("key").get()); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals("v2", this.cache.get("key").get());
+		assertTrue(refreshThreadCount() > 0);
+
+		this.cache.destroy();
+		for (int i = 0; i < 500 && refreshThreadCount() > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, refreshThreadCount());
+	}
+
+	@Test
+	public void cacheManagerProxy() {
+		LoadCoordinatingCacheManagerProxy cacheManager =
+				new LoadCoordinatingCacheManagerProxy(new ConcurrentMapCacheManager("test"));
+		cacheManager.afterPropertiesSet();
+
+		Cache cache = cacheManager.getCache("test");
+		assertTrue(cache instanceof LoadCoordinatingCacheDecorator);
+		assertSame(cache, cacheManager.getCache("test"));
+		assertNull(cacheManager.getCache("unknown"));
+		assertEquals(1, cacheManager.getCacheNames().size());
+	}
+
+	@Test
+	public void cacheManagerProxyPicksUpRecreatedCache() {
+		ConcurrentMapCacheManager targetCacheManager = new ConcurrentMapCacheManager("test");
+		LoadCoordinatingCacheManagerProxy cacheManager = new LoadCoordinatingCacheManagerProxy(targetCacheManager);
+		cacheManager.afterPropertiesSet();
+
+		LoadCoordinatingCacheDecorator cache = (LoadCoordinatingCacheDecorator) cacheManager.getCache("test");
+		assertSame(targetCacheManager.getCache("test"), cache.getTargetCache());
+		targetCacheManager.setAllowNullValues(false);
+		LoadCoordinatingCacheDecorator recreated = (LoadCoordinatingCacheDecorator) cacheManager.getCache("test");
+		assertNotSame(cache, recreated);
+		assertSame(targetCacheManager.getCache("test"), recreated.getTargetCache());
+		assertSame(recreated, cacheManager.getCache("test"));
+	}
+
+
+	private static long refreshThreadCount() {
+		return Thread.getAllStackTraces().keySet().stream()
+				.filter(thread -> thread.getName().startsWith("cache-refresh-") && thread.isAlive())
+				.count();
+	}
+
+}
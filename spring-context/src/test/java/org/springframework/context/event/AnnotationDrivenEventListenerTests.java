@@ -529,6 +529,16 @@ public class AnnotationDrivenEventListenerTests {
 		this.eventCollector.assertTotalEventsCount(4);
 	}
 
+	@Test
+	public void conditionMatchForRepeatedEvents() {
+		load(ConditionalEventListener.class);
+		for (int i = 0; i < 250; i++) {
+			this.context.publishEvent("OK " + i);
+			this.context.publishEvent("NOT OK " + i);
+		}
+		this.eventCollector.assertTotalEventsCount(250);
+	}
+
 	@Test
 	public void conditionDoesNotMatch() {
 		long maxLong = Long.MAX_VALUE;
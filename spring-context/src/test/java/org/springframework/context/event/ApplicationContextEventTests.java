@@ -16,6 +16,9 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -321,6 +324,51 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		context.close();
 	}
 
+	@Test
+	public void dispatchTableWithPayloadEvents() {
+		SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+		MyStringPayloadListener listener = new MyStringPayloadListener();
+		multicaster.addApplicationListener(listener);
+
+		PayloadApplicationEvent<String> event1 = new PayloadApplicationEvent<>(this, "event1");
+		PayloadApplicationEvent<Integer> event2 = new PayloadApplicationEvent<>(this, 2);
+		PayloadApplicationEvent<String> event3 = new PayloadApplicationEvent<>(this, "event3");
+		multicaster.multicastEvent(event1);
+		multicaster.multicastEvent(event2);
+		multicaster.multicastEvent(event3);
+		assertEquals(Arrays.asList("event1", "event3"), listener.seenPayloads);
+		assertEquals(2, multicaster.dispatchTable.size());
+		assertEquals(2, multicaster.retrieverCache.size());
+
+		multicaster.addApplicationListener(new MyStringPayloadListener());
+		assertEquals(0, multicaster.dispatchTable.size());
+		assertEquals(0, multicaster.retrieverCache.size());
+		multicaster.multicastEvent(event1);
+		assertEquals(Arrays.asList("event1", "event3", "event1"), listener.seenPayloads);
+	}
+
+	@Test
+	public void dispatchTableBypassedForOverriddenListenerRetrieval() {
+		List<ResolvableType> requestedTypes = new ArrayList<>();
+		SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster() {
+			@Override
+			protected Collection<ApplicationListener<?>> getApplicationListeners(
+					ApplicationEvent event, ResolvableType eventType) {
+				requestedTypes.add(eventType);
+				return super.getApplicationListeners(event, eventType);
+			}
+		};
+		MyStringPayloadListener listener = new MyStringPayloadListener();
+		multicaster.addApplicationListener(listener);
+
+		PayloadApplicationEvent<String> event = new PayloadApplicationEvent<>(this, "event");
+		multicaster.multicastEvent(event);
+		multicaster.multicastEvent(event);
+		assertEquals(Arrays.asList("event", "event"), listener.seenPayloads);
+		assertEquals(2, requestedTypes.size());
+		assertEquals(0, multicaster.dispatchTable.size());
+	}
+
 	@Test
 	public void listenersInApplicationContextWithNestedChild() {
 		StaticApplicationContext context = new StaticApplicationContext();
@@ -561,6 +609,17 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 	}
 
 
+	public static class MyStringPayloadListener implements ApplicationListener<PayloadApplicationEvent<String>> {
+
+		public final List<String> seenPayloads = new ArrayList<>();
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+			this.seenPayloads.add(event.getPayload());
+		}
+	}
+
+
 	public static class MyNonSingletonListener implements ApplicationListener<ApplicationEvent> {
 
 		public static final Set<ApplicationEvent> seenEvents = new HashSet<>();
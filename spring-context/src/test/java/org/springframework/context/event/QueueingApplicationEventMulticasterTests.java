@@ -0,0 +1,333 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link QueueingApplicationEventMulticaster}.
+ */
+public class QueueingApplicationEventMulticasterTests {
+
+	private final QueueingApplicationEventMulticaster multicaster = new QueueingApplicationEventMulticaster();
+
+	private final DeferredExecutor executor = new DeferredExecutor();
+
+
+	@Test
+	public void syncByDefault() {
+		CollectingListener listener = new CollectingListener(null);
+		this.multicaster.addApplicationListener(listener);
+
+		this.multicaster.multicastEvent(event(1));
+		assertEquals(1, listener.payloads.size());
+		assertEquals(Thread.currentThread(), listener.threads.get(0));
+		assertEquals(0, this.multicaster.getDeliveredEventCount(listener));
+	}
+
+	@Test
+	public void asyncOrderedDelivery() throws Exception {
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			CollectingListener listener = new CollectingListener(
+					EventDeliveryPolicy.asyncOrdered(16).withExecutor(executorService));
+			this.multicaster.addApplicationListener(listener);
+
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				this.multicaster.multicastEvent(event(i));
+				expected.add(i);
+			}
+			awaitDelivery(listener, 200);
+			assertEquals(expected, listener.payloads);
+			assertEquals(0, this.multicaster.getQueueSize(listener));
+			assertEquals(0, this.multicaster.getDroppedEventCount(listener));
+			assertFalse(listener.threads.contains(Thread.currentThread()));
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void dropOnOverflow() {
+		CollectingListener listener = new CollectingListener(
+				EventDeliveryPolicy.async(2, 1).withOverflow(EventDeliveryPolicy.Overflow.DROP));
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.addApplicationListener(listener);
+
+		for (int i = 0; i < 5; i++) {
+			this.multicaster.multicastEvent(event(i));
+		}
+		assertEquals(2, this.multicaster.getQueueSize(listener));
+		assertEquals(3, this.multicaster.getDroppedEventCount(listener));
+		assertEquals(1, this.executor.tasks.size());
+		assertTrue(listener.payloads.isEmpty());
+
+		this.executor.runAll();
+		assertEquals(0, this.multicaster.getQueueSize(listener));
+		assertEquals(2, this.multicaster.getDeliveredEventCount(listener));
+		assertEquals(listener.payloads.toString(), 2, listener.payloads.size());
+	}
+
+	@Test
+	public void callerRunsOnOverflow() {
+		CollectingListener listener = new CollectingListener(
+				EventDeliveryPolicy.asyncOrdered(1).withOverflow(EventDeliveryPolicy.Overflow.CALLER_RUNS));
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.addApplicationListener(listener);
+
+		for (int i = 0; i < 3; i++) {
+			this.multicaster.multicastEvent(event(i));
+		}
+		assertEquals(1, this.multicaster.getQueueSize(listener));
+		assertEquals(2, listener.payloads.size());
+		assertEquals(Thread.currentThread(), listener.threads.get(0));
+
+		this.executor.runAll();
+		assertEquals(3, this.multicaster.getDeliveredEventCount(listener));
+		assertEquals(0, this.multicaster.getDroppedEventCount(listener));
+	}
+
+	@Test
+	public void failingListenerDoesNotAffectOthers() {
+		CollectingListener failingListener = new CollectingListener(EventDeliveryPolicy.asyncOrdered(10)) {
+			@Override
+			public void onApplicationEvent(PayloadApplicationEvent<Integer> event) {
+				throw new IllegalStateException("Failing listener");
+			}
+		};
+		CollectingListener syncListener = new CollectingListener(null);
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.addApplicationListener(failingListener);
+		this.multicaster.addApplicationListener(syncListener);
+
+		this.multicaster.multicastEvent(event(1));
+		this.multicaster.multicastEvent(event(2));
+		assertEquals(2, syncListener.payloads.size());
+		assertEquals(2, this.multicaster.getQueueSize(failingListener));
+
+		this.executor.runAll();
+		assertEquals(2, this.multicaster.getDeliveredEventCount(failingListener));
+		this.multicaster.multicastEvent(event(3));
+		assertEquals(1, this.multicaster.getQueueSize(failingListener));
+		assertEquals(3, syncListener.payloads.size());
+	}
+
+	@Test
+	public void slowListenerDoesNotAffectOthers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CollectingListener slowListener = new CollectingListener(EventDeliveryPolicy.asyncOrdered(10)) {
+			@Override
+			public void onApplicationEvent(PayloadApplicationEvent<Integer> event) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				super.onApplicationEvent(event);
+			}
+		};
+		CollectingListener asyncListener = new CollectingListener(EventDeliveryPolicy.async(10, 1));
+		CollectingListener syncListener = new CollectingListener(null);
+		this.multicaster.addApplicationListener(slowListener);
+		this.multicaster.addApplicationListener(asyncListener);
+		this.multicaster.addApplicationListener(syncListener);
+
+		try {
+			for (int i = 0; i < 3; i++) {
+				this.multicaster.multicastEvent(event(i));
+			}
+			assertEquals(3, syncListener.payloads.size());
+			awaitDelivery(asyncListener, 3);
+			assertEquals(3, asyncListener.payloads.size());
+			assertTrue(slowListener.payloads.isEmpty());
+		}
+		finally {
+			release.countDown();
+		}
+		awaitDelivery(slowListener, 3);
+		assertEquals(3, slowListener.payloads.size());
+		this.multicaster.destroy();
+	}
+
+	@Test
+	public void deliveryPolicyResolvedOncePerListener() {
+		AtomicInteger lookups = new AtomicInteger();
+		CollectingListener listener = new CollectingListener(EventDeliveryPolicy.async(4, 1)) {
+			@Override
+			public EventDeliveryPolicy getDeliveryPolicy() {
+				lookups.incrementAndGet();
+				return super.getDeliveryPolicy();
+			}
+		};
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.addApplicationListener(listener);
+
+		for (int i = 0; i < 3; i++) {
+			this.multicaster.multicastEvent(event(i));
+		}
+		this.executor.runAll();
+		assertEquals(3, listener.payloads.size());
+		assertEquals(1, lookups.get());
+	}
+
+	@Test
+	public void destroyDrainsPendingEvents() throws Exception {
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		try {
+			CountDownLatch release = new CountDownLatch(1);
+			CollectingListener listener = new CollectingListener(
+					EventDeliveryPolicy.asyncOrdered(10).withExecutor(executorService)) {
+				@Override
+				public void onApplicationEvent(PayloadApplicationEvent<Integer> event) {
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					super.onApplicationEvent(event);
+				}
+			};
+			this.multicaster.addApplicationListener(listener);
+
+			for (int i = 0; i < 3; i++) {
+				this.multicaster.multicastEvent(event(i));
+			}
+			release.countDown();
+			this.multicaster.destroy();
+			assertEquals(3, listener.payloads.size());
+			assertEquals(0, this.multicaster.getQueueSize(listener));
+
+			this.multicaster.multicastEvent(event(3));
+			assertEquals(4, listener.payloads.size());
+			assertEquals(Thread.currentThread(), listener.threads.get(3));
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void destroyDiscardsEventsAfterDrainTimeout() {
+		CollectingListener listener = new CollectingListener(EventDeliveryPolicy.asyncOrdered(10));
+		this.multicaster.setTaskExecutor(this.executor);
+		this.multicaster.setDrainTimeout(0);
+		this.multicaster.addApplicationListener(listener);
+
+		this.multicaster.multicastEvent(event(1));
+		this.multicaster.multicastEvent(event(2));
+		this.multicaster.destroy();
+		assertEquals(0, this.multicaster.getQueueSize(listener));
+		assertEquals(2, this.multicaster.getDroppedEventCount(listener));
+
+		this.executor.runAll();
+		assertTrue(listener.payloads.isEmpty());
+	}
+
+	@Test
+	public void defaultDeliveryPolicy() {
+		this.multicaster.setDefaultDeliveryPolicy(EventDeliveryPolicy.async(4, 2));
+		this.multicaster.setTaskExecutor(this.executor);
+		CollectingListener listener = new CollectingListener(null);
+		this.multicaster.addApplicationListener(listener);
+
+		this.multicaster.multicastEvent(event(1));
+		this.multicaster.multicastEvent(event(2));
+		assertTrue(listener.payloads.isEmpty());
+		assertEquals(2, this.executor.tasks.size());
+
+		this.executor.runAll();
+		assertEquals(2, listener.payloads.size());
+		this.multicaster.removeApplicationListener(listener);
+		assertEquals(0, this.multicaster.getDeliveredEventCount(listener));
+	}
+
+
+	private static PayloadApplicationEvent<Integer> event(int value) {
+		return new PayloadApplicationEvent<>(QueueingApplicationEventMulticasterTests.class, value);
+	}
+
+	private static void awaitDelivery(CollectingListener listener, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (listener.payloads.size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+
+	private static class CollectingListener
+			implements ApplicationListener<PayloadApplicationEvent<Integer>>, EventDeliveryPolicyProvider {
+
+		private final EventDeliveryPolicy policy;
+
+		final List<Integer> payloads = new CopyOnWriteArrayList<>();
+
+		final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+		CollectingListener(EventDeliveryPolicy policy) {
+			this.policy = policy;
+		}
+
+		@Override
+		public EventDeliveryPolicy getDeliveryPolicy() {
+			return this.policy;
+		}
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<Integer> event) {
+			this.payloads.add(event.getPayload());
+			this.threads.add(Thread.currentThread());
+		}
+	}
+
+
+	private static class DeferredExecutor implements Executor {
+
+		final List<Runnable> tasks = new LinkedList<>();
+
+		@Override
+		public void execute(Runnable task) {
+			this.tasks.add(task);
+		}
+
+		void runAll() {
+			while (!this.tasks.isEmpty()) {
+				this.tasks.remove(0).run();
+			}
+		}
+	}
+
+}
@@ -23,11 +23,13 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.*;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -182,6 +184,10 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	/** Sorted entry names per jar file URL, if jar entry caching is active */
+	@Nullable
+	private Map<String, String[]> jarEntryCache;
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -246,6 +252,44 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set whether to cache the entry names of each jar file that has been
+	 * searched for matching resources. Default is "false".
+	 * <p>When switched on, each jar file is enumerated once per resolver; further
+	 * pattern lookups against the same jar only match the cached entry names that
+	 * start with the root entry path, without opening or iterating the jar again.
+	 * This is worthwhile for applications resolving many "classpath*:" patterns
+	 * against the same set of jars, at the expense of keeping all entry names
+	 * in memory for the lifetime of this resolver.
+	 * <p>Note that matching jar resources are returned in lexicographical order
+	 * of their entry names in that case, rather than in jar file order.
+	 * @since 5.1
+	 * @see #clearCache()
+	 */
+	public void setCacheJarEntries(boolean cacheJarEntries) {
+		this.jarEntryCache = (cacheJarEntries ? new ConcurrentHashMap<>(64) : null);
+	}
+
+	/**
+	 * Return whether the entry names of searched jar files get cached.
+	 * @since 5.1
+	 */
+	public boolean isCacheJarEntries() {
+		return (this.jarEntryCache != null);
+	}
+
+	/**
+	 * Clear the jar entry cache, if any, enforcing re-enumeration of jar
+	 * files on the next pattern lookup.
+	 * @since 5.1
+	 * @see #setCacheJarEntries
+	 */
+	public void clearCache() {
+		if (this.jarEntryCache != null) {
+			this.jarEntryCache.clear();
+		}
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -568,20 +612,27 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			throws IOException {
 
 		URLConnection con = rootDirURL.openConnection();
-		JarFile jarFile;
+		JarFile jarFile = null;
 		String jarFileUrl;
 		String rootEntryPath;
-		boolean closeJarFile;
+		boolean closeJarFile = false;
+		String[] cachedEntries = null;
 
 		if (con instanceof JarURLConnection) {
 			// Should usually be the case for traditional JAR files.
 			JarURLConnection jarCon = (JarURLConnection) con;
 			ResourceUtils.useCachesIfNecessary(jarCon);
-			jarFile = jarCon.getJarFile();
 			jarFileUrl = jarCon.getJarFileURL().toExternalForm();
-			JarEntry jarEntry = jarCon.getJarEntry();
-			rootEntryPath = (jarEntry != null ? jarEntry.getName() : "");
-			closeJarFile = !jarCon.getUseCaches();
+			cachedEntries = getCachedJarEntries(jarFileUrl);
+			if (cachedEntries != null) {
+				rootEntryPath = findCachedJarEntry(cachedEntries, jarCon.getEntryName(), jarFileUrl);
+			}
+			else {
+				jarFile = jarCon.getJarFile();
+				JarEntry jarEntry = jarCon.getJarEntry();
+				rootEntryPath = (jarEntry != null ? jarEntry.getName() : "");
+				closeJarFile = !jarCon.getUseCaches();
+			}
 		}
 		else {
 			// No JarURLConnection -> need to resort to URL file parsing.
@@ -597,14 +648,20 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				if (separatorIndex != -1) {
 					jarFileUrl = urlFile.substring(0, separatorIndex);
 					rootEntryPath = urlFile.substring(separatorIndex + 2);  // both separators are 2 chars
-					jarFile = getJarFile(jarFileUrl);
+					cachedEntries = getCachedJarEntries(jarFileUrl);
+					if (cachedEntries == null) {
+						jarFile = getJarFile(jarFileUrl);
+					}
 				}
 				else {
-					jarFile = new JarFile(urlFile);
 					jarFileUrl = urlFile;
 					rootEntryPath = "";
+					cachedEntries = getCachedJarEntries(jarFileUrl);
+					if (cachedEntries == null) {
+						jarFile = new JarFile(urlFile);
+					}
 				}
-				closeJarFile = true;
+				closeJarFile = (jarFile != null);
 			}
 			catch (ZipException ex) {
 				if (logger.isDebugEnabled()) {
@@ -623,17 +680,36 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				// The Sun JRE does not return a slash here, but BEA JRockit does.
 				rootEntryPath = rootEntryPath + "/";
 			}
+			if (cachedEntries == null && jarFile != null && this.jarEntryCache != null) {
+				cachedEntries = cacheJarEntries(jarFileUrl, jarFile);
+			}
 			Set<Resource> result = new LinkedHashSet<>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
+			if (cachedEntries != null) {
+				// Sorted entry names: only look at the range sharing the root entry path.
+				int index = Arrays.binarySearch(cachedEntries, rootEntryPath);
+				for (int i = (index >= 0 ? index : -index - 1); i < cachedEntries.length; i++) {
+					String entryPath = cachedEntries[i];
+					if (!entryPath.startsWith(rootEntryPath)) {
+						break;
+					}
 					String relativePath = entryPath.substring(rootEntryPath.length());
 					if (getPathMatcher().match(subPattern, relativePath)) {
 						result.add(rootDirResource.createRelative(relativePath));
 					}
 				}
 			}
+			else if (jarFile != null) {
+				for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+					JarEntry entry = entries.nextElement();
+					String entryPath = entry.getName();
+					if (entryPath.startsWith(rootEntryPath)) {
+						String relativePath = entryPath.substring(rootEntryPath.length());
+						if (getPathMatcher().match(subPattern, relativePath)) {
+							result.add(rootDirResource.createRelative(relativePath));
+						}
+					}
+				}
+			}
 			return result;
 		}
 		finally {
@@ -643,6 +719,51 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Return the cached entry names for the given jar file, if any.
+	 */
+	@Nullable
+	private String[] getCachedJarEntries(String jarFileUrl) {
+		return (this.jarEntryCache != null ? this.jarEntryCache.get(jarFileUrl) : null);
+	}
+
+	/**
+	 * Enumerate the entries of the given jar file once and cache their names,
+	 * sorted for prefix lookups.
+	 */
+	private String[] cacheJarEntries(String jarFileUrl, JarFile jarFile) {
+		List<String> entryNames = new ArrayList<>(jarFile.size());
+		for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+			entryNames.add(entries.nextElement().getName());
+		}
+		String[] cachedEntries = StringUtils.toStringArray(entryNames);
+		Arrays.sort(cachedEntries);
+		Map<String, String[]> jarEntryCache = this.jarEntryCache;
+		if (jarEntryCache != null) {
+			jarEntryCache.put(jarFileUrl, cachedEntries);
+		}
+		return cachedEntries;
+	}
+
+	/**
+	 * Resolve the given entry name against the cached jar entries,
+	 * following {@link JarFile#getEntry} semantics for directory entries.
+	 */
+	private String findCachedJarEntry(String[] cachedEntries, @Nullable String entryName, String jarFileUrl)
+			throws FileNotFoundException {
+
+		if (entryName == null) {
+			return "";
+		}
+		if (Arrays.binarySearch(cachedEntries, entryName) >= 0) {
+			return entryName;
+		}
+		if (!entryName.endsWith("/") && Arrays.binarySearch(cachedEntries, entryName + "/") >= 0) {
+			return entryName + "/";
+		}
+		throw new FileNotFoundException("JAR entry " + entryName + " not found in " + jarFileUrl);
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
@@ -31,6 +31,13 @@ import org.springframework.lang.Nullable;
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>This factory is thread-safe: class files are parsed outside of any cache
+ * lock, so concurrent callers (e.g. in parallel classpath scanning) do not
+ * block each other when reading different classes.
+ *
+ * <p>Alternatively, a {@link SharedMetadataReaderCache} may be used in order to
+ * share MetadataReader instances across factories and application contexts.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -44,24 +51,40 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	/** MetadataReader cache shared across factories, if any */
+	@Nullable
+	private SharedMetadataReaderCache sharedCache;
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
 	 * using a local resource cache.
+	 * @see SharedMetadataReaderCache#SHARED_CACHE_PROPERTY_NAME
 	 */
 	public CachingMetadataReaderFactory() {
 		super();
-		setCacheLimit(DEFAULT_CACHE_LIMIT);
+		if (SharedMetadataReaderCache.useSharedInstance) {
+			setSharedCache(SharedMetadataReaderCache.getSharedInstance());
+		}
+		else {
+			setCacheLimit(DEFAULT_CACHE_LIMIT);
+		}
 	}
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the given {@link ClassLoader},
 	 * using a local resource cache.
 	 * @param classLoader the ClassLoader to use
+	 * @see SharedMetadataReaderCache#SHARED_CACHE_PROPERTY_NAME
 	 */
 	public CachingMetadataReaderFactory(@Nullable ClassLoader classLoader) {
 		super(classLoader);
-		setCacheLimit(DEFAULT_CACHE_LIMIT);
+		if (SharedMetadataReaderCache.useSharedInstance) {
+			setSharedCache(SharedMetadataReaderCache.getSharedInstance());
+		}
+		else {
+			setCacheLimit(DEFAULT_CACHE_LIMIT);
+		}
 	}
 
 	/**
@@ -70,10 +93,14 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 * @param resourceLoader the Spring ResourceLoader to use
 	 * (also determines the ClassLoader to use)
 	 * @see DefaultResourceLoader#getResourceCache
+	 * @see SharedMetadataReaderCache#SHARED_CACHE_PROPERTY_NAME
 	 */
 	public CachingMetadataReaderFactory(@Nullable ResourceLoader resourceLoader) {
 		super(resourceLoader);
-		if (resourceLoader instanceof DefaultResourceLoader) {
+		if (SharedMetadataReaderCache.useSharedInstance) {
+			setSharedCache(SharedMetadataReaderCache.getSharedInstance());
+		}
+		else if (resourceLoader instanceof DefaultResourceLoader) {
 			this.metadataReaderCache =
 					((DefaultResourceLoader) resourceLoader).getResourceCache(MetadataReader.class);
 		}
@@ -90,6 +117,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 * even if the {@link ResourceLoader} supports a shared resource cache.
 	 */
 	public void setCacheLimit(int cacheLimit) {
+		this.sharedCache = null;
 		if (cacheLimit <= 0) {
 			this.metadataReaderCache = null;
 		}
@@ -105,6 +133,9 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 * Return the maximum number of entries for the MetadataReader cache.
 	 */
 	public int getCacheLimit() {
+		if (this.sharedCache != null) {
+			return Integer.MAX_VALUE;
+		}
 		if (this.metadataReaderCache instanceof LocalResourceCache) {
 			return ((LocalResourceCache) this.metadataReaderCache).getCacheLimit();
 		}
@@ -114,9 +145,41 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	}
 
 
+	/**
+	 * Specify a {@link SharedMetadataReaderCache} to obtain MetadataReader
+	 * instances from, instead of using a local or ResourceLoader-level cache.
+	 * <p>A subsequent {@link #setCacheLimit} call switches back to a local cache.
+	 * @param sharedCache the shared cache to use, or {@code null} to switch back
+	 * to a local cache with the default cache limit
+	 * @since 5.1
+	 * @see SharedMetadataReaderCache#getSharedInstance()
+	 */
+	public void setSharedCache(@Nullable SharedMetadataReaderCache sharedCache) {
+		if (sharedCache != null) {
+			this.sharedCache = sharedCache;
+			this.metadataReaderCache = null;
+		}
+		else {
+			setCacheLimit(DEFAULT_CACHE_LIMIT);
+		}
+	}
+
+	/**
+	 * Return the {@link SharedMetadataReaderCache} used by this factory, if any.
+	 * @since 5.1
+	 */
+	@Nullable
+	public SharedMetadataReaderCache getSharedCache() {
+		return this.sharedCache;
+	}
+
+
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
-		if (this.metadataReaderCache instanceof ConcurrentMap) {
+		if (this.sharedCache != null) {
+			return this.sharedCache.getMetadataReader(resource, getResourceLoader().getClassLoader());
+		}
+		else if (this.metadataReaderCache instanceof ConcurrentMap) {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
@@ -126,14 +189,24 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			return metadataReader;
 		}
 		else if (this.metadataReaderCache != null) {
-			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+			Map<Resource, MetadataReader> cache = this.metadataReaderCache;
+			MetadataReader metadataReader;
+			synchronized (cache) {
+				metadataReader = cache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Parse outside of the lock, allowing for concurrent reads of different
+				// classes; a concurrently parsed reader for the same resource wins.
+				MetadataReader newReader = super.getMetadataReader(resource);
+				synchronized (cache) {
+					metadataReader = cache.get(resource);
+					if (metadataReader == null) {
+						metadataReader = newReader;
+						cache.put(resource, metadataReader);
+					}
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
 			return super.getMetadataReader(resource);
@@ -142,6 +215,8 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
+	 * <p>This is a no-op for a {@link SharedMetadataReaderCache}, which needs to be
+	 * cleared explicitly.
 	 */
 	public void clearCache() {
 		if (this.metadataReaderCache instanceof LocalResourceCache) {
@@ -159,6 +234,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 		public LocalResourceCache(int cacheLimit) {
 			super(cacheLimit, 0.75f, true);
+			this.cacheLimit = cacheLimit;
 		}
 
 		public void setCacheLimit(int cacheLimit) {
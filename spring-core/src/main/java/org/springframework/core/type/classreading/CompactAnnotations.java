@@ -0,0 +1,298 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.LinkedMultiValueMap;
+
+/**
+ * Compact, immutable representation of the annotation attributes and
+ * meta-annotation relationships collected by the ASM reading visitors
+ * for a class or a method.
+ *
+ * <p>Attributes are kept in plain arrays with interned names instead of
+ * per-annotation {@link AnnotationAttributes} maps; the latter only get
+ * materialized on request. Lookups follow the same ordering and merging
+ * rules as {@link AnnotationReadingVisitorUtils#getMergedAnnotationAttributes}.
+ *
+ * @since 5.1
+ * @see SimpleAnnotationMetadata
+ * @see SimpleMethodMetadata
+ */
+final class CompactAnnotations {
+
+	static final CompactAnnotations EMPTY = new CompactAnnotations(
+			new String[0], new AnnotationAttributes[0], new Attributes[0][], new String[0], new String[0][]);
+
+
+	/** Annotation type names in hierarchical order, as collected by the visitor */
+	private final String[] annotationTypes;
+
+	/**
+	 * Empty attributes per annotation type, aligned with {@link #annotationTypes},
+	 * carrying the annotation type and validation state of the original attributes
+	 */
+	private final AnnotationAttributes[] templates;
+
+	/** Attributes per annotation type, aligned with {@link #annotationTypes} */
+	private final Attributes[][] attributes;
+
+	/** Directly present annotation types which have meta-annotations */
+	private final String[] metaAnnotationKeys;
+
+	/** Meta-annotation type names, aligned with {@link #metaAnnotationKeys} */
+	private final String[][] metaAnnotationTypes;
+
+
+	private CompactAnnotations(String[] annotationTypes, AnnotationAttributes[] templates,
+			Attributes[][] attributes, String[] metaAnnotationKeys, String[][] metaAnnotationTypes) {
+
+		this.annotationTypes = annotationTypes;
+		this.templates = templates;
+		this.attributes = attributes;
+		this.metaAnnotationKeys = metaAnnotationKeys;
+		this.metaAnnotationTypes = metaAnnotationTypes;
+	}
+
+
+	/**
+	 * Return whether attributes for the given annotation type are present.
+	 */
+	public boolean contains(String annotationName) {
+		return (indexOf(annotationName) >= 0);
+	}
+
+	/**
+	 * Return the names of the meta-annotations of the given directly present
+	 * annotation type, or {@code null} if not known.
+	 */
+	@Nullable
+	public Set<String> getMetaAnnotationTypes(String annotationName) {
+		for (int i = 0; i < this.metaAnnotationKeys.length; i++) {
+			if (this.metaAnnotationKeys[i].equals(annotationName)) {
+				return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(this.metaAnnotationTypes[i])));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return whether any directly present annotation is meta-annotated
+	 * with the given annotation type.
+	 */
+	public boolean hasMetaAnnotation(String metaAnnotationName) {
+		for (String[] metaTypes : this.metaAnnotationTypes) {
+			for (String metaType : metaTypes) {
+				if (metaType.equals(metaAnnotationName)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Materialize all attribute sets of the given annotation type.
+	 * @return a fresh list of {@link AnnotationAttributes}, or {@code null}
+	 * if the annotation type is not present
+	 */
+	@Nullable
+	public List<AnnotationAttributes> getAnnotationAttributes(String annotationName) {
+		int index = indexOf(annotationName);
+		if (index < 0) {
+			return null;
+		}
+		Attributes[] attributesArray = this.attributes[index];
+		List<AnnotationAttributes> result = new ArrayList<>(attributesArray.length);
+		for (Attributes attributes : attributesArray) {
+			result.add(attributes.materialize(this.templates[index]));
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieve the merged attributes of the given annotation type, with
+	 * attribute values appearing lower in the annotation hierarchy overriding
+	 * those defined higher up.
+	 * @see AnnotationReadingVisitorUtils#getMergedAnnotationAttributes
+	 */
+	@Nullable
+	public AnnotationAttributes getMergedAnnotationAttributes(String annotationName) {
+		int index = indexOf(annotationName);
+		if (index < 0 || this.attributes[index].length == 0) {
+			return null;
+		}
+		Attributes target = this.attributes[index][0];
+		AnnotationAttributes result = target.materialize(this.templates[index]);
+
+		Set<String> overridableAttributeNames = new HashSet<>(result.keySet());
+		overridableAttributeNames.remove(AnnotationUtils.VALUE);
+
+		// Traverse "down" the annotation hierarchy, skipping the target annotation type.
+		for (int i = this.annotationTypes.length - 1; i >= 0; i--) {
+			if (i == index || this.attributes[i].length == 0) {
+				continue;
+			}
+			if (isMetaAnnotatedWith(this.annotationTypes[i], annotationName)) {
+				Attributes current = this.attributes[i][0];
+				for (String overridableAttributeName : overridableAttributeNames) {
+					Object value = current.get(overridableAttributeName);
+					if (value != null) {
+						result.put(overridableAttributeName, value);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private boolean isMetaAnnotatedWith(String annotationName, String metaAnnotationName) {
+		for (int i = 0; i < this.metaAnnotationKeys.length; i++) {
+			if (this.metaAnnotationKeys[i].equals(annotationName)) {
+				for (String metaType : this.metaAnnotationTypes[i]) {
+					if (metaType.equals(metaAnnotationName)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		}
+		return false;
+	}
+
+	private int indexOf(String annotationName) {
+		for (int i = 0; i < this.annotationTypes.length; i++) {
+			if (this.annotationTypes[i].equals(annotationName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Create a compact representation of the given visitor state.
+	 * @param attributesMap the annotation attributes per annotation type
+	 * @param metaAnnotationMap the meta-annotation type names per annotation type
+	 * @return the corresponding {@code CompactAnnotations} instance
+	 */
+	static CompactAnnotations of(LinkedMultiValueMap<String, AnnotationAttributes> attributesMap,
+			Map<String, Set<String>> metaAnnotationMap) {
+
+		if (attributesMap.isEmpty() && metaAnnotationMap.isEmpty()) {
+			return EMPTY;
+		}
+
+		int typeCount = attributesMap.size();
+		String[] annotationTypes = new String[typeCount];
+		AnnotationAttributes[] templates = new AnnotationAttributes[typeCount];
+		Attributes[][] attributes = new Attributes[typeCount][];
+		int i = 0;
+		for (Map.Entry<String, List<AnnotationAttributes>> entry : attributesMap.entrySet()) {
+			annotationTypes[i] = entry.getKey().intern();
+			List<AnnotationAttributes> attributesList = entry.getValue();
+			attributes[i] = new Attributes[attributesList.size()];
+			for (int j = 0; j < attributesList.size(); j++) {
+				AnnotationAttributes original = attributesList.get(j);
+				if (templates[i] == null) {
+					templates[i] = createTemplate(original);
+				}
+				attributes[i][j] = new Attributes(original);
+			}
+			i++;
+		}
+
+		String[] metaAnnotationKeys = new String[metaAnnotationMap.size()];
+		String[][] metaAnnotationTypes = new String[metaAnnotationMap.size()][];
+		i = 0;
+		for (Map.Entry<String, Set<String>> entry : metaAnnotationMap.entrySet()) {
+			metaAnnotationKeys[i] = entry.getKey().intern();
+			metaAnnotationTypes[i] = internAll(entry.getValue());
+			i++;
+		}
+
+		return new CompactAnnotations(
+				annotationTypes, templates, attributes, metaAnnotationKeys, metaAnnotationTypes);
+	}
+
+	private static AnnotationAttributes createTemplate(AnnotationAttributes original) {
+		AnnotationAttributes copy = new AnnotationAttributes(original);
+		copy.clear();
+		// Copy once more in order to not hold on to the original's hash table
+		return new AnnotationAttributes(copy);
+	}
+
+	static String[] internAll(Iterable<String> names) {
+		List<String> result = new ArrayList<>();
+		for (String name : names) {
+			result.add(name.intern());
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
+
+	/**
+	 * Array-backed attribute names and values of a single annotation.
+	 */
+	private static final class Attributes {
+
+		private final String[] names;
+
+		private final Object[] values;
+
+		Attributes(AnnotationAttributes original) {
+			this.names = new String[original.size()];
+			this.values = new Object[original.size()];
+			int i = 0;
+			for (Map.Entry<String, Object> entry : original.entrySet()) {
+				this.names[i] = entry.getKey().intern();
+				this.values[i] = entry.getValue();
+				i++;
+			}
+		}
+
+		@Nullable
+		Object get(String name) {
+			for (int i = 0; i < this.names.length; i++) {
+				if (this.names[i].equals(name)) {
+					return this.values[i];
+				}
+			}
+			return null;
+		}
+
+		AnnotationAttributes materialize(AnnotationAttributes template) {
+			AnnotationAttributes result = new AnnotationAttributes(template);
+			for (int i = 0; i < this.names.length; i++) {
+				result.put(this.names[i], this.values[i]);
+			}
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Concurrent, weight-bounded cache of {@link MetadataReader} instances which
+ * may be shared across several {@link CachingMetadataReaderFactory} instances,
+ * e.g. across all application contexts in the same JVM.
+ *
+ * <p>Entries are keyed by class file URL, class file timestamp and
+ * {@link ClassLoader}: a modified class file or a different ClassLoader
+ * leads to a fresh read. Each entry is weighted by the size of its class file;
+ * as soon as the total weight exceeds the configured maximum, the least
+ * recently accessed entries get evicted.
+ *
+ * <p>Hit, miss and eviction counts are exposed for monitoring purposes.
+ *
+ * <p>A JVM-wide instance is available through {@link #getSharedInstance()}.
+ * It is used by all {@code CachingMetadataReaderFactory} instances that do not
+ * get an explicit cache limit if the "spring.classreading.cache.shared" property
+ * is set to "true" (as a system property or through {@link SpringProperties}).
+ * Note that cached readers hold on to their ClassLoader until evicted, so
+ * {@link #clear()} should be called when ClassLoaders get discarded.
+ *
+ * @since 5.1
+ * @see CachingMetadataReaderFactory#setSharedCache
+ */
+public class SharedMetadataReaderCache {
+
+	/**
+	 * System property that instructs Spring to use the JVM-wide
+	 * {@link #getSharedInstance() shared cache} for all
+	 * {@link CachingMetadataReaderFactory} instances by default:
+	 * "spring.classreading.cache.shared".
+	 */
+	public static final String SHARED_CACHE_PROPERTY_NAME = "spring.classreading.cache.shared";
+
+	/** Default maximum weight: 32 MB worth of class files */
+	public static final long DEFAULT_MAX_WEIGHT = 32 * 1024 * 1024;
+
+	/** Weight to assume for a class file whose size cannot be determined */
+	private static final long DEFAULT_ENTRY_WEIGHT = 1024;
+
+	/** Fraction of the maximum weight to shrink to when evicting */
+	private static final float EVICTION_TARGET_RATIO = 0.75f;
+
+	static final boolean useSharedInstance = SpringProperties.getFlag(SHARED_CACHE_PROPERTY_NAME);
+
+	private static final SharedMetadataReaderCache sharedInstance = new SharedMetadataReaderCache();
+
+
+	private final long maxWeight;
+
+	private final ConcurrentMap<CacheKey, CacheEntry> cache = new ConcurrentHashMap<>(256);
+
+	private final AtomicLong totalWeight = new AtomicLong();
+
+	private final AtomicLong accessCounter = new AtomicLong();
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private final Object evictionMonitor = new Object();
+
+
+	/**
+	 * Create a new SharedMetadataReaderCache with the
+	 * {@linkplain #DEFAULT_MAX_WEIGHT default maximum weight}.
+	 */
+	public SharedMetadataReaderCache() {
+		this(DEFAULT_MAX_WEIGHT);
+	}
+
+	/**
+	 * Create a new SharedMetadataReaderCache.
+	 * @param maxWeight the maximum accumulated size of cached class files, in bytes
+	 */
+	public SharedMetadataReaderCache(long maxWeight) {
+		Assert.isTrue(maxWeight > 0, "Maximum weight must be greater than 0");
+		this.maxWeight = maxWeight;
+	}
+
+
+	/**
+	 * Obtain a MetadataReader for the given resource, reading the class file
+	 * if no current entry exists for it.
+	 * @param resource the resource (pointing to a ".class" file)
+	 * @param classLoader the ClassLoader that the reader resolves types against
+	 * @return the MetadataReader instance (never {@code null})
+	 * @throws IOException in case of I/O failure
+	 */
+	public MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader) throws IOException {
+		CacheKey key = createKey(resource, classLoader);
+		if (key == null) {
+			// No stable identity for the given resource -> not cacheable
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+		CacheEntry entry = this.cache.get(key);
+		if (entry != null) {
+			this.hitCount.incrementAndGet();
+			entry.lastAccess = this.accessCounter.incrementAndGet();
+			return entry.metadataReader;
+		}
+		this.missCount.incrementAndGet();
+		MetadataReader metadataReader = new SimpleMetadataReader(resource, classLoader);
+		entry = new CacheEntry(metadataReader, determineWeight(resource), this.accessCounter.incrementAndGet());
+		CacheEntry existing = this.cache.putIfAbsent(key, entry);
+		if (existing != null) {
+			// Concurrently read by another thread
+			return existing.metadataReader;
+		}
+		if (this.totalWeight.addAndGet(entry.weight) > this.maxWeight) {
+			evict();
+		}
+		return metadataReader;
+	}
+
+	@Nullable
+	private CacheKey createKey(Resource resource, @Nullable ClassLoader classLoader) {
+		String url;
+		try {
+			url = resource.getURL().toExternalForm();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		long lastModified;
+		try {
+			lastModified = resource.lastModified();
+		}
+		catch (IOException ex) {
+			lastModified = 0;
+		}
+		return new CacheKey(url, lastModified, classLoader);
+	}
+
+	private long determineWeight(Resource resource) {
+		try {
+			long contentLength = resource.contentLength();
+			return (contentLength > 0 ? contentLength : DEFAULT_ENTRY_WEIGHT);
+		}
+		catch (IOException ex) {
+			return DEFAULT_ENTRY_WEIGHT;
+		}
+	}
+
+	/**
+	 * Evict the least recently accessed entries until the total weight
+	 * has dropped well below the maximum weight again.
+	 */
+	private void evict() {
+		synchronized (this.evictionMonitor) {
+			if (this.totalWeight.get() <= this.maxWeight) {
+				return;
+			}
+			// Snapshot access times first since they keep changing while sorting
+			List<EvictionCandidate> candidates = new ArrayList<>(this.cache.size());
+			for (Map.Entry<CacheKey, CacheEntry> entry : this.cache.entrySet()) {
+				candidates.add(new EvictionCandidate(entry.getKey(), entry.getValue()));
+			}
+			candidates.sort((c1, c2) -> Long.compare(c1.lastAccess, c2.lastAccess));
+			long targetWeight = (long) (this.maxWeight * EVICTION_TARGET_RATIO);
+			for (EvictionCandidate candidate : candidates) {
+				if (this.totalWeight.get() <= targetWeight) {
+					break;
+				}
+				if (this.cache.remove(candidate.key, candidate.entry)) {
+					this.totalWeight.addAndGet(-candidate.entry.weight);
+					this.evictionCount.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all entries from this cache. Statistics are retained.
+	 */
+	public void clear() {
+		synchronized (this.evictionMonitor) {
+			for (CacheKey key : this.cache.keySet()) {
+				CacheEntry entry = this.cache.remove(key);
+				if (entry != null) {
+					this.totalWeight.addAndGet(-entry.weight);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Return the maximum accumulated size of cached class files, in bytes.
+	 */
+	public long getMaxWeight() {
+		return this.maxWeight;
+	}
+
+	/**
+	 * Return the current accumulated size of cached class files, in bytes.
+	 */
+	public long getWeight() {
+		return this.totalWeight.get();
+	}
+
+	/**
+	 * Return the number of currently cached MetadataReader instances.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the number of lookups served from this cache.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of lookups which required reading a class file.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of entries evicted because of the maximum weight.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": size " + size() + ", weight " + getWeight() + "/" +
+				getMaxWeight() + ", hits " + getHitCount() + ", misses " + getMissCount() +
+				", evictions " + getEvictionCount();
+	}
+
+
+	/**
+	 * Return the JVM-wide shared cache instance.
+	 * @see #SHARED_CACHE_PROPERTY_NAME
+	 */
+	public static SharedMetadataReaderCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+
+	private static final class CacheKey {
+
+		private final String url;
+
+		private final long lastModified;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		public CacheKey(String url, long lastModified, @Nullable ClassLoader classLoader) {
+			this.url = url;
+			this.lastModified = lastModified;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.url.equals(otherKey.url) && this.lastModified == otherKey.lastModified &&
+					this.classLoader == otherKey.classLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.url.hashCode() * 29 + Long.hashCode(this.lastModified)) * 29 +
+					System.identityHashCode(this.classLoader);
+		}
+	}
+
+
+	private static final class CacheEntry {
+
+		final MetadataReader metadataReader;
+
+		final long weight;
+
+		volatile long lastAccess;
+
+		CacheEntry(MetadataReader metadataReader, long weight, long lastAccess) {
+			this.metadataReader = metadataReader;
+			this.weight = weight;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+
+	private static final class EvictionCandidate {
+
+		final CacheKey key;
+
+		final CacheEntry entry;
+
+		final long lastAccess;
+
+		EvictionCandidate(CacheKey key, CacheEntry entry) {
+			this.key = key;
+			this.entry = entry;
+			this.lastAccess = entry.lastAccess;
+		}
+	}
+
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Immutable {@link AnnotationMetadata} implementation for a class read via ASM,
+ * holding on to a compact copy of the state collected by an
+ * {@link AnnotationMetadataReadingVisitor} instead of the visitor itself.
+ *
+ * <p>Class and annotation type names are interned, annotation attributes are
+ * kept in arrays (see {@link CompactAnnotations}), and {@link MethodMetadata}
+ * instances for annotated methods only get created on first request.
+ * This keeps the steady-state footprint of scanned bean definitions low.
+ *
+ * @since 5.1
+ * @see SimpleMetadataReader
+ */
+final class SimpleAnnotationMetadata implements AnnotationMetadata {
+
+	private static final String[] EMPTY_STRING_ARRAY = new String[0];
+
+	private static final int INTERFACE = 1;
+
+	private static final int ANNOTATION = 1 << 1;
+
+	private static final int ABSTRACT = 1 << 2;
+
+	private static final int FINAL = 1 << 3;
+
+	private static final int INDEPENDENT_INNER_CLASS = 1 << 4;
+
+
+	private final String className;
+
+	private final int flags;
+
+	@Nullable
+	private final String enclosingClassName;
+
+	@Nullable
+	private final String superClassName;
+
+	private final String[] interfaceNames;
+
+	private final String[] memberClassNames;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+	/** Directly present annotation types */
+	private final String[] annotationTypes;
+
+	private final CompactAnnotations annotations;
+
+	/** Names of annotated methods */
+	private final String[] methodNames;
+
+	/** Access flags of annotated methods, aligned with {@link #methodNames} */
+	private final int[] methodAccess;
+
+	/** Return type names of annotated methods, aligned with {@link #methodNames} */
+	private final String[] methodReturnTypeNames;
+
+	/** Annotations of annotated methods, aligned with {@link #methodNames} */
+	private final CompactAnnotations[] methodAnnotations;
+
+	/** Lazily created MethodMetadata instances, aligned with {@link #methodNames} */
+	@Nullable
+	private volatile MethodMetadata[] methodMetadata;
+
+
+	private SimpleAnnotationMetadata(AnnotationMetadataReadingVisitor visitor) {
+		this.className = visitor.getClassName().intern();
+		int flags = 0;
+		if (visitor.isInterface()) {
+			flags |= INTERFACE;
+		}
+		if (visitor.isAnnotation()) {
+			flags |= ANNOTATION;
+		}
+		if (visitor.isAbstract()) {
+			flags |= ABSTRACT;
+		}
+		if (visitor.isFinal()) {
+			flags |= FINAL;
+		}
+		if (visitor.hasEnclosingClass() && visitor.isIndependent()) {
+			flags |= INDEPENDENT_INNER_CLASS;
+		}
+		this.flags = flags;
+		this.enclosingClassName = intern(visitor.getEnclosingClassName());
+		this.superClassName = intern(visitor.getSuperClassName());
+		this.interfaceNames = internAll(visitor.getInterfaceNames());
+		this.memberClassNames = internAll(visitor.getMemberClassNames());
+		this.classLoader = visitor.classLoader;
+		this.annotationTypes = (visitor.annotationSet.isEmpty() ? EMPTY_STRING_ARRAY :
+				CompactAnnotations.internAll(visitor.annotationSet));
+		this.annotations = CompactAnnotations.of(visitor.attributesMap, visitor.metaAnnotationMap);
+
+		int methodCount = visitor.methodMetadataSet.size();
+		this.methodNames = new String[methodCount];
+		this.methodAccess = new int[methodCount];
+		this.methodReturnTypeNames = new String[methodCount];
+		this.methodAnnotations = new CompactAnnotations[methodCount];
+		int i = 0;
+		for (MethodMetadata method : visitor.methodMetadataSet) {
+			MethodMetadataReadingVisitor methodVisitor = (MethodMetadataReadingVisitor) method;
+			this.methodNames[i] = methodVisitor.methodName.intern();
+			this.methodAccess[i] = methodVisitor.access;
+			this.methodReturnTypeNames[i] = methodVisitor.returnTypeName.intern();
+			this.methodAnnotations[i] =
+					CompactAnnotations.of(methodVisitor.attributesMap, methodVisitor.metaAnnotationMap);
+			i++;
+		}
+	}
+
+	@Nullable
+	private static String intern(@Nullable String name) {
+		return (name != null ? name.intern() : null);
+	}
+
+	private static String[] internAll(String[] names) {
+		if (names.length == 0) {
+			return EMPTY_STRING_ARRAY;
+		}
+		return CompactAnnotations.internAll(Arrays.asList(names));
+	}
+
+
+	@Override
+	public String getClassName() {
+		return this.className;
+	}
+
+	@Override
+	public boolean isInterface() {
+		return ((this.flags & INTERFACE) != 0);
+	}
+
+	@Override
+	public boolean isAnnotation() {
+		return ((this.flags & ANNOTATION) != 0);
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return ((this.flags & ABSTRACT) != 0);
+	}
+
+	@Override
+	public boolean isConcrete() {
+		return !(isInterface() || isAbstract());
+	}
+
+	@Override
+	public boolean isFinal() {
+		return ((this.flags & FINAL) != 0);
+	}
+
+	@Override
+	public boolean isIndependent() {
+		return (this.enclosingClassName == null || (this.flags & INDEPENDENT_INNER_CLASS) != 0);
+	}
+
+	@Override
+	public boolean hasEnclosingClass() {
+		return (this.enclosingClassName != null);
+	}
+
+	@Override
+	@Nullable
+	public String getEnclosingClassName() {
+		return this.enclosingClassName;
+	}
+
+	@Override
+	public boolean hasSuperClass() {
+		return (this.superClassName != null);
+	}
+
+	@Override
+	@Nullable
+	public String getSuperClassName() {
+		return this.superClassName;
+	}
+
+	@Override
+	public String[] getInterfaceNames() {
+		return this.interfaceNames.clone();
+	}
+
+	@Override
+	public String[] getMemberClassNames() {
+		return this.memberClassNames.clone();
+	}
+
+
+	@Override
+	public Set<String> getAnnotationTypes() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(this.annotationTypes)));
+	}
+
+	@Override
+	public Set<String> getMetaAnnotationTypes(String annotationName) {
+		return this.annotations.getMetaAnnotationTypes(annotationName);
+	}
+
+	@Override
+	public boolean hasAnnotation(String annotationName) {
+		for (String annotationType : this.annotationTypes) {
+			if (annotationType.equals(annotationName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean hasMetaAnnotation(String metaAnnotationType) {
+		return this.annotations.hasMetaAnnotation(metaAnnotationType);
+	}
+
+	@Override
+	public boolean isAnnotated(String annotationName) {
+		return (!AnnotationUtils.isInJavaLangAnnotationPackage(annotationName) &&
+				this.annotations.contains(annotationName));
+	}
+
+	@Override
+	@Nullable
+	public AnnotationAttributes getAnnotationAttributes(String annotationName) {
+		return getAnnotationAttributes(annotationName, false);
+	}
+
+	@Override
+	@Nullable
+	public AnnotationAttributes getAnnotationAttributes(String annotationName, boolean classValuesAsString) {
+		AnnotationAttributes raw = this.annotations.getMergedAnnotationAttributes(annotationName);
+		if (raw == null) {
+			return null;
+		}
+		return AnnotationReadingVisitorUtils.convertClassValues(
+				"class '" + getClassName() + "'", this.classLoader, raw, classValuesAsString);
+	}
+
+	@Override
+	@Nullable
+	public MultiValueMap<String, Object> getAllAnnotationAttributes(String annotationName) {
+		return getAllAnnotationAttributes(annotationName, false);
+	}
+
+	@Override
+	@Nullable
+	public MultiValueMap<String, Object> getAllAnnotationAttributes(String annotationName, boolean classValuesAsString) {
+		List<AnnotationAttributes> attributes = this.annotations.getAnnotationAttributes(annotationName);
+		if (attributes == null) {
+			return null;
+		}
+		MultiValueMap<String, Object> allAttributes = new LinkedMultiValueMap<>();
+		for (AnnotationAttributes raw : attributes) {
+			for (Map.Entry<String, Object> entry : AnnotationReadingVisitorUtils.convertClassValues(
+					"class '" + getClassName() + "'", this.classLoader, raw, classValuesAsString).entrySet()) {
+				allAttributes.add(entry.getKey(), entry.getValue());
+			}
+		}
+		return allAttributes;
+	}
+
+	@Override
+	public boolean hasAnnotatedMethods(String annotationName) {
+		for (CompactAnnotations methodAnnotations : this.methodAnnotations) {
+			if (methodAnnotations.contains(annotationName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Set<MethodMetadata> getAnnotatedMethods(String annotationName) {
+		Set<MethodMetadata> annotatedMethods = new LinkedHashSet<>(4);
+		for (int i = 0; i < this.methodAnnotations.length; i++) {
+			if (this.methodAnnotations[i].contains(annotationName)) {
+				annotatedMethods.add(getMethodMetadata()[i]);
+			}
+		}
+		return annotatedMethods;
+	}
+
+	/**
+	 * Return the MethodMetadata instances for all annotated methods,
+	 * creating them on first access (with stable identity afterwards).
+	 */
+	private MethodMetadata[] getMethodMetadata() {
+		MethodMetadata[] methodMetadata = this.methodMetadata;
+		if (methodMetadata == null) {
+			synchronized (this) {
+				methodMetadata = this.methodMetadata;
+				if (methodMetadata == null) {
+					methodMetadata = new MethodMetadata[this.methodNames.length];
+					for (int i = 0; i < methodMetadata.length; i++) {
+						methodMetadata[i] = new SimpleMethodMetadata(this.methodNames[i], this.methodAccess[i],
+								this.className, this.methodReturnTypeNames[i], this.classLoader, this.methodAnnotations[i]);
+					}
+					this.methodMetadata = methodMetadata;
+				}
+			}
+		}
+		return methodMetadata;
+	}
+
+
+	/**
+	 * Create a compact metadata representation for the given visitor state.
+	 * @param visitor the visitor after having read the class file
+	 * @return the corresponding {@code AnnotationMetadata} instance
+	 */
+	static AnnotationMetadata of(AnnotationMetadataReadingVisitor visitor) {
+		return new SimpleAnnotationMetadata(visitor);
+	}
+
+}
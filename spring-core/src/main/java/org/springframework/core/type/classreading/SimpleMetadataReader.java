@@ -64,9 +64,10 @@ final class SimpleMetadataReader implements MetadataReader {
 		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
 		classReader.accept(visitor, ClassReader.SKIP_DEBUG);
 
-		this.annotationMetadata = visitor;
-		// (since AnnotationMetadataReadingVisitor extends ClassMetadataReadingVisitor)
-		this.classMetadata = visitor;
+		// Retain a compact copy of the visitor state rather than the visitor itself
+		this.annotationMetadata = SimpleAnnotationMetadata.of(visitor);
+		// (since AnnotationMetadata extends ClassMetadata)
+		this.classMetadata = this.annotationMetadata;
 		this.resource = resource;
 	}
 
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Simple concurrent cache with a size limit, generating values for missing keys
+ * through a given function and evicting entries in approximate LRU order.
+ *
+ * <p>Lookups of existing entries are lock-free: they merely mark the entry as
+ * recently used. Eviction follows a "second chance" scheme: when the size limit
+ * is exceeded, entries are visited in insertion order, giving recently used
+ * entries another round while removing the others. Only the insertion of new
+ * entries beyond the size limit is guarded by a lock.
+ *
+ * <p>The number of cache hits and misses is tracked for monitoring purposes.
+ *
+ * @since 5.1
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int sizeLimit;
+
+	private final Function<K, V> generator;
+
+	private final ConcurrentHashMap<K, Entry<V>> cache = new ConcurrentHashMap<>(16);
+
+	private final ConcurrentLinkedQueue<K> queue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+
+	/**
+	 * Create a new cache instance with the given limit and generator function.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int sizeLimit, Function<K, V> generator) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.sizeLimit = sizeLimit;
+		this.generator = generator;
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation
+	 * of the value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 */
+	public V get(K key) {
+		if (this.sizeLimit == 0) {
+			this.missCount.increment();
+			return this.generator.apply(key);
+		}
+		Entry<V> entry = this.cache.get(key);
+		if (entry != null) {
+			this.hitCount.increment();
+			if (!entry.recentlyUsed) {
+				entry.recentlyUsed = true;
+			}
+			return entry.value;
+		}
+		this.missCount.increment();
+		V value = this.generator.apply(key);
+		Assert.state(value != null, "Generator function must not return null");
+		Entry<V> existing = this.cache.putIfAbsent(key, new Entry<>(value));
+		if (existing != null) {
+			return existing.value;
+		}
+		this.queue.offer(key);
+		if (this.size.incrementAndGet() > this.sizeLimit) {
+			evict();
+		}
+		return value;
+	}
+
+	private void evict() {
+		this.evictionLock.lock();
+		try {
+			while (this.size.get() > this.sizeLimit) {
+				K key = this.queue.poll();
+				if (key == null) {
+					return;
+				}
+				Entry<V> entry = this.cache.get(key);
+				if (entry != null && entry.recentlyUsed) {
+					entry.recentlyUsed = false;
+					this.queue.offer(key);
+				}
+				else {
+					this.cache.remove(key);
+					this.size.decrementAndGet();
+				}
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Return the current size of the cache.
+	 * @see #sizeLimit()
+	 */
+	public int size() {
+		return this.size.get();
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value).
+	 * @see #size()
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+	/**
+	 * Return the number of lookups which found an existing entry.
+	 */
+	public long hitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups which had to generate a new value.
+	 */
+	public long missCount() {
+		return this.missCount.sum();
+	}
+
+
+	private static final class Entry<V> {
+
+		final V value;
+
+		volatile boolean recentlyUsed;
+
+		Entry(V value) {
+			this.value = value;
+		}
+	}
+
+}
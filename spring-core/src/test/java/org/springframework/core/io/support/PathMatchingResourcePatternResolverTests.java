@@ -106,6 +106,20 @@ public class PathMatchingResourcePatternResolverTests {
 		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
 	}
 
+	@Test
+	public void classpathStarWithPatternInJarAndCachedJarEntries() throws IOException {
+		resolver.setCacheJarEntries(true);
+		Resource[] resources = resolver.getResources("classpath*:org/reactivestreams/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+		// second lookup served from the cached entries
+		resources = resolver.getResources("classpath*:org/reactivestreams/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+		resources = resolver.getResources("classpath*:org/reactivestreams/Pub*.class");
+		assertProtocolAndFilenames(resources, "jar", "Publisher.class");
+		resources = resolver.getResources("classpath*:org/reactive*/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+	}
+
 	@Test
 	public void rootPatternRetrievalInJarFiles() throws IOException {
 		Resource[] resources = resolver.getResources("classpath*:*.dtd");
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SharedMetadataReaderCache}.
+ */
+public class SharedMetadataReaderCacheTests {
+
+	private final SharedMetadataReaderCache cache = new SharedMetadataReaderCache();
+
+
+	@Test
+	public void sharedAcrossFactories() throws Exception {
+		CachingMetadataReaderFactory factory1 = new CachingMetadataReaderFactory(new DefaultResourceLoader());
+		factory1.setSharedCache(this.cache);
+		CachingMetadataReaderFactory factory2 = new CachingMetadataReaderFactory(new DefaultResourceLoader());
+		factory2.setSharedCache(this.cache);
+
+		MetadataReader reader1 = factory1.getMetadataReader(getClass().getName());
+		MetadataReader reader2 = factory2.getMetadataReader(getClass().getName());
+		assertSame(reader1, reader2);
+		assertEquals(getClass().getName(), reader1.getClassMetadata().getClassName());
+		assertEquals(1, this.cache.size());
+		assertEquals(1, this.cache.getMissCount());
+		assertEquals(1, this.cache.getHitCount());
+		assertTrue(this.cache.getWeight() > 0);
+	}
+
+	@Test
+	public void separateEntriesPerClassLoader() throws Exception {
+		Resource resource = new DefaultResourceLoader().getResource(
+				"classpath:org/springframework/core/type/classreading/SharedMetadataReaderCacheTests.class");
+		ClassLoader otherClassLoader = new ClassLoader(getClass().getClassLoader()) {};
+
+		MetadataReader reader1 = this.cache.getMetadataReader(resource, getClass().getClassLoader());
+		MetadataReader reader2 = this.cache.getMetadataReader(resource, otherClassLoader);
+		assertNotSame(reader1, reader2);
+		assertSame(reader1, this.cache.getMetadataReader(resource, getClass().getClassLoader()));
+		assertEquals(2, this.cache.size());
+		assertEquals(2, this.cache.getMissCount());
+		assertEquals(1, this.cache.getHitCount());
+	}
+
+	@Test
+	public void evictionOnMaxWeight() throws Exception {
+		DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+		Resource resource1 = resourceLoader.getResource("classpath:java/lang/String.class");
+		Resource resource2 = resourceLoader.getResource("classpath:java/lang/Thread.class");
+		SharedMetadataReaderCache cache = new SharedMetadataReaderCache(resource1.contentLength() + 1);
+
+		MetadataReader reader1 = cache.getMetadataReader(resource1, null);
+		assertEquals(1, cache.size());
+		cache.getMetadataReader(resource2, null);
+		assertTrue(cache.getEvictionCount() >= 1);
+		assertTrue(cache.getWeight() <= cache.getMaxWeight());
+		assertNotSame(reader1, cache.getMetadataReader(resource1, null));
+		assertEquals(3, cache.getMissCount());
+	}
+
+	@Test
+	public void uncacheableResource() throws Exception {
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		Resource classResource = factory.getMetadataReader(getClass().getName()).getResource();
+		byte[] bytes = new byte[(int) classResource.contentLength()];
+		assertEquals(bytes.length, classResource.getInputStream().read(bytes));
+		Resource resource = new ByteArrayResource(bytes);
+
+		assertNotNull(this.cache.getMetadataReader(resource, null));
+		assertEquals(0, this.cache.size());
+	}
+
+	@Test
+	public void clear() throws Exception {
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		factory.setSharedCache(this.cache);
+		factory.getMetadataReader(getClass().getName());
+		assertEquals(1, this.cache.size());
+		factory.clearCache();
+		assertEquals(1, this.cache.size());
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+		assertEquals(0, this.cache.getWeight());
+	}
+
+	@Test
+	public void cacheLimitSwitchesToLocalCache() {
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		factory.setSharedCache(this.cache);
+		assertSame(this.cache, factory.getSharedCache());
+		factory.setCacheLimit(10);
+		assertNull(factory.getSharedCache());
+		assertEquals(10, factory.getCacheLimit());
+	}
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests demonstrating that the compact {@link SimpleAnnotationMetadata} and
+ * {@link SimpleMethodMetadata} produce the same output as the reflection-based
+ * {@link StandardAnnotationMetadata}.
+ */
+public class SimpleAnnotationMetadataTests {
+
+	private static final List<String> ANNOTATION_NAMES = Arrays.asList(
+			Meta.class.getName(), Composed.class.getName(), Holder.class.getName(),
+			Nested.class.getName(), Typed.class.getName(), Retention.class.getName());
+
+
+	@Test
+	public void compactMetadata() throws Exception {
+		AnnotationMetadata metadata = getSimpleMetadata(AnnotatedClass.class);
+		assertTrue(metadata instanceof SimpleAnnotationMetadata);
+		for (MethodMetadata methodMetadata : metadata.getAnnotatedMethods(Composed.class.getName())) {
+			assertTrue(methodMetadata instanceof SimpleMethodMetadata);
+		}
+	}
+
+	@Test
+	public void classMetadata() throws Exception {
+		AnnotationMetadata expected = new StandardAnnotationMetadata(AnnotatedClass.class, true);
+		AnnotationMetadata actual = getSimpleMetadata(AnnotatedClass.class);
+
+		assertEquals(expected.getClassName(), actual.getClassName());
+		assertEquals(expected.isInterface(), actual.isInterface());
+		assertEquals(expected.isAbstract(), actual.isAbstract());
+		assertEquals(expected.isFinal(), actual.isFinal());
+		assertEquals(expected.isIndependent(), actual.isIndependent());
+		assertEquals(expected.getEnclosingClassName(), actual.getEnclosingClassName());
+		assertEquals(expected.getSuperClassName(), actual.getSuperClassName());
+		assertArrayEquals(expected.getInterfaceNames(), actual.getInterfaceNames());
+		assertArrayEquals(expected.getMemberClassNames(), actual.getMemberClassNames());
+	}
+
+	@Test
+	public void annotationTypes() throws Exception {
+		AnnotationMetadata expected = new StandardAnnotationMetadata(AnnotatedClass.class, true);
+		AnnotationMetadata actual = getSimpleMetadata(AnnotatedClass.class);
+
+		assertEquals(expected.getAnnotationTypes(), actual.getAnnotationTypes());
+		for (String annotationName : ANNOTATION_NAMES) {
+			assertEquals(annotationName, expected.hasAnnotation(annotationName), actual.hasAnnotation(annotationName));
+			assertEquals(annotationName, expected.hasMetaAnnotation(annotationName), actual.hasMetaAnnotation(annotationName));
+			assertEquals(annotationName, expected.isAnnotated(annotationName), actual.isAnnotated(annotationName));
+			if (expected.hasAnnotation(annotationName)) {
+				assertEquals(annotationName, expected.getMetaAnnotationTypes(annotationName),
+						actual.getMetaAnnotationTypes(annotationName));
+			}
+		}
+	}
+
+	@Test
+	public void metaAnnotationAttributesWithOverrides() throws Exception {
+		AnnotationMetadata metadata = getSimpleMetadata(AnnotatedClass.class);
+		assertTrue(metadata.hasMetaAnnotation(Meta.class.getName()));
+		assertEquals("composed", metadata.getAnnotationAttributes(Meta.class.getName()).get("name"));
+		assertAnnotationAttributes(new StandardAnnotationMetadata(AnnotatedClass.class, true), metadata, ANNOTATION_NAMES);
+	}
+
+	@Test
+	public void nestedAnnotationArrays() throws Exception {
+		AnnotationMetadata metadata = getSimpleMetadata(AnnotatedClass.class);
+		Map<?, ?>[] nested = (Map<?, ?>[]) metadata.getAnnotationAttributes(Holder.class.getName()).get("value");
+		assertEquals(2, nested.length);
+		assertEquals("first", nested[0].get("name"));
+		assertAnnotationAttributes(new StandardAnnotationMetadata(AnnotatedClass.class, true), metadata, ANNOTATION_NAMES);
+	}
+
+	@Test
+	public void classValuedAttributes() throws Exception {
+		AnnotationMetadata metadata = getSimpleMetadata(AnnotatedClass.class);
+		assertEquals(Integer.class, metadata.getAnnotationAttributes(Typed.class.getName()).get("type"));
+		assertEquals(Integer.class.getName(), metadata.getAnnotationAttributes(Typed.class.getName(), true).get("type"));
+		assertAnnotationAttributes(new StandardAnnotationMetadata(AnnotatedClass.class, true), metadata, ANNOTATION_NAMES);
+	}
+
+	@Test
+	public void sameAsReadingVisitor() throws Exception {
+		// The visitor differs from reflection for array class names ("int[]" vs "[I")
+		// and only applies convention-based attribute overrides to meta-annotations
+		List<String> annotationNames = new ArrayList<>(ANNOTATION_NAMES);
+		annotationNames.add(Aliased.class.getName());
+		for (Class<?> clazz : new Class<?>[] {AnnotatedClass.class, ArrayValuedClass.class}) {
+			AnnotationMetadataReadingVisitor expected = new AnnotationMetadataReadingVisitor(getClass().getClassLoader());
+			new ClassReader(clazz.getName()).accept(expected, ClassReader.SKIP_DEBUG);
+			AnnotationMetadata actual = getSimpleMetadata(clazz);
+
+			assertEquals(expected.getAnnotationTypes(), actual.getAnnotationTypes());
+			assertAnnotationAttributes(expected, actual, annotationNames);
+			for (String annotationName : annotationNames) {
+				assertEquals(annotationName, expected.getMetaAnnotationTypes(annotationName),
+						actual.getMetaAnnotationTypes(annotationName));
+				Set<MethodMetadata> expectedMethods = expected.getAnnotatedMethods(annotationName);
+				Set<MethodMetadata> actualMethods = actual.getAnnotatedMethods(annotationName);
+				assertEquals(annotationName, expectedMethods.size(), actualMethods.size());
+				for (MethodMetadata actualMethod : actualMethods) {
+					MethodMetadata expectedMethod = findMethod(expectedMethods, actualMethod.getMethodName());
+					assertEquals(expectedMethod.getReturnTypeName(), actualMethod.getReturnTypeName());
+					assertAnnotationAttributes(expectedMethod, actualMethod, annotationNames);
+				}
+			}
+		}
+		assertEquals("int[]", getSimpleMetadata(ArrayValuedClass.class)
+				.getAnnotationAttributes(Typed.class.getName(), true).get("type"));
+	}
+
+	@Test
+	public void unannotatedClass() throws Exception {
+		AnnotationMetadata expected = new StandardAnnotationMetadata(SimpleAnnotationMetadataTests.class, true);
+		AnnotationMetadata actual = getSimpleMetadata(SimpleAnnotationMetadataTests.class);
+
+		assertEquals(expected.getAnnotationTypes(), actual.getAnnotationTypes());
+		assertAnnotationAttributes(expected, actual, ANNOTATION_NAMES);
+		assertTrue(actual.getAnnotatedMethods(Composed.class.getName()).isEmpty());
+	}
+
+	@Test
+	public void methodMetadata() throws Exception {
+		AnnotationMetadata expected = new StandardAnnotationMetadata(AnnotatedClass.class, true);
+		AnnotationMetadata actual = getSimpleMetadata(AnnotatedClass.class);
+
+		for (String annotationName : ANNOTATION_NAMES) {
+			Set<MethodMetadata> expectedMethods = expected.getAnnotatedMethods(annotationName);
+			Set<MethodMetadata> actualMethods = actual.getAnnotatedMethods(annotationName);
+			assertEquals(annotationName, expected.hasAnnotatedMethods(annotationName), actual.hasAnnotatedMethods(annotationName));
+			assertEquals(annotationName, expectedMethods.size(), actualMethods.size());
+			for (MethodMetadata actualMethod : actualMethods) {
+				MethodMetadata expectedMethod = findMethod(expectedMethods, actualMethod.getMethodName());
+				assertEquals(expectedMethod.getDeclaringClassName(), actualMethod.getDeclaringClassName());
+				assertEquals(expectedMethod.getReturnTypeName(), actualMethod.getReturnTypeName());
+				assertEquals(expectedMethod.isAbstract(), actualMethod.isAbstract());
+				assertEquals(expectedMethod.isStatic(), actualMethod.isStatic());
+				assertEquals(expectedMethod.isFinal(), actualMethod.isFinal());
+				assertEquals(expectedMethod.isOverridable(), actualMethod.isOverridable());
+				assertAnnotationAttributes(expectedMethod, actualMethod, ANNOTATION_NAMES);
+			}
+		}
+	}
+
+	@Test
+	public void methodMetadataCreatedOnce() throws Exception {
+		AnnotationMetadata metadata = getSimpleMetadata(AnnotatedClass.class);
+		MethodMetadata method = metadata.getAnnotatedMethods(Composed.class.getName()).iterator().next();
+		assertSame(method, metadata.getAnnotatedMethods(Composed.class.getName()).iterator().next());
+		assertSame(method, metadata.getAnnotatedMethods(Meta.class.getName()).iterator().next());
+	}
+
+
+	private static AnnotationMetadata getSimpleMetadata(Class<?> clazz) throws Exception {
+		return new SimpleMetadataReaderFactory().getMetadataReader(clazz.getName()).getAnnotationMetadata();
+	}
+
+	private static MethodMetadata findMethod(Set<MethodMetadata> methods, String methodName) {
+		for (MethodMetadata method : methods) {
+			if (method.getMethodName().equals(methodName)) {
+				return method;
+			}
+		}
+		throw new AssertionError("No method '" + methodName + "' in " + methods);
+	}
+
+	private static void assertAnnotationAttributes(
+			AnnotatedTypeMetadata expected, AnnotatedTypeMetadata actual, List<String> annotationNames) {
+
+		for (String annotationName : annotationNames) {
+			for (boolean classValuesAsString : new boolean[] {false, true}) {
+				assertDeepEquals(annotationName, expected.getAnnotationAttributes(annotationName, classValuesAsString),
+						actual.getAnnotationAttributes(annotationName, classValuesAsString));
+				assertDeepEquals(annotationName, expected.getAllAnnotationAttributes(annotationName, classValuesAsString),
+						actual.getAllAnnotationAttributes(annotationName, classValuesAsString));
+			}
+		}
+	}
+
+	private static void assertDeepEquals(String path, Object expected, Object actual) {
+		if (expected instanceof Map && actual instanceof Map) {
+			Map<?, ?> expectedMap = (Map<?, ?>) expected;
+			Map<?, ?> actualMap = (Map<?, ?>) actual;
+			assertEquals(path, expectedMap.keySet(), actualMap.keySet());
+			for (Map.Entry<?, ?> entry : expectedMap.entrySet()) {
+				assertDeepEquals(path + "." + entry.getKey(), entry.getValue(), actualMap.get(entry.getKey()));
+			}
+		}
+		else if (expected instanceof List && actual instanceof List) {
+			List<?> expectedList = (List<?>) expected;
+			List<?> actualList = (List<?>) actual;
+			assertEquals(path, expectedList.size(), actualList.size());
+			for (int i = 0; i < expectedList.size(); i++) {
+				assertDeepEquals(path + "[" + i + "]", expectedList.get(i), actualList.get(i));
+			}
+		}
+		else if (expected != null && expected.getClass().isArray() && actual != null && actual.getClass().isArray()) {
+			assertEquals(path, expected.getClass(), actual.getClass());
+			assertEquals(path, Array.getLength(expected), Array.getLength(actual));
+			for (int i = 0; i < Array.getLength(expected); i++) {
+				assertDeepEquals(path + "[" + i + "]", Array.get(expected, i), Array.get(actual, i));
+			}
+		}
+		else {
+			assertEquals(path, expected, actual);
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	public @interface Meta {
+
+		String name() default "meta";
+
+		Class<?> type() default Object.class;
+	}
+
+	@Meta(type = Number.class)
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	public @interface Composed {
+
+		String name() default "";
+	}
+
+	@Meta
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	public @interface Aliased {
+
+		@AliasFor(annotation = Meta.class, attribute = "type")
+		Class<?> value() default Object.class;
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	public @interface Holder {
+
+		Nested[] value();
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Nested {
+
+		String name();
+
+		Class<?>[] types() default {};
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	public @interface Typed {
+
+		Class<?> type();
+
+		Class<?>[] types() default {};
+
+		RetentionPolicy policy() default RetentionPolicy.CLASS;
+	}
+
+
+	@Composed(name = "composed")
+	@Holder({@Nested(name = "first", types = {String.class, Long.class}), @Nested(name = "second")})
+	@Typed(type = Integer.class, types = {String.class, Number.class}, policy = RetentionPolicy.RUNTIME)
+	public static class AnnotatedClass {
+
+		@Composed(name = "method")
+		public String composed() {
+			return "";
+		}
+
+		@Holder(@Nested(name = "nested", types = Integer.class))
+		public static final int nested() {
+			return 0;
+		}
+
+		@Typed(type = Long.class)
+		protected void typed() {
+		}
+
+		@Meta
+		@Typed(type = String.class)
+		private Object meta() {
+			return null;
+		}
+	}
+
+
+	@Aliased(Integer.class)
+	@Typed(type = int[].class, types = {String[].class, long.class})
+	public static class ArrayValuedClass {
+
+		@Typed(type = Object[].class)
+		public String[][] arrays() {
+			return null;
+		}
+
+		@Aliased(Long.class)
+		public void aliased() {
+		}
+	}
+
+}
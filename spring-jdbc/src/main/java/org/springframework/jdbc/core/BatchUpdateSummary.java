@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aggregated outcome of a chunked batch update, as returned by
+ * {@link JdbcOperations#batchUpdate(String, java.util.Iterator, int, ParameterizedPreparedStatementSetter, int)}.
+ *
+ * <p>Only totals are kept for successfully executed chunks, avoiding the
+ * accumulation of per-statement update counts for very large inputs;
+ * chunks that failed are reported individually through {@link ChunkFailure}.
+ *
+ * @since 5.1
+ */
+public class BatchUpdateSummary {
+
+	private final int chunkCount;
+
+	private final long itemCount;
+
+	private final long rowsAffected;
+
+	private final List<ChunkFailure> failures;
+
+
+	/**
+	 * Create a new BatchUpdateSummary.
+	 * @param chunkCount the number of chunks processed
+	 * @param itemCount the number of argument items processed
+	 * @param rowsAffected the total number of rows affected by successful chunks
+	 * @param failures the failed chunks, in chunk order
+	 */
+	public BatchUpdateSummary(int chunkCount, long itemCount, long rowsAffected, List<ChunkFailure> failures) {
+		this.chunkCount = chunkCount;
+		this.itemCount = itemCount;
+		this.rowsAffected = rowsAffected;
+		this.failures = Collections.unmodifiableList(failures);
+	}
+
+
+	/**
+	 * Return the number of chunks that the input has been split into.
+	 */
+	public int getChunkCount() {
+		return this.chunkCount;
+	}
+
+	/**
+	 * Return the number of argument items that have been read from the input.
+	 */
+	public long getItemCount() {
+		return this.itemCount;
+	}
+
+	/**
+	 * Return the total number of rows affected by all successful chunks.
+	 * <p>Update counts reported as {@link java.sql.Statement#SUCCESS_NO_INFO}
+	 * are not included in this total.
+	 */
+	public long getRowsAffected() {
+		return this.rowsAffected;
+	}
+
+	/**
+	 * Return whether any of the chunks failed.
+	 */
+	public boolean hasFailures() {
+		return !this.failures.isEmpty();
+	}
+
+	/**
+	 * Return the chunks that failed, in chunk order.
+	 */
+	public List<ChunkFailure> getFailures() {
+		return this.failures;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchUpdateSummary: " + this.chunkCount + " chunks, " + this.itemCount + " items, " +
+				this.rowsAffected + " rows affected, " + this.failures.size() + " failed chunks";
+	}
+
+
+	/**
+	 * Failure of a single chunk within a chunked batch update.
+	 */
+	public static class ChunkFailure {
+
+		private final int chunkIndex;
+
+		private final long firstItemIndex;
+
+		private final int itemCount;
+
+		private final Throwable exception;
+
+		/**
+		 * Create a new ChunkFailure.
+		 * @param chunkIndex the 0-based index of the chunk
+		 * @param firstItemIndex the 0-based index of the chunk's first item within the input
+		 * @param itemCount the number of items in the chunk
+		 * @param exception the exception that the chunk failed with
+		 */
+		public ChunkFailure(int chunkIndex, long firstItemIndex, int itemCount, Throwable exception) {
+			this.chunkIndex = chunkIndex;
+			this.firstItemIndex = firstItemIndex;
+			this.itemCount = itemCount;
+			this.exception = exception;
+		}
+
+		/**
+		 * Return the 0-based index of the failed chunk.
+		 */
+		public int getChunkIndex() {
+			return this.chunkIndex;
+		}
+
+		/**
+		 * Return the 0-based index of the chunk's first item within the input.
+		 */
+		public long getFirstItemIndex() {
+			return this.firstItemIndex;
+		}
+
+		/**
+		 * Return the number of items in the failed chunk.
+		 */
+		public int getItemCount() {
+			return this.itemCount;
+		}
+
+		/**
+		 * Return the exception that the chunk failed with, typically a
+		 * {@link org.springframework.dao.DataAccessException}. An {@link Error}
+		 * is recorded as well before it gets rethrown.
+		 */
+		public Throwable getException() {
+			return this.exception;
+		}
+
+		@Override
+		public String toString() {
+			return "Chunk #" + this.chunkIndex + " (items " + this.firstItemIndex + "-" +
+					(this.firstItemIndex + this.itemCount - 1) + "): " + this.exception;
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ import java.beans.PropertyDescriptor;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
@@ -273,6 +274,25 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	}
 
 
+	/**
+	 * Determine the bean property that the given column is mapped to.
+	 * @param column the column name (as returned by {@link JdbcUtils#lookupColumnName})
+	 * @return the corresponding property, or {@code null} if none
+	 * @since 5.1
+	 */
+	@Nullable
+	PropertyDescriptor getMappedProperty(String column) {
+		return (this.mappedFields != null ? this.mappedFields.get(lowerCaseName(column.replaceAll(" ", ""))) : null);
+	}
+
+	/**
+	 * Return the names of all bean properties that we provide mapping for.
+	 * @since 5.1
+	 */
+	Set<String> getMappedPropertyNames() {
+		return (this.mappedProperties != null ? this.mappedProperties : Collections.emptySet());
+	}
+
 	/**
 	 * Extract the values for all columns in the current row.
 	 * <p>Utilizes public setters and result set metadata.
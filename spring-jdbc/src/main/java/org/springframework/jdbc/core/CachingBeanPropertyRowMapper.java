@@ -0,0 +1,400 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.MethodInvocationException;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link BeanPropertyRowMapper} variant which resolves the mapping between
+ * result set columns and bean properties only once per result set shape
+ * (i.e. per distinct sequence of column names), instead of for every row.
+ *
+ * <p>The resulting mapping plan holds, for each mapped column index, the
+ * property's write method and a typed value reader (e.g. calling
+ * {@code ResultSet.getLong(int)} for a {@code long} property). Mapping a row
+ * then comes down to instantiating the target class and invoking the readers
+ * and setters in sequence: no metadata access, column name transformation,
+ * property lookup or {@code BeanWrapper} setup per row. Values of a type that
+ * does not match the property type are converted through the configured
+ * {@link #setConversionService ConversionService}.
+ *
+ * <p>Since no {@code BeanWrapper} is involved, {@link #initBeanWrapper} is
+ * not called, and {@link #getColumnValue} is only consulted for property
+ * types without a dedicated typed reader (i.e. other than String, primitives
+ * and their wrappers, BigDecimal, date/time types and byte arrays).
+ *
+ * @since 5.1
+ * @param <T> the result type
+ */
+public class CachingBeanPropertyRowMapper<T> extends BeanPropertyRowMapper<T> {
+
+	private final Map<List<String>, MappingPlan> mappingPlanCache = new ConcurrentHashMap<>(16);
+
+	@Nullable
+	private volatile CurrentPlan currentPlan;
+
+
+	/**
+	 * Create a new {@code CachingBeanPropertyRowMapper} for bean-style configuration.
+	 * @see #setMappedClass
+	 * @see #setCheckFullyPopulated
+	 */
+	public CachingBeanPropertyRowMapper() {
+	}
+
+	/**
+	 * Create a new {@code CachingBeanPropertyRowMapper}, accepting unpopulated
+	 * properties in the target bean.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public CachingBeanPropertyRowMapper(Class<T> mappedClass) {
+		super(mappedClass);
+	}
+
+	/**
+	 * Create a new {@code CachingBeanPropertyRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param checkFullyPopulated whether we're strictly validating that
+	 * all bean properties have been mapped from corresponding database fields
+	 */
+	public CachingBeanPropertyRowMapper(Class<T> mappedClass, boolean checkFullyPopulated) {
+		super(mappedClass, checkFullyPopulated);
+	}
+
+
+	/**
+	 * Extract the values for all columns in the current row,
+	 * according to the mapping plan for the given ResultSet.
+	 */
+	@Override
+	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		MappingPlan plan = getMappingPlan(rs);
+		if (!plan.fullyPopulated && isCheckFullyPopulated()) {
+			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
+					"necessary to populate object of class [" + plan.constructor.getDeclaringClass().getName() +
+					"]: " + getMappedPropertyNames());
+		}
+		T mappedObject = BeanUtils.instantiateClass(plan.constructor);
+		for (ColumnMapping mapping : plan.columnMappings) {
+			mapping.apply(rs, mappedObject, rowNumber);
+		}
+		return mappedObject;
+	}
+
+	/**
+	 * Obtain the mapping plan for the given ResultSet: reusing the plan of the
+	 * previous row if still on the same ResultSet, otherwise looking it up by the
+	 * ResultSet's column names (building it on first encounter of that shape).
+	 */
+	private MappingPlan getMappingPlan(ResultSet rs) throws SQLException {
+		CurrentPlan current = this.currentPlan;
+		if (current != null && current.resultSet.get() == rs) {
+			return current.plan;
+		}
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		String[] columns = new String[columnCount];
+		for (int index = 1; index <= columnCount; index++) {
+			columns[index - 1] = JdbcUtils.lookupColumnName(rsmd, index);
+		}
+		MappingPlan plan = this.mappingPlanCache.computeIfAbsent(Arrays.asList(columns), this::buildMappingPlan);
+		this.currentPlan = new CurrentPlan(rs, plan);
+		return plan;
+	}
+
+	private MappingPlan buildMappingPlan(List<String> columns) {
+		Class<T> mappedClass = getMappedClass();
+		Assert.state(mappedClass != null, "Mapped class was not specified");
+		Constructor<T> constructor;
+		try {
+			constructor = ReflectionUtils.accessibleConstructor(mappedClass);
+		}
+		catch (NoSuchMethodException ex) {
+			throw new InvalidDataAccessApiUsageException(
+					"No default constructor found on mapped class [" + mappedClass.getName() + "]", ex);
+		}
+		List<ColumnMapping> columnMappings = new ArrayList<>(columns.size());
+		Set<String> populatedProperties = new HashSet<>();
+		for (int index = 1; index <= columns.size(); index++) {
+			String column = columns.get(index - 1);
+			PropertyDescriptor pd = getMappedProperty(column);
+			if (pd != null) {
+				Method writeMethod = pd.getWriteMethod();
+				if (writeMethod == null) {
+					throw new DataRetrievalFailureException(
+							"Unable to map column '" + column + "' to property '" + pd.getName() + "'");
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+				}
+				ReflectionUtils.makeAccessible(writeMethod);
+				columnMappings.add(new ColumnMapping(index, column, pd, writeMethod, createColumnReader(pd)));
+				populatedProperties.add(pd.getName());
+			}
+			else if (logger.isDebugEnabled()) {
+				logger.debug("No property found for column '" + column + "'");
+			}
+		}
+		return new MappingPlan(constructor, columnMappings,
+				populatedProperties.equals(getMappedPropertyNames()));
+	}
+
+	/**
+	 * Create a typed reader for the given property, following the semantics of
+	 * {@link JdbcUtils#getResultSetValue(ResultSet, int, Class)}.
+	 */
+	private ColumnReader createColumnReader(PropertyDescriptor pd) {
+		Class<?> type = pd.getPropertyType();
+		if (String.class == type) {
+			return ResultSet::getString;
+		}
+		else if (boolean.class == type || Boolean.class == type) {
+			return (rs, index) -> {
+				boolean value = rs.getBoolean(index);
+				return (rs.wasNull() ? null : value);
+			};
+		}
+		else if (byte.class == type || Byte.class == type) {
+			return (rs, index) -> {
+				byte value = rs.getByte(index);
+				return (rs.wasNull() ? null : value);
+			};
+		}
+		else if (short.class == type || Short.class == type) {
+			return (rs, index) -> {
+				short value = rs.getShort(index);
+				return (rs.wasNull() ? null : value);
+			};
+		}
+		else if (int.class == type || Integer.class == type) {
+			return (rs, index) -> {
+				int value = rs.getInt(index);
+				return (rs.wasNull() ? null : value);
+			};
+		}
+		else if (long.class == type || Long.class == type) {
+			return (rs, index) -> {
+				long value = rs.getLong(index);
+				return (rs.wasNull() ? null : value);
+			};
+		}
+		else if (float.class == type || Float.class == type) {
+			return (rs, index) -> {
+				float value = rs.getFloat(index);
+				return (rs.wasNull() ? null : value);
+			};
+		}
+		else if (double.class == type || Double.class == type) {
+			return (rs, index) -> {
+				double value = rs.getDouble(index);
+				return (rs.wasNull() ? null : value);
+			};
+		}
+		else if (BigDecimal.class == type) {
+			return ResultSet::getBigDecimal;
+		}
+		else if (java.sql.Date.class == type) {
+			return ResultSet::getDate;
+		}
+		else if (java.sql.Time.class == type) {
+			return ResultSet::getTime;
+		}
+		else if (java.sql.Timestamp.class == type || java.util.Date.class == type) {
+			return ResultSet::getTimestamp;
+		}
+		else if (byte[].class == type) {
+			return ResultSet::getBytes;
+		}
+		else {
+			return (rs, index) -> getColumnValue(rs, index, pd);
+		}
+	}
+
+
+	/**
+	 * Strategy for reading a specific column value from the current row.
+	 */
+	@FunctionalInterface
+	private interface ColumnReader {
+
+		@Nullable
+		Object read(ResultSet rs, int index) throws SQLException;
+	}
+
+
+	/**
+	 * Mapping of a specific column index to a bean property.
+	 */
+	private class ColumnMapping {
+
+		private final int index;
+
+		private final String column;
+
+		private final PropertyDescriptor pd;
+
+		private final Method writeMethod;
+
+		private final ColumnReader reader;
+
+		private final Class<?> propertyType;
+
+		private final TypeDescriptor targetType;
+
+		public ColumnMapping(int index, String column, PropertyDescriptor pd, Method writeMethod, ColumnReader reader) {
+			this.index = index;
+			this.column = column;
+			this.pd = pd;
+			this.writeMethod = writeMethod;
+			this.reader = reader;
+			this.propertyType = ClassUtils.resolvePrimitiveIfNecessary(pd.getPropertyType());
+			this.targetType = new TypeDescriptor(new MethodParameter(writeMethod, 0));
+		}
+
+		public void apply(ResultSet rs, Object mappedObject, int rowNumber) throws SQLException {
+			Object value = this.reader.read(rs, this.index);
+			if (value == null) {
+				if (this.pd.getPropertyType().isPrimitive()) {
+					if (isPrimitivesDefaultedForNullValue()) {
+						if (logger.isDebugEnabled()) {
+							logger.debug("Skipping null value for row " + rowNumber + " and column '" +
+									this.column + "' when setting primitive property '" + this.pd.getName() +
+									"' on object: " + mappedObject);
+						}
+						return;
+					}
+					throw new TypeMismatchException(createPropertyChangeEvent(mappedObject, null),
+							this.pd.getPropertyType());
+				}
+			}
+			else if (!this.propertyType.isInstance(value)) {
+				value = convertValue(mappedObject, value);
+			}
+			try {
+				this.writeMethod.invoke(mappedObject, value);
+			}
+			catch (InvocationTargetException ex) {
+				throw new MethodInvocationException(
+						createPropertyChangeEvent(mappedObject, value), ex.getTargetException());
+			}
+			catch (IllegalAccessException ex) {
+				throw new DataRetrievalFailureException(
+						"Unable to map column '" + this.column + "' to property '" + this.pd.getName() + "'", ex);
+			}
+		}
+
+		private Object convertValue(Object mappedObject, Object value) {
+			ConversionService conversionService = getConversionService();
+			TypeDescriptor sourceType = TypeDescriptor.forObject(value);
+			if (conversionService != null && conversionService.canConvert(sourceType, this.targetType)) {
+				try {
+					Object convertedValue = conversionService.convert(value, sourceType, this.targetType);
+					if (convertedValue != null) {
+						return convertedValue;
+					}
+				}
+				catch (ConversionException ex) {
+					throw new TypeMismatchException(
+							createPropertyChangeEvent(mappedObject, value), this.pd.getPropertyType(), ex);
+				}
+			}
+			throw new TypeMismatchException(createPropertyChangeEvent(mappedObject, value), this.pd.getPropertyType());
+		}
+
+		private PropertyChangeEvent createPropertyChangeEvent(Object mappedObject, @Nullable Object value) {
+			return new PropertyChangeEvent(mappedObject, this.pd.getName(), null, value);
+		}
+	}
+
+
+	/**
+	 * Mapping plan for a specific result set shape.
+	 */
+	private class MappingPlan {
+
+		final Constructor<T> constructor;
+
+		final List<ColumnMapping> columnMappings;
+
+		final boolean fullyPopulated;
+
+		MappingPlan(Constructor<T> constructor, List<ColumnMapping> columnMappings, boolean fullyPopulated) {
+			this.constructor = constructor;
+			this.columnMappings = columnMappings;
+			this.fullyPopulated = fullyPopulated;
+		}
+	}
+
+
+	/**
+	 * Holder for the plan of the most recently mapped ResultSet.
+	 */
+	private class CurrentPlan {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final MappingPlan plan;
+
+		CurrentPlan(ResultSet resultSet, MappingPlan plan) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.plan = plan;
+		}
+	}
+
+
+	/**
+	 * Static factory method to create a new {@code CachingBeanPropertyRowMapper}
+	 * (with the mapped class specified only once).
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public static <T> CachingBeanPropertyRowMapper<T> newInstance(Class<T> mappedClass) {
+		return new CachingBeanPropertyRowMapper<>(mappedClass);
+	}
+
+}
@@ -17,8 +17,10 @@
 package org.springframework.jdbc.core;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
@@ -521,6 +523,62 @@ public interface JdbcOperations {
 	 */
 	<T> List<T> query(String sql, RowMapper<T> rowMapper, @Nullable Object... args) throws DataAccessException;
 
+	/**
+	 * Query using a prepared statement, mapping each row to a Java object
+	 * via a RowMapper, and turning it into an iterable and closeable Stream.
+	 * <p>The Stream is backed by the open ResultSet: rows are only fetched
+	 * (according to the configured fetch size) and mapped while the Stream is
+	 * being consumed, keeping memory consumption independent of the result size.
+	 * The Stream holds on to the JDBC Statement and Connection until closed.
+	 * @param psc object that can create a PreparedStatement given a Connection
+	 * @param rowMapper object that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.1
+	 * @see JdbcTemplate#setFetchSize
+	 */
+	<T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper) throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a
+	 * PreparedStatementSetter implementation that knows how to bind values to
+	 * the query, mapping each row to a result object via a RowMapper, and
+	 * turning it into an iterable and closeable Stream.
+	 * @param sql SQL query to execute
+	 * @param pss object that knows how to set values on the prepared statement.
+	 * If this is {@code null}, the SQL will be assumed to contain no bind parameters.
+	 * Even if there are no bind parameters, this object may be used to
+	 * set fetch size and other performance options.
+	 * @param rowMapper object that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.1
+	 * @see #queryForStream(PreparedStatementCreator, RowMapper)
+	 */
+	<T> Stream<T> queryForStream(String sql, @Nullable PreparedStatementSetter pss, RowMapper<T> rowMapper)
+			throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list of
+	 * arguments to bind to the query, mapping each row to a result object via
+	 * a RowMapper, and turning it into an iterable and closeable Stream.
+	 * @param sql SQL query to execute
+	 * @param rowMapper object that will map one object per row
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.1
+	 * @see #queryForStream(PreparedStatementCreator, RowMapper)
+	 */
+	<T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, @Nullable Object... args)
+			throws DataAccessException;
+
 	/**
 	 * Query given SQL to create a prepared statement from SQL and a list
 	 * of arguments to bind to the query, mapping a single result row to a
@@ -937,6 +995,49 @@ public interface JdbcOperations {
 	<T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
 			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException;
 
+	/**
+	 * Execute multiple batches using the supplied SQL statement, reading the arguments
+	 * from the given Iterator one chunk of 'batchSize' items at a time.
+	 * <p>Up to 'parallelism' chunks are executed concurrently, each on its own
+	 * Connection obtained from the DataSource; at most one additional chunk is
+	 * held in memory while waiting for a free slot. A failing chunk does not
+	 * stop the remaining chunks from being executed: failures are reported
+	 * per chunk in the returned summary, along with aggregated update counts.
+	 * <p>Note: Within a transaction (i.e. with a Connection bound to the current
+	 * thread), chunks are executed serially on the transactional Connection, and
+	 * the first failing chunk aborts the batch update with its exception, so that
+	 * the transaction does not silently commit the remaining chunks.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Iterator over the batch arguments
+	 * @param batchSize the number of items per chunk
+	 * @param pss ParameterizedPreparedStatementSetter to use
+	 * @param parallelism the maximum number of chunks to execute concurrently
+	 * @return the summary of the executed chunks
+	 * @throws DataAccessException if the batch update could not be started,
+	 * or if a chunk failed within a transaction
+	 * @since 5.1
+	 */
+	<T> BatchUpdateSummary batchUpdate(String sql, Iterator<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss, int parallelism) throws DataAccessException;
+
+	/**
+	 * Execute multiple batches using the supplied SQL statement, reading the arguments
+	 * from the given Stream one chunk of 'batchSize' items at a time.
+	 * <p>The Stream is consumed but not closed by this method.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Stream of batch arguments
+	 * @param batchSize the number of items per chunk
+	 * @param pss ParameterizedPreparedStatementSetter to use
+	 * @param parallelism the maximum number of chunks to execute concurrently
+	 * @return the summary of the executed chunks
+	 * @throws DataAccessException if the batch update could not be started,
+	 * or if a chunk failed within a transaction
+	 * @since 5.1
+	 * @see #batchUpdate(String, Iterator, int, ParameterizedPreparedStatementSetter, int)
+	 */
+	<T> BatchUpdateSummary batchUpdate(String sql, Stream<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss, int parallelism) throws DataAccessException;
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with callable statements
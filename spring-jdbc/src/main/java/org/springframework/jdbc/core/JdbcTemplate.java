@@ -31,17 +31,31 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.ConnectionHolder;
 import org.springframework.jdbc.datasource.ConnectionProxy;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcAccessor;
@@ -49,6 +63,7 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
@@ -147,6 +162,13 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private boolean resultsMapCaseInsensitive = false;
 
+	/** If this variable is set to true, PreparedStatements will be reused within a Connection binding */
+	private boolean cacheStatements = false;
+
+	/** Executor for the chunks of a parallel batch update, if any */
+	@Nullable
+	private Executor batchUpdateExecutor;
+
 
 	/**
 	 * Construct a new JdbcTemplate for bean usage.
@@ -311,6 +333,58 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.resultsMapCaseInsensitive;
 	}
 
+	/**
+	 * Set whether to reuse PreparedStatements for identical SQL statements
+	 * while a Connection is bound to the current thread, e.g. within a
+	 * transaction managed by {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}.
+	 * <p>Default is "false". Switch this to "true" to avoid re-preparing statements
+	 * in chatty transactional code with JDBC drivers that do not cache statements
+	 * themselves. The statements are kept in the thread-bound {@link ConnectionHolder}
+	 * and closed when the Connection gets released at the end of the binding.
+	 * <p>Only applies to plain SQL statements as executed by the {@code String}-based
+	 * query and update operations on this template, not to statements handed to a
+	 * custom {@link PreparedStatementCallback}. Statement settings such as max rows,
+	 * fetch size, fetch direction and query timeout get restored to their initial
+	 * values before a statement is kept for reuse, along with clearing its
+	 * parameters, batch and warnings.
+	 * @since 5.1
+	 * @see ConnectionHolder#cacheStatement
+	 */
+	public void setCacheStatements(boolean cacheStatements) {
+		this.cacheStatements = cacheStatements;
+	}
+
+	/**
+	 * Return whether to reuse PreparedStatements for identical SQL statements
+	 * while a Connection is bound to the current thread.
+	 * @since 5.1
+	 */
+	public boolean isCacheStatements() {
+		return this.cacheStatements;
+	}
+
+	/**
+	 * Set the Executor to run the chunks of a parallel batch update with,
+	 * typically a pooled executor sized in line with the DataSource's pool.
+	 * <p>Default is a {@link SimpleAsyncTaskExecutor}, starting a new thread
+	 * for each chunk (with the number of concurrent chunks limited by the
+	 * parallelism requested per batch update).
+	 * @since 5.1
+	 * @see #batchUpdate(String, Iterator, int, ParameterizedPreparedStatementSetter, int)
+	 */
+	public void setBatchUpdateExecutor(@Nullable Executor batchUpdateExecutor) {
+		this.batchUpdateExecutor = batchUpdateExecutor;
+	}
+
+	/**
+	 * Return the Executor to run the chunks of a parallel batch update with, if any.
+	 * @since 5.1
+	 */
+	@Nullable
+	public Executor getBatchUpdateExecutor() {
+		return this.batchUpdateExecutor;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
@@ -598,12 +672,27 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		ConnectionHolder statementCacheHolder = getStatementCacheHolder(psc);
 		PreparedStatement ps = null;
 		try {
-			ps = psc.createPreparedStatement(con);
+			StatementSettings initialSettings = null;
+			if (statementCacheHolder != null) {
+				ps = statementCacheHolder.getCachedStatement(con, ((SimplePreparedStatementCreator) psc).getSql());
+			}
+			if (ps == null) {
+				ps = psc.createPreparedStatement(con);
+			}
+			if (statementCacheHolder != null) {
+				initialSettings = new StatementSettings(ps);
+			}
 			applyStatementSettings(ps);
 			T result = action.doInPreparedStatement(ps);
 			handleWarnings(ps);
+			if (statementCacheHolder != null && initialSettings != null && initialSettings.restore(ps) &&
+					statementCacheHolder.cacheStatement(con, ((SimplePreparedStatementCreator) psc).getSql(), ps)) {
+				// Kept open for reuse within the current Connection binding
+				ps = null;
+			}
 			return result;
 		}
 		catch (SQLException ex) {
@@ -685,7 +774,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Override
 	@Nullable
 	public <T> T query(String sql, @Nullable PreparedStatementSetter pss, ResultSetExtractor<T> rse) throws DataAccessException {
-		return query(new SimplePreparedStatementCreator(sql), pss, rse);
+		return query(new SimplePreparedStatementCreator(sql, true), pss, rse);
 	}
 
 	@Override
@@ -756,6 +845,96 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, args, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	/**
+	 * Query using a prepared statement, allowing for a PreparedStatementCreator
+	 * and a PreparedStatementSetter, and exposing the mapped rows as a Stream
+	 * backed by the open ResultSet. The ResultSet, the PreparedStatement and
+	 * the Connection are released when the Stream gets closed.
+	 * @param psc Callback handler that can create a PreparedStatement given a
+	 * Connection
+	 * @param pss object that knows how to set values on the prepared statement.
+	 * If this is null, the SQL will be assumed to contain no bind parameters.
+	 * @param rowMapper object that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if there is any problem
+	 * @since 5.1
+	 */
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+			RowMapper<T> rowMapper) throws DataAccessException {
+
+		Assert.notNull(psc, "PreparedStatementCreator must not be null");
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		String sql = getSql(psc);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing prepared SQL query for stream" + (sql != null ? " [" + sql + "]" : ""));
+		}
+
+		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		PreparedStatement ps = null;
+		ResultSet rs = null;
+		boolean streaming = false;
+		try {
+			ps = psc.createPreparedStatement(con);
+			applyStatementSettings(ps);
+			if (pss != null) {
+				pss.setValues(ps);
+			}
+			rs = ps.executeQuery();
+			handleWarnings(ps);
+			Connection conToRelease = con;
+			PreparedStatement psToClose = ps;
+			ResultSet rsToClose = rs;
+			Stream<T> stream = StreamSupport.stream(new ResultSetSpliterator<>(rs, rowMapper, sql), false)
+					.onClose(() -> {
+						JdbcUtils.closeResultSet(rsToClose);
+						cleanupParameters(psc, pss);
+						JdbcUtils.closeStatement(psToClose);
+						DataSourceUtils.releaseConnection(conToRelease, getDataSource());
+					});
+			streaming = true;
+			return stream;
+		}
+		catch (SQLException ex) {
+			// Release Connection early, to avoid potential connection pool deadlock
+			// in the case when the exception translator hasn't been initialized yet.
+			JdbcUtils.closeResultSet(rs);
+			rs = null;
+			JdbcUtils.closeStatement(ps);
+			ps = null;
+			DataSourceUtils.releaseConnection(con, getDataSource());
+			con = null;
+			throw translateException("PreparedStatementCallback", sql, ex);
+		}
+		finally {
+			if (!streaming) {
+				JdbcUtils.closeResultSet(rs);
+				cleanupParameters(psc, pss);
+				JdbcUtils.closeStatement(ps);
+				DataSourceUtils.releaseConnection(con, getDataSource());
+			}
+		}
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper) throws DataAccessException {
+		return queryForStream(psc, null, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, @Nullable PreparedStatementSetter pss, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), pss, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, @Nullable Object... args)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), newArgPreparedStatementSetter(args), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, Object[] args, int[] argTypes, RowMapper<T> rowMapper)
@@ -902,7 +1081,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	@Override
 	public int update(String sql, @Nullable PreparedStatementSetter pss) throws DataAccessException {
-		return update(new SimplePreparedStatementCreator(sql), pss);
+		return update(new SimplePreparedStatementCreator(sql, true), pss);
 	}
 
 	@Override
@@ -1026,6 +1205,85 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result;
 	}
 
+	@Override
+	public <T> BatchUpdateSummary batchUpdate(String sql, Iterator<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss, int parallelism) throws DataAccessException {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+		boolean transactional = TransactionSynchronizationManager.hasResource(obtainDataSource());
+		if (parallelism > 1 && transactional) {
+			// Other threads would not participate in the current thread's Connection/transaction
+			if (logger.isDebugEnabled()) {
+				logger.debug("Connection bound to current thread - executing SQL batch update chunks serially");
+			}
+			parallelism = 1;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL batch update [" + sql + "] with a batch size of " + batchSize +
+					" and a parallelism of " + parallelism);
+		}
+
+		Executor executor = null;
+		if (parallelism > 1) {
+			executor = (this.batchUpdateExecutor != null ?
+					this.batchUpdateExecutor : new SimpleAsyncTaskExecutor("jdbc-batch-"));
+		}
+		BatchUpdateChunks<T> chunks = new BatchUpdateChunks<>(sql, pss, parallelism);
+		int chunkIndex = 0;
+		long itemIndex = 0;
+		try {
+			while (batchArgs.hasNext()) {
+				List<T> items = new ArrayList<>(batchSize);
+				while (items.size() < batchSize && batchArgs.hasNext()) {
+					items.add(batchArgs.next());
+				}
+				BatchUpdateChunks<T>.BatchUpdateChunk chunk = chunks.new BatchUpdateChunk(chunkIndex++, itemIndex, items);
+				itemIndex += items.size();
+				chunks.slots.acquireUninterruptibly();
+				if (executor != null) {
+					try {
+						executor.execute(chunk);
+					}
+					catch (RuntimeException ex) {
+						chunks.slots.release();
+						chunks.failures.add(chunk.failure(ex));
+					}
+				}
+				else if (transactional) {
+					// Propagate the first failure, letting the transaction roll back as a whole
+					try {
+						chunk.executeUpdates();
+					}
+					finally {
+						chunks.slots.release();
+					}
+				}
+				else {
+					chunk.run();
+				}
+			}
+		}
+		finally {
+			// Wait for all chunks in progress
+			chunks.slots.acquireUninterruptibly(parallelism);
+			if (pss instanceof ParameterDisposer) {
+				((ParameterDisposer) pss).cleanupParameters();
+			}
+		}
+
+		List<BatchUpdateSummary.ChunkFailure> failures = new ArrayList<>(chunks.failures);
+		failures.sort(Comparator.comparingInt(BatchUpdateSummary.ChunkFailure::getChunkIndex));
+		return new BatchUpdateSummary(chunkIndex, itemIndex, chunks.rowsAffected.sum(), failures);
+	}
+
+	@Override
+	public <T> BatchUpdateSummary batchUpdate(String sql, Stream<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss, int parallelism) throws DataAccessException {
+
+		return batchUpdate(sql, batchArgs.iterator(), batchSize, pss, parallelism);
+	}
+
 	//-------------------------------------------------------------------------
 	// Methods dealing with callable statements
 	//-------------------------------------------------------------------------
@@ -1354,6 +1612,23 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return new ArgumentTypePreparedStatementSetter(args, argTypes);
 	}
 
+	/**
+	 * Determine the thread-bound ConnectionHolder to cache the PreparedStatement
+	 * for the given creator in, if statement caching applies.
+	 * @param psc the PreparedStatementCreator to be executed
+	 * @return the ConnectionHolder, or {@code null} if statement caching does not apply
+	 * @see #setCacheStatements
+	 */
+	@Nullable
+	private ConnectionHolder getStatementCacheHolder(PreparedStatementCreator psc) {
+		if (!this.cacheStatements || !(psc instanceof SimplePreparedStatementCreator) ||
+				!((SimplePreparedStatementCreator) psc).isCacheable()) {
+			return null;
+		}
+		Object resource = TransactionSynchronizationManager.getResource(obtainDataSource());
+		return (resource instanceof ConnectionHolder ? (ConnectionHolder) resource : null);
+	}
+
 	/**
 	 * Throw an SQLWarningException if we're not ignoring warnings,
 	 * else log the warnings (at debug level).
@@ -1420,6 +1695,15 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+	private static void cleanupParameters(Object psc, @Nullable Object pss) {
+		if (psc instanceof ParameterDisposer) {
+			((ParameterDisposer) psc).cleanupParameters();
+		}
+		if (pss instanceof ParameterDisposer) {
+			((ParameterDisposer) pss).cleanupParameters();
+		}
+	}
+
 	private static <T> T result(@Nullable T result) {
 		Assert.state(result != null, "No result");
 		return result;
@@ -1505,9 +1789,24 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		private final String sql;
 
+		private final boolean cacheable;
+
 		public SimplePreparedStatementCreator(String sql) {
+			this(sql, false);
+		}
+
+		public SimplePreparedStatementCreator(String sql, boolean cacheable) {
 			Assert.notNull(sql, "SQL must not be null");
 			this.sql = sql;
+			this.cacheable = cacheable;
+		}
+
+		/**
+		 * Return whether the statement is only used by this template's own
+		 * query and update callbacks, making it eligible for statement caching.
+		 */
+		public boolean isCacheable() {
+			return this.cacheable;
 		}
 
 		@Override
@@ -1522,6 +1821,51 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Snapshot of the settings of a PreparedStatement before use, allowing to
+	 * restore them before the statement gets cached for reuse.
+	 */
+	private class StatementSettings {
+
+		private final int maxRows;
+
+		private final int fetchSize;
+
+		private final int fetchDirection;
+
+		private final int queryTimeout;
+
+		public StatementSettings(PreparedStatement ps) throws SQLException {
+			this.maxRows = ps.getMaxRows();
+			this.fetchSize = ps.getFetchSize();
+			this.fetchDirection = ps.getFetchDirection();
+			this.queryTimeout = ps.getQueryTimeout();
+		}
+
+		/**
+		 * Restore the initial settings and clear all per-execution state.
+		 * @return {@code true} if the statement is ready for reuse, or {@code false}
+		 * if it could not be reset (in which case it should not be cached)
+		 */
+		public boolean restore(PreparedStatement ps) {
+			try {
+				ps.clearParameters();
+				ps.clearBatch();
+				ps.clearWarnings();
+				ps.setMaxRows(this.maxRows);
+				ps.setFetchSize(this.fetchSize);
+				ps.setFetchDirection(this.fetchDirection);
+				ps.setQueryTimeout(this.queryTimeout);
+				return true;
+			}
+			catch (SQLException ex) {
+				logger.debug("Could not reset PreparedStatement for reuse - not caching it", ex);
+				return false;
+			}
+		}
+	}
+
+
 	/**
 	 * Simple adapter for CallableStatementCreator, allowing to use a plain SQL statement.
 	 */
@@ -1546,6 +1890,139 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Spliterator for a query Stream, mapping each row of the open ResultSet
+	 * when requested and translating SQLExceptions along the way.
+	 */
+	private class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+		private final ResultSet rs;
+
+		private final RowMapper<T> rowMapper;
+
+		@Nullable
+		private final String sql;
+
+		private int rowNum = 0;
+
+		public ResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper, @Nullable String sql) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED);
+			this.rs = rs;
+			this.rowMapper = rowMapper;
+			this.sql = sql;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			try {
+				if (this.rs.next()) {
+					action.accept(this.rowMapper.mapRow(this.rs, this.rowNum++));
+					return true;
+				}
+				return false;
+			}
+			catch (SQLException ex) {
+				throw translateException("ResultSetSpliterator", this.sql, ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Shared state of a chunked batch update: the slots for concurrently
+	 * executing chunks as well as the aggregated results.
+	 */
+	private class BatchUpdateChunks<T> {
+
+		private final String sql;
+
+		private final ParameterizedPreparedStatementSetter<T> pss;
+
+		private final Semaphore slots;
+
+		private final LongAdder rowsAffected = new LongAdder();
+
+		private final Queue<BatchUpdateSummary.ChunkFailure> failures = new ConcurrentLinkedQueue<>();
+
+		public BatchUpdateChunks(String sql, ParameterizedPreparedStatementSetter<T> pss, int parallelism) {
+			this.sql = sql;
+			this.pss = pss;
+			this.slots = new Semaphore(parallelism);
+		}
+
+
+		/**
+		 * A single chunk of a batch update, executed on its own PreparedStatement.
+		 * Releases its slot when done.
+		 */
+		private class BatchUpdateChunk implements Runnable {
+
+			private final int chunkIndex;
+
+			private final long firstItemIndex;
+
+			private final List<T> items;
+
+			public BatchUpdateChunk(int chunkIndex, long firstItemIndex, List<T> items) {
+				this.chunkIndex = chunkIndex;
+				this.firstItemIndex = firstItemIndex;
+				this.items = items;
+			}
+
+			@Override
+			public void run() {
+				try {
+					executeUpdates();
+				}
+				catch (RuntimeException ex) {
+					failures.add(failure(ex));
+				}
+				catch (Error err) {
+					failures.add(failure(err));
+					throw err;
+				}
+				finally {
+					slots.release();
+				}
+			}
+
+			public void executeUpdates() {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Sending SQL batch update #" + (this.chunkIndex + 1) +
+							" with " + this.items.size() + " items");
+				}
+				int[] counts = execute(sql, (PreparedStatementCallback<int[]>) this::executeChunk);
+				Assert.state(counts != null, "No result array");
+				for (int count : counts) {
+					if (count > 0) {
+						rowsAffected.add(count);
+					}
+				}
+			}
+
+			private int[] executeChunk(PreparedStatement ps) throws SQLException {
+				if (JdbcUtils.supportsBatchUpdates(ps.getConnection())) {
+					for (T item : this.items) {
+						pss.setValues(ps, item);
+						ps.addBatch();
+					}
+					return ps.executeBatch();
+				}
+				int[] counts = new int[this.items.size()];
+				for (int i = 0; i < counts.length; i++) {
+					pss.setValues(ps, this.items.get(i));
+					counts[i] = ps.executeUpdate();
+				}
+				return counts;
+			}
+
+			public BatchUpdateSummary.ChunkFailure failure(Throwable ex) {
+				return new BatchUpdateSummary.ChunkFailure(this.chunkIndex, this.firstItemIndex, this.items.size(), ex);
+			}
+		}
+	}
+
+
 	/**
 	 * Adapter to enable use of a RowCallbackHandler inside a ResultSetExtractor.
 	 * <p>Uses a regular ResultSet, so we have to be careful when using it:
@@ -85,6 +85,10 @@ public class CallMetaDataContext {
 	@Nullable
 	private CallMetaDataProvider metaDataProvider;
 
+	/** The cache to obtain the provider of call meta data from, if any */
+	@Nullable
+	private MetaDataProviderCache metaDataProviderCache;
+
 
 	/**
 	 * Specify the name used for the return value of the function.
@@ -231,13 +235,33 @@ public class CallMetaDataContext {
 		return this.namedBinding;
 	}
 
+	/**
+	 * Specify a cache to obtain the call metadata provider from,
+	 * instead of retrieving metadata from the database on each initialization.
+	 * @since 5.1
+	 */
+	public void setMetaDataProviderCache(@Nullable MetaDataProviderCache metaDataProviderCache) {
+		this.metaDataProviderCache = metaDataProviderCache;
+	}
+
+	/**
+	 * Return the cache to obtain the call metadata provider from, if any.
+	 * @since 5.1
+	 */
+	@Nullable
+	public MetaDataProviderCache getMetaDataProviderCache() {
+		return this.metaDataProviderCache;
+	}
+
 
 	/**
 	 * Initialize this class with metadata from the database.
 	 * @param dataSource the DataSource used to retrieve metadata
 	 */
 	public void initializeMetaData(DataSource dataSource) {
-		this.metaDataProvider = CallMetaDataProviderFactory.createMetaDataProvider(dataSource, this);
+		this.metaDataProvider = (this.metaDataProviderCache != null ?
+				this.metaDataProviderCache.getCallMetaDataProvider(dataSource, this) :
+				CallMetaDataProviderFactory.createMetaDataProvider(dataSource, this));
 	}
 
 	private CallMetaDataProvider obtainMetaDataProvider() {
@@ -46,6 +46,17 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 	/** Logger available to subclasses */
 	protected static final Log logger = LogFactory.getLog(TableMetaDataProvider.class);
 
+	/** database products we know supporting multi-row VALUES inserts, with their bind parameter limits */
+	private static final Map<String, Integer> multiRowInsertParameterLimits = new HashMap<>(8);
+
+	static {
+		multiRowInsertParameterLimits.put("H2", 32767);
+		multiRowInsertParameterLimits.put("HSQL Database Engine", 32767);
+		multiRowInsertParameterLimits.put("PostgreSQL", 32767);
+		multiRowInsertParameterLimits.put("MySQL", 65535);
+		multiRowInsertParameterLimits.put("MariaDB", 65535);
+	}
+
 	/** indicator whether column metadata should be used */
 	private boolean tableColumnMetaDataUsed = false;
 
@@ -73,6 +84,9 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 	private List<String> productsNotSupportingGeneratedKeysColumnNameArray =
 			Arrays.asList("Apache Derby", "HSQL Database Engine");
 
+	/** the maximum number of bind parameters for a multi-row insert, or 0 if not supported */
+	private int maxParametersPerStatement = 0;
+
 	/** Collection of TableParameterMetaData objects */
 	private List<TableParameterMetaData> tableParameterMetaData = new ArrayList<>();
 
@@ -142,6 +156,20 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 		return this.generatedKeysColumnNameArraySupported;
 	}
 
+	public void setMaxParametersPerStatement(int maxParametersPerStatement) {
+		this.maxParametersPerStatement = maxParametersPerStatement;
+	}
+
+	@Override
+	public int getMaxParametersPerStatement() {
+		return this.maxParametersPerStatement;
+	}
+
+	@Override
+	public boolean isMultiRowInsertSupported() {
+		return (this.maxParametersPerStatement > 0);
+	}
+
 
 	@Override
 	public void initializeWithMetaData(DatabaseMetaData databaseMetaData) throws SQLException {
@@ -179,6 +207,13 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 					setGeneratedKeysColumnNameArraySupported(false);
 				}
 			}
+			Integer parameterLimit = multiRowInsertParameterLimits.get(databaseProductName);
+			if (parameterLimit != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Multi-row inserts are supported for " + databaseProductName);
+				}
+				setMaxParametersPerStatement(parameterLimit);
+			}
 		}
 		catch (SQLException ex) {
 			if (logger.isWarnEnabled()) {
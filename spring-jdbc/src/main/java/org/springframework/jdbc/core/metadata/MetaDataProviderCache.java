@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.metadata;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Cache for {@link TableMetaDataProvider} and {@link CallMetaDataProvider}
+ * instances, scoped by {@link DataSource} and by the table or procedure
+ * (plus metadata access options) that they have been initialized for.
+ *
+ * <p>Allows for cheaply constructing and compiling {@code SimpleJdbcInsert}
+ * and {@code SimpleJdbcCall} instances repeatedly, without querying the
+ * {@link java.sql.DatabaseMetaData} for the same table or procedure again.
+ * Entries may expire after a configurable {@link #setTimeToLive time to live}
+ * and can be {@link #invalidate(DataSource) invalidated} explicitly, e.g.
+ * after schema changes. They are held through soft references.
+ *
+ * <p>An instance may be shared through the application's configuration;
+ * a process-wide {@link #getSharedInstance() shared instance} is available
+ * as well.
+ *
+ * @since 5.1
+ * @see TableMetaDataContext#setMetaDataProviderCache
+ * @see CallMetaDataContext#setMetaDataProviderCache
+ */
+public class MetaDataProviderCache {
+
+	private static final Log logger = LogFactory.getLog(MetaDataProviderCache.class);
+
+	private static final MetaDataProviderCache sharedInstance = new MetaDataProviderCache();
+
+
+	private final Map<List<Object>, CachedProvider> providerCache = new ConcurrentReferenceHashMap<>(64);
+
+	private volatile long timeToLive = -1;
+
+
+	/**
+	 * Set the time to live for cached metadata providers, in milliseconds.
+	 * <p>Default is -1, keeping providers until invalidated (or until
+	 * garbage-collected under memory pressure). A value of 0 effectively
+	 * disables caching.
+	 */
+	public void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Return the time to live for cached metadata providers, in milliseconds.
+	 */
+	public long getTimeToLive() {
+		return this.timeToLive;
+	}
+
+
+	/**
+	 * Obtain the TableMetaDataProvider for the given DataSource and table context,
+	 * creating it through {@link TableMetaDataProviderFactory} if necessary.
+	 * @param dataSource used to retrieve metadata
+	 * @param context the class that holds configuration and metadata
+	 * @return the (possibly cached) TableMetaDataProvider
+	 */
+	public TableMetaDataProvider getTableMetaDataProvider(DataSource dataSource, TableMetaDataContext context) {
+		List<Object> key = Arrays.asList(dataSource, TableMetaDataProvider.class, context.getCatalogName(),
+				context.getSchemaName(), context.getTableName(), context.isAccessTableColumnMetaData(),
+				context.isOverrideIncludeSynonymsDefault());
+		return (TableMetaDataProvider) getProvider(key,
+				() -> TableMetaDataProviderFactory.createMetaDataProvider(dataSource, context));
+	}
+
+	/**
+	 * Obtain the CallMetaDataProvider for the given DataSource and call context,
+	 * creating it through {@link CallMetaDataProviderFactory} if necessary.
+	 * @param dataSource used to retrieve metadata
+	 * @param context the class that holds configuration and metadata
+	 * @return the (possibly cached) CallMetaDataProvider
+	 */
+	public CallMetaDataProvider getCallMetaDataProvider(DataSource dataSource, CallMetaDataContext context) {
+		List<Object> key = Arrays.asList(dataSource, CallMetaDataProvider.class, context.getCatalogName(),
+				context.getSchemaName(), context.getProcedureName(), context.isFunction(),
+				context.isAccessCallParameterMetaData());
+		return (CallMetaDataProvider) getProvider(key,
+				() -> CallMetaDataProviderFactory.createMetaDataProvider(dataSource, context));
+	}
+
+	private Object getProvider(List<Object> key, Supplier<Object> providerFactory) {
+		long now = System.currentTimeMillis();
+		CachedProvider cached = this.providerCache.get(key);
+		if (cached != null && !cached.isExpired(now, this.timeToLive)) {
+			return cached.provider;
+		}
+		// Concurrent creation for the same key is harmless: last one wins
+		Object provider = providerFactory.get();
+		this.providerCache.put(key, new CachedProvider(provider, now));
+		if (logger.isDebugEnabled()) {
+			logger.debug("Cached metadata provider for " + key.subList(2, key.size()));
+		}
+		return provider;
+	}
+
+	/**
+	 * Remove all cached metadata providers for the given DataSource.
+	 * @param dataSource the DataSource to invalidate metadata for
+	 */
+	public void invalidate(DataSource dataSource) {
+		this.providerCache.keySet().removeIf(key -> key.get(0) == dataSource);
+	}
+
+	/**
+	 * Remove all cached metadata providers.
+	 */
+	public void invalidateAll() {
+		this.providerCache.clear();
+	}
+
+
+	/**
+	 * Return the process-wide shared MetaDataProviderCache instance.
+	 */
+	public static MetaDataProviderCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+
+	private static class CachedProvider {
+
+		private final Object provider;
+
+		private final long creationTime;
+
+		public CachedProvider(Object provider, long creationTime) {
+			this.provider = provider;
+			this.creationTime = creationTime;
+		}
+
+		public boolean isExpired(long now, long timeToLive) {
+			return (timeToLive >= 0 && now - this.creationTime >= timeToLive);
+		}
+	}
+
+}
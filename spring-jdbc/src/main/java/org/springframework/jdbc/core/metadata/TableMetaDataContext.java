@@ -73,6 +73,10 @@ public class TableMetaDataContext {
 	@Nullable
 	private TableMetaDataProvider metaDataProvider;
 
+	/** the cache to obtain the provider of table meta data from, if any */
+	@Nullable
+	private MetaDataProviderCache metaDataProviderCache;
+
 	/** are we using generated key columns */
 	private boolean generatedKeyColumnsUsed = false;
 
@@ -151,6 +155,24 @@ public class TableMetaDataContext {
 		return this.overrideIncludeSynonymsDefault;
 	}
 
+	/**
+	 * Specify a cache to obtain the table metadata provider from,
+	 * instead of retrieving metadata from the database on each processing.
+	 * @since 5.1
+	 */
+	public void setMetaDataProviderCache(@Nullable MetaDataProviderCache metaDataProviderCache) {
+		this.metaDataProviderCache = metaDataProviderCache;
+	}
+
+	/**
+	 * Return the cache to obtain the table metadata provider from, if any.
+	 * @since 5.1
+	 */
+	@Nullable
+	public MetaDataProviderCache getMetaDataProviderCache() {
+		return this.metaDataProviderCache;
+	}
+
 	/**
 	 * Get a List of the table column names.
 	 */
@@ -166,7 +188,9 @@ public class TableMetaDataContext {
 	 * @param generatedKeyNames name of generated keys
 	 */
 	public void processMetaData(DataSource dataSource, List<String> declaredColumns, String[] generatedKeyNames) {
-		this.metaDataProvider = TableMetaDataProviderFactory.createMetaDataProvider(dataSource, this);
+		this.metaDataProvider = (this.metaDataProviderCache != null ?
+				this.metaDataProviderCache.getTableMetaDataProvider(dataSource, this) :
+				TableMetaDataProviderFactory.createMetaDataProvider(dataSource, this));
 		this.tableColumns = reconcileColumnsToUse(declaredColumns, generatedKeyNames);
 	}
 
@@ -262,6 +286,23 @@ public class TableMetaDataContext {
 	 * @return the insert string to be used
 	 */
 	public String createInsertString(String... generatedKeyNames) {
+		return createInsertString(1, generatedKeyNames);
+	}
+
+	/**
+	 * Build a multi-row insert string, with a VALUES clause for the given
+	 * number of rows, based on configuration and metadata information
+	 * @param rowCount the number of rows to insert with the statement
+	 * @return the insert string to be used
+	 * @since 5.1
+	 * @see #isMultiRowInsertSupported()
+	 */
+	public String createMultiRowInsertString(int rowCount, String... generatedKeyNames) {
+		Assert.isTrue(rowCount > 0, "Row count must be greater than 0");
+		return createInsertString(rowCount, generatedKeyNames);
+	}
+
+	private String createInsertString(int rowCount, String... generatedKeyNames) {
 		Set<String> keys = new LinkedHashSet<>(generatedKeyNames.length);
 		for (String key : generatedKeyNames) {
 			keys.add(key.toUpperCase());
@@ -295,11 +336,16 @@ public class TableMetaDataContext {
 						getTableName() + "' so an insert statement can't be generated");
 			}
 		}
-		for (int i = 0; i < columnCount; i++) {
-			if (i > 0) {
-				insertStatement.append(", ");
+		for (int row = 0; row < rowCount; row++) {
+			if (row > 0) {
+				insertStatement.append("), (");
+			}
+			for (int i = 0; i < columnCount; i++) {
+				if (i > 0) {
+					insertStatement.append(", ");
+				}
+				insertStatement.append("?");
 			}
-			insertStatement.append("?");
 		}
 		insertStatement.append(")");
 		return insertStatement.toString();
@@ -364,6 +410,22 @@ public class TableMetaDataContext {
 		return obtainMetaDataProvider().getSimpleQueryForGetGeneratedKey(tableName, keyColumnName);
 	}
 
+	/**
+	 * Does this database support multi-row {@code INSERT ... VALUES (...), (...)} statements?
+	 * @since 5.1
+	 */
+	public boolean isMultiRowInsertSupported() {
+		return obtainMetaDataProvider().isMultiRowInsertSupported();
+	}
+
+	/**
+	 * Get the maximum number of bind parameters that a single statement may contain.
+	 * @since 5.1
+	 */
+	public int getMaxParametersPerStatement() {
+		return obtainMetaDataProvider().getMaxParametersPerStatement();
+	}
+
 	/**
 	 * Is a column name String array for retrieving generated keys supported?
 	 * {@link java.sql.Connection#createStruct(String, Object[])}?
@@ -120,4 +120,23 @@ public interface TableMetaDataProvider {
 	 */
 	List<TableParameterMetaData> getTableParameterMetaData();
 
+	/**
+	 * Does this database support multi-row {@code INSERT ... VALUES (...), (...)} statements?
+	 * @since 5.1
+	 * @see #getMaxParametersPerStatement()
+	 */
+	default boolean isMultiRowInsertSupported() {
+		return false;
+	}
+
+	/**
+	 * Get the maximum number of bind parameters that a single statement may contain,
+	 * as relevant for sizing multi-row inserts.
+	 * @since 5.1
+	 * @see #isMultiRowInsertSupported()
+	 */
+	default int getMaxParametersPerStatement() {
+		return 0;
+	}
+
 }
@@ -16,9 +16,11 @@
 
 package org.springframework.jdbc.core.namedparam;
 
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -34,11 +36,13 @@ import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.core.SqlRowSetResultSetExtractor;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Template class with a basic set of JDBC operations, allowing the use
@@ -70,17 +74,13 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	/** The JdbcTemplate we are wrapping */
 	private final JdbcOperations classicJdbcTemplate;
 
-	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
-
 	/** Cache of original SQL String to ParsedSql representation */
-	@SuppressWarnings("serial")
-	private final Map<String, ParsedSql> parsedSqlCache =
-			new LinkedHashMap<String, ParsedSql>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<String, ParsedSql> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private volatile ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
+
+	/** Cache of ParsedSql plus parameter shape to PreparedStatementCreatorFactory */
+	private volatile ConcurrentLruCache<StatementShape, PreparedStatementCreatorFactory> statementFactoryCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, this::createPreparedStatementCreatorFactory);
 
 
 	/**
@@ -115,17 +115,57 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 
 	/**
 	 * Specify the maximum number of entries for this template's SQL cache.
-	 * Default is 256.
+	 * Default is 256. 0 (or any negative value) indicates no caching.
 	 */
 	public void setCacheLimit(int cacheLimit) {
-		this.cacheLimit = cacheLimit;
+		int sizeLimit = Math.max(cacheLimit, 0);
+		this.parsedSqlCache = new ConcurrentLruCache<>(sizeLimit, NamedParameterUtils::parseSqlStatement);
+		this.statementFactoryCache = new ConcurrentLruCache<>(sizeLimit, this::createPreparedStatementCreatorFactory);
 	}
 
 	/**
 	 * Return the maximum number of entries for this template's SQL cache.
 	 */
 	public int getCacheLimit() {
-		return this.cacheLimit;
+		return this.parsedSqlCache.sizeLimit();
+	}
+
+	/**
+	 * Return the number of parsed SQL lookups served from this template's SQL cache.
+	 * @since 5.1
+	 * @see #getParsedSql
+	 */
+	public long getParsedSqlCacheHitCount() {
+		return this.parsedSqlCache.hitCount();
+	}
+
+	/**
+	 * Return the number of parsed SQL lookups which required parsing the SQL.
+	 * @since 5.1
+	 * @see #getParsedSql
+	 */
+	public long getParsedSqlCacheMissCount() {
+		return this.parsedSqlCache.missCount();
+	}
+
+	/**
+	 * Return the number of PreparedStatementCreator lookups which were able to reuse
+	 * the substituted SQL and declared parameters of a previous execution.
+	 * @since 5.1
+	 * @see #getPreparedStatementCreator
+	 */
+	public long getStatementCacheHitCount() {
+		return this.statementFactoryCache.hitCount();
+	}
+
+	/**
+	 * Return the number of PreparedStatementCreator lookups which required
+	 * substituting the named parameters in the parsed SQL.
+	 * @since 5.1
+	 * @see #getPreparedStatementCreator
+	 */
+	public long getStatementCacheMissCount() {
+		return this.statementFactoryCache.missCount();
 	}
 
 
@@ -211,6 +251,20 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return query(sql, EmptySqlParameterSource.INSTANCE, rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return getJdbcOperations().queryForStream(getPreparedStatementCreator(sql, paramSource), rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
@@ -355,31 +409,112 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	 */
 	protected PreparedStatementCreator getPreparedStatementCreator(String sql, SqlParameterSource paramSource) {
 		ParsedSql parsedSql = getParsedSql(sql);
-		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+		StatementShape shape = new StatementShape(parsedSql, paramSource);
+		PreparedStatementCreatorFactory pscf = this.statementFactoryCache.get(shape);
+		shape.releaseParameterSource();
 		Object[] params = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
-		List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
-		PreparedStatementCreatorFactory pscf = new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
 		return pscf.newPreparedStatementCreator(params);
 	}
 
 	/**
 	 * Obtain a parsed representation of the given SQL statement.
-	 * <p>The default implementation uses an LRU cache with an upper limit
-	 * of 256 entries.
+	 * <p>The default implementation uses a concurrent LRU cache with an
+	 * upper limit of 256 entries.
 	 * @param sql the original SQL
 	 * @return a representation of the parsed SQL statement
+	 * @see #setCacheLimit
 	 */
 	protected ParsedSql getParsedSql(String sql) {
-		if (getCacheLimit() <= 0) {
-			return NamedParameterUtils.parseSqlStatement(sql);
+		return this.parsedSqlCache.get(sql);
+	}
+
+	private PreparedStatementCreatorFactory createPreparedStatementCreatorFactory(StatementShape shape) {
+		SqlParameterSource paramSource = shape.getParameterSource();
+		String sqlToUse = NamedParameterUtils.substituteNamedParameters(shape.parsedSql, paramSource);
+		List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(shape.parsedSql, paramSource);
+		return new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
+	}
+
+
+	/**
+	 * Cache key for the substituted SQL and the declared parameters of a statement:
+	 * the parsed SQL statement (by identity) plus everything that the substitution
+	 * depends on, namely the expansion of collection values into placeholder lists
+	 * as well as the SQL type and type name of each parameter.
+	 */
+	private static final class StatementShape {
+
+		private final ParsedSql parsedSql;
+
+		private final int[] shape;
+
+		private final String[] typeNames;
+
+		private final int hashCode;
+
+		/** Only available while generating the corresponding cache entry */
+		@Nullable
+		private SqlParameterSource paramSource;
+
+		public StatementShape(ParsedSql parsedSql, SqlParameterSource paramSource) {
+			List<String> paramNames = parsedSql.getParameterNames();
+			int[] shape = new int[paramNames.size() * 2];
+			String[] typeNames = new String[paramNames.size()];
+			int pos = 0;
+			for (int i = 0; i < paramNames.size(); i++) {
+				String paramName = paramNames.get(i);
+				Object value = (paramSource.hasValue(paramName) ? paramSource.getValue(paramName) : null);
+				if (value instanceof SqlParameterValue) {
+					value = ((SqlParameterValue) value).getValue();
+				}
+				if (value instanceof Collection) {
+					// Expanded into a placeholder list: record size and tuple lengths
+					Collection<?> entries = (Collection<?>) value;
+					shape = Arrays.copyOf(shape, shape.length + entries.size());
+					shape[pos++] = entries.size();
+					for (Object entry : entries) {
+						shape[pos++] = (entry instanceof Object[] ? ((Object[]) entry).length : -1);
+					}
+				}
+				else {
+					shape[pos++] = -1;
+				}
+				shape[pos++] = paramSource.getSqlType(paramName);
+				typeNames[i] = paramSource.getTypeName(paramName);
+			}
+			this.parsedSql = parsedSql;
+			this.shape = shape;
+			this.typeNames = typeNames;
+			this.hashCode = System.identityHashCode(parsedSql) * 31 +
+					Arrays.hashCode(shape) * 17 + Arrays.hashCode(typeNames);
+			this.paramSource = paramSource;
+		}
+
+		public SqlParameterSource getParameterSource() {
+			Assert.state(this.paramSource != null, "No SqlParameterSource available");
+			return this.paramSource;
+		}
+
+		public void releaseParameterSource() {
+			this.paramSource = null;
 		}
-		synchronized (this.parsedSqlCache) {
-			ParsedSql parsedSql = this.parsedSqlCache.get(sql);
-			if (parsedSql == null) {
-				parsedSql = NamedParameterUtils.parseSqlStatement(sql);
-				this.parsedSqlCache.put(sql, parsedSql);
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
 			}
-			return parsedSql;
+			if (!(other instanceof StatementShape)) {
+				return false;
+			}
+			StatementShape otherShape = (StatementShape) other;
+			return (this.parsedSql == otherShape.parsedSql && Arrays.equals(this.shape, otherShape.shape) &&
+					Arrays.equals(this.typeNames, otherShape.typeNames));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
 		}
 	}
 
@@ -40,6 +40,7 @@ import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.SqlTypeValue;
 import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.metadata.MetaDataProviderCache;
 import org.springframework.jdbc.core.metadata.TableMetaDataContext;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -86,6 +87,15 @@ public abstract class AbstractJdbcInsert {
 	/** The SQL type information for the insert columns */
 	private int[] insertTypes = new int[0];
 
+	/** The maximum number of rows to combine into a multi-row insert statement */
+	private int multiRowInsertSize = 0;
+
+	/** The number of rows per multi-row insert statement, as determined on compile */
+	private int multiRowInsertRowCount = 0;
+
+	/** The generated string used for multi-row insert statements */
+	private String multiRowInsertString = "";
+
 
 	/**
 	 * Constructor to be used when initializing using a {@link DataSource}.
@@ -219,6 +229,41 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.setOverrideIncludeSynonymsDefault(override);
 	}
 
+	/**
+	 * Specify a cache for table metadata, shared across insert objects
+	 * for the same DataSource and table.
+	 * <p>Default is none, retrieving metadata from the database on compile.
+	 * @since 5.1
+	 * @see MetaDataProviderCache#getSharedInstance()
+	 */
+	public void setMetaDataProviderCache(@Nullable MetaDataProviderCache metaDataProviderCache) {
+		checkIfConfigurationModificationIsAllowed();
+		this.tableMetaDataContext.setMetaDataProviderCache(metaDataProviderCache);
+	}
+
+	/**
+	 * Set the maximum number of rows to combine into a single multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statement for batch inserts.
+	 * <p>Default is 0, executing batch inserts as JDBC batches of single-row
+	 * statements. Multi-row statements are only used if supported by the
+	 * database (as indicated by the {@link org.springframework.jdbc.core.metadata.TableMetaDataProvider}),
+	 * with the number of rows reduced where necessary to stay within the
+	 * database's limit of bind parameters per statement.
+	 * @since 5.1
+	 */
+	public void setMultiRowInsertSize(int multiRowInsertSize) {
+		checkIfConfigurationModificationIsAllowed();
+		this.multiRowInsertSize = multiRowInsertSize;
+	}
+
+	/**
+	 * Get the maximum number of rows to combine into a single multi-row insert statement.
+	 * @since 5.1
+	 */
+	public int getMultiRowInsertSize() {
+		return this.multiRowInsertSize;
+	}
+
 	/**
 	 * Get the insert string to be used.
 	 */
@@ -226,6 +271,16 @@ public abstract class AbstractJdbcInsert {
 		return this.insertString;
 	}
 
+	/**
+	 * Get the multi-row insert string to be used for full-size chunks of a batch insert,
+	 * or an empty String if multi-row inserts are not used.
+	 * @since 5.1
+	 * @see #setMultiRowInsertSize
+	 */
+	public String getMultiRowInsertString() {
+		return this.multiRowInsertString;
+	}
+
 	/**
 	 * Get the array of {@link java.sql.Types} to be used for insert.
 	 */
@@ -278,6 +333,19 @@ public abstract class AbstractJdbcInsert {
 		if (logger.isDebugEnabled()) {
 			logger.debug("Compiled insert object: insert string is [" + this.insertString + "]");
 		}
+		if (this.multiRowInsertSize > 1 && this.tableMetaDataContext.isMultiRowInsertSupported()) {
+			int columnCount = Math.max(this.tableMetaDataContext.getTableColumns().size(), 1);
+			int rowCount = Math.min(this.multiRowInsertSize,
+					this.tableMetaDataContext.getMaxParametersPerStatement() / columnCount);
+			if (rowCount > 1) {
+				this.multiRowInsertRowCount = rowCount;
+				this.multiRowInsertString =
+						this.tableMetaDataContext.createMultiRowInsertString(rowCount, getGeneratedKeyNames());
+				if (logger.isDebugEnabled()) {
+					logger.debug("Compiled insert object: using multi-row inserts with " + rowCount + " rows");
+				}
+			}
+		}
 		onCompileInternal();
 	}
 
@@ -564,6 +632,9 @@ public abstract class AbstractJdbcInsert {
 	 * Delegate method to execute the batch insert.
 	 */
 	private int[] executeBatchInternal(final List<List<Object>> batchValues) {
+		if (this.multiRowInsertRowCount > 1 && batchValues.size() > 1) {
+			return executeMultiRowBatchInternal(batchValues);
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing statement " + getInsertString() + " with batch of size: " + batchValues.size());
 		}
@@ -580,6 +651,78 @@ public abstract class AbstractJdbcInsert {
 				});
 	}
 
+	/**
+	 * Delegate method to execute the batch insert through multi-row insert statements:
+	 * a JDBC batch of full-size statements, followed by a single statement for the
+	 * remaining rows.
+	 * <p>The database reports a single update count per multi-row statement;
+	 * it is mapped back to 1 for each row if it matches the number of rows,
+	 * or to {@link Statement#SUCCESS_NO_INFO} otherwise.
+	 */
+	private int[] executeMultiRowBatchInternal(final List<List<Object>> batchValues) {
+		final int rowCount = this.multiRowInsertRowCount;
+		final int fullStatements = batchValues.size() / rowCount;
+		int remainder = batchValues.size() % rowCount;
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing multi-row insert for table [" + getTableName() + "] with batch of size: " +
+					batchValues.size() + " (" + fullStatements + " statements with " + rowCount + " rows and " +
+					remainder + " remaining rows)");
+		}
+		int[] rowsAffected = new int[batchValues.size()];
+		if (fullStatements > 0) {
+			int[] updateCounts = getJdbcTemplate().batchUpdate(this.multiRowInsertString,
+					new BatchPreparedStatementSetter() {
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							setMultiRowParameterValues(ps, batchValues.subList(i * rowCount, (i + 1) * rowCount));
+						}
+						@Override
+						public int getBatchSize() {
+							return fullStatements;
+						}
+					});
+			for (int i = 0; i < updateCounts.length; i++) {
+				fillRowsAffected(rowsAffected, i * rowCount, rowCount, updateCounts[i]);
+			}
+		}
+		if (remainder > 0) {
+			int offset = fullStatements * rowCount;
+			List<List<Object>> remainingValues = batchValues.subList(offset, batchValues.size());
+			String sql = (remainder > 1 ?
+					this.tableMetaDataContext.createMultiRowInsertString(remainder, getGeneratedKeyNames()) :
+					getInsertString());
+			int updateCount = getJdbcTemplate().update(sql, ps -> setMultiRowParameterValues(ps, remainingValues));
+			fillRowsAffected(rowsAffected, offset, remainder, updateCount);
+		}
+		return rowsAffected;
+	}
+
+	private static void fillRowsAffected(int[] rowsAffected, int offset, int rowCount, int updateCount) {
+		Arrays.fill(rowsAffected, offset, offset + rowCount, (updateCount == rowCount ? 1 : Statement.SUCCESS_NO_INFO));
+	}
+
+	/**
+	 * Internal implementation for setting parameter values of multiple rows,
+	 * in the order of a multi-row insert statement
+	 * @param preparedStatement the PreparedStatement
+	 * @param rows the values for each row
+	 */
+	private void setMultiRowParameterValues(PreparedStatement preparedStatement, List<List<Object>> rows)
+			throws SQLException {
+
+		int[] columnTypes = getInsertTypes();
+		int paramIndex = 0;
+		for (List<Object> values : rows) {
+			int colIndex = 0;
+			for (Object value : values) {
+				paramIndex++;
+				int sqlType = (colIndex < columnTypes.length ? columnTypes[colIndex] : SqlTypeValue.TYPE_UNKNOWN);
+				StatementCreatorUtils.setParameterValue(preparedStatement, paramIndex, sqlType, value);
+				colIndex++;
+			}
+		}
+	}
+
 	/**
 	 * Internal implementation for setting parameter values
 	 * @param preparedStatement the PreparedStatement
@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.metadata.MetaDataProviderCache;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
 /**
@@ -108,6 +109,15 @@ public interface SimpleJdbcCallOperations {
 	 */
 	SimpleJdbcCallOperations withNamedBinding();
 
+	/**
+	 * Use the given cache for call metadata, instead of retrieving
+	 * the metadata from the database on compile.
+	 * @param metaDataProviderCache the cache to use
+	 * @return the instance of this SimpleJdbcCall
+	 * @since 5.1
+	 */
+	SimpleJdbcCallOperations withMetaDataProviderCache(MetaDataProviderCache metaDataProviderCache);
+
 
 	/**
 	 * Execute the stored function and return the results obtained as an Object of the
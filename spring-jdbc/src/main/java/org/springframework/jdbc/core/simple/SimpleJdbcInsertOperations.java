@@ -18,6 +18,7 @@ package org.springframework.jdbc.core.simple;
 
 import java.util.Map;
 
+import org.springframework.jdbc.core.metadata.MetaDataProviderCache;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.KeyHolder;
 
@@ -80,6 +81,24 @@ public interface SimpleJdbcInsertOperations {
 	 */
 	SimpleJdbcInsertOperations includeSynonymsForTableColumnMetaData();
 
+	/**
+	 * Execute batch inserts as multi-row {@code INSERT ... VALUES (...), (...)}
+	 * statements with up to the given number of rows each, if supported by the database.
+	 * @param maxRowsPerStatement the maximum number of rows per statement
+	 * @return the instance of this SimpleJdbcInsert
+	 * @since 5.1
+	 */
+	SimpleJdbcInsertOperations usingMultiRowInserts(int maxRowsPerStatement);
+
+	/**
+	 * Use the given cache for table metadata, instead of retrieving
+	 * the metadata from the database on compile.
+	 * @param metaDataProviderCache the cache to use
+	 * @return the instance of this SimpleJdbcInsert
+	 * @since 5.1
+	 */
+	SimpleJdbcInsertOperations withMetaDataProviderCache(MetaDataProviderCache metaDataProviderCache);
+
 
 	/**
 	 * Execute the insert using the values passed in.
@@ -17,9 +17,13 @@
 package org.springframework.jdbc.datasource;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Savepoint;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.support.ResourceHolderSupport;
 import org.springframework.util.Assert;
@@ -43,6 +47,13 @@ public class ConnectionHolder extends ResourceHolderSupport {
 
 	public static final String SAVEPOINT_NAME_PREFIX = "SAVEPOINT_";
 
+	/**
+	 * The maximum number of PreparedStatements to keep in the statement cache.
+	 * @since 5.1
+	 * @see #cacheStatement
+	 */
+	public static final int STATEMENT_CACHE_LIMIT = 64;
+
 
 	@Nullable
 	private ConnectionHandle connectionHandle;
@@ -57,6 +68,12 @@ public class ConnectionHolder extends ResourceHolderSupport {
 
 	private int savepointCounter = 0;
 
+	@Nullable
+	private StatementCache statementCache;
+
+	@Nullable
+	private Connection statementCacheConnection;
+
 
 	/**
 	 * Create a new ConnectionHolder for the given ConnectionHandle.
@@ -131,6 +148,7 @@ public class ConnectionHolder extends ResourceHolderSupport {
 	 * argument) and setting a fresh Connection on resume.
 	 */
 	protected void setConnection(@Nullable Connection connection) {
+		closeCachedStatements();
 		if (this.currentConnection != null) {
 			if (this.connectionHandle != null) {
 				this.connectionHandle.releaseConnection(this.currentConnection);
@@ -184,6 +202,86 @@ public class ConnectionHolder extends ResourceHolderSupport {
 		return getConnection().setSavepoint(SAVEPOINT_NAME_PREFIX + this.savepointCounter);
 	}
 
+	/**
+	 * Obtain a cached PreparedStatement for the given SQL statement,
+	 * provided that the given Connection is the one held by this ConnectionHolder.
+	 * <p>The statement is removed from the cache while in use, so that nested
+	 * operations with the same SQL statement get a separate PreparedStatement.
+	 * It may be handed back through {@link #cacheStatement} after use.
+	 * @param con the Connection that the statement is going to be used on
+	 * @param sql the SQL statement
+	 * @return the cached PreparedStatement, or {@code null} if none
+	 * @since 5.1
+	 */
+	@Nullable
+	public PreparedStatement getCachedStatement(Connection con, String sql) {
+		if (this.statementCache == null || con != this.currentConnection) {
+			return null;
+		}
+		if (con != this.statementCacheConnection) {
+			closeCachedStatements();
+			return null;
+		}
+		PreparedStatement ps = this.statementCache.remove(sql);
+		try {
+			if (ps != null && ps.isClosed()) {
+				ps = null;
+			}
+		}
+		catch (SQLException ex) {
+			JdbcUtils.closeStatement(ps);
+			ps = null;
+		}
+		return ps;
+	}
+
+	/**
+	 * Keep the given PreparedStatement open for reuse with the same SQL statement,
+	 * for as long as this ConnectionHolder holds the given Connection.
+	 * <p>At most {@link #STATEMENT_CACHE_LIMIT} statements are kept,
+	 * closing the least recently used statement beyond that.
+	 * @param con the Connection that the statement has been created on
+	 * @param sql the SQL statement
+	 * @param ps the PreparedStatement, ready for reuse
+	 * @return {@code true} if the statement has been cached, or {@code false}
+	 * if not (in which case the caller remains responsible for closing it)
+	 * @since 5.1
+	 * @see #getCachedStatement
+	 */
+	public boolean cacheStatement(Connection con, String sql, PreparedStatement ps) {
+		if (con != this.currentConnection) {
+			return false;
+		}
+		if (con != this.statementCacheConnection) {
+			closeCachedStatements();
+			this.statementCacheConnection = con;
+		}
+		if (this.statementCache == null) {
+			this.statementCache = new StatementCache();
+		}
+		else if (this.statementCache.containsKey(sql)) {
+			return false;
+		}
+		this.statementCache.put(sql, ps);
+		return true;
+	}
+
+	/**
+	 * Close all cached PreparedStatements, if any.
+	 * <p>Called before the held Connection gets released or reset.
+	 * @since 5.1
+	 * @see #cacheStatement
+	 */
+	public void closeCachedStatements() {
+		if (this.statementCache != null) {
+			for (PreparedStatement ps : this.statementCache.values()) {
+				JdbcUtils.closeStatement(ps);
+			}
+			this.statementCache = null;
+		}
+		this.statementCacheConnection = null;
+	}
+
 	/**
 	 * Releases the current Connection held by this ConnectionHolder.
 	 * <p>This is necessary for ConnectionHandles that expect "Connection borrowing",
@@ -195,6 +293,10 @@ public class ConnectionHolder extends ResourceHolderSupport {
 	public void released() {
 		super.released();
 		if (!isOpen() && this.currentConnection != null) {
+			if (!(this.connectionHandle instanceof SimpleConnectionHandle)) {
+				// Connection borrowing: statements must not outlive the lease
+				closeCachedStatements();
+			}
 			if (this.connectionHandle != null) {
 				this.connectionHandle.releaseConnection(this.currentConnection);
 			}
@@ -206,9 +308,31 @@ public class ConnectionHolder extends ResourceHolderSupport {
 	@Override
 	public void clear() {
 		super.clear();
+		closeCachedStatements();
 		this.transactionActive = false;
 		this.savepointsSupported = null;
 		this.savepointCounter = 0;
 	}
 
+
+	/**
+	 * LRU map of cached PreparedStatements, closing evicted statements.
+	 */
+	@SuppressWarnings("serial")
+	private static class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+
+		public StatementCache() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+			if (size() > STATEMENT_CACHE_LIMIT) {
+				JdbcUtils.closeStatement(eldest.getValue());
+				return true;
+			}
+			return false;
+		}
+	}
+
 }
@@ -446,6 +446,7 @@ public abstract class DataSourceUtils {
 					// a handle to it anymore. We will fetch a fresh Connection if the
 					// application accesses the ConnectionHolder again after resume,
 					// assuming that it will participate in the same transaction.
+					this.connectionHolder.closeCachedStatements();
 					releaseConnection(this.connectionHolder.getConnection(), this.dataSource);
 					this.connectionHolder.setConnection(null);
 				}
@@ -470,6 +471,7 @@ public abstract class DataSourceUtils {
 				TransactionSynchronizationManager.unbindResource(this.dataSource);
 				this.holderActive = false;
 				if (this.connectionHolder.hasConnection()) {
+					this.connectionHolder.closeCachedStatements();
 					releaseConnection(this.connectionHolder.getConnection(), this.dataSource);
 				}
 			}
@@ -486,6 +488,7 @@ public abstract class DataSourceUtils {
 				TransactionSynchronizationManager.unbindResourceIfPossible(this.dataSource);
 				this.holderActive = false;
 				if (this.connectionHolder.hasConnection()) {
+					this.connectionHolder.closeCachedStatements();
 					releaseConnection(this.connectionHolder.getConnection(), this.dataSource);
 					// Reset the ConnectionHolder: It might remain bound to the thread.
 					this.connectionHolder.setConnection(null);
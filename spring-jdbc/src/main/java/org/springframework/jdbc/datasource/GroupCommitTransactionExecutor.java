@@ -0,0 +1,334 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+
+/**
+ * Executor for "group commit" of short write transactions on a single JDBC
+ * Connection: units of work submitted by many callers are collected by a
+ * dedicated writer thread and executed one after the other within a single
+ * {@link DataSourceTransactionManager} transaction, sharing one
+ * {@code Connection.commit()} round-trip instead of paying one each.
+ *
+ * <p>A group is committed once {@link #setMaxBatchSize "maxBatchSize"} units
+ * of work have been collected or once the {@link #setCommitWindow "commitWindow"}
+ * has elapsed since the first unit of the group has been picked up, whichever
+ * comes first. The future returned from {@link #submit} completes when the
+ * group commits, or exceptionally if the unit of work could not be committed.
+ *
+ * <p>Units of work run on the writer thread, so data access code needs to
+ * obtain its Connection via {@link DataSourceUtils#getConnection} (as
+ * {@link org.springframework.jdbc.core.JdbcTemplate} does implicitly) in order
+ * to participate in the group transaction. Any failure within a group, as well
+ * as a unit of work marking the transaction as rollback-only, rolls back the
+ * entire group; each unit of work of that group is then re-executed in a
+ * transaction of its own, isolating the failing one. <b>Units of work may thus
+ * get executed more than once and need to be idempotent.</b>
+ *
+ * <p>This is an opt-in strategy for latency-tolerant writes such as event
+ * ingestion; regular transaction demarcation via
+ * {@link DataSourceTransactionManager} is not affected by it.
+ *
+ * @since 5.1
+ * @see DataSourceTransactionManager
+ * @see TransactionTemplate
+ */
+public class GroupCommitTransactionExecutor implements InitializingBean, DisposableBean {
+
+	private static final PendingWork<Object> SHUTDOWN = new PendingWork<>(status -> null);
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final BlockingQueue<PendingWork<?>> queue = new LinkedBlockingQueue<>();
+
+	private final CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("GroupCommit-");
+
+	private int maxBatchSize = 100;
+
+	private long commitWindow = 10;
+
+	private volatile boolean running;
+
+	private Thread writerThread;
+
+
+	/**
+	 * Create a new GroupCommitTransactionExecutor for the given transaction manager,
+	 * using default transaction settings for each group.
+	 * @param transactionManager the transaction manager to commit groups with
+	 */
+	public GroupCommitTransactionExecutor(DataSourceTransactionManager transactionManager) {
+		this(transactionManager, new DefaultTransactionDefinition());
+	}
+
+	/**
+	 * Create a new GroupCommitTransactionExecutor for the given transaction manager.
+	 * @param transactionManager the transaction manager to commit groups with
+	 * @param transactionDefinition the transaction settings to apply to each group
+	 * (propagation behavior is always {@code PROPAGATION_REQUIRES_NEW})
+	 */
+	public GroupCommitTransactionExecutor(
+			DataSourceTransactionManager transactionManager, TransactionDefinition transactionDefinition) {
+
+		Assert.notNull(transactionManager, "DataSourceTransactionManager must not be null");
+		Assert.notNull(transactionDefinition, "TransactionDefinition must not be null");
+		this.transactionTemplate = new TransactionTemplate(transactionManager, transactionDefinition);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.threadCreator.setDaemon(true);
+	}
+
+
+	/**
+	 * Set the maximum number of units of work to commit together.
+	 * Default is 100.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Return the maximum number of units of work to commit together.
+	 */
+	public int getMaxBatchSize() {
+		return this.maxBatchSize;
+	}
+
+	/**
+	 * Set the time (in milliseconds) to wait for further units of work
+	 * before committing an incomplete group. Default is 10.
+	 * <p>A value of 0 commits whatever is available right away, which still
+	 * coalesces units of work that have queued up during the previous commit.
+	 */
+	public void setCommitWindow(long commitWindow) {
+		Assert.isTrue(commitWindow >= 0, "commitWindow must not be negative");
+		this.commitWindow = commitWindow;
+	}
+
+	/**
+	 * Return the time (in milliseconds) to wait for further units of work
+	 * before committing an incomplete group.
+	 */
+	public long getCommitWindow() {
+		return this.commitWindow;
+	}
+
+	/**
+	 * Specify the prefix to use for the name of the writer thread.
+	 * Default is "GroupCommit-".
+	 */
+	public void setThreadNamePrefix(String threadNamePrefix) {
+		this.threadCreator.setThreadNamePrefix(threadNamePrefix);
+	}
+
+
+	/**
+	 * Start the writer thread.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		synchronized (this.queue) {
+			if (this.writerThread == null) {
+				this.running = true;
+				this.writerThread = this.threadCreator.createThread(this::processQueue);
+				this.writerThread.start();
+			}
+		}
+	}
+
+	/**
+	 * Stop accepting units of work and wait for the writer thread
+	 * to commit all units of work submitted so far.
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		Thread thread;
+		synchronized (this.queue) {
+			this.running = false;
+			// Wake up the writer thread in case it is waiting for a group to fill up
+			this.queue.add(SHUTDOWN);
+			thread = this.writerThread;
+			this.writerThread = null;
+		}
+		if (thread != null) {
+			thread.join();
+		}
+	}
+
+	/**
+	 * Submit the given unit of work for execution within the next group transaction.
+	 * <p>The callback receives the status of the group transaction; marking it as
+	 * rollback-only leads to the callback getting re-executed in a transaction
+	 * of its own (which is then rolled back).
+	 * @param action the callback object that specifies the (idempotent) unit of work
+	 * @return a future for the callback's result, completing once the
+	 * unit of work has been committed or rolled back
+	 * @throws IllegalStateException if this executor has not been started
+	 * or has been shut down already
+	 */
+	public <T> CompletableFuture<T> submit(TransactionCallback<T> action) {
+		Assert.notNull(action, "TransactionCallback must not be null");
+		PendingWork<T> work = new PendingWork<>(action);
+		synchronized (this.queue) {
+			Assert.state(this.running, "GroupCommitTransactionExecutor is not running");
+			this.queue.add(work);
+		}
+		return work.future;
+	}
+
+
+	private void processQueue() {
+		List<PendingWork<?>> group = new ArrayList<>(this.maxBatchSize);
+		try {
+			while (this.running || !this.queue.isEmpty()) {
+				PendingWork<?> first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null || first == SHUTDOWN) {
+					continue;
+				}
+				group.add(first);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.commitWindow);
+				while (group.size() < this.maxBatchSize) {
+					this.queue.drainTo(group, this.maxBatchSize - group.size());
+					// The shutdown marker is always the last element submitted
+					if (group.get(group.size() - 1) == SHUTDOWN) {
+						group.remove(group.size() - 1);
+						break;
+					}
+					long remaining = deadline - System.nanoTime();
+					if (group.size() >= this.maxBatchSize || remaining <= 0) {
+						break;
+					}
+					PendingWork<?> next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null || next == SHUTDOWN) {
+						break;
+					}
+					group.add(next);
+				}
+				commitGroup(group);
+				group.clear();
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			InterruptedException failure = new InterruptedException("Group commit writer thread interrupted");
+			for (PendingWork<?> work : group) {
+				work.future.completeExceptionally(failure);
+			}
+			PendingWork<?> work;
+			while ((work = this.queue.poll()) != null) {
+				work.future.completeExceptionally(failure);
+			}
+		}
+	}
+
+	/**
+	 * Execute the given units of work within a single transaction,
+	 * falling back to one transaction per unit of work on failure.
+	 */
+	private void commitGroup(List<PendingWork<?>> group) {
+		if (group.size() > 1) {
+			try {
+				Object[] results = this.transactionTemplate.execute(status -> {
+					Object[] groupResults = new Object[group.size()];
+					for (int i = 0; i < groupResults.length; i++) {
+						groupResults[i] = group.get(i).action.doInTransaction(status);
+						if (status.isRollbackOnly()) {
+							throw new GroupRollbackException();
+						}
+					}
+					return groupResults;
+				});
+				for (int i = 0; i < group.size(); i++) {
+					group.get(i).complete(results[i]);
+				}
+				if (logger.isTraceEnabled()) {
+					logger.trace("Committed group of " + group.size() + " units of work");
+				}
+				return;
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Group of " + group.size() +
+							" units of work rolled back - re-executing each in its own transaction", ex);
+				}
+			}
+		}
+		for (PendingWork<?> work : group) {
+			try {
+				work.complete(this.transactionTemplate.execute(work.action));
+			}
+			catch (Throwable ex) {
+				work.future.completeExceptionally(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * A submitted unit of work, along with the future for its result.
+	 */
+	private static class PendingWork<T> {
+
+		final TransactionCallback<T> action;
+
+		final CompletableFuture<T> future = new CompletableFuture<>();
+
+		PendingWork(TransactionCallback<T> action) {
+			this.action = action;
+		}
+
+		@SuppressWarnings("unchecked")
+		void complete(Object result) {
+			this.future.complete((T) result);
+		}
+	}
+
+
+	/**
+	 * Exception thrown to roll back a group once a unit of work
+	 * has marked the group transaction as rollback-only.
+	 */
+	@SuppressWarnings("serial")
+	private static class GroupRollbackException extends RuntimeException {
+
+		GroupRollbackException() {
+			super("Group transaction marked as rollback-only", null, false, false);
+		}
+	}
+
+}
@@ -24,8 +24,11 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -34,6 +37,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
 
 import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
@@ -392,4 +396,73 @@ public class JdbcTemplateQueryTests {
 		verify(this.preparedStatement).close();
 	}
 
+	@Test
+	public void testQueryForStreamWithArgs() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID < ?";
+		given(this.resultSet.next()).willReturn(true, true, false);
+		given(this.resultSet.getInt(1)).willReturn(11, 12);
+		this.template.setFetchSize(50);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 3)) {
+			verify(this.preparedStatement).setFetchSize(50);
+			verify(this.preparedStatement).setObject(1, 3);
+			verify(this.resultSet, never()).next();
+			assertEquals(Arrays.asList(11, 12), stream.collect(Collectors.toList()));
+			verify(this.resultSet, never()).close();
+			verify(this.connection, never()).close();
+		}
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamClosedEarly() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR";
+		given(this.resultSet.next()).willReturn(true);
+		given(this.resultSet.getInt(1)).willReturn(11);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1))) {
+			assertEquals(Arrays.asList(11, 11), stream.limit(2).collect(Collectors.toList()));
+		}
+		verify(this.resultSet, times(2)).next();
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithExceptionWhileMapping() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR";
+		given(this.resultSet.next()).willReturn(true);
+		given(this.resultSet.getInt(1)).willThrow(new SQLException("bad column"));
+		Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1));
+		try {
+			stream.findFirst();
+			fail("Should have thrown UncategorizedSQLException");
+		}
+		catch (UncategorizedSQLException ex) {
+			assertEquals("bad column", ex.getSQLException().getMessage());
+		}
+		finally {
+			stream.close();
+		}
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithExceptionOnExecute() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR";
+		given(this.preparedStatement.executeQuery()).willThrow(new SQLException("bad query"));
+		try {
+			this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1));
+			fail("Should have thrown UncategorizedSQLException");
+		}
+		catch (UncategorizedSQLException ex) {
+			assertEquals("bad query", ex.getSQLException().getMessage());
+		}
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
 }
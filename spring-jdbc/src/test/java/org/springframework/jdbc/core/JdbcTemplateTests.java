@@ -31,12 +31,15 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -45,10 +48,12 @@ import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.support.AbstractInterruptibleBatchPreparedStatementSetter;
+import org.springframework.jdbc.datasource.ConnectionHolder;
 import org.springframework.jdbc.datasource.ConnectionProxy;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 
 import static org.hamcrest.Matchers.*;
@@ -819,6 +824,207 @@ public class JdbcTemplateTests {
 		verify(this.connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testChunkedBatchUpdateWithIterator() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		final List<Integer> ids = Arrays.asList(100, 200, 300);
+
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 2}, new int[] {Statement.SUCCESS_NO_INFO});
+		mockDatabaseMetaData(true);
+
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+		BatchUpdateSummary summary = template.batchUpdate(sql, ids.iterator(), 2,
+				(ps, argument) -> ps.setInt(1, argument), 1);
+
+		assertEquals(2, summary.getChunkCount());
+		assertEquals(3, summary.getItemCount());
+		assertEquals(3, summary.getRowsAffected());
+		assertFalse(summary.hasFailures());
+		verify(this.preparedStatement, times(3)).addBatch();
+		verify(this.preparedStatement).setInt(1, ids.get(0));
+		verify(this.preparedStatement).setInt(1, ids.get(1));
+		verify(this.preparedStatement).setInt(1, ids.get(2));
+		verify(this.preparedStatement, times(2)).close();
+		verify(this.connection, atLeast(2)).close();
+	}
+
+	@Test
+	public void testChunkedBatchUpdateReportsFailedChunks() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		SQLException sqlException = new SQLException("Bad update");
+
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 1})
+				.willThrow(sqlException).willReturn(new int[] {1});
+		mockDatabaseMetaData(true);
+
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+		template.setBatchUpdateExecutor(Runnable::run);
+		BatchUpdateSummary summary = template.batchUpdate(sql, Stream.of(1, 2, 3, 4, 5), 2,
+				(ps, argument) -> ps.setInt(1, argument), 4);
+
+		assertEquals(3, summary.getChunkCount());
+		assertEquals(5, summary.getItemCount());
+		assertEquals(3, summary.getRowsAffected());
+		assertEquals(1, summary.getFailures().size());
+		BatchUpdateSummary.ChunkFailure failure = summary.getFailures().get(0);
+		assertEquals(1, failure.getChunkIndex());
+		assertEquals(2, failure.getFirstItemIndex());
+		assertEquals(2, failure.getItemCount());
+		assertSame(sqlException, failure.getException().getCause());
+		verify(this.preparedStatement, times(3)).close();
+	}
+
+	@Test
+	public void testChunkedBatchUpdateWithinTransactionPropagatesFailure() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		SQLException sqlException = new SQLException("Bad update");
+
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 1})
+				.willThrow(sqlException).willReturn(new int[] {1});
+		mockDatabaseMetaData(true);
+
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+		TransactionSynchronizationManager.bindResource(this.dataSource, new ConnectionHolder(this.connection));
+		try {
+			template.batchUpdate(sql, Stream.of(1, 2, 3, 4, 5), 2, (ps, argument) -> ps.setInt(1, argument), 4);
+			fail("Should have thrown DataAccessException");
+		}
+		catch (DataAccessException ex) {
+			assertSame(sqlException, ex.getCause());
+		}
+		finally {
+			TransactionSynchronizationManager.unbindResource(this.dataSource);
+		}
+		verify(this.preparedStatement, times(2)).executeBatch();
+		verify(this.preparedStatement, times(4)).addBatch();
+	}
+
+	@Test
+	public void testChunkedBatchUpdateRecordsErrors() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		AssertionError error = new AssertionError("Bad setter");
+		mockDatabaseMetaData(true);
+
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+		template.setBatchUpdateExecutor(chunk -> {
+			try {
+				chunk.run();
+			}
+			catch (AssertionError err) {
+				assertSame(error, err);
+			}
+		});
+		BatchUpdateSummary summary = template.batchUpdate(sql, Stream.of(1, 2), 2, (ps, argument) -> {
+			throw error;
+		}, 2);
+
+		assertEquals(1, summary.getFailures().size());
+		assertSame(error, summary.getFailures().get(0).getException());
+	}
+
+	@Test
+	public void testChunkedBatchUpdateInParallel() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 1, 1});
+		mockDatabaseMetaData(true);
+
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+		BatchUpdateSummary summary = template.batchUpdate(sql, IntStream.range(0, 30).boxed(), 3,
+				(ps, argument) -> ps.setInt(1, argument), 3);
+
+		assertEquals(10, summary.getChunkCount());
+		assertEquals(30, summary.getItemCount());
+		assertEquals(30, summary.getRowsAffected());
+		assertFalse(summary.hasFailures());
+		verify(this.preparedStatement, times(30)).addBatch();
+		verify(this.preparedStatement, times(10)).close();
+	}
+
+	@Test
+	public void testStatementCachingWithinConnectionBinding() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+		ConnectionHolder holder = new ConnectionHolder(this.connection);
+		TransactionSynchronizationManager.bindResource(this.dataSource, holder);
+		try {
+			this.template.setCacheStatements(true);
+			assertEquals(1, this.template.update(sql, 11));
+			assertEquals(1, this.template.update(sql, 12));
+			verify(this.connection, times(1)).prepareStatement(sql);
+			verify(this.preparedStatement).setObject(1, 11);
+			verify(this.preparedStatement).setObject(1, 12);
+			verify(this.preparedStatement, never()).close();
+		}
+		finally {
+			TransactionSynchronizationManager.unbindResource(this.dataSource);
+		}
+		holder.clear();
+		verify(this.preparedStatement).close();
+		verify(this.connection, never()).close();
+	}
+
+	@Test
+	public void testStatementCachingRestoresStatementSettings() throws Exception {
+		final String sql = "SELECT ID FROM CUSTMR WHERE ID > ?";
+		given(this.preparedStatement.executeQuery()).willReturn(this.resultSet);
+		given(this.preparedStatement.getFetchDirection()).willReturn(ResultSet.FETCH_FORWARD);
+		ConnectionHolder holder = new ConnectionHolder(this.connection);
+		TransactionSynchronizationManager.bindResource(this.dataSource, holder);
+		try {
+			this.template.setCacheStatements(true);
+			this.template.setMaxRows(10);
+			this.template.query(sql, ps -> {
+				ps.setInt(1, 1);
+				ps.setFetchSize(50);
+			}, (ResultSetExtractor<Object>) rs -> null);
+			InOrder ordered = inOrder(this.preparedStatement);
+			ordered.verify(this.preparedStatement).setMaxRows(10);
+			ordered.verify(this.preparedStatement).setFetchSize(50);
+			ordered.verify(this.preparedStatement).clearParameters();
+			ordered.verify(this.preparedStatement).clearBatch();
+			ordered.verify(this.preparedStatement).clearWarnings();
+			ordered.verify(this.preparedStatement).setMaxRows(0);
+			ordered.verify(this.preparedStatement).setFetchSize(0);
+			ordered.verify(this.preparedStatement).setFetchDirection(ResultSet.FETCH_FORWARD);
+			ordered.verify(this.preparedStatement).setQueryTimeout(0);
+			verify(this.preparedStatement, never()).close();
+		}
+		finally {
+			TransactionSynchronizationManager.unbindResource(this.dataSource);
+		}
+		holder.clear();
+		verify(this.preparedStatement).close();
+	}
+
+	@Test
+	public void testNoStatementCachingForCustomCallback() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		ConnectionHolder holder = new ConnectionHolder(this.connection);
+		TransactionSynchronizationManager.bindResource(this.dataSource, holder);
+		try {
+			this.template.setCacheStatements(true);
+			this.template.execute(sql, (PreparedStatementCallback<Object>) ps -> ps.executeUpdate());
+			this.template.execute(sql, (PreparedStatementCallback<Object>) ps -> ps.executeUpdate());
+			verify(this.connection, times(2)).prepareStatement(sql);
+			verify(this.preparedStatement, times(2)).close();
+		}
+		finally {
+			TransactionSynchronizationManager.unbindResource(this.dataSource);
+		}
+	}
+
+	@Test
+	public void testStatementCachingWithoutConnectionBinding() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+		this.template.setCacheStatements(true);
+		this.template.update(sql, 11);
+		this.template.update(sql, 12);
+		verify(this.connection, times(2)).prepareStatement(sql);
+		verify(this.preparedStatement, times(2)).close();
+		verify(this.connection, times(2)).close();
+	}
+
 	@Test
 	public void testCouldntGetConnectionForOperationOrExceptionTranslator() throws SQLException {
 		SQLException sqlException = new SQLException("foo", "07xxx");
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.metadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MetaDataProviderCache}.
+ */
+public class MetaDataProviderCacheTests {
+
+	private EmbeddedDatabase db;
+
+	private CountingDataSource dataSource;
+
+	private final MetaDataProviderCache cache = new MetaDataProviderCache();
+
+
+	@Before
+	public void setUp() {
+		this.db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		new JdbcTemplate(this.db).execute("create table customer (id integer not null primary key, name varchar(50))");
+		this.dataSource = new CountingDataSource(this.db);
+	}
+
+	@After
+	public void shutDown() {
+		this.db.shutdown();
+	}
+
+
+	@Test
+	public void providerSharedAcrossInserts() {
+		SimpleJdbcInsert insert1 = insert();
+		insert1.compile();
+		int connectionCount = this.dataSource.connectionCount.get();
+
+		SimpleJdbcInsert insert2 = insert();
+		insert2.compile();
+		assertEquals(connectionCount, this.dataSource.connectionCount.get());
+		assertEquals(insert1.getInsertString(), insert2.getInsertString());
+		Map<String, Object> args = new HashMap<>(4);
+		args.put("id", 1);
+		args.put("name", "name1");
+		assertEquals(1, insert2.execute(args));
+	}
+
+	@Test
+	public void providerKeyedByMetaDataOptions() {
+		insert().compile();
+		int connectionCount = this.dataSource.connectionCount.get();
+
+		SimpleJdbcInsert insert = insert();
+		insert.setAccessTableColumnMetaData(false);
+		insert.setColumnNames(Arrays.asList("id", "name"));
+		insert.compile();
+		assertTrue(this.dataSource.connectionCount.get() > connectionCount);
+	}
+
+	@Test
+	public void invalidation() {
+		insert().compile();
+		int connectionCount = this.dataSource.connectionCount.get();
+
+		this.cache.invalidate(this.db);
+		insert().compile();
+		assertEquals(connectionCount, this.dataSource.connectionCount.get());
+
+		this.cache.invalidate(this.dataSource);
+		insert().compile();
+		assertTrue(this.dataSource.connectionCount.get() > connectionCount);
+		connectionCount = this.dataSource.connectionCount.get();
+
+		this.cache.invalidateAll();
+		insert().compile();
+		assertTrue(this.dataSource.connectionCount.get() > connectionCount);
+	}
+
+	@Test
+	public void timeToLive() {
+		this.cache.setTimeToLive(0);
+		insert().compile();
+		int connectionCount = this.dataSource.connectionCount.get();
+		insert().compile();
+		assertTrue(this.dataSource.connectionCount.get() > connectionCount);
+
+		this.cache.setTimeToLive(60000);
+		connectionCount = this.dataSource.connectionCount.get();
+		insert().compile();
+		assertEquals(connectionCount, this.dataSource.connectionCount.get());
+	}
+
+
+	private SimpleJdbcInsert insert() {
+		return new SimpleJdbcInsert(this.dataSource).withTableName("customer").withMetaDataProviderCache(this.cache);
+	}
+
+
+	private static class CountingDataSource extends DelegatingDataSource {
+
+		private final AtomicInteger connectionCount = new AtomicInteger();
+
+		public CountingDataSource(EmbeddedDatabase targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			this.connectionCount.incrementAndGet();
+			return super.getConnection();
+		}
+	}
+
+}
@@ -22,6 +22,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -475,4 +476,66 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testStatementCacheWithCollectionParameters() throws SQLException {
+		String sql = "select id from custmr where id in (:ids) and country = :country";
+		RowMapper<Object> rowMapper = (rs, rowNum) -> rs.getObject(1);
+
+		namedParameterTemplate.query(sql,
+				new MapSqlParameterSource("ids", Arrays.asList(1, 2)).addValue("country", "UK"), rowMapper);
+		namedParameterTemplate.query(sql,
+				new MapSqlParameterSource("ids", Arrays.asList(3, 4)).addValue("country", "US"), rowMapper);
+		namedParameterTemplate.query(sql,
+				new MapSqlParameterSource("ids", Arrays.asList(5, 6, 7)).addValue("country", "UK"), rowMapper);
+		namedParameterTemplate.query(sql,
+				new MapSqlParameterSource("ids", Arrays.asList(8, 9)).addValue("country", "UK", Types.VARCHAR), rowMapper);
+
+		verify(connection, times(3)).prepareStatement("select id from custmr where id in (?, ?) and country = ?");
+		verify(connection).prepareStatement("select id from custmr where id in (?, ?, ?) and country = ?");
+		verify(preparedStatement).setObject(1, 3);
+		verify(preparedStatement).setObject(3, 7);
+		verify(preparedStatement).setString(3, "US");
+		verify(preparedStatement, times(2)).setString(3, "UK");
+		verify(preparedStatement).setString(4, "UK");
+		assertEquals(3, namedParameterTemplate.getParsedSqlCacheHitCount());
+		assertEquals(1, namedParameterTemplate.getParsedSqlCacheMissCount());
+		assertEquals(1, namedParameterTemplate.getStatementCacheHitCount());
+		assertEquals(3, namedParameterTemplate.getStatementCacheMissCount());
+	}
+
+	@Test
+	public void testStatementCacheWithTupleParameters() throws SQLException {
+		String sql = "select id from custmr where (id, name) in (:tuples)";
+		RowMapper<Object> rowMapper = (rs, rowNum) -> rs.getObject(1);
+
+		namedParameterTemplate.query(sql, Collections.singletonMap("tuples",
+				Collections.singletonList(new Object[] {1, "a"})), rowMapper);
+		namedParameterTemplate.query(sql, Collections.singletonMap("tuples",
+				Collections.singletonList(new Object[] {1, "a", "b"})), rowMapper);
+
+		verify(connection).prepareStatement("select id from custmr where (id, name) in ((?, ?))");
+		verify(connection).prepareStatement("select id from custmr where (id, name) in ((?, ?, ?))");
+		assertEquals(0, namedParameterTemplate.getStatementCacheHitCount());
+	}
+
+	@Test
+	public void testCacheLimitZero() throws SQLException {
+		namedParameterTemplate.setCacheLimit(0);
+		params.put("id", 1);
+		params.put("country", "UK");
+		namedParameterTemplate.query(SELECT_NAMED_PARAMETERS, params, (rs, rowNum) -> rs.getObject(1));
+		namedParameterTemplate.query(SELECT_NAMED_PARAMETERS, params, (rs, rowNum) -> rs.getObject(1));
+
+		verify(connection, times(2)).prepareStatement(SELECT_NAMED_PARAMETERS_PARSED);
+		assertEquals(0, namedParameterTemplate.getCacheLimit());
+		assertEquals(0, namedParameterTemplate.getParsedSqlCacheHitCount());
+		assertEquals(0, namedParameterTemplate.getStatementCacheHitCount());
+	}
+
+	@Test
+	public void testCacheLimitNegative() {
+		namedParameterTemplate.setCacheLimit(-1);
+		assertEquals(0, namedParameterTemplate.getCacheLimit());
+	}
+
 }
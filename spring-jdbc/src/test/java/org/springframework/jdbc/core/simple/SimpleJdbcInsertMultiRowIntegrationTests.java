@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.simple;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration tests for multi-row batch inserts with {@link SimpleJdbcInsert}
+ * against embedded databases.
+ */
+public class SimpleJdbcInsertMultiRowIntegrationTests {
+
+	private EmbeddedDatabase db;
+
+
+	@After
+	public void shutDown() {
+		if (this.db != null) {
+			this.db.shutdown();
+		}
+	}
+
+
+	@Test
+	public void multiRowInsertWithH2() {
+		assertMultiRowInsert(EmbeddedDatabaseType.H2, true);
+	}
+
+	@Test
+	public void multiRowInsertWithHsql() {
+		assertMultiRowInsert(EmbeddedDatabaseType.HSQL, true);
+	}
+
+	@Test
+	public void fallbackToJdbcBatchWithDerby() {
+		assertMultiRowInsert(EmbeddedDatabaseType.DERBY, false);
+	}
+
+	@Test
+	public void multiRowInsertSizeLimitedByParameterCount() {
+		JdbcTemplate jdbcTemplate = createTable(EmbeddedDatabaseType.H2);
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbcTemplate).withTableName("customer")
+				.usingMultiRowInserts(100000);
+		insert.compile();
+		// 32767 bind parameters for 2 columns
+		assertEquals(16383, insert.getMultiRowInsertString().split("\\), \\(").length);
+
+		int[] rowsAffected = insert.executeBatch(batch(20000));
+		assertEquals(20000, rowsAffected.length);
+		assertEquals(1, rowsAffected[19999]);
+		assertEquals(Integer.valueOf(20000), jdbcTemplate.queryForObject("select count(*) from customer", Integer.class));
+	}
+
+
+	private void assertMultiRowInsert(EmbeddedDatabaseType type, boolean expectMultiRow) {
+		JdbcTemplate jdbcTemplate = createTable(type);
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbcTemplate).withTableName("customer")
+				.usingMultiRowInserts(10);
+
+		int[] rowsAffected = insert.executeBatch(batch(25));
+		assertEquals(25, rowsAffected.length);
+		for (int count : rowsAffected) {
+			assertEquals(1, count);
+		}
+		assertEquals(Integer.valueOf(25), jdbcTemplate.queryForObject("select count(*) from customer", Integer.class));
+		assertEquals("name24", jdbcTemplate.queryForObject("select name from customer where id = 24", String.class));
+
+		rowsAffected = insert.executeBatch(batch(1, 100));
+		assertEquals(1, rowsAffected.length);
+		assertEquals(1, rowsAffected[0]);
+		if (expectMultiRow) {
+			assertTrue(insert.getMultiRowInsertString().startsWith("INSERT INTO customer (ID, NAME) VALUES(?, ?), (?, ?)"));
+		}
+		else {
+			assertEquals("", insert.getMultiRowInsertString());
+		}
+	}
+
+	private JdbcTemplate createTable(EmbeddedDatabaseType type) {
+		this.db = new EmbeddedDatabaseBuilder().setType(type).generateUniqueName(true).build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.db);
+		jdbcTemplate.execute("create table customer (id integer not null primary key, name varchar(50))");
+		return jdbcTemplate;
+	}
+
+	private static Map<String, ?>[] batch(int size) {
+		return batch(size, 0);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, ?>[] batch(int size, int firstId) {
+		Map<String, ?>[] batch = new Map[size];
+		for (int i = 0; i < size; i++) {
+			Map<String, Object> args = new HashMap<>(4);
+			args.put("id", firstId + i);
+			args.put("name", "name" + (firstId + i));
+			batch[i] = args;
+		}
+		return batch;
+	}
+
+}
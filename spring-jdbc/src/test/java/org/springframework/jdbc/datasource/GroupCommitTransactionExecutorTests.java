@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for {@link GroupCommitTransactionExecutor}.
+ */
+public class GroupCommitTransactionExecutorTests {
+
+	private DataSource ds;
+
+	private Connection con;
+
+	private GroupCommitTransactionExecutor executor;
+
+
+	@Before
+	public void setUp() throws Exception {
+		ds = mock(DataSource.class);
+		con = mock(Connection.class);
+		given(ds.getConnection()).willReturn(con);
+		executor = new GroupCommitTransactionExecutor(new DataSourceTransactionManager(ds));
+		executor.setCommitWindow(500);
+	}
+
+	@After
+	public void shutdown() throws Exception {
+		executor.destroy();
+	}
+
+
+	@Test
+	public void unitsOfWorkCommittedTogether() throws Exception {
+		executor.setMaxBatchSize(3);
+		executor.afterPropertiesSet();
+		CompletableFuture<Connection> f1 = executor.submit(status -> DataSourceUtils.getConnection(ds));
+		CompletableFuture<Connection> f2 = executor.submit(status -> DataSourceUtils.getConnection(ds));
+		CompletableFuture<String> f3 = executor.submit(status -> "result");
+
+		assertSame(con, f1.get(5, TimeUnit.SECONDS));
+		assertSame(con, f2.get(5, TimeUnit.SECONDS));
+		assertEquals("result", f3.get(5, TimeUnit.SECONDS));
+		verify(ds, times(1)).getConnection();
+		verify(con, times(1)).commit();
+		verify(con, never()).rollback();
+	}
+
+	@Test
+	public void groupsLimitedByMaxBatchSize() throws Exception {
+		executor.setMaxBatchSize(2);
+		executor.afterPropertiesSet();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = executor.submit(status -> null);
+		}
+
+		CompletableFuture.allOf(futures).get(5, TimeUnit.SECONDS);
+		verify(con, times(2)).commit();
+	}
+
+	@Test
+	public void failingUnitOfWorkIsolated() throws Exception {
+		executor.setMaxBatchSize(3);
+		executor.afterPropertiesSet();
+		CompletableFuture<String> f1 = executor.submit(status -> "one");
+		CompletableFuture<String> f2 = executor.submit(status -> {
+			throw new IllegalStateException("failure");
+		});
+		CompletableFuture<String> f3 = executor.submit(status -> "three");
+
+		assertEquals("one", f1.get(5, TimeUnit.SECONDS));
+		assertEquals("three", f3.get(5, TimeUnit.SECONDS));
+		try {
+			f2.get(5, TimeUnit.SECONDS);
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+		// group rollback, then one transaction per unit of work
+		verify(ds, times(4)).getConnection();
+		verify(con, times(2)).commit();
+		verify(con, times(2)).rollback();
+	}
+
+	@Test
+	public void rollbackOnlyUnitOfWorkIsolated() throws Exception {
+		executor.setMaxBatchSize(2);
+		executor.afterPropertiesSet();
+		CompletableFuture<String> f1 = executor.submit(status -> {
+			status.setRollbackOnly();
+			return "one";
+		});
+		CompletableFuture<String> f2 = executor.submit(status -> "two");
+
+		assertEquals("one", f1.get(5, TimeUnit.SECONDS));
+		assertEquals("two", f2.get(5, TimeUnit.SECONDS));
+		verify(con, times(1)).commit();
+		verify(con, times(2)).rollback();
+	}
+
+	@Test
+	public void pendingUnitsOfWorkCommittedOnDestroy() throws Exception {
+		executor.setCommitWindow(60000);
+		executor.afterPropertiesSet();
+		CompletableFuture<String> future = executor.submit(status -> "result");
+		executor.destroy();
+
+		assertEquals("result", future.getNow(null));
+		verify(con, times(1)).commit();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void submitWithoutStart() {
+		executor.submit(status -> "result");
+	}
+
+}
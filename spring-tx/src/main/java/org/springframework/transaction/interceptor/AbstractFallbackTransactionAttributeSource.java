@@ -28,6 +28,8 @@ import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.MethodClassKey;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Abstract implementation of {@link TransactionAttributeSource} that caches
@@ -41,6 +43,9 @@ import org.springframework.util.ClassUtils;
  * has been called through (in case of a JDK proxy) will be checked.
  *
  * <p>This implementation caches attributes by method after they are first used.
+ * Attributes for invocations with a target class are cached in a per-class
+ * {@link MethodAttributeTable} keyed by the invoked method, unless a custom
+ * {@link #getCacheKey} strategy has been specified.
  * If it is ever desirable to allow dynamic changing of transaction attributes
  * (which is very unlikely), caching could be made configurable. Caching is
  * desirable because of the cost of evaluating rollback rules.
@@ -72,6 +77,18 @@ public abstract class AbstractFallbackTransactionAttributeSource implements Tran
 	 */
 	private final Map<Object, TransactionAttribute> attributeCache = new ConcurrentHashMap<>(1024);
 
+	/**
+	 * Cache of TransactionAttributes per target class, keyed by the method as invoked.
+	 */
+	private final Map<Class<?>, MethodAttributeTable<TransactionAttribute>> classAttributeCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	/**
+	 * Whether the per-class cache applies, i.e. whether {@link #getCacheKey}
+	 * has not been overridden with custom key semantics.
+	 */
+	private final boolean classAttributeCacheApplicable = isClassAttributeCacheApplicable(getClass());
+
 
 	/**
 	 * Determine the transaction attribute for this method invocation.
@@ -89,6 +106,18 @@ public abstract class AbstractFallbackTransactionAttributeSource implements Tran
 		}
 
 		// First, see if we have a cached value.
+		if (targetClass != null && this.classAttributeCacheApplicable) {
+			// Per-class cache, avoiding a method/class key per lookup
+			MethodAttributeTable<TransactionAttribute> table =
+					this.classAttributeCache.computeIfAbsent(targetClass, key -> new MethodAttributeTable<>());
+			TransactionAttribute txAttr = table.get(method);
+			if (txAttr == null) {
+				txAttr = resolveTransactionAttribute(method, targetClass);
+				table.put(method, txAttr);
+			}
+			return (txAttr != NULL_TRANSACTION_ATTRIBUTE ? txAttr : null);
+		}
+
 		Object cacheKey = getCacheKey(method, targetClass);
 		Object cached = this.attributeCache.get(cacheKey);
 		if (cached != null) {
@@ -103,23 +132,35 @@ public abstract class AbstractFallbackTransactionAttributeSource implements Tran
 		}
 		else {
 			// We need to work it out.
-			TransactionAttribute txAttr = computeTransactionAttribute(method, targetClass);
+			TransactionAttribute txAttr = resolveTransactionAttribute(method, targetClass);
 			// Put it in the cache.
-			if (txAttr == null) {
-				this.attributeCache.put(cacheKey, NULL_TRANSACTION_ATTRIBUTE);
-			}
-			else {
-				String methodIdentification = ClassUtils.getQualifiedMethodName(method, targetClass);
-				if (txAttr instanceof DefaultTransactionAttribute) {
-					((DefaultTransactionAttribute) txAttr).setDescriptor(methodIdentification);
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Adding transactional method '" + methodIdentification + "' with attribute: " + txAttr);
-				}
-				this.attributeCache.put(cacheKey, txAttr);
-			}
-			return txAttr;
+			this.attributeCache.put(cacheKey, txAttr);
+			return (txAttr != NULL_TRANSACTION_ATTRIBUTE ? txAttr : null);
+		}
+	}
+
+	/**
+	 * Compute the transaction attribute for the given method, preparing it for caching.
+	 * @return the transaction attribute, or {@code NULL_TRANSACTION_ATTRIBUTE} if none
+	 */
+	private TransactionAttribute resolveTransactionAttribute(Method method, @Nullable Class<?> targetClass) {
+		TransactionAttribute txAttr = computeTransactionAttribute(method, targetClass);
+		if (txAttr == null) {
+			return NULL_TRANSACTION_ATTRIBUTE;
+		}
+		String methodIdentification = ClassUtils.getQualifiedMethodName(method, targetClass);
+		if (txAttr instanceof DefaultTransactionAttribute) {
+			((DefaultTransactionAttribute) txAttr).setDescriptor(methodIdentification);
 		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Adding transactional method '" + methodIdentification + "' with attribute: " + txAttr);
+		}
+		return txAttr;
+	}
+
+	private static boolean isClassAttributeCacheApplicable(Class<?> sourceClass) {
+		Method method = ReflectionUtils.findMethod(sourceClass, "getCacheKey", Method.class, Class.class);
+		return (method != null && method.getDeclaringClass() == AbstractFallbackTransactionAttributeSource.class);
 	}
 
 	/**
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Attributes for the methods invoked on a specific target class, as cached
+ * per class by a {@link TransactionAttributeSource}: lookups go by the {@link Method} alone,
+ * without having to build a method/class key for every invocation.
+ *
+ * <p>Attributes get resolved lazily, on first invocation of each method,
+ * with the resolver returning a canonical placeholder value for methods
+ * without attributes.
+ *
+ * @since 5.1
+ * @param <A> the attribute type
+ */
+final class MethodAttributeTable<A> {
+
+	private final Map<Method, A> attributes = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Return the attribute for the given method, if already resolved.
+	 * @param method the method as invoked (possibly an interface method)
+	 * @return the resolved attribute, or {@code null} if not resolved yet
+	 */
+	@Nullable
+	public A get(Method method) {
+		return this.attributes.get(method);
+	}
+
+	/**
+	 * Register the resolved attribute for the given method.
+	 * @param method the method as invoked
+	 * @param attribute the resolved attribute (or placeholder value)
+	 */
+	public void put(Method method, A attribute) {
+		this.attributes.put(method, attribute);
+	}
+
+}
@@ -19,20 +19,33 @@ package org.springframework.transaction.interceptor;
 import java.lang.reflect.Method;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.BeanNotOfRequiredTypeException;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.reactive.TransactionContextManager;
 import org.springframework.transaction.support.CallbackPreferringPlatformTransactionManager;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -56,6 +69,11 @@ import org.springframework.util.StringUtils;
  * implementation will perform the actual transaction management, and a
  * {@code TransactionAttributeSource} is used for determining transaction definitions.
  *
+ * <p>Methods with a reactive return type (as supported by the {@link ReactiveAdapterRegistry})
+ * are handled by a {@link ReactiveTransactionManager}, if available: the transaction
+ * then spans the subscription of the returned publisher, with its state propagated
+ * through the Reactor subscriber context instead of being bound to the current thread.
+ *
  * <p>A transaction aspect is serializable if its {@code PlatformTransactionManager}
  * and {@code TransactionAttributeSource} are serializable.
  *
@@ -79,6 +97,14 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	private static final Object DEFAULT_TRANSACTION_MANAGER_KEY = new Object();
 
+	/**
+	 * Marker for a cached lookup that did not find a ReactiveTransactionManager.
+	 */
+	private static final Object NO_REACTIVE_TRANSACTION_MANAGER = new Object();
+
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux", TransactionAspectSupport.class.getClassLoader());
+
 	/**
 	 * Holder to support the {@code currentTransactionStatus()} method,
 	 * and to support communication between different cooperating advices
@@ -144,6 +170,16 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	private final ConcurrentMap<Object, PlatformTransactionManager> transactionManagerCache =
 			new ConcurrentReferenceHashMap<>(4);
 
+	@Nullable
+	private ReactiveTransactionManager reactiveTransactionManager;
+
+	@Nullable
+	private final ReactiveAdapterRegistry reactiveAdapterRegistry =
+			(reactorPresent ? ReactiveAdapterRegistry.getSharedInstance() : null);
+
+	private final ConcurrentMap<Object, Object> reactiveTransactionManagerCache =
+			new ConcurrentReferenceHashMap<>(4);
+
 
 	/**
 	 * Specify the name of the default transaction manager bean.
@@ -179,6 +215,30 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		return this.transactionManager;
 	}
 
+	/**
+	 * Specify the <em>default</em> reactive transaction manager to use to drive
+	 * transactions for methods with a reactive return type, e.g. {@code Mono} or
+	 * {@code Flux}.
+	 * <p>If not specified, a unique {@link ReactiveTransactionManager} bean will be
+	 * looked up in the BeanFactory, if any. Methods with a reactive return type for
+	 * which no reactive transaction manager is available are handled through the
+	 * regular {@link PlatformTransactionManager} arrangement.
+	 * @since 5.1
+	 * @see #setTransactionManager
+	 */
+	public void setReactiveTransactionManager(@Nullable ReactiveTransactionManager reactiveTransactionManager) {
+		this.reactiveTransactionManager = reactiveTransactionManager;
+	}
+
+	/**
+	 * Return the default reactive transaction manager, or {@code null} if unknown.
+	 * @since 5.1
+	 */
+	@Nullable
+	public ReactiveTransactionManager getReactiveTransactionManager() {
+		return this.reactiveTransactionManager;
+	}
+
 	/**
 	 * Set properties with method names as keys and transaction attribute
 	 * descriptors (parsed via TransactionAttributeEditor) as values:
@@ -251,7 +311,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	@Override
 	public void afterPropertiesSet() {
-		if (getTransactionManager() == null && this.beanFactory == null) {
+		if (getTransactionManager() == null && getReactiveTransactionManager() == null && this.beanFactory == null) {
 			throw new IllegalStateException(
 					"Set the 'transactionManager' property or make sure to run within a BeanFactory " +
 					"containing a PlatformTransactionManager bean!");
@@ -281,6 +341,18 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		// If the transaction attribute is null, the method is non-transactional.
 		TransactionAttributeSource tas = getTransactionAttributeSource();
 		final TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
+
+		if (this.reactiveAdapterRegistry != null && txAttr != null) {
+			ReactiveAdapter adapter = this.reactiveAdapterRegistry.getAdapter(method.getReturnType());
+			if (adapter != null) {
+				ReactiveTransactionManager rtm = determineReactiveTransactionManager(txAttr);
+				if (rtm != null) {
+					return ReactiveTransactionSupport.invokeWithinTransaction(
+							adapter, rtm, txAttr, methodIdentification(method, targetClass, txAttr), invocation);
+				}
+			}
+		}
+
 		final PlatformTransactionManager tm = determineTransactionManager(txAttr);
 		final String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
 
@@ -366,6 +438,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	protected void clearTransactionManagerCache() {
 		this.transactionManagerCache.clear();
+		this.reactiveTransactionManagerCache.clear();
 		this.beanFactory = null;
 	}
 
@@ -410,6 +483,68 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		return txManager;
 	}
 
+	/**
+	 * Determine the specific reactive transaction manager to use for the given
+	 * transaction, for a method with a reactive return type.
+	 * <p>Follows the same rules as {@link #determineTransactionManager}, with a
+	 * unique {@link ReactiveTransactionManager} bean as the default.
+	 * @return the reactive transaction manager, or {@code null} if none available
+	 * (in which case the regular PlatformTransactionManager arrangement applies)
+	 * @since 5.1
+	 */
+	@Nullable
+	protected ReactiveTransactionManager determineReactiveTransactionManager(TransactionAttribute txAttr) {
+		if (this.beanFactory == null) {
+			return getReactiveTransactionManager();
+		}
+
+		String qualifier = txAttr.getQualifier();
+		if (StringUtils.hasText(qualifier)) {
+			return determineQualifiedReactiveTransactionManager(this.beanFactory, qualifier);
+		}
+		else if (StringUtils.hasText(this.transactionManagerBeanName)) {
+			return determineQualifiedReactiveTransactionManager(this.beanFactory, this.transactionManagerBeanName);
+		}
+		else {
+			ReactiveTransactionManager defaultTransactionManager = getReactiveTransactionManager();
+			if (defaultTransactionManager != null) {
+				return defaultTransactionManager;
+			}
+			Object cached = this.reactiveTransactionManagerCache.get(DEFAULT_TRANSACTION_MANAGER_KEY);
+			if (cached == null) {
+				cached = NO_REACTIVE_TRANSACTION_MANAGER;
+				if (this.beanFactory instanceof ListableBeanFactory) {
+					String[] beanNames = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
+							(ListableBeanFactory) this.beanFactory, ReactiveTransactionManager.class);
+					if (beanNames.length == 1) {
+						cached = this.beanFactory.getBean(beanNames[0], ReactiveTransactionManager.class);
+					}
+				}
+				this.reactiveTransactionManagerCache.putIfAbsent(DEFAULT_TRANSACTION_MANAGER_KEY, cached);
+			}
+			return (cached != NO_REACTIVE_TRANSACTION_MANAGER ? (ReactiveTransactionManager) cached : null);
+		}
+	}
+
+	@Nullable
+	private ReactiveTransactionManager determineQualifiedReactiveTransactionManager(
+			BeanFactory beanFactory, String qualifier) {
+
+		Object cached = this.reactiveTransactionManagerCache.get(qualifier);
+		if (cached == null) {
+			try {
+				cached = BeanFactoryAnnotationUtils.qualifiedBeanOfType(
+						beanFactory, ReactiveTransactionManager.class, qualifier);
+			}
+			catch (NoSuchBeanDefinitionException | BeanNotOfRequiredTypeException ex) {
+				// Qualifier refers to a regular PlatformTransactionManager
+				cached = NO_REACTIVE_TRANSACTION_MANAGER;
+			}
+			this.reactiveTransactionManagerCache.putIfAbsent(qualifier, cached);
+		}
+		return (cached != NO_REACTIVE_TRANSACTION_MANAGER ? (ReactiveTransactionManager) cached : null);
+	}
+
 	private String methodIdentification(Method method, @Nullable Class<?> targetClass,
 			@Nullable TransactionAttribute txAttr) {
 
@@ -684,6 +819,119 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	}
 
 
+	/**
+	 * Delegate for transaction management of methods with a reactive return type,
+	 * based on a {@link ReactiveTransactionManager}. Inner class in order to avoid
+	 * a hard dependency on Reactor.
+	 */
+	private static class ReactiveTransactionSupport {
+
+		private static final Log logger = LogFactory.getLog(TransactionAspectSupport.class);
+
+		@SuppressWarnings("serial")
+		public static Object invokeWithinTransaction(ReactiveAdapter adapter, ReactiveTransactionManager tm,
+				TransactionAttribute txAttr, String joinpointIdentification, InvocationCallback invocation) {
+
+			TransactionAttribute definition = txAttr;
+			if (definition.getName() == null) {
+				definition = new DelegatingTransactionAttribute(txAttr) {
+					@Override
+					public String getName() {
+						return joinpointIdentification;
+					}
+				};
+			}
+
+			TransactionAttribute definitionToUse = definition;
+			Flux<Object> result = Mono.subscriberContext().flatMapMany(context ->
+					tm.getReactiveTransaction(definitionToUse).flatMapMany(status -> {
+						if (logger.isTraceEnabled()) {
+							logger.trace("Getting transaction for [" + joinpointIdentification + "]");
+						}
+						// Whichever of commit, rollback on error or rollback on cancel comes first
+						AtomicBoolean completing = new AtomicBoolean();
+						return Flux.defer(() -> proceedWithInvocation(adapter, invocation))
+								.onErrorResume(ex -> (completing.compareAndSet(false, true) ?
+										completeTransactionAfterThrowing(
+												tm, status, definitionToUse, joinpointIdentification, ex) :
+										Mono.<Void>empty()).then(Mono.error(ex)))
+								.concatWith(Mono.defer(() -> (completing.compareAndSet(false, true) ?
+										commitTransactionAfterReturning(tm, status, joinpointIdentification) :
+										Mono.<Void>empty())).then(Mono.empty()))
+								.doOnCancel(() -> {
+									if (completing.compareAndSet(false, true)) {
+										rollbackTransactionOnCancel(tm, status, joinpointIdentification)
+												.subscriberContext(context)
+												.subscribe(null, ex -> logger.error("Rollback on cancel failed", ex));
+									}
+								});
+					}))
+					.subscriberContext(TransactionContextManager.createContext());
+
+			// Not Mono.from(Flux), which would cancel the transaction after the first element
+			return adapter.fromPublisher(adapter.isMultiValue() ? result : result.singleOrEmpty());
+		}
+
+		private static Publisher<Object> proceedWithInvocation(ReactiveAdapter adapter, InvocationCallback invocation) {
+			try {
+				return adapter.toPublisher(invocation.proceedWithInvocation());
+			}
+			catch (Throwable ex) {
+				return Mono.error(ex);
+			}
+		}
+
+		private static Mono<Void> commitTransactionAfterReturning(ReactiveTransactionManager tm,
+				ReactiveTransaction status, String joinpointIdentification) {
+
+			if (logger.isTraceEnabled()) {
+				logger.trace("Completing transaction for [" + joinpointIdentification + "]");
+			}
+			return tm.commit(status);
+		}
+
+		private static Mono<Void> completeTransactionAfterThrowing(ReactiveTransactionManager tm,
+				ReactiveTransaction status, TransactionAttribute txAttr, String joinpointIdentification,
+				Throwable ex) {
+
+			if (logger.isTraceEnabled()) {
+				logger.trace("Completing transaction for [" + joinpointIdentification +
+						"] after exception: " + ex);
+			}
+			if (txAttr.rollbackOn(ex)) {
+				return tm.rollback(status).onErrorMap(ex2 -> {
+					logger.error("Application exception overridden by rollback exception", ex);
+					if (ex2 instanceof TransactionSystemException) {
+						((TransactionSystemException) ex2).initApplicationException(ex);
+					}
+					return ex2;
+				});
+			}
+			else {
+				return tm.commit(status).onErrorMap(ex2 -> {
+					logger.error("Application exception overridden by commit exception", ex);
+					if (ex2 instanceof TransactionSystemException) {
+						((TransactionSystemException) ex2).initApplicationException(ex);
+					}
+					return ex2;
+				});
+			}
+		}
+
+		private static Mono<Void> rollbackTransactionOnCancel(ReactiveTransactionManager tm,
+				ReactiveTransaction status, String joinpointIdentification) {
+
+			if (status.isCompleted()) {
+				return Mono.empty();
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("Rolling back transaction for [" + joinpointIdentification + "] after cancellation");
+			}
+			return tm.rollback(status);
+		}
+	}
+
+
 	/**
 	 * Internal holder class for a Throwable in a callback transaction model.
 	 */
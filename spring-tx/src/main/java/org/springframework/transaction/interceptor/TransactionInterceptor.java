@@ -29,6 +29,7 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
 
 /**
  * AOP Alliance MethodInterceptor for declarative transaction
@@ -112,6 +113,7 @@ public class TransactionInterceptor extends TransactionAspectSupport implements
 		oos.writeObject(getTransactionManager());
 		oos.writeObject(getTransactionAttributeSource());
 		oos.writeObject(getBeanFactory());
+		oos.writeObject(getReactiveTransactionManager());
 	}
 
 	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
@@ -125,6 +127,7 @@ public class TransactionInterceptor extends TransactionAspectSupport implements
 		setTransactionManager((PlatformTransactionManager) ois.readObject());
 		setTransactionAttributeSource((TransactionAttributeSource) ois.readObject());
 		setBeanFactory((BeanFactory) ois.readObject());
+		setReactiveTransactionManager((ReactiveTransactionManager) ois.readObject());
 	}
 
 }
@@ -0,0 +1,559 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.InvalidTimeoutException;
+import org.springframework.transaction.NestedTransactionNotSupportedException;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSuspensionNotSupportedException;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * Abstract base class that implements Spring's standard reactive transaction workflow,
+ * serving as basis for concrete reactive transaction managers.
+ *
+ * <p>This base class provides the following workflow handling, analogous to
+ * {@link org.springframework.transaction.support.AbstractPlatformTransactionManager}:
+ * <ul>
+ * <li>determines if there is an existing transaction;
+ * <li>applies the appropriate propagation behavior;
+ * <li>suspends and resumes transactions if necessary;
+ * <li>checks the rollback-only flag on commit;
+ * <li>applies the appropriate modification on rollback
+ * (actual rollback or setting rollback-only).
+ * </ul>
+ *
+ * <p>Transactional state is not bound to the current thread but to the
+ * {@link TransactionContext} of the current transactional pipeline, accessible
+ * through the {@link TransactionSynchronizationManager} that is passed into
+ * each template method. Nested transactions (savepoints) are not supported.
+ *
+ * @since 5.1
+ * @see TransactionalOperator
+ * @see org.springframework.transaction.interceptor.TransactionInterceptor
+ */
+public abstract class AbstractReactiveTransactionManager implements ReactiveTransactionManager {
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+
+	//---------------------------------------------------------------------
+	// Implementation of ReactiveTransactionManager
+	//---------------------------------------------------------------------
+
+	/**
+	 * This implementation handles propagation behavior. Delegates to
+	 * {@code doGetTransaction}, {@code isExistingTransaction}
+	 * and {@code doBegin}.
+	 * @see #doGetTransaction
+	 * @see #isExistingTransaction
+	 * @see #doBegin
+	 */
+	@Override
+	public final Mono<ReactiveTransaction> getReactiveTransaction(@Nullable TransactionDefinition definition) {
+		// Use defaults if no transaction definition given.
+		TransactionDefinition def = (definition != null ? definition : new DefaultTransactionDefinition());
+
+		return TransactionSynchronizationManager.forCurrentTransaction().flatMap(synchronizationManager -> {
+			Object transaction = doGetTransaction(synchronizationManager);
+
+			if (isExistingTransaction(transaction)) {
+				// Existing transaction found -> check propagation behavior to find out how to behave.
+				return handleExistingTransaction(synchronizationManager, def, transaction);
+			}
+
+			// Check definition settings for new transaction.
+			if (def.getTimeout() < TransactionDefinition.TIMEOUT_DEFAULT) {
+				return Mono.error(new InvalidTimeoutException("Invalid transaction timeout", def.getTimeout()));
+			}
+
+			// No existing transaction found -> check propagation behavior to find out how to proceed.
+			if (def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_MANDATORY) {
+				return Mono.error(new IllegalTransactionStateException(
+						"No existing transaction found for transaction marked with propagation 'mandatory'"));
+			}
+			else if (def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED ||
+					def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW ||
+					def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Creating new transaction with name [" + def.getName() + "]: " + def);
+				}
+				return startTransaction(synchronizationManager, def, transaction, null);
+			}
+			else {
+				// Create "empty" transaction: no actual transaction.
+				if (def.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT && logger.isWarnEnabled()) {
+					logger.warn("Custom isolation level specified but no actual transaction initiated; " +
+							"isolation level will effectively be ignored: " + def);
+				}
+				return Mono.just(new GenericReactiveTransaction(null, true, def.isReadOnly(), null));
+			}
+		});
+	}
+
+	/**
+	 * Create a ReactiveTransaction for an existing transaction.
+	 */
+	private Mono<ReactiveTransaction> handleExistingTransaction(TransactionSynchronizationManager synchronizationManager,
+			TransactionDefinition definition, Object transaction) {
+
+		if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NEVER) {
+			return Mono.error(new IllegalTransactionStateException(
+					"Existing transaction found for transaction marked with propagation 'never'"));
+		}
+
+		if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NOT_SUPPORTED) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Suspending current transaction");
+			}
+			return suspend(synchronizationManager, transaction).map(suspendedResources ->
+					new GenericReactiveTransaction(null, false, definition.isReadOnly(), suspendedResources));
+		}
+
+		if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Suspending current transaction, creating new transaction with name [" +
+						definition.getName() + "]");
+			}
+			return suspend(synchronizationManager, transaction).flatMap(suspendedResources ->
+					startTransaction(synchronizationManager, definition, transaction, suspendedResources));
+		}
+
+		if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED) {
+			return Mono.error(new NestedTransactionNotSupportedException(
+					"Reactive transaction manager does not support nested transactions"));
+		}
+
+		// Assumably PROPAGATION_SUPPORTS or PROPAGATION_REQUIRED.
+		if (logger.isDebugEnabled()) {
+			logger.debug("Participating in existing transaction");
+		}
+		return Mono.just(new GenericReactiveTransaction(transaction, false, definition.isReadOnly(), null));
+	}
+
+	/**
+	 * Start a new transaction, resuming the given suspended resources on failure.
+	 */
+	private Mono<ReactiveTransaction> startTransaction(TransactionSynchronizationManager synchronizationManager,
+			TransactionDefinition definition, Object transaction,
+			@Nullable SuspendedResourcesHolder suspendedResources) {
+
+		GenericReactiveTransaction status =
+				new GenericReactiveTransaction(transaction, true, definition.isReadOnly(), suspendedResources);
+		return Mono.defer(() -> doBegin(synchronizationManager, transaction, definition))
+				.then(Mono.fromSupplier(() -> {
+					prepareContext(synchronizationManager, status, definition);
+					return (ReactiveTransaction) status;
+				}))
+				.onErrorResume(ex -> resume(synchronizationManager, null, suspendedResources).then(Mono.error(ex)));
+	}
+
+	/**
+	 * Expose the characteristics of a new transaction in the transaction context.
+	 */
+	private void prepareContext(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status, TransactionDefinition definition) {
+
+		synchronizationManager.setActualTransactionActive(status.hasTransaction());
+		synchronizationManager.setCurrentTransactionIsolationLevel(
+				definition.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT ?
+						definition.getIsolationLevel() : null);
+		synchronizationManager.setCurrentTransactionReadOnly(definition.isReadOnly());
+		synchronizationManager.setCurrentTransactionName(definition.getName());
+	}
+
+	/**
+	 * Suspend the given transaction, clearing the transaction characteristics
+	 * of the current context.
+	 * @return a holder for the suspended resources and characteristics
+	 * @see #doSuspend
+	 */
+	private Mono<SuspendedResourcesHolder> suspend(TransactionSynchronizationManager synchronizationManager,
+			Object transaction) {
+
+		return Mono.defer(() -> doSuspend(synchronizationManager, transaction)).map(suspendedResources -> {
+			String name = synchronizationManager.getCurrentTransactionName();
+			boolean readOnly = synchronizationManager.isCurrentTransactionReadOnly();
+			Integer isolationLevel = synchronizationManager.getCurrentTransactionIsolationLevel();
+			boolean wasActive = synchronizationManager.isActualTransactionActive();
+			synchronizationManager.clear();
+			return new SuspendedResourcesHolder(suspendedResources, name, readOnly, isolationLevel, wasActive);
+		});
+	}
+
+	/**
+	 * Resume the given transaction, restoring the transaction characteristics
+	 * of the current context.
+	 * @see #doResume
+	 */
+	private Mono<Void> resume(TransactionSynchronizationManager synchronizationManager,
+			@Nullable Object transaction, @Nullable SuspendedResourcesHolder resourcesHolder) {
+
+		if (resourcesHolder == null) {
+			return Mono.empty();
+		}
+		return Mono.defer(() -> doResume(synchronizationManager, transaction, resourcesHolder.suspendedResources))
+				.doOnSuccess(ignored -> {
+					synchronizationManager.setActualTransactionActive(resourcesHolder.wasActive);
+					synchronizationManager.setCurrentTransactionIsolationLevel(resourcesHolder.isolationLevel);
+					synchronizationManager.setCurrentTransactionReadOnly(resourcesHolder.readOnly);
+					synchronizationManager.setCurrentTransactionName(resourcesHolder.name);
+				});
+	}
+
+	/**
+	 * This implementation of commit handles participating in existing
+	 * transactions and programmatic rollback requests.
+	 * Delegates to {@code isRollbackOnly}, {@code doCommit}
+	 * and {@code rollback}.
+	 * @see ReactiveTransaction#isRollbackOnly()
+	 * @see #doCommit
+	 * @see #rollback
+	 */
+	@Override
+	public final Mono<Void> commit(ReactiveTransaction transaction) {
+		if (transaction.isCompleted()) {
+			return Mono.error(new IllegalTransactionStateException(
+					"Transaction is already completed - do not call commit or rollback more than once per transaction"));
+		}
+
+		return TransactionSynchronizationManager.forCurrentTransaction().flatMap(synchronizationManager -> {
+			GenericReactiveTransaction status = (GenericReactiveTransaction) transaction;
+			if (status.isLocalRollbackOnly()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Transactional code has requested rollback");
+				}
+				return processRollback(synchronizationManager, status);
+			}
+			if (status.isGlobalRollbackOnly()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Global transaction is marked as rollback-only but transactional code requested commit");
+				}
+				Mono<Void> rollback = processRollback(synchronizationManager, status);
+				if (status.isNewTransaction()) {
+					rollback = rollback.then(Mono.error(new UnexpectedRollbackException(
+							"Transaction rolled back because it has been marked as rollback-only")));
+				}
+				return rollback;
+			}
+			return processCommit(synchronizationManager, status);
+		});
+	}
+
+	/**
+	 * Process an actual commit.
+	 * Rollback-only flags have already been checked and applied.
+	 */
+	private Mono<Void> processCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		Mono<Void> commit = Mono.defer(() -> {
+			if (status.isNewTransaction()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Initiating transaction commit");
+				}
+				return doCommit(synchronizationManager, status);
+			}
+			return Mono.empty();
+		});
+		return completeWith(synchronizationManager, status, commit);
+	}
+
+	/**
+	 * This implementation of rollback handles participating in existing transactions.
+	 * Delegates to {@code doRollback} and {@code doSetRollbackOnly}.
+	 * @see #doRollback
+	 * @see #doSetRollbackOnly
+	 */
+	@Override
+	public final Mono<Void> rollback(ReactiveTransaction transaction) {
+		if (transaction.isCompleted()) {
+			return Mono.error(new IllegalTransactionStateException(
+					"Transaction is already completed - do not call commit or rollback more than once per transaction"));
+		}
+
+		return TransactionSynchronizationManager.forCurrentTransaction().flatMap(synchronizationManager ->
+				processRollback(synchronizationManager, (GenericReactiveTransaction) transaction));
+	}
+
+	/**
+	 * Process an actual rollback.
+	 * The completed flag has already been checked.
+	 */
+	private Mono<Void> processRollback(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		Mono<Void> rollback = Mono.defer(() -> {
+			if (status.isNewTransaction()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Initiating transaction rollback");
+				}
+				return doRollback(synchronizationManager, status);
+			}
+			if (status.hasTransaction()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Participating transaction failed - marking existing transaction as rollback-only");
+				}
+				return doSetRollbackOnly(synchronizationManager, status);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Should roll back transaction but cannot - no transaction available");
+			}
+			return Mono.empty();
+		});
+		return completeWith(synchronizationManager, status, rollback);
+	}
+
+	/**
+	 * Apply the given completion step, cleaning up after completion
+	 * in any case (also propagating a failure of the completion step).
+	 */
+	private Mono<Void> completeWith(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status, Mono<Void> completion) {
+
+		return completion
+				.onErrorResume(ex -> cleanupAfterCompletion(synchronizationManager, status).then(Mono.error(ex)))
+				.then(Mono.defer(() -> cleanupAfterCompletion(synchronizationManager, status)));
+	}
+
+	/**
+	 * Clean up after completion, clearing the transaction characteristics
+	 * if necessary, and invoking doCleanupAfterCompletion.
+	 * @see #doCleanupAfterCompletion
+	 */
+	private Mono<Void> cleanupAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		status.setCompleted();
+		Mono<Void> cleanup = Mono.empty();
+		if (status.isNewTransaction()) {
+			synchronizationManager.clear();
+			cleanup = Mono.defer(() -> doCleanupAfterCompletion(synchronizationManager, status.getTransaction()));
+		}
+		if (status.getSuspendedResources() != null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Resuming suspended transaction after completion of inner transaction");
+			}
+			Object transaction = (status.hasTransaction() ? status.getTransaction() : null);
+			cleanup = cleanup.then(resume(synchronizationManager, transaction,
+					(SuspendedResourcesHolder) status.getSuspendedResources()));
+		}
+		return cleanup;
+	}
+
+
+	//---------------------------------------------------------------------
+	// Template methods to be implemented in subclasses
+	//---------------------------------------------------------------------
+
+	/**
+	 * Return a transaction object for the current transaction state.
+	 * <p>The returned object will usually be specific to the concrete transaction
+	 * manager implementation, carrying corresponding transaction state in a
+	 * modifiable fashion. This object will be passed into the other template
+	 * methods (e.g. doBegin and doCommit), either directly or as part of a
+	 * GenericReactiveTransaction instance.
+	 * <p>The returned object should contain information about any existing
+	 * transaction, that is, a transaction that has already started before the
+	 * current {@code getReactiveTransaction} call on the transaction manager.
+	 * Consequently, a {@code doGetTransaction} implementation will usually
+	 * look for an existing transaction and store corresponding state in the
+	 * returned transaction object.
+	 * @param synchronizationManager the synchronization manager bound to the
+	 * current transaction context
+	 * @return the current transaction object
+	 * @throws TransactionException in case of creation or system errors
+	 * @see #doBegin
+	 * @see #doCommit
+	 * @see #doRollback
+	 */
+	protected abstract Object doGetTransaction(TransactionSynchronizationManager synchronizationManager)
+			throws TransactionException;
+
+	/**
+	 * Check if the given transaction object indicates an existing transaction
+	 * (that is, a transaction which has already started).
+	 * <p>The result will be evaluated according to the specified propagation
+	 * behavior for the new transaction. An existing transaction might get
+	 * suspended (in case of PROPAGATION_REQUIRES_NEW), or the new transaction
+	 * might participate in the existing one (in case of PROPAGATION_REQUIRED).
+	 * <p>The default implementation returns {@code false}, assuming that
+	 * participating in existing transactions is generally not supported.
+	 * Subclasses are of course encouraged to provide such support.
+	 * @param transaction transaction object returned by doGetTransaction
+	 * @return if there is an existing transaction
+	 * @see #doGetTransaction
+	 */
+	protected boolean isExistingTransaction(Object transaction) {
+		return false;
+	}
+
+	/**
+	 * Begin a new transaction with semantics according to the given transaction
+	 * definition. Does not have to care about applying the propagation behavior,
+	 * as this has already been handled by this abstract manager.
+	 * <p>This method gets called when the transaction manager has decided to actually
+	 * start a new transaction. Either there wasn't any transaction before, or the
+	 * previous transaction has been suspended.
+	 * @param synchronizationManager the synchronization manager bound to the
+	 * current transaction context
+	 * @param transaction transaction object returned by {@code doGetTransaction}
+	 * @param definition a TransactionDefinition instance, describing propagation
+	 * behavior, isolation level, read-only flag, timeout, and transaction name
+	 */
+	protected abstract Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager,
+			Object transaction, TransactionDefinition definition);
+
+	/**
+	 * Suspend the resources of the current transaction.
+	 * Transaction characteristics will be suspended by this abstract manager.
+	 * <p>The default implementation emits a TransactionSuspensionNotSupportedException,
+	 * assuming that transaction suspension is generally not supported.
+	 * @param synchronizationManager the synchronization manager bound to the
+	 * current transaction context
+	 * @param transaction transaction object returned by {@code doGetTransaction}
+	 * @return an object that holds suspended resources
+	 * (will be kept unexamined for passing it into doResume)
+	 * @see #doResume
+	 */
+	protected Mono<Object> doSuspend(TransactionSynchronizationManager synchronizationManager,
+			Object transaction) {
+
+		return Mono.error(new TransactionSuspensionNotSupportedException(
+				"Transaction manager [" + getClass().getName() + "] does not support transaction suspension"));
+	}
+
+	/**
+	 * Resume the resources of the current transaction.
+	 * Transaction characteristics will be resumed by this abstract manager.
+	 * <p>The default implementation emits a TransactionSuspensionNotSupportedException,
+	 * assuming that transaction suspension is generally not supported.
+	 * @param synchronizationManager the synchronization manager bound to the
+	 * current transaction context
+	 * @param transaction transaction object returned by {@code doGetTransaction}
+	 * @param suspendedResources the object that holds suspended resources,
+	 * as returned by doSuspend
+	 * @see #doSuspend
+	 */
+	protected Mono<Void> doResume(TransactionSynchronizationManager synchronizationManager,
+			@Nullable Object transaction, Object suspendedResources) {
+
+		return Mono.error(new TransactionSuspensionNotSupportedException(
+				"Transaction manager [" + getClass().getName() + "] does not support transaction suspension"));
+	}
+
+	/**
+	 * Perform an actual commit of the given transaction.
+	 * <p>An implementation does not need to check the "new transaction" flag
+	 * or the rollback-only flag; this will already have been handled before.
+	 * Usually, a straight commit will be performed on the transaction object
+	 * contained in the passed-in status.
+	 * @param synchronizationManager the synchronization manager bound to the
+	 * current transaction context
+	 * @param status the status representation of the transaction
+	 * @see GenericReactiveTransaction#getTransaction
+	 */
+	protected abstract Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status);
+
+	/**
+	 * Perform an actual rollback of the given transaction.
+	 * <p>An implementation does not need to check the "new transaction" flag;
+	 * this will already have been handled before. Usually, a straight rollback
+	 * will be performed on the transaction object contained in the passed-in status.
+	 * @param synchronizationManager the synchronization manager bound to the
+	 * current transaction context
+	 * @param status the status representation of the transaction
+	 * @see GenericReactiveTransaction#getTransaction
+	 */
+	protected abstract Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status);
+
+	/**
+	 * Set the given transaction rollback-only. Only called on rollback
+	 * if the current transaction participates in an existing one.
+	 * <p>The default implementation emits an IllegalTransactionStateException,
+	 * assuming that participating in existing transactions is generally not
+	 * supported. Subclasses are of course encouraged to provide such support.
+	 * @param synchronizationManager the synchronization manager bound to the
+	 * current transaction context
+	 * @param status the status representation of the transaction
+	 */
+	protected Mono<Void> doSetRollbackOnly(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		return Mono.error(new IllegalTransactionStateException(
+				"Participating in existing transactions is not supported - when 'isExistingTransaction' " +
+				"returns true, appropriate 'doSetRollbackOnly' behavior must be provided"));
+	}
+
+	/**
+	 * Cleanup resources after transaction completion.
+	 * <p>Called after {@code doCommit} and {@code doRollback} execution,
+	 * on any outcome. The default implementation does nothing.
+	 * <p>Should not throw any exceptions but just issue warnings on errors.
+	 * @param synchronizationManager the synchronization manager bound to the
+	 * current transaction context
+	 * @param transaction transaction object returned by {@code doGetTransaction}
+	 */
+	protected Mono<Void> doCleanupAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+			Object transaction) {
+
+		return Mono.empty();
+	}
+
+
+	/**
+	 * Holder for suspended resources.
+	 * Used internally by {@code suspend} and {@code resume}.
+	 */
+	protected static final class SuspendedResourcesHolder {
+
+		private final Object suspendedResources;
+
+		@Nullable
+		private final String name;
+
+		private final boolean readOnly;
+
+		@Nullable
+		private final Integer isolationLevel;
+
+		private final boolean wasActive;
+
+		private SuspendedResourcesHolder(Object suspendedResources, @Nullable String name,
+				boolean readOnly, @Nullable Integer isolationLevel, boolean wasActive) {
+
+			this.suspendedResources = suspendedResources;
+			this.name = name;
+			this.readOnly = readOnly;
+			this.isolationLevel = isolationLevel;
+			this.wasActive = wasActive;
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Mutable transaction context that encapsulates transactional resources and
+ * the characteristics of the current transaction. This is the reactive
+ * equivalent of the thread-bound state held by
+ * {@link org.springframework.transaction.support.TransactionSynchronizationManager}.
+ *
+ * <p>A context is created per subscription of a transactional pipeline and
+ * travels with the Reactor subscriber context. A nested transactional pipeline
+ * gets a child context which starts out with the resources and characteristics
+ * of its parent: participating in the enclosing transaction works on the same
+ * resource objects, whereas suspending it only affects the child context.
+ *
+ * @since 5.1
+ * @see TransactionContextManager
+ * @see TransactionSynchronizationManager
+ */
+public class TransactionContext {
+
+	@Nullable
+	private final TransactionContext parent;
+
+	private final Map<Object, Object> resources;
+
+	@Nullable
+	private volatile String currentTransactionName;
+
+	private volatile boolean currentTransactionReadOnly;
+
+	@Nullable
+	private volatile Integer currentTransactionIsolationLevel;
+
+	private volatile boolean actualTransactionActive;
+
+
+	/**
+	 * Create a new root context.
+	 */
+	public TransactionContext() {
+		this.parent = null;
+		this.resources = new ConcurrentHashMap<>(4);
+	}
+
+	/**
+	 * Create a new child context for a pipeline nested in the one of the given
+	 * parent context, starting out with a copy of the parent's resources and
+	 * transaction characteristics.
+	 * @param parent the context of the enclosing pipeline
+	 */
+	public TransactionContext(TransactionContext parent) {
+		this.parent = parent;
+		this.resources = new ConcurrentHashMap<>(parent.getResources());
+		this.currentTransactionName = parent.getCurrentTransactionName();
+		this.currentTransactionReadOnly = parent.isCurrentTransactionReadOnly();
+		this.currentTransactionIsolationLevel = parent.getCurrentTransactionIsolationLevel();
+		this.actualTransactionActive = parent.isActualTransactionActive();
+	}
+
+
+	/**
+	 * Return the context of the enclosing pipeline, if any.
+	 */
+	@Nullable
+	public TransactionContext getParent() {
+		return this.parent;
+	}
+
+	Map<Object, Object> getResources() {
+		return this.resources;
+	}
+
+	public void setCurrentTransactionName(@Nullable String currentTransactionName) {
+		this.currentTransactionName = currentTransactionName;
+	}
+
+	@Nullable
+	public String getCurrentTransactionName() {
+		return this.currentTransactionName;
+	}
+
+	public void setCurrentTransactionReadOnly(boolean currentTransactionReadOnly) {
+		this.currentTransactionReadOnly = currentTransactionReadOnly;
+	}
+
+	public boolean isCurrentTransactionReadOnly() {
+		return this.currentTransactionReadOnly;
+	}
+
+	public void setCurrentTransactionIsolationLevel(@Nullable Integer currentTransactionIsolationLevel) {
+		this.currentTransactionIsolationLevel = currentTransactionIsolationLevel;
+	}
+
+	@Nullable
+	public Integer getCurrentTransactionIsolationLevel() {
+		return this.currentTransactionIsolationLevel;
+	}
+
+	public void setActualTransactionActive(boolean actualTransactionActive) {
+		this.actualTransactionActive = actualTransactionActive;
+	}
+
+	public boolean isActualTransactionActive() {
+		return this.actualTransactionActive;
+	}
+
+	/**
+	 * Clear the transaction characteristics held by this context.
+	 * <p>Bound resources are not affected: they need to be unbound
+	 * by the transaction manager that bound them.
+	 */
+	public void clear() {
+		this.currentTransactionName = null;
+		this.currentTransactionReadOnly = false;
+		this.currentTransactionIsolationLevel = null;
+		this.actualTransactionActive = false;
+	}
+
+}
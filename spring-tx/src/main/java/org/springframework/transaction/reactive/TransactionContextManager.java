@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.util.function.Function;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import org.springframework.transaction.NoTransactionException;
+
+/**
+ * Delegate to register and obtain the {@link TransactionContext} held in the
+ * Reactor subscriber context of a transactional pipeline.
+ *
+ * <p>Transactional operators apply {@link #createContext()} to the
+ * subscriber context of the pipelines that they decorate; code executed within
+ * such a pipeline obtains the context through {@link #currentContext()}.
+ *
+ * @since 5.1
+ * @see TransactionalOperator
+ * @see TransactionSynchronizationManager#forCurrentTransaction()
+ */
+public abstract class TransactionContextManager {
+
+	/**
+	 * Obtain the current {@link TransactionContext} from the subscriber context.
+	 * @return the current context, or an error signal with a
+	 * {@link NoTransactionException} if no context has been registered
+	 */
+	public static Mono<TransactionContext> currentContext() {
+		return Mono.subscriberContext().flatMap(context -> {
+			if (context.hasKey(TransactionContext.class)) {
+				return Mono.just(context.get(TransactionContext.class));
+			}
+			return Mono.error(new NoTransactionException("No TransactionContext in subscriber context"));
+		});
+	}
+
+	/**
+	 * Return a function that registers a new {@link TransactionContext} in the
+	 * subscriber context: a child of the current context if one has been
+	 * registered already, or a root context otherwise. Since the function is
+	 * applied per subscription, each subscription of a transactional pipeline
+	 * gets its own context, so that suspending and resuming a transaction in
+	 * a nested pipeline (e.g. for {@code PROPAGATION_REQUIRES_NEW} within a
+	 * {@code flatMap}) does not affect the enclosing or concurrent pipelines.
+	 * @see TransactionContext#TransactionContext(TransactionContext)
+	 * @see Mono#subscriberContext(Function)
+	 */
+	public static Function<Context, Context> createContext() {
+		return context -> context.put(TransactionContext.class, (context.hasKey(TransactionContext.class) ?
+				new TransactionContext(context.get(TransactionContext.class)) : new TransactionContext()));
+	}
+
+}
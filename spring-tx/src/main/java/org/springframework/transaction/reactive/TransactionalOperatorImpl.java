@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.util.Assert;
+
+/**
+ * Operator implementation that simplifies programmatic transaction demarcation
+ * and transaction exception handling.
+ *
+ * @since 5.1
+ * @see #execute
+ * @see ReactiveTransactionManager
+ */
+final class TransactionalOperatorImpl implements TransactionalOperator {
+
+	private static final Log logger = LogFactory.getLog(TransactionalOperatorImpl.class);
+
+	private final ReactiveTransactionManager transactionManager;
+
+	private final TransactionDefinition transactionDefinition;
+
+
+	TransactionalOperatorImpl(ReactiveTransactionManager transactionManager,
+			TransactionDefinition transactionDefinition) {
+
+		Assert.notNull(transactionManager, "ReactiveTransactionManager must not be null");
+		Assert.notNull(transactionDefinition, "TransactionDefinition must not be null");
+		this.transactionManager = transactionManager;
+		this.transactionDefinition = transactionDefinition;
+	}
+
+
+	@Override
+	public <T> Flux<T> transactional(Flux<T> flux) {
+		return execute(status -> flux);
+	}
+
+	@Override
+	public <T> Mono<T> transactional(Mono<T> mono) {
+		// Not Mono.from(Flux), which would cancel the pipeline after the first element
+		return execute(status -> mono).singleOrEmpty();
+	}
+
+	@Override
+	public <T> Flux<T> execute(TransactionCallback<T> action) throws TransactionException {
+		return Mono.subscriberContext().flatMapMany(context ->
+				this.transactionManager.getReactiveTransaction(this.transactionDefinition).flatMapMany(status -> {
+					// Whichever of commit, rollback on error or rollback on cancel comes first
+					AtomicBoolean completing = new AtomicBoolean();
+					return Flux.defer(() -> action.doInTransaction(status))
+							.onErrorResume(ex -> (completing.compareAndSet(false, true) ?
+									rollbackOnException(status, ex) : Mono.<Void>empty()).then(Mono.error(ex)))
+							.concatWith(Mono.defer(() -> (completing.compareAndSet(false, true) ?
+									this.transactionManager.commit(status) : Mono.<Void>empty())).then(Mono.empty()))
+							.doOnCancel(() -> {
+								if (completing.compareAndSet(false, true)) {
+									rollbackOnCancel(status).subscriberContext(context)
+											.subscribe(null, ex -> logger.error("Rollback on cancel failed", ex));
+								}
+							});
+				}))
+				.subscriberContext(TransactionContextManager.createContext());
+	}
+
+	/**
+	 * Perform a rollback, handling rollback exceptions properly.
+	 * @param status object representing the transaction
+	 * @param ex the thrown application exception or error
+	 */
+	private Mono<Void> rollbackOnException(ReactiveTransaction status, Throwable ex) {
+		logger.debug("Initiating transaction rollback on application exception", ex);
+		return this.transactionManager.rollback(status).onErrorMap(ex2 -> {
+			logger.error("Application exception overridden by rollback exception", ex);
+			if (ex2 instanceof TransactionSystemException) {
+				((TransactionSystemException) ex2).initApplicationException(ex);
+			}
+			return ex2;
+		});
+	}
+
+	/**
+	 * Roll back the given transaction after the subscription has been
+	 * cancelled, unless the transaction has completed already.
+	 * Only called if neither commit nor rollback has been initiated before.
+	 */
+	private Mono<Void> rollbackOnCancel(ReactiveTransaction status) {
+		if (status.isCompleted()) {
+			return Mono.empty();
+		}
+		logger.debug("Initiating transaction rollback on cancellation");
+		return this.transactionManager.rollback(status);
+	}
+
+}
@@ -0,0 +1,13 @@
+/**
+ * Support classes for reactive transaction management.
+ * Provides a reactive transaction context that is propagated through the
+ * Reactor subscriber context instead of thread-bound state, an abstract base
+ * class for reactive transaction manager implementations, and a transactional
+ * operator for programmatic transaction demarcation.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.transaction.reactive;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
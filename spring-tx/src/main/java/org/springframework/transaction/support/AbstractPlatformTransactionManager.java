@@ -526,13 +526,10 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 	 */
 	protected void prepareSynchronization(DefaultTransactionStatus status, TransactionDefinition definition) {
 		if (status.isNewSynchronization()) {
-			TransactionSynchronizationManager.setActualTransactionActive(status.hasTransaction());
-			TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(
+			TransactionSynchronizationManager.initTransaction(definition.getName(), definition.isReadOnly(),
 					definition.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT ?
-							definition.getIsolationLevel() : null);
-			TransactionSynchronizationManager.setCurrentTransactionReadOnly(definition.isReadOnly());
-			TransactionSynchronizationManager.setCurrentTransactionName(definition.getName());
-			TransactionSynchronizationManager.initSynchronization();
+							definition.getIsolationLevel() : null,
+					status.hasTransaction());
 		}
 	}
 
@@ -572,16 +569,10 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 				if (transaction != null) {
 					suspendedResources = doSuspend(transaction);
 				}
-				String name = TransactionSynchronizationManager.getCurrentTransactionName();
-				TransactionSynchronizationManager.setCurrentTransactionName(null);
-				boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
-				TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
-				Integer isolationLevel = TransactionSynchronizationManager.getCurrentTransactionIsolationLevel();
-				TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(null);
-				boolean wasActive = TransactionSynchronizationManager.isActualTransactionActive();
-				TransactionSynchronizationManager.setActualTransactionActive(false);
+				TransactionSynchronizationManager.TransactionState suspendedCharacteristics =
+						TransactionSynchronizationManager.suspendCharacteristics();
 				return new SuspendedResourcesHolder(
-						suspendedResources, suspendedSynchronizations, name, readOnly, isolationLevel, wasActive);
+						suspendedResources, suspendedSynchronizations, suspendedCharacteristics);
 			}
 			catch (RuntimeException | Error ex) {
 				// doSuspend failed - original transaction is still active...
@@ -619,11 +610,10 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 				doResume(transaction, suspendedResources);
 			}
 			List<TransactionSynchronization> suspendedSynchronizations = resourcesHolder.suspendedSynchronizations;
-			if (suspendedSynchronizations != null) {
-				TransactionSynchronizationManager.setActualTransactionActive(resourcesHolder.wasActive);
-				TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(resourcesHolder.isolationLevel);
-				TransactionSynchronizationManager.setCurrentTransactionReadOnly(resourcesHolder.readOnly);
-				TransactionSynchronizationManager.setCurrentTransactionName(resourcesHolder.name);
+			TransactionSynchronizationManager.TransactionState suspendedCharacteristics =
+					resourcesHolder.suspendedCharacteristics;
+			if (suspendedSynchronizations != null && suspendedCharacteristics != null) {
+				TransactionSynchronizationManager.resumeCharacteristics(suspendedCharacteristics);
 				doResumeSynchronization(suspendedSynchronizations);
 			}
 		}
@@ -1278,14 +1268,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 		private List<TransactionSynchronization> suspendedSynchronizations;
 
 		@Nullable
-		private String name;
-
-		private boolean readOnly;
-
-		@Nullable
-		private Integer isolationLevel;
-
-		private boolean wasActive;
+		private TransactionSynchronizationManager.TransactionState suspendedCharacteristics;
 
 		private SuspendedResourcesHolder(Object suspendedResources) {
 			this.suspendedResources = suspendedResources;
@@ -1293,14 +1276,11 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 
 		private SuspendedResourcesHolder(
 				@Nullable Object suspendedResources, List<TransactionSynchronization> suspendedSynchronizations,
-				@Nullable String name, boolean readOnly, @Nullable Integer isolationLevel, boolean wasActive) {
+				TransactionSynchronizationManager.TransactionState suspendedCharacteristics) {
 
 			this.suspendedResources = suspendedResources;
 			this.suspendedSynchronizations = suspendedSynchronizations;
-			this.name = name;
-			this.readOnly = readOnly;
-			this.isolationLevel = isolationLevel;
-			this.wasActive = wasActive;
+			this.suspendedCharacteristics = suspendedCharacteristics;
 		}
 	}
 
@@ -17,12 +17,11 @@
 package org.springframework.transaction.support;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -64,6 +63,11 @@ import org.springframework.util.Assert;
  * within a JTA transaction, e.g. a JDBC Connection or a Hibernate Session for
  * any given DataSource or SessionFactory, respectively.
  *
+ * <p>As of 5.1, all of this state is kept in a single holder object per thread,
+ * with resources held in a small array-based map: a transaction typically binds
+ * just one or two resources, which are then found without hashing. The holder
+ * is removed from the thread once all of its state has been cleared.
+ *
  * @author Juergen Hoeller
  * @since 02.06.2003
  * @see #isSynchronizationActive
@@ -78,23 +82,40 @@ public abstract class TransactionSynchronizationManager {
 
 	private static final Log logger = LogFactory.getLog(TransactionSynchronizationManager.class);
 
-	private static final ThreadLocal<Map<Object, Object>> resources =
-			new NamedThreadLocal<>("Transactional resources");
-
-	private static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
-			new NamedThreadLocal<>("Transaction synchronizations");
+	private static final ThreadLocal<TransactionState> transactionState =
+			new NamedThreadLocal<>("Current transaction state");
 
-	private static final ThreadLocal<String> currentTransactionName =
-			new NamedThreadLocal<>("Current transaction name");
 
-	private static final ThreadLocal<Boolean> currentTransactionReadOnly =
-			new NamedThreadLocal<>("Current transaction read-only status");
+	/**
+	 * Return the transaction state holder for the current thread, if any.
+	 */
+	@Nullable
+	private static TransactionState getTransactionState() {
+		return transactionState.get();
+	}
 
-	private static final ThreadLocal<Integer> currentTransactionIsolationLevel =
-			new NamedThreadLocal<>("Current transaction isolation level");
+	/**
+	 * Return the transaction state holder for the current thread,
+	 * creating and binding a new holder if necessary.
+	 */
+	private static TransactionState obtainTransactionState() {
+		TransactionState state = transactionState.get();
+		if (state == null) {
+			state = new TransactionState();
+			transactionState.set(state);
+		}
+		return state;
+	}
 
-	private static final ThreadLocal<Boolean> actualTransactionActive =
-			new NamedThreadLocal<>("Actual transaction active");
+	/**
+	 * Remove the given transaction state holder from the current thread
+	 * if it does not hold any state anymore.
+	 */
+	private static void removeIfEmpty(TransactionState state) {
+		if (state.isEmpty()) {
+			transactionState.remove();
+		}
+	}
 
 
 	//-------------------------------------------------------------------------
@@ -111,8 +132,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #hasResource
 	 */
 	public static Map<Object, Object> getResourceMap() {
-		Map<Object, Object> map = resources.get();
-		return (map != null ? Collections.unmodifiableMap(map) : Collections.emptyMap());
+		TransactionState state = getTransactionState();
+		return (state != null ? state.getResourceMap() : Collections.emptyMap());
 	}
 
 	/**
@@ -122,9 +143,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see ResourceTransactionManager#getResourceFactory()
 	 */
 	public static boolean hasResource(Object key) {
-		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
-		Object value = doGetResource(actualKey);
-		return (value != null);
+		TransactionState state = getTransactionState();
+		return (state != null && doGetResource(state, key) != null);
 	}
 
 	/**
@@ -136,9 +156,13 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static Object getResource(Object key) {
-		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
-		Object value = doGetResource(actualKey);
+		TransactionState state = getTransactionState();
+		if (state == null) {
+			return null;
+		}
+		Object value = doGetResource(state, key);
 		if (value != null && logger.isTraceEnabled()) {
+			Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 			logger.trace("Retrieved value [" + value + "] for key [" + actualKey + "] bound to thread [" +
 					Thread.currentThread().getName() + "]");
 		}
@@ -149,19 +173,17 @@ public abstract class TransactionSynchronizationManager {
 	 * Actually check the value of the resource that is bound for the given key.
 	 */
 	@Nullable
-	private static Object doGetResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+	private static Object doGetResource(TransactionState state, Object key) {
+		int index = state.indexOfResource(key);
+		if (index < 0) {
 			return null;
 		}
-		Object value = map.get(actualKey);
+		Object value = state.getResourceValue(index);
 		// Transparently remove ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
-			map.remove(actualKey);
+			state.removeResource(index);
 			// Remove entire ThreadLocal if empty...
-			if (map.isEmpty()) {
-				resources.remove();
-			}
+			removeIfEmpty(state);
 			value = null;
 		}
 		return value;
@@ -177,13 +199,7 @@ public abstract class TransactionSynchronizationManager {
 	public static void bindResource(Object key, Object value) throws IllegalStateException {
 		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 		Assert.notNull(value, "Value must not be null");
-		Map<Object, Object> map = resources.get();
-		// set ThreadLocal Map if none found
-		if (map == null) {
-			map = new HashMap<>();
-			resources.set(map);
-		}
-		Object oldValue = map.put(actualKey, value);
+		Object oldValue = obtainTransactionState().putResource(actualKey, value, (actualKey == key));
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (oldValue instanceof ResourceHolder && ((ResourceHolder) oldValue).isVoid()) {
 			oldValue = null;
@@ -206,9 +222,9 @@ public abstract class TransactionSynchronizationManager {
 	 * @see ResourceTransactionManager#getResourceFactory()
 	 */
 	public static Object unbindResource(Object key) throws IllegalStateException {
-		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
-		Object value = doUnbindResource(actualKey);
+		Object value = doUnbindResource(key);
 		if (value == null) {
+			Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 			throw new IllegalStateException(
 					"No value for key [" + actualKey + "] bound to thread [" + Thread.currentThread().getName() + "]");
 		}
@@ -222,29 +238,32 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static Object unbindResourceIfPossible(Object key) {
-		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
-		return doUnbindResource(actualKey);
+		return doUnbindResource(key);
 	}
 
 	/**
 	 * Actually remove the value of the resource that is bound for the given key.
 	 */
 	@Nullable
-	private static Object doUnbindResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+	private static Object doUnbindResource(Object key) {
+		TransactionState state = getTransactionState();
+		if (state == null) {
 			return null;
 		}
-		Object value = map.remove(actualKey);
-		// Remove entire ThreadLocal if empty...
-		if (map.isEmpty()) {
-			resources.remove();
+		int index = state.indexOfResource(key);
+		if (index < 0) {
+			return null;
 		}
+		Object value = state.getResourceValue(index);
+		state.removeResource(index);
+		// Remove entire ThreadLocal if empty...
+		removeIfEmpty(state);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
 			value = null;
 		}
 		if (value != null && logger.isTraceEnabled()) {
+			Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 			logger.trace("Removed value [" + value + "] for key [" + actualKey + "] from thread [" +
 					Thread.currentThread().getName() + "]");
 		}
@@ -262,7 +281,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #registerSynchronization
 	 */
 	public static boolean isSynchronizationActive() {
-		return (synchronizations.get() != null);
+		TransactionState state = getTransactionState();
+		return (state != null && state.synchronizations != null);
 	}
 
 	/**
@@ -271,11 +291,7 @@ public abstract class TransactionSynchronizationManager {
 	 * @throws IllegalStateException if synchronization is already active
 	 */
 	public static void initSynchronization() throws IllegalStateException {
-		if (isSynchronizationActive()) {
-			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
-		}
-		logger.trace("Initializing transaction synchronization");
-		synchronizations.set(new LinkedHashSet<>());
+		obtainTransactionState().initSynchronization();
 	}
 
 	/**
@@ -292,10 +308,14 @@ public abstract class TransactionSynchronizationManager {
 			throws IllegalStateException {
 
 		Assert.notNull(synchronization, "TransactionSynchronization must not be null");
-		if (!isSynchronizationActive()) {
+		TransactionState state = getTransactionState();
+		List<TransactionSynchronization> synchs = (state != null ? state.synchronizations : null);
+		if (synchs == null) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
-		synchronizations.get().add(synchronization);
+		if (!synchs.contains(synchronization)) {
+			synchs.add(synchronization);
+		}
 	}
 
 	/**
@@ -306,7 +326,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization
 	 */
 	public static List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
-		Set<TransactionSynchronization> synchs = synchronizations.get();
+		TransactionState state = getTransactionState();
+		List<TransactionSynchronization> synchs = (state != null ? state.synchronizations : null);
 		if (synchs == null) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
@@ -316,6 +337,9 @@ public abstract class TransactionSynchronizationManager {
 		if (synchs.isEmpty()) {
 			return Collections.emptyList();
 		}
+		else if (synchs.size() == 1) {
+			return Collections.singletonList(synchs.get(0));
+		}
 		else {
 			// Sort lazily here, not in registerSynchronization.
 			List<TransactionSynchronization> sortedSynchs = new ArrayList<>(synchs);
@@ -330,11 +354,13 @@ public abstract class TransactionSynchronizationManager {
 	 * @throws IllegalStateException if synchronization is not active
 	 */
 	public static void clearSynchronization() throws IllegalStateException {
-		if (!isSynchronizationActive()) {
+		TransactionState state = getTransactionState();
+		if (state == null || state.synchronizations == null) {
 			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
 		}
 		logger.trace("Clearing transaction synchronization");
-		synchronizations.remove();
+		state.synchronizations = null;
+		removeIfEmpty(state);
 	}
 
 
@@ -349,7 +375,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getName()
 	 */
 	public static void setCurrentTransactionName(@Nullable String name) {
-		currentTransactionName.set(name);
+		TransactionState state = (name != null ? obtainTransactionState() : getTransactionState());
+		if (state != null) {
+			state.currentTransactionName = name;
+			removeIfEmpty(state);
+		}
 	}
 
 	/**
@@ -360,7 +390,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static String getCurrentTransactionName() {
-		return currentTransactionName.get();
+		TransactionState state = getTransactionState();
+		return (state != null ? state.currentTransactionName : null);
 	}
 
 	/**
@@ -371,7 +402,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#isReadOnly()
 	 */
 	public static void setCurrentTransactionReadOnly(boolean readOnly) {
-		currentTransactionReadOnly.set(readOnly ? Boolean.TRUE : null);
+		TransactionState state = (readOnly ? obtainTransactionState() : getTransactionState());
+		if (state != null) {
+			state.currentTransactionReadOnly = readOnly;
+			removeIfEmpty(state);
+		}
 	}
 
 	/**
@@ -387,7 +422,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization#beforeCommit(boolean)
 	 */
 	public static boolean isCurrentTransactionReadOnly() {
-		return (currentTransactionReadOnly.get() != null);
+		TransactionState state = getTransactionState();
+		return (state != null && state.currentTransactionReadOnly);
 	}
 
 	/**
@@ -407,7 +443,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
 	 */
 	public static void setCurrentTransactionIsolationLevel(@Nullable Integer isolationLevel) {
-		currentTransactionIsolationLevel.set(isolationLevel);
+		TransactionState state = (isolationLevel != null ? obtainTransactionState() : getTransactionState());
+		if (state != null) {
+			state.currentTransactionIsolationLevel = isolationLevel;
+			removeIfEmpty(state);
+		}
 	}
 
 	/**
@@ -429,7 +469,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static Integer getCurrentTransactionIsolationLevel() {
-		return currentTransactionIsolationLevel.get();
+		TransactionState state = getTransactionState();
+		return (state != null ? state.currentTransactionIsolationLevel : null);
 	}
 
 	/**
@@ -439,7 +480,11 @@ public abstract class TransactionSynchronizationManager {
 	 * with an actual transaction; {@code false} to reset that marker
 	 */
 	public static void setActualTransactionActive(boolean active) {
-		actualTransactionActive.set(active ? Boolean.TRUE : null);
+		TransactionState state = (active ? obtainTransactionState() : getTransactionState());
+		if (state != null) {
+			state.actualTransactionActive = active;
+			removeIfEmpty(state);
+		}
 	}
 
 	/**
@@ -454,7 +499,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #isSynchronizationActive()
 	 */
 	public static boolean isActualTransactionActive() {
-		return (actualTransactionActive.get() != null);
+		TransactionState state = getTransactionState();
+		return (state != null && state.actualTransactionActive);
 	}
 
 
@@ -468,11 +514,206 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #setActualTransactionActive
 	 */
 	public static void clear() {
-		synchronizations.remove();
-		currentTransactionName.remove();
-		currentTransactionReadOnly.remove();
-		currentTransactionIsolationLevel.remove();
-		actualTransactionActive.remove();
+		TransactionState state = getTransactionState();
+		if (state != null) {
+			state.synchronizations = null;
+			state.clearCharacteristics();
+			removeIfEmpty(state);
+		}
+	}
+
+
+	/**
+	 * Expose the characteristics of a new transaction and activate transaction
+	 * synchronization for the current thread, in a single step.
+	 * Called by {@link AbstractPlatformTransactionManager} on transaction begin.
+	 * @throws IllegalStateException if synchronization is already active
+	 * @see #initSynchronization()
+	 */
+	static void initTransaction(@Nullable String name, boolean readOnly,
+			@Nullable Integer isolationLevel, boolean actualTransactionActive) throws IllegalStateException {
+
+		TransactionState state = obtainTransactionState();
+		state.initSynchronization();
+		state.currentTransactionName = name;
+		state.currentTransactionReadOnly = readOnly;
+		state.currentTransactionIsolationLevel = isolationLevel;
+		state.actualTransactionActive = actualTransactionActive;
+	}
+
+	/**
+	 * Detach the characteristics of the current transaction from the current thread.
+	 * Called by {@link AbstractPlatformTransactionManager} on transaction suspension.
+	 * @return a detached holder for the suspended characteristics
+	 * @see #resumeCharacteristics
+	 */
+	static TransactionState suspendCharacteristics() {
+		TransactionState suspended = new TransactionState();
+		TransactionState state = getTransactionState();
+		if (state != null) {
+			suspended.currentTransactionName = state.currentTransactionName;
+			suspended.currentTransactionReadOnly = state.currentTransactionReadOnly;
+			suspended.currentTransactionIsolationLevel = state.currentTransactionIsolationLevel;
+			suspended.actualTransactionActive = state.actualTransactionActive;
+			state.clearCharacteristics();
+			removeIfEmpty(state);
+		}
+		return suspended;
+	}
+
+	/**
+	 * Re-expose previously suspended transaction characteristics for the current thread.
+	 * Called by {@link AbstractPlatformTransactionManager} on transaction resumption.
+	 * @param suspended the holder returned by {@link #suspendCharacteristics()}
+	 */
+	static void resumeCharacteristics(TransactionState suspended) {
+		TransactionState state = obtainTransactionState();
+		state.currentTransactionName = suspended.currentTransactionName;
+		state.currentTransactionReadOnly = suspended.currentTransactionReadOnly;
+		state.currentTransactionIsolationLevel = suspended.currentTransactionIsolationLevel;
+		state.actualTransactionActive = suspended.actualTransactionActive;
+		removeIfEmpty(state);
+	}
+
+
+	/**
+	 * Holder for the transaction state of a thread: bound resources,
+	 * registered synchronizations, and transaction characteristics.
+	 * <p>Resources are kept in parallel arrays in binding order, looked up by
+	 * identity first and then by equality of the unwrapped resource key.
+	 */
+	static final class TransactionState {
+
+		private static final int INITIAL_RESOURCE_CAPACITY = 4;
+
+		private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
+
+		private static final boolean[] EMPTY_BOOLEAN_ARRAY = new boolean[0];
+
+		private Object[] resourceKeys = EMPTY_OBJECT_ARRAY;
+
+		private Object[] resourceValues = EMPTY_OBJECT_ARRAY;
+
+		/**
+		 * Whether the key at the same index has been bound as given,
+		 * i.e. did not need unwrapping and can be matched by identity.
+		 */
+		private boolean[] directKeys = EMPTY_BOOLEAN_ARRAY;
+
+		private int resourceCount;
+
+		@Nullable
+		List<TransactionSynchronization> synchronizations;
+
+		@Nullable
+		String currentTransactionName;
+
+		boolean currentTransactionReadOnly;
+
+		@Nullable
+		Integer currentTransactionIsolationLevel;
+
+		boolean actualTransactionActive;
+
+		/**
+		 * Find the index of the resource bound for the given (possibly wrapped) key.
+		 * @return the index, or -1 if none bound
+		 */
+		int indexOfResource(Object key) {
+			if (this.resourceCount == 0) {
+				return -1;
+			}
+			for (int i = 0; i < this.resourceCount; i++) {
+				if (this.resourceKeys[i] == key && this.directKeys[i]) {
+					return i;
+				}
+			}
+			return indexOfActualKey(TransactionSynchronizationUtils.unwrapResourceIfNecessary(key));
+		}
+
+		private int indexOfActualKey(Object actualKey) {
+			for (int i = 0; i < this.resourceCount; i++) {
+				Object candidate = this.resourceKeys[i];
+				if (candidate == actualKey || candidate.equals(actualKey)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		Object getResourceValue(int index) {
+			return this.resourceValues[index];
+		}
+
+		/**
+		 * Bind the given value for the given (unwrapped) key, replacing an existing value.
+		 * @return the previously bound value, or {@code null} if none
+		 */
+		@Nullable
+		Object putResource(Object actualKey, Object value, boolean directKey) {
+			int index = indexOfActualKey(actualKey);
+			if (index >= 0) {
+				Object oldValue = this.resourceValues[index];
+				this.resourceValues[index] = value;
+				this.directKeys[index] = directKey;
+				return oldValue;
+			}
+			if (this.resourceCount == this.resourceKeys.length) {
+				int newCapacity = Math.max(this.resourceCount * 2, INITIAL_RESOURCE_CAPACITY);
+				this.resourceKeys = Arrays.copyOf(this.resourceKeys, newCapacity);
+				this.resourceValues = Arrays.copyOf(this.resourceValues, newCapacity);
+				this.directKeys = Arrays.copyOf(this.directKeys, newCapacity);
+			}
+			this.resourceKeys[this.resourceCount] = actualKey;
+			this.resourceValues[this.resourceCount] = value;
+			this.directKeys[this.resourceCount] = directKey;
+			this.resourceCount++;
+			return null;
+		}
+
+		void removeResource(int index) {
+			int last = this.resourceCount - 1;
+			if (index < last) {
+				System.arraycopy(this.resourceKeys, index + 1, this.resourceKeys, index, last - index);
+				System.arraycopy(this.resourceValues, index + 1, this.resourceValues, index, last - index);
+				System.arraycopy(this.directKeys, index + 1, this.directKeys, index, last - index);
+			}
+			this.resourceKeys[last] = null;
+			this.resourceValues[last] = null;
+			this.resourceCount = last;
+		}
+
+		Map<Object, Object> getResourceMap() {
+			if (this.resourceCount == 0) {
+				return Collections.emptyMap();
+			}
+			Map<Object, Object> map = new LinkedHashMap<>(this.resourceCount * 2);
+			for (int i = 0; i < this.resourceCount; i++) {
+				map.put(this.resourceKeys[i], this.resourceValues[i]);
+			}
+			return Collections.unmodifiableMap(map);
+		}
+
+		void initSynchronization() {
+			if (this.synchronizations != null) {
+				throw new IllegalStateException("Cannot activate transaction synchronization - already active");
+			}
+			logger.trace("Initializing transaction synchronization");
+			this.synchronizations = new ArrayList<>(4);
+		}
+
+		void clearCharacteristics() {
+			this.currentTransactionName = null;
+			this.currentTransactionReadOnly = false;
+			this.currentTransactionIsolationLevel = null;
+			this.actualTransactionActive = false;
+		}
+
+		boolean isEmpty() {
+			return (this.resourceCount == 0 && this.synchronizations == null &&
+					this.currentTransactionName == null && !this.currentTransactionReadOnly &&
+					this.currentTransactionIsolationLevel == null && !this.actualTransactionActive);
+		}
 	}
 
 }
@@ -21,6 +21,7 @@ import java.io.Serializable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.ejb.TransactionAttributeType;
 
 import groovy.lang.GroovyObject;
@@ -30,7 +31,9 @@ import org.junit.Test;
 import org.springframework.aop.framework.Advised;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.tests.transaction.CallCountingTransactionManager;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
 import org.springframework.transaction.interceptor.NoRollbackRuleAttribute;
 import org.springframework.transaction.interceptor.RollbackRuleAttribute;
 import org.springframework.transaction.interceptor.RuleBasedTransactionAttribute;
@@ -384,6 +387,71 @@ public class AnnotationTransactionAttributeSourceTests {
 		assertNull(atas.getTransactionAttribute(getMetaClassMethod, GroovyTestBean.class));
 	}
 
+	@Test
+	public void transactionAttributesResolvedLazilyPerMethod() throws Exception {
+		AtomicInteger computations = new AtomicInteger();
+		AnnotationTransactionAttributeSource atas = new AnnotationTransactionAttributeSource() {
+			@Override
+			protected TransactionAttribute computeTransactionAttribute(Method method, @Nullable Class<?> targetClass) {
+				computations.incrementAndGet();
+				return super.computeTransactionAttribute(method, targetClass);
+			}
+		};
+
+		TransactionAttribute getAgeAttr = atas.getTransactionAttribute(ITestBean1.class.getMethod("getAge"), TestBean1.class);
+		assertNotNull(getAgeAttr);
+		assertEquals(TestBean1.class.getName() + ".getAge", ((DefaultTransactionAttribute) getAgeAttr).getDescriptor());
+		assertEquals(1, computations.get());
+
+		assertSame(getAgeAttr, atas.getTransactionAttribute(ITestBean1.class.getMethod("getAge"), TestBean1.class));
+		assertEquals(1, computations.get());
+		assertNull(atas.getTransactionAttribute(TestBean1.class.getMethod("setName", String.class), TestBean1.class));
+		assertNull(atas.getTransactionAttribute(TestBean1.class.getMethod("setName", String.class), TestBean1.class));
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	public void transactionAttributeResolutionFailureNotCached() throws Exception {
+		AtomicInteger computations = new AtomicInteger();
+		AnnotationTransactionAttributeSource atas = new AnnotationTransactionAttributeSource() {
+			@Override
+			protected TransactionAttribute computeTransactionAttribute(Method method, @Nullable Class<?> targetClass) {
+				if (computations.incrementAndGet() == 1) {
+					throw new IllegalStateException("Resolution failure");
+				}
+				return super.computeTransactionAttribute(method, targetClass);
+			}
+		};
+		Method getAge = ITestBean1.class.getMethod("getAge");
+
+		try {
+			atas.getTransactionAttribute(getAge, TestBean1.class);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("Resolution failure", ex.getMessage());
+		}
+		assertNotNull(atas.getTransactionAttribute(getAge, TestBean1.class));
+		assertEquals(2, computations.get());
+	}
+
+	@Test
+	public void customCacheKeyHonored() throws Exception {
+		AtomicInteger keyLookups = new AtomicInteger();
+		AnnotationTransactionAttributeSource atas = new AnnotationTransactionAttributeSource() {
+			@Override
+			protected Object getCacheKey(Method method, @Nullable Class<?> targetClass) {
+				keyLookups.incrementAndGet();
+				return method;
+			}
+		};
+		Method getAge = ITestBean1.class.getMethod("getAge");
+
+		assertNotNull(atas.getTransactionAttribute(getAge, TestBean1.class));
+		assertNotNull(atas.getTransactionAttribute(getAge, TestBean1.class));
+		assertEquals(2, keyLookups.get());
+	}
+
 
 	interface ITestBean1 {
 
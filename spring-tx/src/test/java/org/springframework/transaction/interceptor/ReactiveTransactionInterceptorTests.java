@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.interceptor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.tests.transaction.CallCountingTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.ReactiveTestTransactionManager;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TransactionInterceptor} with methods returning reactive types,
+ * driven by a {@link org.springframework.transaction.ReactiveTransactionManager}.
+ */
+public class ReactiveTransactionInterceptorTests {
+
+	private final ReactiveTestTransactionManager rtm = new ReactiveTestTransactionManager();
+
+	private final CallCountingTransactionManager ptm = new CallCountingTransactionManager();
+
+	private final DefaultReactiveService target = new DefaultReactiveService();
+
+
+	@Test
+	public void monoCommits() {
+		ReactiveService service = advised(interceptor());
+		StepVerifier.create(service.findOne()).expectNext(true).verifyComplete();
+		assertEquals(1, this.rtm.getBeginCount());
+		assertEquals(1, this.rtm.getCommitCount());
+		assertEquals(0, this.ptm.begun);
+	}
+
+	@Test
+	public void fluxCommits() {
+		ReactiveService service = advised(interceptor());
+		StepVerifier.create(service.findAll()).expectNext(true, true).verifyComplete();
+		assertEquals(1, this.rtm.getCommitCount());
+		assertEquals(0, this.rtm.getRollbackCount());
+	}
+
+	@Test
+	public void invocationDeferredUntilSubscription() {
+		ReactiveService service = advised(interceptor());
+		Mono<Boolean> result = service.findOne();
+		assertEquals(0, this.target.invocations.get());
+		assertEquals(0, this.rtm.getBeginCount());
+		StepVerifier.create(result).expectNext(true).verifyComplete();
+		assertEquals(1, this.target.invocations.get());
+	}
+
+	@Test
+	public void runtimeExceptionRollsBack() {
+		ReactiveService service = advised(interceptor());
+		StepVerifier.create(service.fail(new IllegalStateException())).verifyError(IllegalStateException.class);
+		assertEquals(0, this.rtm.getCommitCount());
+		assertEquals(1, this.rtm.getRollbackCount());
+	}
+
+	@Test
+	public void checkedExceptionCommits() {
+		ReactiveService service = advised(interceptor());
+		StepVerifier.create(service.fail(new Exception())).verifyError(Exception.class);
+		assertEquals(1, this.rtm.getCommitCount());
+		assertEquals(0, this.rtm.getRollbackCount());
+	}
+
+	@Test
+	public void cancelRollsBack() {
+		ReactiveService service = advised(interceptor());
+		StepVerifier.create(service.findAll().take(1)).expectNext(true).verifyComplete();
+		assertEquals(0, this.rtm.getCommitCount());
+		assertEquals(1, this.rtm.getRollbackCount());
+	}
+
+	@Test
+	public void cancelAfterCommitStartedDoesNotRollBack() throws Exception {
+		ReactiveTestTransactionManager rtm = new ReactiveTestTransactionManager() {
+			@Override
+			protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+					GenericReactiveTransaction status) {
+				return Mono.delay(Duration.ofMillis(50)).then(super.doCommit(synchronizationManager, status));
+			}
+		};
+		TransactionInterceptor ti = interceptor();
+		ti.setReactiveTransactionManager(rtm);
+		ReactiveService service = advised(ti);
+
+		Disposable subscription = service.findOne().subscribe();
+		subscription.dispose();
+		Thread.sleep(100);
+		assertEquals(1, rtm.getBeginCount());
+		assertEquals(0, rtm.getRollbackCount());
+	}
+
+	@Test
+	public void requiresNewWithinFlatMap() {
+		TransactionInterceptor ti = interceptor();
+		MatchAlwaysTransactionAttributeSource tas = new MatchAlwaysTransactionAttributeSource();
+		DefaultTransactionAttribute attribute = new DefaultTransactionAttribute();
+		attribute.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		tas.setTransactionAttribute(attribute);
+		ti.setTransactionAttributeSource(tas);
+		ReactiveService service = advised(ti);
+
+		Mono<Boolean> outerResourceBound = Flux.range(1, 3)
+				.flatMap(i -> Mono.delay(Duration.ofMillis(10 * i)).then(service.findOne()))
+				.then(TransactionSynchronizationManager.forCurrentTransaction()
+						.map(synchronizationManager -> synchronizationManager.hasResource(this.rtm)));
+		StepVerifier.create(TransactionalOperator.create(this.rtm).transactional(outerResourceBound))
+				.expectNext(true).verifyComplete();
+		assertEquals(4, this.rtm.getBeginCount());
+		assertEquals(3, this.rtm.getResumeCount());
+		assertEquals(4, this.rtm.getCommitCount());
+	}
+
+	@Test
+	public void blockingMethodUsesPlatformTransactionManager() {
+		ReactiveService service = advised(interceptor());
+		assertTrue(service.findBlocking());
+		assertEquals(1, this.ptm.commits);
+		assertEquals(0, this.rtm.getBeginCount());
+	}
+
+	@Test
+	public void reactiveTransactionManagerFromBeanFactory() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("ptm", this.ptm);
+		beanFactory.addBean("rtm", this.rtm);
+		TransactionInterceptor ti = new TransactionInterceptor();
+		ti.setTransactionAttributeSource(new MatchAlwaysTransactionAttributeSource());
+		ti.setBeanFactory(beanFactory);
+		ReactiveService service = advised(ti);
+
+		StepVerifier.create(service.findOne()).expectNext(true).verifyComplete();
+		assertEquals(1, this.rtm.getCommitCount());
+		assertTrue(service.findBlocking());
+		assertEquals(1, this.ptm.commits);
+	}
+
+	@Test
+	public void withoutReactiveTransactionManager() {
+		TransactionInterceptor ti = new TransactionInterceptor();
+		ti.setTransactionAttributeSource(new MatchAlwaysTransactionAttributeSource());
+		ti.setTransactionManager(this.ptm);
+		ReactiveService service = advised(ti);
+
+		StepVerifier.create(service.findOne()).expectNext(false).verifyComplete();
+		assertEquals(1, this.ptm.commits);
+	}
+
+
+	private TransactionInterceptor interceptor() {
+		TransactionInterceptor ti = new TransactionInterceptor(this.ptm, new MatchAlwaysTransactionAttributeSource());
+		ti.setReactiveTransactionManager(this.rtm);
+		return ti;
+	}
+
+	private ReactiveService advised(TransactionInterceptor ti) {
+		ProxyFactory pf = new ProxyFactory(this.target);
+		pf.addAdvice(ti);
+		return (ReactiveService) pf.getProxy();
+	}
+
+
+	public interface ReactiveService {
+
+		Mono<Boolean> findOne();
+
+		Flux<Boolean> findAll();
+
+		Mono<Void> fail(Exception ex);
+
+		boolean findBlocking();
+	}
+
+
+	private class DefaultReactiveService implements ReactiveService {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		@Override
+		public Mono<Boolean> findOne() {
+			this.invocations.incrementAndGet();
+			return hasResource().defaultIfEmpty(false);
+		}
+
+		@Override
+		public Flux<Boolean> findAll() {
+			return Flux.concat(hasResource(), hasResource());
+		}
+
+		@Override
+		public Mono<Void> fail(Exception ex) {
+			return Mono.error(ex);
+		}
+
+		@Override
+		public boolean findBlocking() {
+			return true;
+		}
+
+		private Mono<Boolean> hasResource() {
+			return TransactionSynchronizationManager.forCurrentTransaction()
+					.map(synchronizationManager -> synchronizationManager.hasResource(rtm))
+					.onErrorResume(ex -> Mono.empty());
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SmartTransactionObject;
+
+/**
+ * Test implementation of {@link AbstractReactiveTransactionManager} that binds
+ * a simple resource to the {@link TransactionContext} and counts its callbacks.
+ */
+public class ReactiveTestTransactionManager extends AbstractReactiveTransactionManager {
+
+	private final boolean canCreateTransaction;
+
+	private int begin;
+
+	private int commit;
+
+	private int rollback;
+
+	private int rollbackOnly;
+
+	private int suspend;
+
+	private int resume;
+
+
+	public ReactiveTestTransactionManager() {
+		this(true);
+	}
+
+	public ReactiveTestTransactionManager(boolean canCreateTransaction) {
+		this.canCreateTransaction = canCreateTransaction;
+	}
+
+
+	public int getBeginCount() {
+		return this.begin;
+	}
+
+	public int getCommitCount() {
+		return this.commit;
+	}
+
+	public int getRollbackCount() {
+		return this.rollback;
+	}
+
+	public int getRollbackOnlyCount() {
+		return this.rollbackOnly;
+	}
+
+	public int getSuspendCount() {
+		return this.suspend;
+	}
+
+	public int getResumeCount() {
+		return this.resume;
+	}
+
+
+	@Override
+	protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+		return new TestTransaction((TestResource) synchronizationManager.getResource(this));
+	}
+
+	@Override
+	protected boolean isExistingTransaction(Object transaction) {
+		return (((TestTransaction) transaction).resource != null);
+	}
+
+	@Override
+	protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager,
+			Object transaction, TransactionDefinition definition) {
+
+		if (!this.canCreateTransaction) {
+			return Mono.error(new CannotCreateTransactionException("Cannot create transaction"));
+		}
+		return Mono.fromRunnable(() -> {
+			this.begin++;
+			TestResource resource = new TestResource();
+			((TestTransaction) transaction).resource = resource;
+			synchronizationManager.bindResource(this, resource);
+		});
+	}
+
+	@Override
+	protected Mono<Object> doSuspend(TransactionSynchronizationManager synchronizationManager, Object transaction) {
+		return Mono.fromSupplier(() -> {
+			this.suspend++;
+			((TestTransaction) transaction).resource = null;
+			return synchronizationManager.unbindResource(this);
+		});
+	}
+
+	@Override
+	protected Mono<Void> doResume(TransactionSynchronizationManager synchronizationManager,
+			@Nullable Object transaction, Object suspendedResources) {
+
+		return Mono.fromRunnable(() -> {
+			this.resume++;
+			synchronizationManager.bindResource(this, suspendedResources);
+		});
+	}
+
+	@Override
+	protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		return Mono.fromRunnable(() -> this.commit++);
+	}
+
+	@Override
+	protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		return Mono.fromRunnable(() -> this.rollback++);
+	}
+
+	@Override
+	protected Mono<Void> doSetRollbackOnly(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) {
+
+		return Mono.fromRunnable(() -> {
+			this.rollbackOnly++;
+			((TestTransaction) status.getTransaction()).resource.rollbackOnly = true;
+		});
+	}
+
+	@Override
+	protected Mono<Void> doCleanupAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+			Object transaction) {
+
+		return Mono.fromRunnable(() -> synchronizationManager.unbindResource(this));
+	}
+
+
+	private static class TestTransaction implements SmartTransactionObject {
+
+		@Nullable
+		private TestResource resource;
+
+		TestTransaction(@Nullable TestResource resource) {
+			this.resource = resource;
+		}
+
+		@Override
+		public boolean isRollbackOnly() {
+			return (this.resource != null && this.resource.rollbackOnly);
+		}
+
+		@Override
+		public void flush() {
+		}
+	}
+
+
+	private static class TestResource {
+
+		private boolean rollbackOnly;
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import java.time.Duration;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TransactionalOperator} and {@link AbstractReactiveTransactionManager}.
+ */
+public class TransactionalOperatorTests {
+
+	private final ReactiveTestTransactionManager tm = new ReactiveTestTransactionManager();
+
+
+	@Test
+	public void commitWithMono() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(Mono.just(true))).expectNext(true).verifyComplete();
+		assertEquals(1, this.tm.getBeginCount());
+		assertEquals(1, this.tm.getCommitCount());
+		assertEquals(0, this.tm.getRollbackCount());
+	}
+
+	@Test
+	public void commitWithFlux() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(Flux.just(1, 2, 3))).expectNext(1, 2, 3).verifyComplete();
+		assertEquals(1, this.tm.getCommitCount());
+		assertEquals(0, this.tm.getRollbackCount());
+	}
+
+	@Test
+	public void rollbackWithError() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(Mono.error(new IllegalStateException())))
+				.verifyError(IllegalStateException.class);
+		assertEquals(0, this.tm.getCommitCount());
+		assertEquals(1, this.tm.getRollbackCount());
+	}
+
+	@Test
+	public void rollbackWithCancel() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.transactional(Flux.just(1, 2, 3)).take(1)).expectNext(1).verifyComplete();
+		assertEquals(0, this.tm.getCommitCount());
+		assertEquals(1, this.tm.getRollbackCount());
+	}
+
+	@Test
+	public void cancelAfterCommitStartedDoesNotRollBack() throws Exception {
+		ReactiveTestTransactionManager tm = new ReactiveTestTransactionManager() {
+			@Override
+			protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+					GenericReactiveTransaction status) {
+				return Mono.delay(Duration.ofMillis(50)).then(super.doCommit(synchronizationManager, status));
+			}
+		};
+		TransactionalOperator operator = TransactionalOperator.create(tm);
+		Disposable subscription = operator.transactional(Mono.just(true)).subscribe();
+		subscription.dispose();
+		Thread.sleep(100);
+		assertEquals(1, tm.getBeginCount());
+		assertEquals(0, tm.getRollbackCount());
+	}
+
+	@Test
+	public void rollbackOnlyWithExecute() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		StepVerifier.create(operator.execute(status -> {
+			status.setRollbackOnly();
+			return Mono.just(true);
+		})).expectNext(true).verifyComplete();
+		assertEquals(0, this.tm.getCommitCount());
+		assertEquals(1, this.tm.getRollbackCount());
+	}
+
+	@Test
+	public void contextPropagatedToPipeline() {
+		TransactionDefinition definition = new DefaultTransactionDefinition();
+		((DefaultTransactionDefinition) definition).setName("myTx");
+		((DefaultTransactionDefinition) definition).setReadOnly(true);
+		TransactionalOperator operator = TransactionalOperator.create(this.tm, definition);
+
+		Mono<String> resource = TransactionSynchronizationManager.forCurrentTransaction()
+				.filter(synchronizationManager -> synchronizationManager.hasResource(this.tm) &&
+						synchronizationManager.isActualTransactionActive() &&
+						synchronizationManager.isCurrentTransactionReadOnly())
+				.map(TransactionSynchronizationManager::getCurrentTransactionName);
+		StepVerifier.create(operator.transactional(resource)).expectNext("myTx").verifyComplete();
+
+		StepVerifier.create(TransactionSynchronizationManager.forCurrentTransaction())
+				.verifyError(NoTransactionException.class);
+	}
+
+	@Test
+	public void participatingTransactionWithRollbackOnly() {
+		TransactionalOperator operator = TransactionalOperator.create(this.tm);
+		Mono<Boolean> inner = operator.transactional(Mono.error(new IllegalStateException()));
+		StepVerifier.create(operator.transactional(inner.onErrorReturn(false)))
+				.verifyError(UnexpectedRollbackException.class);
+		assertEquals(1, this.tm.getBeginCount());
+		assertEquals(1, this.tm.getRollbackOnlyCount());
+		assertEquals(0, this.tm.getCommitCount());
+		assertEquals(1, this.tm.getRollbackCount());
+	}
+
+	@Test
+	public void requiresNewTransaction() {
+		DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+		definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		TransactionalOperator outer = TransactionalOperator.create(this.tm);
+		TransactionalOperator inner = TransactionalOperator.create(this.tm, definition);
+
+		Mono<Boolean> resumed = TransactionSynchronizationManager.forCurrentTransaction()
+				.map(synchronizationManager -> synchronizationManager.hasResource(this.tm));
+		StepVerifier.create(outer.transactional(inner.transactional(Mono.just(true)).then(resumed)))
+				.expectNext(true).verifyComplete();
+		assertEquals(2, this.tm.getBeginCount());
+		assertEquals(1, this.tm.getSuspendCount());
+		assertEquals(1, this.tm.getResumeCount());
+		assertEquals(2, this.tm.getCommitCount());
+	}
+
+	@Test
+	public void requiresNewTransactionsWithinFlatMap() {
+		DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+		definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		TransactionalOperator outer = TransactionalOperator.create(this.tm);
+		TransactionalOperator inner = TransactionalOperator.create(this.tm, definition);
+
+		Mono<Object> currentResource = TransactionSynchronizationManager.forCurrentTransaction()
+				.map(synchronizationManager -> synchronizationManager.getResource(this.tm));
+		Flux<Object> innerResources = Flux.range(1, 3).flatMap(i -> inner.transactional(
+				Mono.delay(Duration.ofMillis(10 * i)).then(currentResource)));
+		Mono<Boolean> outerResourceRetained = currentResource.flatMap(before ->
+				innerResources.collectList().flatMap(resources -> {
+					assertEquals(3, resources.size());
+					assertFalse(resources.contains(before));
+					return currentResource.map(after -> after == before);
+				}));
+		StepVerifier.create(outer.transactional(outerResourceRetained)).expectNext(true).verifyComplete();
+		assertEquals(4, this.tm.getBeginCount());
+		assertEquals(3, this.tm.getSuspendCount());
+		assertEquals(3, this.tm.getResumeCount());
+		assertEquals(4, this.tm.getCommitCount());
+	}
+
+	@Test
+	public void mandatoryWithoutTransaction() {
+		DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+		definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_MANDATORY);
+		TransactionalOperator operator = TransactionalOperator.create(this.tm, definition);
+		StepVerifier.create(operator.transactional(Mono.just(true)))
+				.verifyError(IllegalTransactionStateException.class);
+		assertEquals(0, this.tm.getBeginCount());
+	}
+
+}
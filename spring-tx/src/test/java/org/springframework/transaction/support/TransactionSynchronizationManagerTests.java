@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.support;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.core.InfrastructureProxy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the thread-bound state kept by {@link TransactionSynchronizationManager}.
+ */
+public class TransactionSynchronizationManagerTests {
+
+	@After
+	public void verifyCleanup() {
+		assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+		assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+	}
+
+
+	@Test
+	public void bindAndUnbindMultipleResources() {
+		Object[] keys = new Object[10];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new Object();
+			TransactionSynchronizationManager.bindResource(keys[i], "value" + i);
+		}
+		assertEquals(keys.length, TransactionSynchronizationManager.getResourceMap().size());
+		for (int i = 0; i < keys.length; i += 2) {
+			assertEquals("value" + i, TransactionSynchronizationManager.unbindResource(keys[i]));
+		}
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i % 2 != 0, TransactionSynchronizationManager.hasResource(keys[i]));
+		}
+		for (int i = 1; i < keys.length; i += 2) {
+			assertEquals("value" + i, TransactionSynchronizationManager.getResource(keys[i]));
+			assertEquals("value" + i, TransactionSynchronizationManager.unbindResourceIfPossible(keys[i]));
+		}
+		assertNull(TransactionSynchronizationManager.unbindResourceIfPossible(keys[0]));
+	}
+
+	@Test
+	public void bindResourceTwice() {
+		Object key = new Object();
+		TransactionSynchronizationManager.bindResource(key, "value");
+		try {
+			TransactionSynchronizationManager.bindResource(key, "otherValue");
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		finally {
+			TransactionSynchronizationManager.unbindResource(key);
+		}
+	}
+
+	@Test
+	public void resourceWithInfrastructureProxyKey() {
+		Object key = new Object();
+		InfrastructureProxy proxy = () -> key;
+		TransactionSynchronizationManager.bindResource(proxy, "value");
+		assertEquals("value", TransactionSynchronizationManager.getResource(key));
+		assertEquals("value", TransactionSynchronizationManager.getResource(proxy));
+		assertEquals(key, TransactionSynchronizationManager.getResourceMap().keySet().iterator().next());
+		assertEquals("value", TransactionSynchronizationManager.unbindResource(key));
+		assertFalse(TransactionSynchronizationManager.hasResource(proxy));
+	}
+
+	@Test
+	public void voidResourceHolderRemoved() {
+		Object key = new Object();
+		ResourceHolderSupport holder = new ResourceHolderSupport() {};
+		TransactionSynchronizationManager.bindResource(key, holder);
+		holder.unbound();
+		assertNull(TransactionSynchronizationManager.getResource(key));
+		assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+	}
+
+	@Test
+	public void synchronizationsRegisteredOnce() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			TransactionSynchronization synchronization = new TransactionSynchronizationAdapter() {};
+			TransactionSynchronizationManager.registerSynchronization(synchronization);
+			TransactionSynchronizationManager.registerSynchronization(synchronization);
+			assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {});
+			assertEquals(2, TransactionSynchronizationManager.getSynchronizations().size());
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void suspendAndResumeCharacteristics() {
+		TransactionSynchronizationManager.initTransaction("tx", true, 2, true);
+		TransactionSynchronizationManager.TransactionState suspended =
+				TransactionSynchronizationManager.suspendCharacteristics();
+		assertNull(TransactionSynchronizationManager.getCurrentTransactionName());
+		assertFalse(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+		assertNull(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel());
+		assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+
+		TransactionSynchronizationManager.resumeCharacteristics(suspended);
+		assertEquals("tx", TransactionSynchronizationManager.getCurrentTransactionName());
+		assertTrue(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+		assertEquals(Integer.valueOf(2), TransactionSynchronizationManager.getCurrentTransactionIsolationLevel());
+		assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+		assertTrue(TransactionSynchronizationManager.isSynchronizationActive());
+
+		TransactionSynchronizationManager.clear();
+		assertNull(TransactionSynchronizationManager.getCurrentTransactionName());
+		assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+	}
+
+}